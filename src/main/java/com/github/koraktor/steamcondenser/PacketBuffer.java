@@ -8,8 +8,8 @@
 package com.github.koraktor.steamcondenser;
 
 import java.nio.ByteBuffer;
-
-import org.apache.commons.lang3.ArrayUtils;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * A convenience class wrapping around {@link ByteBuffer} used for easy
@@ -19,6 +19,8 @@ import org.apache.commons.lang3.ArrayUtils;
  */
 public class PacketBuffer {
 
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
     private ByteBuffer byteBuffer;
 
     /**
@@ -31,12 +33,38 @@ public class PacketBuffer {
     }
 
     /**
-     * Returns the backing byte array of the underlying byte buffer
+     * Creates a new packet buffer from the remaining data of the given byte
+     * buffer
+     * <p>
+     * The data is not copied, the packet buffer is a view of the given
+     * buffer's remaining content.
+     *
+     * @param data The data to create a view of
+     */
+    public PacketBuffer(ByteBuffer data) {
+        this.byteBuffer = data.slice();
+    }
+
+    /**
+     * Returns the content of the underlying byte buffer
+     * <p>
+     * This is the backing byte array if the buffer is not a view of a
+     * larger buffer, otherwise a copy of the buffer's content.
      *
-     * @return The backing byte array
+     * @return The content of this buffer
      */
     public byte[] array() {
-        return this.byteBuffer.array();
+        if (this.byteBuffer.hasArray() && this.byteBuffer.arrayOffset() == 0 &&
+            this.byteBuffer.array().length == this.byteBuffer.capacity()) {
+            return this.byteBuffer.array();
+        }
+
+        byte[] content = new byte[this.byteBuffer.capacity()];
+        ByteBuffer view = this.byteBuffer.duplicate();
+        view.clear();
+        view.get(content);
+
+        return content;
     }
 
     /**
@@ -79,24 +107,36 @@ public class PacketBuffer {
      * Returns a string value from the buffer's current position
      * <p>
      * This reads the bytes up to the first zero-byte of the underlying byte
-     * buffer into a String
+     * buffer into a UTF-8 encoded String. The terminating zero-byte is
+     * searched in place, so only the resulting String is allocated.
      *
-     * @return A string value
+     * @return A string value or <code>null</code> if there's no terminating
+     *         zero-byte
      */
     public String getString() {
-        byte[] remainingBytes = new byte[this.byteBuffer.remaining()];
-        this.byteBuffer.slice().get(remainingBytes);
-        int zeroPosition = ArrayUtils.indexOf(remainingBytes, (byte) 0);
+        int position = this.byteBuffer.position();
+        int limit = this.byteBuffer.limit();
+        int zeroPosition = position;
+        while (zeroPosition < limit && this.byteBuffer.get(zeroPosition) != 0) {
+            zeroPosition ++;
+        }
 
-        if (zeroPosition == ArrayUtils.INDEX_NOT_FOUND) {
+        if (zeroPosition == limit) {
             return null;
-        } else {
-            byte[] stringBytes = new byte[zeroPosition];
-            System.arraycopy(remainingBytes, 0, stringBytes, 0, zeroPosition);
-            this.byteBuffer.position(this.byteBuffer.position() + zeroPosition + 1);
+        }
 
-            return new String(stringBytes);
+        int length = zeroPosition - position;
+        String string;
+        if (this.byteBuffer.hasArray()) {
+            string = new String(this.byteBuffer.array(), this.byteBuffer.arrayOffset() + position, length, CHARSET);
+        } else {
+            byte[] stringBytes = new byte[length];
+            this.byteBuffer.get(stringBytes);
+            string = new String(stringBytes, CHARSET);
         }
+        this.byteBuffer.position(zeroPosition + 1);
+
+        return string;
     }
 
     /**
@@ -0,0 +1,313 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+/**
+ * This class resolves host names of servers and caches the results
+ * <p>
+ * Successful lookups are cached for the configured time to live, failed
+ * lookups are cached for a shorter time, so unresolvable host names don't
+ * cause a lookup each time they're used. Lookups run on background threads
+ * and concurrent lookups of the same host name are combined. IP address
+ * literals are never looked up. Reverse lookups are never done.
+ * <p>
+ * Java does not expose the time to live of DNS records, so cached entries
+ * expire after a fixed time instead.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see Server#setAddressResolver
+ */
+public class AddressResolver {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(AddressResolver.class);
+
+    private static final Pattern IPV4_LITERAL = Pattern.compile("^\\d{1,3}(\\.\\d{1,3}){3}$");
+
+    private static AddressResolver sharedResolver;
+
+    private final ConcurrentHashMap<String, Resolution> cache;
+
+    private final ThreadPoolExecutor executor;
+
+    private volatile long negativeTtl;
+
+    private final ConcurrentHashMap<String, QueryFuture<List<InetAddress>>> pending;
+
+    private volatile long ttl;
+
+    /**
+     * Returns the resolver that is used by server objects by default
+     * <p>
+     * The shared resolver caches resolved host names for 30 seconds and
+     * failed lookups for 10 seconds, like the JVM does by default, using up
+     * to four lookup threads.
+     *
+     * @return The shared address resolver
+     */
+    public static synchronized AddressResolver getShared() {
+        if (sharedResolver == null) {
+            sharedResolver = new AddressResolver(30000, 10000, 4);
+        }
+
+        return sharedResolver;
+    }
+
+    /**
+     * Returns whether the given host is an IP address literal that doesn't
+     * need to be looked up
+     *
+     * @param host The host name or IP address
+     * @return <code>true</code> if the host is an IP address
+     */
+    static boolean isLiteral(String host) {
+        return host.indexOf(':') >= 0 || IPV4_LITERAL.matcher(host).matches();
+    }
+
+    /**
+     * Creates a new address resolver
+     *
+     * @param ttl The number of milliseconds successful lookups are cached
+     * @param negativeTtl The number of milliseconds failed lookups are
+     *        cached
+     * @param threads The maximum number of lookups running at the same time
+     */
+    public AddressResolver(long ttl, long negativeTtl, int threads) {
+        this.cache       = new ConcurrentHashMap<>();
+        this.negativeTtl = negativeTtl;
+        this.pending     = new ConcurrentHashMap<>();
+        this.ttl         = ttl;
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "steam-condenser-resolver");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Removes all cached lookups
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * Returns the time failed lookups are cached
+     *
+     * @return The negative time to live in milliseconds
+     */
+    public long getNegativeTtl() {
+        return this.negativeTtl;
+    }
+
+    /**
+     * Returns the time successful lookups are cached
+     *
+     * @return The time to live in milliseconds
+     */
+    public long getTtl() {
+        return this.ttl;
+    }
+
+    /**
+     * Resolves the given host name and waits for the result
+     *
+     * @param host The host name or IP address to resolve
+     * @return The IP addresses of the host
+     * @throws SteamCondenserException if the host name cannot be resolved
+     */
+    public List<InetAddress> resolve(String host)
+            throws SteamCondenserException {
+        try {
+            return this.resolveAsync(host).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SteamCondenserException) {
+                throw (SteamCondenserException) e.getCause();
+            }
+            throw new SteamCondenserException("Cannot resolve " + host + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteamCondenserException("Interrupted while resolving " + host + ".", e);
+        }
+    }
+
+    /**
+     * Resolves the given host name in the background
+     * <p>
+     * If the host is an IP address or its lookup is cached, the returned
+     * future is already completed.
+     *
+     * @param host The host name or IP address to resolve
+     * @return A future for the IP addresses of the host
+     */
+    public QueryFuture<List<InetAddress>> resolveAsync(final String host) {
+        QueryFuture<List<InetAddress>> future = new QueryFuture<>(this.executor);
+
+        if (isLiteral(host)) {
+            this.finish(host, future, this.lookupLiteral(host));
+            return future;
+        }
+
+        Resolution resolution = this.cache.get(host);
+        if (resolution != null) {
+            if (resolution.expiresAt > System.currentTimeMillis()) {
+                this.finish(host, future, resolution);
+                return future;
+            }
+            this.cache.remove(host, resolution);
+        }
+
+        QueryFuture<List<InetAddress>> pendingFuture = this.pending.putIfAbsent(host, future);
+        if (pendingFuture != null) {
+            return pendingFuture;
+        }
+
+        final QueryFuture<List<InetAddress>> lookupFuture = future;
+        this.executor.execute(new Runnable() {
+            public void run() {
+                Resolution resolution = AddressResolver.this.lookupAndCache(host);
+                AddressResolver.this.pending.remove(host, lookupFuture);
+                AddressResolver.this.finish(host, lookupFuture, resolution);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Sets the time failed lookups are cached
+     *
+     * @param negativeTtl The negative time to live in milliseconds
+     */
+    public void setNegativeTtl(long negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    /**
+     * Sets the time successful lookups are cached
+     *
+     * @param ttl The time to live in milliseconds
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the number of cached lookups
+     *
+     * @return The number of cached lookups
+     */
+    public int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Looks up the IP addresses of the given host name
+     *
+     * @param host The host name to look up
+     * @return The IP addresses of the host
+     * @throws UnknownHostException if the host name cannot be resolved
+     */
+    protected List<InetAddress> lookup(String host)
+            throws UnknownHostException {
+        return Arrays.asList(InetAddress.getAllByName(host));
+    }
+
+    /**
+     * Completes the given future with the given lookup result
+     *
+     * @param host The host name that has been looked up
+     * @param future The future to complete
+     * @param resolution The result of the lookup
+     */
+    private void finish(String host, QueryFuture<List<InetAddress>> future, Resolution resolution) {
+        if (resolution.addresses != null) {
+            future.complete(resolution.addresses);
+        } else {
+            future.fail(new SteamCondenserException("Cannot resolve " + host + ": " + resolution.error));
+        }
+    }
+
+    /**
+     * Looks up the given host name and caches the result
+     *
+     * @param host The host name to look up
+     * @return The result of the lookup
+     */
+    private Resolution lookupAndCache(String host) {
+        Resolution resolution;
+        try {
+            List<InetAddress> addresses = Collections.unmodifiableList(this.lookup(host));
+            resolution = new Resolution(addresses, null, System.currentTimeMillis() + this.ttl);
+        } catch (UnknownHostException | RuntimeException e) {
+            LOG.debug("Resolving " + host + " failed: " + e.getMessage());
+            resolution = new Resolution(null, e.getMessage(), System.currentTimeMillis() + this.negativeTtl);
+        }
+
+        this.cache.put(host, resolution);
+
+        return resolution;
+    }
+
+    /**
+     * Converts the given IP address literal without a lookup
+     *
+     * @param host The IP address
+     * @return The result of the conversion
+     */
+    private Resolution lookupLiteral(String host) {
+        try {
+            return new Resolution(Collections.singletonList(InetAddress.getByName(host)), null, 0);
+        } catch (UnknownHostException e) {
+            return new Resolution(null, e.getMessage(), 0);
+        }
+    }
+
+    /**
+     * This class represents the cached result of a lookup
+     */
+    private static class Resolution {
+
+        final List<InetAddress> addresses;
+
+        final String error;
+
+        final long expiresAt;
+
+        Resolution(List<InetAddress> addresses, String error, long expiresAt) {
+            this.addresses = addresses;
+            this.error     = error;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
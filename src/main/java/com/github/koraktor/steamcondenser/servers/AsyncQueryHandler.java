@@ -0,0 +1,380 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_PLAYER_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_RULES_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.S2A_INFO_BasePacket;
+import com.github.koraktor.steamcondenser.servers.packets.S2A_PLAYER_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.S2A_RULES_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.S2C_CHALLENGE_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
+import com.github.koraktor.steamcondenser.servers.sockets.DatagramHandler;
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
+import com.github.koraktor.steamcondenser.servers.sockets.QuerySocket;
+import com.github.koraktor.steamcondenser.servers.sockets.SplitPacketAssembler;
+import com.github.koraktor.steamcondenser.servers.sockets.SteamSocket;
+
+/**
+ * This class handles the asynchronous queries of a single game server
+ * <p>
+ * Requests are sent using a {@link QueryReactor} and replies are dispatched
+ * to the pending requests of the matching type by the reactor's selector
+ * thread, so no thread is blocked while waiting for a server. The futures
+ * are completed with the typed results, so no maps are built on the
+ * reactor's thread.
+ * <p>
+ * The reactor accepts only a single handler per server. If the query socket
+ * of the server uses the same reactor, the replies received for the socket
+ * are dispatched to this handler while asynchronous requests are pending.
+ * Otherwise a query socket for the server can't be created on this reactor
+ * until these requests have been answered.
+ *
+ * @author Sebastian Staudt
+ * @see GameServer#updateServerInfoAsync
+ */
+class AsyncQueryHandler implements DatagramHandler {
+
+    static final int REQUEST_PING = 4;
+
+    protected static final Logger LOG = LoggerFactory.getLogger(AsyncQueryHandler.class);
+
+    private final InetSocketAddress address;
+
+    private QuerySocket divertingSocket;
+
+    private final Map<Integer, PendingRequest> pendingRequests;
+
+    private final QueryReactor reactor;
+
+    private boolean registered;
+
+    private final GameServer server;
+
+    private final SplitPacketAssembler splitPackets;
+
+    /**
+     * Creates a new handler for the asynchronous queries of the given server
+     *
+     * @param server The server to query
+     * @param address The address of the server
+     * @param reactor The reactor to send requests with
+     */
+    AsyncQueryHandler(GameServer server, InetSocketAddress address, QueryReactor reactor) {
+        this.address         = address;
+        this.pendingRequests = new HashMap<>();
+        this.reactor         = reactor;
+        this.registered      = false;
+        this.server          = server;
+        this.splitPackets    = new SplitPacketAssembler(server instanceof GoldSrcServer);
+    }
+
+    /**
+     * Returns the address of the server queried by this handler
+     *
+     * @return The address of the server
+     */
+    InetSocketAddress getAddress() {
+        return this.address;
+    }
+
+    /**
+     * Returns the number of requests currently waiting for a reply
+     *
+     * @return The number of pending requests
+     */
+    synchronized int getPendingRequests() {
+        return this.pendingRequests.size();
+    }
+
+    public synchronized void handleDatagram(InetSocketAddress address, ByteBuffer data) {
+        try {
+            SteamPacket packet = this.decode(data);
+            if (packet != null) {
+                this.handlePacket(packet);
+            }
+        } catch (SteamCondenserException | RuntimeException e) {
+            LOG.warn("Dropped invalid reply from " + address + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts an asynchronous request of the given type
+     * <p>
+     * Concurrent requests of the same type share a single request packet and
+     * are completed by the same reply.
+     *
+     * @param requestType The type of the request
+     * @param executor The executor to run the callbacks of the future with
+     * @param <T> The type of the request's result
+     * @return A future for the result of the request
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> QueryFuture<T> query(final int requestType, Executor executor) {
+        final QueryFuture<Object> future = new QueryFuture<>(executor);
+        future.setCancelHandler(new Runnable() {
+            public void run() {
+                AsyncQueryHandler.this.cancel(requestType, future);
+            }
+        });
+
+        PendingRequest request = this.pendingRequests.get(requestType);
+        if (request == null) {
+            request = new PendingRequest(requestType);
+            this.pendingRequests.put(requestType, request);
+            request.futures.add(future);
+
+            try {
+                if (!this.registered) {
+                    this.register();
+                }
+                this.send(request);
+            } catch (SteamCondenserException | RuntimeException e) {
+                this.fail(request, e);
+            }
+        } else {
+            request.futures.add(future);
+        }
+
+        return (QueryFuture<T>) (QueryFuture<?>) future;
+    }
+
+    /**
+     * Removes a cancelled future from the request it is waiting for
+     *
+     * @param requestType The type of the request
+     * @param future The cancelled future
+     */
+    private synchronized void cancel(int requestType, QueryFuture<Object> future) {
+        PendingRequest request = this.pendingRequests.get(requestType);
+        if (request != null && request.futures.remove(future) && request.futures.isEmpty()) {
+            this.remove(request);
+        }
+    }
+
+    /**
+     * Decodes a single datagram replied by the server
+     *
+     * @param data The data of the datagram
+     * @return The packet replied by the server or <code>null</code> if more
+     *         fragments of a split packet are required
+     * @throws SteamCondenserException if the data cannot be decoded
+     */
+    private SteamPacket decode(ByteBuffer data) throws SteamCondenserException {
+        int header = Integer.reverseBytes(data.getInt());
+
+        if (header == 0xFFFFFFFF) {
+            return SteamPacketFactory.getPacketFromData(data);
+        } else if (header != 0xFFFFFFFE) {
+            throw new PacketFormatException("Unknown packet header 0x" + Integer.toHexString(header) + ".");
+        }
+
+        return this.splitPackets.addFragment(data);
+    }
+
+    /**
+     * Fails all futures waiting for the given request
+     *
+     * @param request The failed request
+     * @param error The error that caused the request to fail
+     */
+    private void fail(PendingRequest request, Throwable error) {
+        this.remove(request);
+
+        for (QueryFuture<Object> future : request.futures) {
+            future.fail(error);
+        }
+    }
+
+    /**
+     * Completes all futures waiting for the given request
+     *
+     * @param requestType The type of the request
+     * @param result The result of the request
+     */
+    private void finish(int requestType, Object result) {
+        PendingRequest request = this.pendingRequests.get(requestType);
+        if (request == null) {
+            return;
+        }
+
+        this.remove(request);
+
+        for (QueryFuture<Object> future : request.futures) {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * Handles a packet replied by the server and completes the requests
+     * waiting for this type of reply
+     *
+     * @param packet The packet replied by the server
+     * @throws SteamCondenserException if a request cannot be repeated
+     */
+    private void handlePacket(SteamPacket packet) throws SteamCondenserException {
+        if (packet instanceof S2A_INFO_BasePacket) {
+            PendingRequest pingRequest = this.pendingRequests.get(REQUEST_PING);
+            if (pingRequest != null) {
+                int ping = (int) (System.currentTimeMillis() - pingRequest.sentAt);
+                this.server.ping = ping;
+                this.finish(REQUEST_PING, ping);
+            }
+            this.server.handleResponse(packet);
+            this.finish(GameServer.REQUEST_INFO, ((S2A_INFO_BasePacket) packet).getServerInfo());
+        } else if (packet instanceof S2A_PLAYER_Packet) {
+            this.server.handleResponse(packet);
+            this.finish(GameServer.REQUEST_PLAYER, ((S2A_PLAYER_Packet) packet).getPlayerList());
+        } else if (packet instanceof S2A_RULES_Packet) {
+            this.server.handleResponse(packet);
+            this.finish(GameServer.REQUEST_RULES, ((S2A_RULES_Packet) packet).getRules());
+        } else if (packet instanceof S2C_CHALLENGE_Packet) {
+            this.server.handleResponse(packet);
+            for (PendingRequest request : new ArrayList<>(this.pendingRequests.values())) {
+                if (!request.challenged && request.challengeNumber != this.server.challengeNumber) {
+                    request.challenged = true;
+                    this.send(request);
+                }
+            }
+        } else {
+            LOG.warn("Unexpected reply of type \"" + packet.getClass().getSimpleName() + "\" from " + this.address + ".");
+        }
+    }
+
+    /**
+     * Registers this handler for the replies of the server
+     * <p>
+     * If the query socket of the server uses the same reactor, its
+     * registration is shared instead.
+     *
+     * @throws SteamCondenserException if another handler is registered for
+     *         the server
+     * @see QuerySocket#divertDatagrams
+     */
+    private void register() throws SteamCondenserException {
+        QuerySocket socket = this.server.socket;
+        if (socket != null && socket.getReactor() == this.reactor &&
+                socket.divertDatagrams(this)) {
+            this.divertingSocket = socket;
+        } else {
+            this.reactor.register(this.address, this);
+        }
+        this.registered = true;
+    }
+
+    /**
+     * Removes the given request and unregisters this handler from the
+     * reactor if there are no more pending requests
+     *
+     * @param request The request to remove
+     */
+    private void remove(PendingRequest request) {
+        if (request.timeoutTask != null) {
+            request.timeoutTask.cancel(false);
+        }
+        this.pendingRequests.remove(request.requestType);
+
+        if (this.pendingRequests.isEmpty() && this.registered) {
+            this.splitPackets.clear();
+            if (this.divertingSocket != null) {
+                this.divertingSocket.divertDatagrams(null);
+                this.divertingSocket = null;
+            } else {
+                this.reactor.unregister(this.address, this);
+            }
+            this.registered = false;
+        }
+    }
+
+    /**
+     * Sends the packet for the given request and schedules its timeout
+     *
+     * @param request The request to send
+     * @throws SteamCondenserException if the request cannot be sent
+     */
+    private void send(final PendingRequest request) throws SteamCondenserException {
+        SteamPacket requestPacket;
+        request.challengeNumber = request.challenged ?
+            this.server.challengeNumber : this.server.currentChallengeNumber();
+        switch (request.requestType) {
+            case GameServer.REQUEST_PLAYER:
+                requestPacket = new A2S_PLAYER_Packet(request.challengeNumber);
+                break;
+            case GameServer.REQUEST_RULES:
+                requestPacket = new A2S_RULES_Packet(request.challengeNumber);
+                break;
+            default:
+                requestPacket = GameServer.infoRequest(request.challengeNumber);
+        }
+
+        if (request.timeoutTask != null) {
+            request.timeoutTask.cancel(false);
+        }
+        request.timeoutTask = this.reactor.schedule(new Runnable() {
+            public void run() {
+                AsyncQueryHandler.this.timeout(request);
+            }
+        }, SteamSocket.getTimeout());
+
+        request.sentAt = System.currentTimeMillis();
+        this.reactor.send(this.address, ByteBuffer.wrap(requestPacket.getBytes()));
+    }
+
+    /**
+     * Fails the given request if it is still waiting for a reply
+     *
+     * @param request The request that timed out
+     */
+    private synchronized void timeout(PendingRequest request) {
+        if (this.pendingRequests.get(request.requestType) == request) {
+            this.fail(request, new TimeoutException());
+        }
+    }
+
+    /**
+     * This class represents a request waiting for the server's reply
+     */
+    private static class PendingRequest {
+
+        boolean challenged;
+
+        int challengeNumber;
+
+        final List<QueryFuture<Object>> futures;
+
+        final int requestType;
+
+        long sentAt;
+
+        ScheduledFuture<?> timeoutTask;
+
+        PendingRequest(int requestType) {
+            this.challenged      = false;
+            this.challengeNumber = ChallengeManager.NO_CHALLENGE;
+            this.futures         = new ArrayList<>();
+            this.requestType     = requestType;
+        }
+
+    }
+
+}
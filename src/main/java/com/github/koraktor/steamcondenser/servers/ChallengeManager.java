@@ -0,0 +1,178 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class caches the challenge numbers assigned by game servers
+ * <p>
+ * Game servers require a challenge number for A2S_PLAYER and A2S_RULES
+ * requests and newer servers also for A2S_INFO requests. A server assigns
+ * the same challenge number for all of these requests, so a cached number
+ * can be sent right away instead of asking for a new one first. Cached
+ * numbers are only used until they expire.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see GameServer#updateChallengeNumber
+ */
+public class ChallengeManager {
+
+    /**
+     * The value used in requests if no challenge number is known
+     */
+    public static final int NO_CHALLENGE = -1;
+
+    private static ChallengeManager sharedManager;
+
+    private final ConcurrentHashMap<InetSocketAddress, Challenge> challenges;
+
+    private volatile long ttl;
+
+    /**
+     * Returns the manager that is used by game servers and server scanners
+     * by default
+     * <p>
+     * Challenge numbers cached by the shared manager expire after 60
+     * seconds.
+     *
+     * @return The shared challenge manager
+     */
+    public static synchronized ChallengeManager getShared() {
+        if (sharedManager == null) {
+            sharedManager = new ChallengeManager(60000);
+        }
+
+        return sharedManager;
+    }
+
+    /**
+     * Creates a new challenge manager
+     *
+     * @param ttl The number of milliseconds after which a cached challenge
+     *        number expires
+     */
+    public ChallengeManager(long ttl) {
+        this.challenges = new ConcurrentHashMap<>();
+        this.ttl        = ttl;
+    }
+
+    /**
+     * Removes all cached challenge numbers
+     */
+    public void clear() {
+        this.challenges.clear();
+    }
+
+    /**
+     * Returns the cached challenge number of the server with the given
+     * address
+     *
+     * @param address The address of the server
+     * @return The challenge number of the server or {@link #NO_CHALLENGE} if
+     *         no challenge number is cached or it has expired
+     */
+    public int get(InetSocketAddress address) {
+        Challenge challenge = this.challenges.get(address);
+        if (challenge == null) {
+            return NO_CHALLENGE;
+        }
+
+        if (System.currentTimeMillis() - challenge.receivedAt > this.ttl) {
+            this.challenges.remove(address, challenge);
+            return NO_CHALLENGE;
+        }
+
+        return challenge.number;
+    }
+
+    /**
+     * Returns the time after which cached challenge numbers expire
+     *
+     * @return The expiry time in milliseconds
+     */
+    public long getTtl() {
+        return this.ttl;
+    }
+
+    /**
+     * Removes the cached challenge number of the server with the given
+     * address
+     *
+     * @param address The address of the server
+     */
+    public void invalidate(InetSocketAddress address) {
+        this.challenges.remove(address);
+    }
+
+    /**
+     * Removes all expired challenge numbers
+     * <p>
+     * Expired numbers are also removed when they are looked up, so this is
+     * only needed to limit the memory used after querying a lot of servers.
+     */
+    public void purge() {
+        long now = System.currentTimeMillis();
+        Iterator<Challenge> iterator = this.challenges.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().receivedAt > this.ttl) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Caches the challenge number assigned by the server with the given
+     * address
+     *
+     * @param address The address of the server
+     * @param challengeNumber The challenge number received from the server
+     */
+    public void put(InetSocketAddress address, int challengeNumber) {
+        this.challenges.put(address, new Challenge(challengeNumber, System.currentTimeMillis()));
+    }
+
+    /**
+     * Sets the time after which cached challenge numbers expire
+     *
+     * @param ttl The expiry time in milliseconds
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the number of cached challenge numbers
+     *
+     * @return The number of cached challenge numbers
+     */
+    public int size() {
+        return this.challenges.size();
+    }
+
+    /**
+     * This class represents a challenge number received from a server
+     */
+    private static class Challenge {
+
+        final int number;
+
+        final long receivedAt;
+
+        Challenge(int number, long receivedAt) {
+            this.number     = number;
+            this.receivedAt = receivedAt;
+        }
+
+    }
+
+}
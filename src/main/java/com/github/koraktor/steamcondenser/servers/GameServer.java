@@ -7,12 +7,15 @@
 
 package com.github.koraktor.steamcondenser.servers;
 
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,7 +29,10 @@ import com.github.koraktor.steamcondenser.servers.packets.S2A_PLAYER_Packet;
 import com.github.koraktor.steamcondenser.servers.packets.S2A_RULES_Packet;
 import com.github.koraktor.steamcondenser.servers.packets.S2C_CHALLENGE_Packet;
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
 import com.github.koraktor.steamcondenser.servers.sockets.QuerySocket;
+import com.github.koraktor.steamcondenser.servers.sockets.RttEstimator;
+import com.github.koraktor.steamcondenser.servers.sockets.SocketPool;
 
 /**
  * This class is subclassed by classes representing different game server
@@ -41,17 +47,30 @@ public abstract class GameServer extends Server {
     protected static final int REQUEST_INFO = 1;
     protected static final int REQUEST_PLAYER = 2;
     protected static final int REQUEST_RULES = 3;
-    protected int challengeNumber = 0xFFFFFFFF;
-    protected int ping;
+
+    protected static ChallengeManager defaultChallengeManager = ChallengeManager.getShared();
+
+    protected static SocketPool defaultSocketPool;
+
+    protected ChallengeManager challengeManager;
+    protected volatile int challengeNumber = 0xFFFFFFFF;
+    protected volatile ServerInfo info;
+    protected volatile int ping;
     protected HashMap<String, SteamPlayer> playerHash;
+    protected volatile PlayerList players;
     protected boolean rconAuthenticated;
     protected int rconRequestId;
+    protected volatile ServerRules rules;
     protected HashMap<String, String> rulesHash;
+    protected RttEstimator rttEstimator;
     protected HashMap<String, Object> serverInfo;
     protected QuerySocket socket;
+    protected SocketPool socketPool;
 
     protected static final Logger LOG = LoggerFactory.getLogger(GameServer.class);
 
+    private AsyncQueryHandler asyncHandler;
+
     /**
      * Creates a new instance of a game server object
      *
@@ -65,11 +84,95 @@ public abstract class GameServer extends Server {
             throws SteamCondenserException {
         super(address, port);
 
+        this.challengeManager  = GameServer.defaultChallengeManager;
         this.rconAuthenticated = false;
+        this.rttEstimator      = new RttEstimator(QuerySocket.getMinTimeout());
+        this.socketPool        = GameServer.defaultSocketPool;
+    }
+
+    /**
+     * Sets the challenge manager used by new game server objects to share
+     * challenge numbers
+     * <p>
+     * If set to <code>null</code>, challenge numbers are only kept by the
+     * server objects themselves.
+     *
+     * @param challengeManager The challenge manager to use for new servers
+     */
+    public static void setChallengeManager(ChallengeManager challengeManager) {
+        GameServer.defaultChallengeManager = challengeManager;
+    }
+
+    /**
+     * Sets the socket pool used by new game server objects to limit the
+     * number of open sockets
+     * <p>
+     * Game servers open their query socket when they are queried for the
+     * first time. Without a pool (the default), the socket stays open until
+     * {@link #disconnect} is called. With a pool, sockets that haven't been
+     * used recently are closed and reopened when needed.
+     *
+     * @param socketPool The socket pool to use for new servers or
+     *        <code>null</code>
+     */
+    public static void setSocketPool(SocketPool socketPool) {
+        GameServer.defaultSocketPool = socketPool;
+    }
+
+    /**
+     * Stores the given challenge number for this server
+     *
+     * @param challengeNumber The challenge number received from the server
+     * @throws SteamCondenserException if the host name cannot be resolved
+     */
+    protected void cacheChallengeNumber(int challengeNumber)
+            throws SteamCondenserException {
+        this.challengeNumber = challengeNumber;
+        if (this.challengeManager != null) {
+            this.challengeManager.put(this.getSocketAddress(), challengeNumber);
+        }
+    }
+
+    /**
+     * Returns the challenge number to use for the next request to this
+     * server
+     * <p>
+     * If a challenge manager is used, the challenge number cached for this
+     * server's address is returned, so challenge numbers received by other
+     * server objects are used, too, while expired numbers are not.
+     *
+     * @return The current challenge number or {@link
+     *         ChallengeManager#NO_CHALLENGE} if there is none
+     * @throws SteamCondenserException if the host name cannot be resolved
+     */
+    protected int currentChallengeNumber() throws SteamCondenserException {
+        if (this.challengeManager != null) {
+            this.challengeNumber = this.challengeManager.get(this.getSocketAddress());
+        }
+
+        return this.challengeNumber;
+    }
+
+    /**
+     * Creates a A2S_INFO request including the given challenge number if
+     * there is one
+     *
+     * @param challengeNumber The challenge number to use
+     * @return The A2S_INFO request packet
+     */
+    static A2S_INFO_Packet infoRequest(int challengeNumber) {
+        if (challengeNumber == ChallengeManager.NO_CHALLENGE) {
+            return new A2S_INFO_Packet();
+        }
+
+        return new A2S_INFO_Packet(challengeNumber);
     }
 
     public void disconnect() {
         if (this.socket != null) {
+            if (this.socketPool != null) {
+                this.socketPool.remove(this.socket);
+            }
             this.socket.close();
             this.socket = null;
         }
@@ -140,6 +243,25 @@ public abstract class GameServer extends Server {
         return playerData;
     }
 
+    /**
+     * Returns the handler used for asynchronous queries of this server
+     * <p>
+     * A new handler is created if the IP address of this server has been
+     * rotated since the last asynchronous query.
+     *
+     * @return The handler for asynchronous queries
+     * @throws SteamCondenserException if the shared reactor cannot be created
+     */
+    private synchronized AsyncQueryHandler getAsyncHandler()
+            throws SteamCondenserException {
+        InetSocketAddress address = this.getSocketAddress();
+        if (this.asyncHandler == null || !this.asyncHandler.getAddress().equals(address)) {
+            this.asyncHandler = new AsyncQueryHandler(this, address, QueryReactor.getShared());
+        }
+
+        return this.asyncHandler;
+    }
+
     /**
      * Returns the last measured response time of this server
      * <p/>
@@ -203,11 +325,56 @@ public abstract class GameServer extends Server {
      */
     public HashMap<String, SteamPlayer> getPlayers(String rconPassword)
             throws SteamCondenserException, TimeoutException {
-        if(this.playerHash == null) {
+        if(this.players == null) {
             this.updatePlayers(rconPassword);
         }
 
-        return this.playerHash;
+        synchronized (this) {
+            if(this.playerHash == null) {
+                this.playerHash = this.players.toMap();
+            }
+
+            return this.playerHash;
+        }
+    }
+
+    /**
+     * Returns the list of players currently playing on this server in the
+     * order sent by the server
+     * <p/>
+     * In contrast to {@link #getPlayers}, players with the same name are all
+     * contained in this list.
+     * <p/>
+     * If the players haven't been fetched yet, it is done when calling this
+     * method for the first time.
+     *
+     * @return The players on this server
+     * @see #updatePlayers
+     * @throws SteamCondenserException if a problem occurs while parsing the
+     *         reply
+     * @throws TimeoutException if the request times out
+     */
+    public PlayerList getPlayerList()
+            throws SteamCondenserException, TimeoutException {
+        if(this.players == null) {
+            this.updatePlayers();
+        }
+
+        return this.players;
+    }
+
+    /**
+     * Returns the estimator of the round trip time to this server
+     * <p/>
+     * The estimator is fed by every reply received by the query sockets of
+     * this server and determines the timeout for each request. It is kept
+     * when the socket is closed by the socket pool or replaced after
+     * rotating the IP address.
+     *
+     * @return The round trip time estimator of this server
+     */
+    public RttEstimator getRttEstimator() {
+        return this.rttEstimator;
     }
 
     /**
@@ -228,11 +395,41 @@ public abstract class GameServer extends Server {
      */
     public HashMap<String, String> getRules()
             throws SteamCondenserException, TimeoutException {
-        if(this.rulesHash == null) {
+        if(this.rules == null) {
+            this.updateRules();
+        }
+
+        synchronized (this) {
+            if(this.rulesHash == null && this.rules != null) {
+                this.rulesHash = this.rules.toMap();
+            }
+
+            return this.rulesHash;
+        }
+    }
+
+    /**
+     * Returns the currently active server rules
+     * <p/>
+     * If the server rules haven't been fetched yet, it is done when calling
+     * this method for the first time.
+     * <p/>
+     * Unlike {@link #getRules} the returned object shares the rule names
+     * with all other servers and can be compared with older snapshots of
+     * the server's rules using {@link ServerRules#diff}.
+     *
+     * @return The currently active server rules
+     * @see #updateRules
+     * @throws SteamCondenserException if the request fails
+     * @throws TimeoutException if the request times out
+     */
+    public ServerRules getServerRules()
+            throws SteamCondenserException, TimeoutException {
+        if(this.rules == null) {
             this.updateRules();
         }
 
-        return this.rulesHash;
+        return this.rules;
     }
 
     /**
@@ -253,23 +450,114 @@ public abstract class GameServer extends Server {
      */
     public HashMap<String, Object> getServerInfo()
             throws SteamCondenserException, TimeoutException {
-        if(this.serverInfo == null) {
+        if(this.info == null) {
+            this.updateServerInfo();
+        }
+
+        synchronized (this) {
+            if(this.serverInfo == null && this.info != null) {
+                this.serverInfo = this.info.toMap();
+            }
+
+            return this.serverInfo;
+        }
+    }
+
+    /**
+     * Returns basic information on the server
+     * <p/>
+     * If the server information haven't been fetched yet, it is done when
+     * calling this method for the first time.
+     * <p/>
+     * Unlike {@link #getServerInfo} the returned object only decodes the
+     * properties that are actually accessed.
+     *
+     * @return The information provided by the server
+     * @see #updateServerInfo
+     * @throws SteamCondenserException if the request fails
+     * @throws TimeoutException if the request times out
+     */
+    public ServerInfo getTypedServerInfo()
+            throws SteamCondenserException, TimeoutException {
+        if(this.info == null) {
             this.updateServerInfo();
         }
 
-        return this.serverInfo;
+        return this.info;
+    }
+
+    /**
+     * Returns the query socket of this server
+     * <p>
+     * The socket is created when it is used for the first time or after it
+     * has been closed by the socket pool.
+     *
+     * @return The query socket of this server
+     * @throws SteamCondenserException if the host name cannot be resolved or
+     *         the socket cannot be created
+     */
+    protected QuerySocket getSocket() throws SteamCondenserException {
+        if (this.socket == null || this.socket.isClosed()) {
+            this.resolve();
+            this.initSocket();
+        }
+        if (this.socketPool != null) {
+            this.socketPool.touch(this.socket);
+        }
+
+        return this.socket;
     }
 
     /**
      * Receives a response from the server
+     * <p>
+     * The socket is released once in the socket pool afterwards, so it may
+     * be closed again after all pending replies have been received. If no
+     * reply is received, the remaining replies are not waited for anymore.
      *
      * @return The response packet replied by the server
-     * @throws SteamCondenserException if the request fails
+     * @throws SteamCondenserException if the request fails or the socket has
+     *         been closed while waiting for the response
      * @throws TimeoutException if the request times out
      */
     protected SteamPacket getReply()
             throws TimeoutException, SteamCondenserException {
-        return this.socket.getReply();
+        QuerySocket socket = this.socket;
+        if (socket == null || socket.isClosed()) {
+            throw new SteamCondenserException("The query socket has been closed while waiting for a reply.");
+        }
+
+        SteamPacket reply;
+        try {
+            reply = socket.getReply();
+        } catch (SteamCondenserException | TimeoutException | RuntimeException e) {
+            this.releaseSocket(socket, true);
+            throw e;
+        }
+        this.releaseSocket(socket, false);
+
+        return reply;
+    }
+
+    /**
+     * Releases the given query socket in the socket pool
+     *
+     * @param socket The socket to release
+     * @param all <code>true</code> if no more replies are waited for,
+     *        <code>false</code> if a single reply has been received
+     * @see SocketPool#release
+     * @see SocketPool#releaseAll
+     */
+    private void releaseSocket(QuerySocket socket, boolean all) {
+        if (this.socketPool == null || socket == null) {
+            return;
+        }
+
+        if (all) {
+            this.socketPool.releaseAll(socket);
+        } else {
+            this.socketPool.release(socket);
+        }
     }
 
     /**
@@ -307,6 +595,8 @@ public abstract class GameServer extends Server {
             throws SteamCondenserException, TimeoutException {
         Class<? extends SteamPacket> expectedResponse = SteamPacket.class;
         SteamPacket requestPacket = null;
+        int challengeNumber = (requestType == GameServer.REQUEST_CHALLENGE) ?
+            ChallengeManager.NO_CHALLENGE : this.currentChallengeNumber();
 
         switch(requestType) {
             case GameServer.REQUEST_CHALLENGE:
@@ -315,44 +605,70 @@ public abstract class GameServer extends Server {
                 break;
             case GameServer.REQUEST_INFO:
                 expectedResponse = S2A_INFO_BasePacket.class;
-                requestPacket = new A2S_INFO_Packet();
+                requestPacket = infoRequest(challengeNumber);
                 break;
             case GameServer.REQUEST_PLAYER:
                 expectedResponse = S2A_PLAYER_Packet.class;
-                requestPacket = new A2S_PLAYER_Packet(this.challengeNumber);
+                requestPacket = new A2S_PLAYER_Packet(challengeNumber);
                 break;
             case GameServer.REQUEST_RULES:
                 expectedResponse = S2A_RULES_Packet.class;
-                requestPacket = new A2S_RULES_Packet(this.challengeNumber);
+                requestPacket = new A2S_RULES_Packet(challengeNumber);
                 break;
         }
 
         this.sendRequest(requestPacket);
 
         SteamPacket responsePacket = this.getReply();
+        this.handleResponse(responsePacket);
+
+        if(!expectedResponse.isInstance(responsePacket)) {
+            if(responsePacket instanceof S2C_CHALLENGE_Packet) {
+                LOG.debug("Repeating request with new challenge number.");
+            } else {
+                LOG.warn("Expected " + expectedResponse + ", got " + responsePacket.getClass() + ".");
+            }
+            if(repeatOnFailure) {
+                this.handleResponseForRequest(requestType, false);
+            }
+        }
+    }
 
+    /**
+     * Fills the data attributes of this server object with the data of the
+     * given response
+     * <p/>
+     * Responses to asynchronous requests are handled by the reactor's
+     * thread, so the data is replaced while holding the lock of this server.
+     * The maps derived from the data are rebuilt under the same lock when
+     * they are requested.
+     *
+     * @param responsePacket The response packet replied by the server
+     * @throws SteamCondenserException if the response cannot be handled
+     */
+    protected synchronized void handleResponse(SteamPacket responsePacket)
+            throws SteamCondenserException {
         if(S2A_INFO_BasePacket.class.isInstance(responsePacket)) {
-            this.serverInfo = ((S2A_INFO_BasePacket) responsePacket).getInfo();
+            this.info = ((S2A_INFO_BasePacket) responsePacket).getServerInfo();
+            this.serverInfo = null;
         } else if(responsePacket instanceof S2A_PLAYER_Packet) {
-            this.playerHash = ((S2A_PLAYER_Packet) responsePacket).getPlayerHash();
+            this.players = ((S2A_PLAYER_Packet) responsePacket).getPlayerList();
+            this.playerHash = null;
         } else if(responsePacket instanceof S2A_RULES_Packet) {
-            this.rulesHash = ((S2A_RULES_Packet) responsePacket).getRulesHash();
+            this.rules = ((S2A_RULES_Packet) responsePacket).getRules();
+            this.rulesHash = null;
         } else if(responsePacket instanceof S2C_CHALLENGE_Packet) {
-            this.challengeNumber = ((S2C_CHALLENGE_Packet) responsePacket).getChallengeNumber();
+            this.cacheChallengeNumber(((S2C_CHALLENGE_Packet) responsePacket).getChallengeNumber());
         } else {
             throw new SteamCondenserException("Response of type " + responsePacket.getClass() + " cannot be handled by this method.");
         }
-
-        if(!expectedResponse.isInstance(responsePacket)) {
-            LOG.warn("Expected " + expectedResponse + ", got " + responsePacket.getClass() + ".");
-            if(repeatOnFailure) {
-                this.handleResponseForRequest(requestType, false);
-            }
-        }
     }
 
     /**
      * Initializes this server object with basic information
+     * <p/>
+     * Use {@link #refreshAll} to fetch all information about the server
+     * including players and rules in a single round trip.
      *
      * @see #updateChallengeNumber
      * @see #updatePing
@@ -402,19 +718,62 @@ public abstract class GameServer extends Server {
     abstract public String rconExec(String command)
             throws SteamCondenserException, TimeoutException;
 
+    /**
+     * Starts an asynchronous request of the given type
+     *
+     * @param requestType The type of request to send to the server
+     * @param executor The executor to run the callbacks of the future with
+     * @param <T> The type of the request's result
+     * @return A future for the result of the request
+     */
+    private <T> QueryFuture<T> queryAsync(int requestType, Executor executor) {
+        try {
+            return this.getAsyncHandler().query(requestType, executor);
+        } catch (SteamCondenserException e) {
+            QueryFuture<T> future = new QueryFuture<>(executor);
+            future.fail(e);
+            return future;
+        }
+    }
+
+    /**
+     * Remotely executes a command on the server via RCON without blocking
+     * the calling thread
+     * <p>
+     * RCON uses a connection-based protocol, so the command is executed by
+     * a thread of the given executor. Cancelling the returned future will
+     * interrupt this thread.
+     *
+     * @param command The command to execute on the server via RCON
+     * @param executor The executor to execute the command and run the
+     *        callbacks of the future with
+     * @return A future for the output of the executed command
+     * @see #rconExec
+     */
+    public QueryFuture<String> rconExecAsync(final String command, Executor executor) {
+        return QueryFuture.submit(new Callable<String>() {
+            public String call() throws Exception {
+                return GameServer.this.rconExec(command);
+            }
+        }, executor);
+    }
+
     /**
      * Sends a request packet to the server
+     * <p>
+     * The socket is marked as in use in the socket pool until a reply has
+     * been received.
      *
      * @param requestData The request packet to send to the server
      * @throws SteamCondenserException if the request fails
      */
     protected void sendRequest(SteamPacket requestData)
             throws SteamCondenserException {
-        if (this.socket == null) {
-            this.initSocket();
+        QuerySocket socket = this.getSocket();
+        if (this.socketPool != null) {
+            this.socketPool.acquire(socket);
         }
-
-        this.socket.send(requestData);
+        socket.send(requestData);
     }
 
     /**
@@ -430,23 +789,23 @@ public abstract class GameServer extends Server {
         returnString += "Ping: " + this.ping + "\n";
         returnString += "Challenge number: " + this.challengeNumber + "\n";
 
-        if(this.serverInfo != null) {
+        if(this.info != null) {
             returnString += "Info:" + "\n";
-            for(Entry<String, Object> info : this.serverInfo.entrySet()) {
+            for(Entry<String, Object> info : this.info.toMap().entrySet()) {
                 returnString += "  " + info.getKey() + ": " + info.getValue() + "\n";
             }
         }
 
-        if(this.playerHash != null) {
+        if(this.players != null) {
             returnString += "Players:" + "\n";
-            for(SteamPlayer player : this.playerHash.values()) {
+            for(PlayerList.Player player : this.players) {
                 returnString += "  " + player + "\n";
             }
         }
 
-        if(this.rulesHash != null) {
+        if(this.rules != null) {
             returnString += "Rules:" + "\n";
-            for(Entry<String, String> rule : this.rulesHash.entrySet()) {
+            for(Entry<String, String> rule : this.rules.toMap().entrySet()) {
                 returnString += "  " + rule.getKey() + ": " + rule.getValue() + "\n";
             }
         }
@@ -454,6 +813,75 @@ public abstract class GameServer extends Server {
         return returnString;
     }
 
+    /**
+     * Sends A2S_INFO, A2S_PLAYER and A2S_RULES requests to the server at once
+     * and updates the information, players, rules and ping of this server
+     * <p/>
+     * The requests are sent back to back using the current challenge number
+     * and the replies are handled in the order they arrive, so a full refresh
+     * needs only a single round trip if the challenge number is still valid.
+     * The ping is measured using the reply to the A2S_INFO request. If the
+     * server replies with a new challenge number, the requests still waiting
+     * for a reply are sent again once.
+     *
+     * @see #initialize
+     * @throws SteamCondenserException if a request fails
+     * @throws TimeoutException if a request times out
+     */
+    public void refreshAll()
+            throws SteamCondenserException, TimeoutException {
+        int infoChallenge = this.currentChallengeNumber();
+        int playerChallenge = infoChallenge;
+        int rulesChallenge = infoChallenge;
+        boolean infoRepeated = false;
+        boolean playerRepeated = false;
+        boolean rulesRepeated = false;
+        boolean infoPending = true;
+        boolean playerPending = true;
+        boolean rulesPending = true;
+
+        long startTime = System.currentTimeMillis();
+        this.sendRequest(infoRequest(infoChallenge));
+        this.sendRequest(new A2S_PLAYER_Packet(playerChallenge));
+        this.sendRequest(new A2S_RULES_Packet(rulesChallenge));
+
+        try {
+            while(infoPending || playerPending || rulesPending) {
+                SteamPacket responsePacket = this.getReply();
+                this.handleResponse(responsePacket);
+
+                if(responsePacket instanceof S2A_INFO_BasePacket) {
+                    if(infoPending) {
+                        this.ping = (int) (System.currentTimeMillis() - startTime);
+                        infoPending = false;
+                    }
+                } else if(responsePacket instanceof S2A_PLAYER_Packet) {
+                    playerPending = false;
+                } else if(responsePacket instanceof S2A_RULES_Packet) {
+                    rulesPending = false;
+                } else {
+                    if(infoPending && !infoRepeated && infoChallenge != this.challengeNumber) {
+                        infoChallenge = this.challengeNumber;
+                        infoRepeated = true;
+                        this.sendRequest(infoRequest(infoChallenge));
+                    }
+                    if(playerPending && !playerRepeated && playerChallenge != this.challengeNumber) {
+                        playerChallenge = this.challengeNumber;
+                        playerRepeated = true;
+                        this.sendRequest(new A2S_PLAYER_Packet(playerChallenge));
+                    }
+                    if(rulesPending && !rulesRepeated && rulesChallenge != this.challengeNumber) {
+                        rulesChallenge = this.challengeNumber;
+                        rulesRepeated = true;
+                        this.sendRequest(new A2S_RULES_Packet(rulesChallenge));
+                    }
+                }
+            }
+        } finally {
+            this.releaseSocket(this.socket, true);
+        }
+    }
+
     /**
      * Sends a A2S_SERVERQUERY_GETCHALLENGE request to the server and updates
      * the challenge number used to communicate with this server
@@ -461,7 +889,11 @@ public abstract class GameServer extends Server {
      * There's usually no need to call this method explicitly, because
      * {@link #handleResponseForRequest} will automatically get the challenge
      * number when the server assigns a new one.
+     * <p/>
+     * No request is sent if a challenge number for this server is still
+     * cached by the challenge manager.
      *
+     * @see ChallengeManager
      * @see #handleResponseForRequest
      * @see #initialize
      * @throws SteamCondenserException if the request fails
@@ -469,6 +901,10 @@ public abstract class GameServer extends Server {
      */
     public void updateChallengeNumber()
             throws SteamCondenserException, TimeoutException {
+        if(this.currentChallengeNumber() != ChallengeManager.NO_CHALLENGE) {
+            return;
+        }
+
         this.handleResponseForRequest(GameServer.REQUEST_CHALLENGE);
     }
 
@@ -486,13 +922,29 @@ public abstract class GameServer extends Server {
      */
     public void updatePing()
             throws SteamCondenserException, TimeoutException {
-        this.sendRequest(new A2S_INFO_Packet());
+        this.sendRequest(infoRequest(this.currentChallengeNumber()));
         long startTime = System.currentTimeMillis();
         this.getReply();
         long endTime = System.currentTimeMillis();
         this.ping = Long.valueOf(endTime - startTime).intValue();
     }
 
+    /**
+     * Sends a A2S_INFO request to the server and measures the time needed for
+     * the reply without blocking the calling thread
+     * <p/>
+     * The returned future is completed by the I/O thread receiving the reply.
+     * It fails with a {@link TimeoutException} if the server doesn't reply in
+     * time.
+     *
+     * @param executor The executor to run the callbacks of the future with
+     * @return A future for the latency of this server in milliseconds
+     * @see #updatePing
+     */
+    public QueryFuture<Integer> updatePingAsync(Executor executor) {
+        return this.queryAsync(AsyncQueryHandler.REQUEST_PING, executor);
+    }
+
     /**
      * Sends a A2S_PLAYERS request to the server and updates the players' data
      * for this server
@@ -545,15 +997,33 @@ public abstract class GameServer extends Server {
         }
         List<String> attributes = getPlayerStatusAttributes(players.remove(0));
 
+        List<Map<String, String>> playerData = new ArrayList<>(players.size());
         for(String player : players) {
-            Map<String, String> playerData = splitPlayerStatus(attributes, player);
-            String playerName = playerData.get("name");
-            if(this.playerHash.containsKey(playerName)) {
-                this.playerHash.get(playerName).addInformation(playerData);
-            }
+            playerData.add(splitPlayerStatus(attributes, player));
+        }
+
+        synchronized (this) {
+            this.players.addInformation(playerData);
+            this.playerHash = null;
         }
     }
 
+    /**
+     * Sends a A2S_PLAYERS request to the server and updates the players' data
+     * for this server without blocking the calling thread
+     * <p/>
+     * A challenge number requested by the server is filled in automatically.
+     * The returned future is completed by the I/O thread receiving the reply.
+     * Use {@link #getPlayers} to get the players by name.
+     *
+     * @param executor The executor to run the callbacks of the future with
+     * @return A future for the players on this server
+     * @see #updatePlayers
+     */
+    public QueryFuture<PlayerList> updatePlayersAsync(Executor executor) {
+        return this.queryAsync(GameServer.REQUEST_PLAYER, executor);
+    }
+
     /**
      * Sends a A2S_RULES request to the server and updates the rules of this
      * server
@@ -572,6 +1042,22 @@ public abstract class GameServer extends Server {
         this.handleResponseForRequest(GameServer.REQUEST_RULES);
     }
 
+    /**
+     * Sends a A2S_RULES request to the server and updates the rules of this
+     * server without blocking the calling thread
+     * <p/>
+     * A challenge number requested by the server is filled in automatically.
+     * The returned future is completed by the I/O thread receiving the reply.
+     * Use {@link #getRules} to get the rules as a map.
+     *
+     * @param executor The executor to run the callbacks of the future with
+     * @return A future for the currently active server rules
+     * @see #updateRules
+     */
+    public QueryFuture<ServerRules> updateRulesAsync(Executor executor) {
+        return this.queryAsync(GameServer.REQUEST_RULES, executor);
+    }
+
     /**
      * Sends a A2S_INFO request to the server and updates this server's basic
      * information
@@ -590,4 +1076,21 @@ public abstract class GameServer extends Server {
             throws SteamCondenserException, TimeoutException {
         this.handleResponseForRequest(GameServer.REQUEST_INFO);
     }
+
+    /**
+     * Sends a A2S_INFO request to the server and updates this server's basic
+     * information without blocking the calling thread
+     * <p/>
+     * The returned future is completed by the I/O thread receiving the reply.
+     * It fails with a {@link TimeoutException} if the server doesn't reply in
+     * time. Use {@link #getServerInfo} to get the server attributes as a
+     * map.
+     *
+     * @param executor The executor to run the callbacks of the future with
+     * @return A future for the information provided by the server
+     * @see #updateServerInfo
+     */
+    public QueryFuture<ServerInfo> updateServerInfoAsync(Executor executor) {
+        return this.queryAsync(GameServer.REQUEST_INFO, executor);
+    }
 }
@@ -137,6 +137,7 @@ public class GoldSrcServer extends GameServer {
      */
     public void initSocket() throws SteamCondenserException {
         this.socket = new GoldSrcSocket(this.ipAddress, this.port, this.isHLTV);
+        this.socket.setRttEstimator(this.rttEstimator);
     }
 
     /**
@@ -178,7 +179,7 @@ public class GoldSrcServer extends GameServer {
         }
 
         try {
-            return ((GoldSrcSocket) this.socket).rconExec(this.rconPassword, command).trim();
+            return ((GoldSrcSocket) this.getSocket()).rconExec(this.rconPassword, command).trim();
         } catch (RCONNoAuthException e) {
             this.rconAuthenticated = false;
             throw e;
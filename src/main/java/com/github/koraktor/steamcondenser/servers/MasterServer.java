@@ -9,9 +9,8 @@ package com.github.koraktor.steamcondenser.servers;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.util.HashSet;
 import java.util.Set;
-import java.util.Vector;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
@@ -21,6 +20,7 @@ import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
 import com.github.koraktor.steamcondenser.servers.packets.A2M_GET_SERVERS_BATCH2_Packet;
 import com.github.koraktor.steamcondenser.servers.packets.M2A_SERVER_BATCH_Packet;
 import com.github.koraktor.steamcondenser.servers.sockets.MasterServerSocket;
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
 
 /**
  * This class represents a Steam master server and can be used to get game
@@ -32,7 +32,7 @@ import com.github.koraktor.steamcondenser.servers.sockets.MasterServerSocket;
  *
  * @author Sebastian Staudt
  */
-public class MasterServer extends Server {
+public class MasterServer extends Server implements ServerListProvider {
 
     protected static final Logger LOG = LoggerFactory.getLogger(MasterServer.class);
 
@@ -239,40 +239,310 @@ public class MasterServer extends Server {
      */
     public Set<InetSocketAddress> getServers(byte regionCode, String filter, boolean force)
             throws SteamCondenserException, TimeoutException {
-        int failCount    = 0;
-        boolean finished = false;
-        int portNumber   = 0;
-        String hostName  = "0.0.0.0";
-        Vector<String> serverStringArray;
-        Set<InetSocketAddress> serverSet = new HashSet<>();
+        final ServerAddressSet serverSet = new ServerAddressSet();
+
+        this.streamServers(regionCode, filter, force, new ServerBatchListener() {
+            public void onBatch(ServerAddressList servers) {
+                serverSet.addAll(servers);
+            }
+        });
+
+        return serverSet.toSocketAddresses();
+    }
+
+    /**
+     * Returns a list of all available game servers without blocking the
+     * calling thread
+     *
+     * @param executor The executor to run the callbacks of the future with
+     * @return A future for the game servers
+     * @see #getServers()
+     */
+    public QueryFuture<Set<InetSocketAddress>> getServersAsync(Executor executor) {
+        return this.getServersAsync(MasterServer.REGION_ALL, "", executor);
+    }
+
+    /**
+     * Returns a list of game server matching the given region and filters
+     * without blocking the calling thread
+     * <p/>
+     * Each batch of servers is requested as soon as the previous batch has
+     * been received by the I/O thread. The returned future fails with a
+     * {@link TimeoutException} if all IP addresses of the master server
+     * failed to reply too many times in a row. Cancelling the future stops
+     * requesting further batches.
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param executor The executor to run the callbacks of the future with
+     * @return A future for the game servers matching the given region and
+     *         filters
+     * @see #getServers(byte, String, boolean)
+     */
+    public QueryFuture<Set<InetSocketAddress>> getServersAsync(byte regionCode, String filter, Executor executor) {
+        final ServerAddressSet servers = new ServerAddressSet();
+        final QueryFuture<Set<InetSocketAddress>> future = new QueryFuture<>(executor);
+
+        final QueryFuture<Void> streamFuture = this.streamServersAsync(regionCode, filter, new ServerBatchListener() {
+            public void onBatch(ServerAddressList batch) {
+                servers.addAll(batch);
+            }
+        }, executor);
+        streamFuture.addCallback(new QueryCallback<Void>() {
+            public void onFailure(Throwable error) {
+                future.fail(error);
+            }
+
+            public void onSuccess(Void result) {
+                future.complete(servers.toSocketAddresses());
+            }
+        });
+        future.setCancelHandler(new Runnable() {
+            public void run() {
+                streamFuture.cancel(false);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Passes each batch of game servers matching the given region and filters
+     * to the given listener as soon as it has been received
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of servers to
+     * @see #streamServers(byte, String, boolean, ServerBatchListener)
+     * @throws SteamCondenserException if the request fails
+     * @throws TimeoutException if too many timeouts occur while querying the
+     *         master server
+     */
+    public void streamServers(byte regionCode, String filter, ServerBatchListener listener)
+            throws SteamCondenserException, TimeoutException {
+        this.streamServers(regionCode, filter, false, listener);
+    }
+
+    /**
+     * Passes each batch of game servers matching the given region and filters
+     * to the given listener as soon as it has been received
+     * <p/>
+     * In contrast to {@link #getServers(byte, String, boolean)} the servers
+     * are not collected, so the servers of the first batches can be
+     * processed while the remaining batches are still requested. The
+     * listener is called on the calling thread before the next batch is
+     * requested.
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param force Whether to return normally if the master server stops
+     *        replying, otherwise a {@link TimeoutException} is thrown
+     * @param listener The listener to pass the batches of servers to
+     * @see #getServers(byte, String, boolean)
+     * @throws SteamCondenserException if the request fails
+     * @throws TimeoutException if too many timeouts occur while querying the
+     *         master server
+     */
+    public void streamServers(byte regionCode, String filter, boolean force, ServerBatchListener listener)
+            throws SteamCondenserException, TimeoutException {
+        this.fetchServers(new MasterServerSession(regionCode, filter, null), force, listener);
+    }
+
+    /**
+     * Continues fetching the servers of the given session
+     * <p/>
+     * Requests are started with the last server received in the session, so
+     * only the remaining batches are requested. Requests are paced and
+     * retries are delayed as configured for the session. If the master
+     * server stops replying the session can be passed to this method again
+     * later, even after it has been saved and loaded again.
+     *
+     * @param session The session to continue
+     * @param listener The listener to pass the batches of servers to or
+     *        <code>null</code>
+     * @return The packed addresses of all game servers received in the
+     *         session
+     * @see MasterServerSession
+     * @throws SteamCondenserException if the request fails
+     * @throws TimeoutException if too many timeouts occur while querying the
+     *         master server
+     */
+    public ServerAddressSet crawl(MasterServerSession session, ServerBatchListener listener)
+            throws SteamCondenserException, TimeoutException {
+        if (!session.isFinished()) {
+            this.fetchServers(session, false, listener);
+        }
+
+        return session.getServers();
+    }
+
+    /**
+     * Passes each batch of game servers matching the given region and filters
+     * to the given listener without blocking the calling thread
+     * <p/>
+     * Each batch of servers is requested as soon as the previous batch has
+     * been received by the I/O thread, independent of the listener. The
+     * batches are passed to the listener one at a time using the given
+     * executor. The returned future completes after the last batch has been
+     * passed to the listener. Cancelling the future stops requesting further
+     * batches.
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of servers to
+     * @param executor The executor to run the listener and the callbacks of
+     *        the future with
+     * @return A future that completes when all servers have been received
+     * @see #getServersAsync(byte, String, Executor)
+     */
+    public QueryFuture<Void> streamServersAsync(byte regionCode, String filter, ServerBatchListener listener, Executor executor) {
+        QueryReactor reactor;
+        try {
+            this.resolve();
+            reactor = QueryReactor.getShared();
+        } catch (SteamCondenserException e) {
+            QueryFuture<Void> future = new QueryFuture<>(executor);
+            future.fail(e);
+            return future;
+        }
+
+        MasterServerQuery query = new MasterServerQuery(this.ipAddresses, this.ipIndex, this.port, regionCode, filter, listener, reactor, executor);
+        query.start();
+
+        return query.getFuture();
+    }
+
+    /**
+     * Returns a list of game servers matching the given regions and filters
+     * without blocking the calling thread
+     * <p/>
+     * The regions are queried concurrently using all IP addresses of the
+     * master server, so the time to get all servers is bounded by the
+     * slowest region instead of the sum of all regions.
+     *
+     * @param regionCodes The region codes to query concurrently
+     * @param filter The filters that game servers should match
+     * @param executor The executor to run the callbacks of the future with
+     * @return A future for the game servers matching the given regions and
+     *         filters
+     * @see #streamServersAsync(byte[], String, ServerBatchListener, Executor)
+     */
+    public QueryFuture<Set<InetSocketAddress>> getServersAsync(byte[] regionCodes, String filter, Executor executor) {
+        final QueryFuture<Set<InetSocketAddress>> future = new QueryFuture<>(executor);
+
+        final QueryFuture<ServerAddressSet> crawlFuture = this.streamServersAsync(regionCodes, filter, null, executor);
+        crawlFuture.addCallback(new QueryCallback<ServerAddressSet>() {
+            public void onFailure(Throwable error) {
+                future.fail(error);
+            }
+
+            public void onSuccess(ServerAddressSet servers) {
+                future.complete(servers.toSocketAddresses());
+            }
+        });
+        future.setCancelHandler(new Runnable() {
+            public void run() {
+                crawlFuture.cancel(false);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Passes each batch of game servers matching the given regions and
+     * filters to the given listener without blocking the calling thread
+     * <p/>
+     * The regions are queried concurrently using all IP addresses of the
+     * master server, one region per IP address at a time. With at least as
+     * many IP addresses as regions, the time to get all servers is bounded by
+     * the slowest region instead of the sum of all regions. If an IP address
+     * fails to reply, its region is queried again using another IP address.
+     * The servers of all regions are collected in a single set and only
+     * servers not seen before are passed to the listener. The listener is
+     * never called concurrently.
+     * <p/>
+     * <strong>Note:</strong> Game servers without a region are only listed
+     * for {@link #REGION_ALL}. Querying all single regions may therefore
+     * miss some servers.
+     * <p/>
+     * The returned future fails if a region could not be queried using any
+     * of the IP addresses. Cancelling the future stops requesting further
+     * batches for all regions.
+     *
+     * @param regionCodes The region codes to query concurrently
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of new servers to or
+     *        <code>null</code> to only collect the servers
+     * @param executor The executor to run the listener and the callbacks of
+     *        the future with
+     * @return A future for the packed addresses of all game servers matching
+     *         the given regions and filters
+     */
+    public QueryFuture<ServerAddressSet> streamServersAsync(byte[] regionCodes, String filter, ServerBatchListener listener, Executor executor) {
+        QueryReactor reactor;
+        try {
+            this.resolve();
+            reactor = QueryReactor.getShared();
+        } catch (SteamCondenserException e) {
+            QueryFuture<ServerAddressSet> future = new QueryFuture<>(executor);
+            future.fail(e);
+            return future;
+        }
+
+        MasterServerCrawl crawl = new MasterServerCrawl(this.ipAddresses, this.port, regionCodes, filter, listener, reactor, executor);
+        crawl.start();
+
+        return crawl.getFuture();
+    }
+
+    /**
+     * Requests the remaining batches of servers of the given session
+     *
+     * @param session The session to continue
+     * @param force Whether to return normally if the master server stops
+     *        replying, otherwise a {@link TimeoutException} is thrown
+     * @param listener The listener to pass the batches of servers to or
+     *        <code>null</code>
+     * @throws SteamCondenserException if the request fails
+     * @throws TimeoutException if too many timeouts occur while querying the
+     *         master server
+     */
+    private void fetchServers(MasterServerSession session, boolean force, ServerBatchListener listener)
+            throws SteamCondenserException, TimeoutException {
+        int failCount = 0;
+
+        if (this.socket == null) {
+            this.resolve();
+            this.initSocket();
+        }
 
         while(true) {
             try {
                 failCount = 0;
                 do {
-                    this.socket.send(new A2M_GET_SERVERS_BATCH2_Packet(regionCode, hostName + ":" + portNumber, filter));
+                    session.awaitRequest();
+                    this.socket.send(new A2M_GET_SERVERS_BATCH2_Packet(session.getRegionCode(), ServerAddressList.toString(session.getLastServer()), session.getFilter()));
                     try {
-                        serverStringArray = ((M2A_SERVER_BATCH_Packet) this.socket.getReply()).getServers();
-
-                        for(String serverString : serverStringArray) {
-                            hostName = serverString.substring(0, serverString.lastIndexOf(":"));
-                            portNumber = Integer.valueOf(serverString.substring(serverString.lastIndexOf(":") + 1));
+                        ServerAddressList servers = session.addBatch(((M2A_SERVER_BATCH_Packet) this.socket.getReply()).getAddresses());
+                        failCount = 0;
 
-                            if(!hostName.equals("0.0.0.0") && portNumber != 0) {
-                                serverSet.add(new InetSocketAddress(hostName, portNumber));
-                            } else {
-                                finished = true;
-                            }
+                        if(listener != null && !servers.isEmpty()) {
+                            listener.onBatch(servers);
                         }
-                        failCount = 0;
                     } catch(TimeoutException e) {
+                        session.onTimeout();
                         failCount ++;
                         if(failCount == retries) {
                             throw e;
                         }
                         LOG.info("Request to master server " + this.ipAddress + " timed out, retrying...");
                     }
-                } while(!finished);
+                } while(!session.isFinished());
                 break;
             } catch(TimeoutException e) {
                 if (force) {
@@ -283,8 +553,18 @@ public class MasterServer extends Server {
                 LOG.info("Request to master server failed, retrying " + this.ipAddress + "...");
             }
         }
+    }
 
-        return serverSet;
+    /**
+     * Returns whether the given address marks the end of the server list
+     * <p>
+     * Master servers terminate the server list with <code>0.0.0.0:0</code>.
+     *
+     * @param address The packed address sent by the master server
+     * @return <code>true</code> if this is not a game server's address
+     */
+    static boolean isEndOfList(long address) {
+        return ServerAddressList.getIp(address) == 0 || ServerAddressList.getPort(address) == 0;
     }
 
     /**
@@ -0,0 +1,228 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
+
+/**
+ * This class fetches the server lists of several regions from all IP
+ * addresses of a master server concurrently
+ * <p>
+ * Each region is a shard fetched by its own {@link MasterServerQuery}. As
+ * the replies of a master server cannot be matched to a request, only one
+ * shard is queried per IP address at a time. Each IP address takes the next
+ * pending region after its shard has completed. The next shard discards
+ * late replies to the previous one. If a shard fails, its IP
+ * address is not used anymore and the region is queried again using another
+ * IP address.
+ * <p>
+ * The servers of all shards are collected in a single set, so each server is
+ * only passed to the listener once, even if it is listed in more than one
+ * region.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer#streamServersAsync(byte[], String, ServerBatchListener, Executor)
+ */
+class MasterServerCrawl implements ServerBatchListener {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(MasterServerCrawl.class);
+
+    private Throwable error;
+
+    private final Executor executor;
+
+    private final String filter;
+
+    private final QueryFuture<ServerAddressSet> future;
+
+    private final Deque<InetAddress> idleAddresses;
+
+    private final Map<InetAddress, ServerAddressList> lastBatches;
+
+    private final ServerBatchListener listener;
+
+    private final Deque<Byte> pendingRegions;
+
+    private final int port;
+
+    private final QueryReactor reactor;
+
+    private final List<MasterServerQuery> running;
+
+    private final ServerAddressSet servers;
+
+    /**
+     * Creates a new crawl of the given regions
+     *
+     * @param ipAddresses The IP addresses of the master server
+     * @param port The port of the master server
+     * @param regionCodes The region codes to query
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of new servers to or
+     *        <code>null</code>
+     * @param reactor The reactor to send requests with
+     * @param executor The executor to run the listener and the callbacks of
+     *        the future with
+     */
+    MasterServerCrawl(List<InetAddress> ipAddresses, int port,
+                      byte[] regionCodes, String filter,
+                      ServerBatchListener listener, QueryReactor reactor,
+                      Executor executor) {
+        this.executor       = executor;
+        this.filter         = filter;
+        this.future         = new QueryFuture<>(executor);
+        this.idleAddresses  = new ArrayDeque<>(ipAddresses);
+        this.lastBatches    = new HashMap<>();
+        this.listener       = listener;
+        this.pendingRegions = new ArrayDeque<>();
+        this.port           = port;
+        this.reactor        = reactor;
+        this.running        = new ArrayList<>();
+        this.servers        = new ServerAddressSet();
+
+        for (byte regionCode : regionCodes) {
+            this.pendingRegions.add(regionCode);
+        }
+
+        this.future.setCancelHandler(new Runnable() {
+            public void run() {
+                List<MasterServerQuery> shards;
+                synchronized (MasterServerCrawl.this) {
+                    shards = new ArrayList<>(MasterServerCrawl.this.running);
+                }
+                for (MasterServerQuery shard : shards) {
+                    shard.getFuture().cancel(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the future for the servers of all shards
+     *
+     * @return The future of this crawl
+     */
+    QueryFuture<ServerAddressSet> getFuture() {
+        return this.future;
+    }
+
+    /**
+     * Adds the servers of a shard's batch to the servers of this crawl and
+     * passes the servers not seen before to the listener
+     *
+     * @param batch The servers of the shard's batch
+     */
+    public synchronized void onBatch(ServerAddressList batch) {
+        ServerAddressList newServers = new ServerAddressList(batch.size());
+        for (int i = 0; i < batch.size(); i ++) {
+            if (this.servers.add(batch.get(i))) {
+                newServers.add(batch.get(i));
+            }
+        }
+
+        if (this.listener != null && !newServers.isEmpty()) {
+            this.listener.onBatch(newServers);
+        }
+    }
+
+    /**
+     * Starts querying the regions
+     */
+    void start() {
+        this.dispatch();
+    }
+
+    /**
+     * Starts a shard for each idle IP address while regions are pending and
+     * completes the crawl if nothing is left to do
+     */
+    private void dispatch() {
+        List<MasterServerQuery> shards = new ArrayList<>();
+
+        synchronized (this) {
+            if (this.future.isDone()) {
+                return;
+            }
+
+            while (!this.pendingRegions.isEmpty() && !this.idleAddresses.isEmpty()) {
+                final InetAddress ipAddress = this.idleAddresses.poll();
+                final byte regionCode = this.pendingRegions.poll();
+                final MasterServerQuery shard = new MasterServerQuery(
+                    Collections.singletonList(ipAddress), 0, this.port,
+                    regionCode, this.filter, this, this.reactor, this.executor);
+                shard.setLastBatch(this.lastBatches.get(ipAddress));
+                shard.getFuture().addCallback(new QueryCallback<Void>() {
+                    public void onFailure(Throwable error) {
+                        MasterServerCrawl.this.finishShard(shard, ipAddress, regionCode, error);
+                    }
+
+                    public void onSuccess(Void result) {
+                        MasterServerCrawl.this.finishShard(shard, ipAddress, regionCode, null);
+                    }
+                });
+                this.running.add(shard);
+                shards.add(shard);
+            }
+
+            if (this.running.isEmpty()) {
+                if (this.pendingRegions.isEmpty()) {
+                    this.future.complete(this.servers);
+                } else {
+                    this.future.fail(this.error);
+                }
+                return;
+            }
+        }
+
+        for (MasterServerQuery shard : shards) {
+            shard.start();
+        }
+    }
+
+    /**
+     * Frees the IP address of a completed shard or queues its region again
+     * if it failed
+     *
+     * @param shard The completed shard
+     * @param ipAddress The IP address used by the shard
+     * @param regionCode The region code queried by the shard
+     * @param error The error the shard failed with or <code>null</code>
+     */
+    private void finishShard(MasterServerQuery shard, InetAddress ipAddress, byte regionCode, Throwable error) {
+        synchronized (this) {
+            this.running.remove(shard);
+            if (this.future.isDone()) {
+                return;
+            }
+
+            if (error == null) {
+                this.idleAddresses.add(ipAddress);
+                this.lastBatches.put(ipAddress, shard.getLastBatch());
+            } else {
+                LOG.info("Querying region " + regionCode + " from master server " + ipAddress + " failed, retrying with another address...");
+                this.error = error;
+                this.pendingRegions.addFirst(regionCode);
+            }
+        }
+
+        this.dispatch();
+    }
+
+}
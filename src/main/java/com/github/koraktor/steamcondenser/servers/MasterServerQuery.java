@@ -0,0 +1,405 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.packets.A2M_GET_SERVERS_BATCH2_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.M2A_SERVER_BATCH_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
+import com.github.koraktor.steamcondenser.servers.sockets.DatagramHandler;
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
+import com.github.koraktor.steamcondenser.servers.sockets.SteamSocket;
+
+/**
+ * This class fetches the server list of a master server asynchronously
+ * <p>
+ * Each batch reply received by the reactor's selector thread triggers the
+ * request for the next batch. Timed out requests are repeated up to
+ * {@link MasterServer#retries} times before the next IP address of the master
+ * server is tried. A repeated request may cause the master server to send the
+ * same batch twice, so replies that don't answer the outstanding request are
+ * discarded.
+ * <p>
+ * The servers of each batch are passed to the listener using the executor,
+ * one batch at a time and in the order they have been received. The future
+ * completes after the last batch has been passed to the listener.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer#streamServersAsync
+ */
+class MasterServerQuery implements DatagramHandler {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(MasterServerQuery.class);
+
+    private InetSocketAddress address;
+
+    private final Queue<Runnable> deliveries;
+
+    private final AtomicBoolean delivering;
+
+    private final Executor executor;
+
+    private int failCount;
+
+    private final String filter;
+
+    private final QueryFuture<Void> future;
+
+    private int ipIndex;
+
+    private ServerAddressList lastBatch;
+
+    private final List<InetAddress> ipAddresses;
+
+    private long lastServer;
+
+    private final ServerBatchListener listener;
+
+    private final int port;
+
+    private final QueryReactor reactor;
+
+    private final byte regionCode;
+
+    private int requestCount;
+
+    private long requestedSeed;
+
+    private boolean stopped;
+
+    private final int startIndex;
+
+    private ScheduledFuture<?> timeoutTask;
+
+    /**
+     * Creates a new query for the servers of the given master server
+     *
+     * @param ipAddresses The IP addresses of the master server
+     * @param ipIndex The index of the IP address to query first
+     * @param port The port of the master server
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of servers to
+     * @param reactor The reactor to send requests with
+     * @param executor The executor to run the listener and the callbacks of
+     *        the future with
+     */
+    MasterServerQuery(List<InetAddress> ipAddresses, int ipIndex, int port,
+                      byte regionCode, String filter,
+                      ServerBatchListener listener, QueryReactor reactor,
+                      Executor executor) {
+        this.deliveries  = new ConcurrentLinkedQueue<>();
+        this.delivering  = new AtomicBoolean();
+        this.executor    = executor;
+        this.failCount   = 0;
+        this.filter      = filter;
+        this.future      = new QueryFuture<>(executor);
+        this.ipAddresses = ipAddresses;
+        this.ipIndex     = ipIndex;
+        this.lastServer  = 0;
+        this.listener    = listener;
+        this.port        = port;
+        this.reactor     = reactor;
+        this.regionCode  = regionCode;
+        this.startIndex  = ipIndex;
+
+        this.future.setCancelHandler(new Runnable() {
+            public void run() {
+                MasterServerQuery.this.stop();
+            }
+        });
+    }
+
+    /**
+     * Returns the future that completes when all servers have been passed to
+     * the listener
+     *
+     * @return The future of this query
+     */
+    QueryFuture<Void> getFuture() {
+        return this.future;
+    }
+
+    public synchronized void handleDatagram(InetSocketAddress address, ByteBuffer data) {
+        if (this.stopped) {
+            return;
+        }
+
+        try {
+            if (data.getInt() != -1) {
+                throw new PacketFormatException("Master query response has wrong packet header.");
+            }
+
+            SteamPacket packet = SteamPacketFactory.getPacketFromData(data);
+            if (!(packet instanceof M2A_SERVER_BATCH_Packet)) {
+                throw new PacketFormatException("Unexpected reply of type \"" + packet.getClass().getSimpleName() + "\".");
+            }
+
+            ServerAddressList addresses = ((M2A_SERVER_BATCH_Packet) packet).getAddresses();
+            if (!this.answersRequest(addresses)) {
+                LOG.debug("Discarding duplicate reply from master server " + address + ".");
+                return;
+            }
+
+            this.lastBatch = addresses;
+
+            boolean finished = false;
+            ServerAddressList servers = new ServerAddressList(addresses.size());
+            for (int i = 0; i < addresses.size(); i ++) {
+                this.lastServer = addresses.get(i);
+                if (MasterServer.isEndOfList(this.lastServer)) {
+                    finished = true;
+                } else {
+                    servers.add(this.lastServer);
+                }
+            }
+
+            if (!servers.isEmpty()) {
+                this.deliverBatch(servers);
+            }
+
+            if (finished) {
+                this.stop();
+                this.deliverResult(null);
+            } else {
+                this.failCount = 0;
+                this.send();
+            }
+        } catch (SteamCondenserException | RuntimeException e) {
+            this.stop();
+            this.deliverResult(e);
+        }
+    }
+
+    /**
+     * Returns the last batch received from the master server
+     *
+     * @return The addresses of the last batch or <code>null</code>
+     */
+    synchronized ServerAddressList getLastBatch() {
+        return this.lastBatch;
+    }
+
+    /**
+     * Sets the last batch received from the master server by a previous
+     * query using the same address
+     * <p>
+     * Late or duplicate replies to the previous query are discarded.
+     *
+     * @param lastBatch The addresses of the last batch of the previous query
+     */
+    void setLastBatch(ServerAddressList lastBatch) {
+        this.lastBatch = lastBatch;
+    }
+
+    /**
+     * Returns whether the given batch answers the outstanding request
+     * <p>
+     * A batch ending with the seed of the outstanding request or equal to
+     * the last batch is a late or duplicate reply to a previous request,
+     * which has been answered already.
+     *
+     * @param addresses The addresses of the received batch
+     * @return <code>true</code> if the batch answers the outstanding request
+     */
+    private boolean answersRequest(ServerAddressList addresses) {
+        if (addresses.isEmpty()) {
+            return true;
+        }
+
+        if (this.requestedSeed != 0 &&
+            addresses.get(addresses.size() - 1) == this.requestedSeed) {
+            return false;
+        }
+
+        if (this.lastBatch == null || this.lastBatch.size() != addresses.size()) {
+            return true;
+        }
+        for (int i = 0; i < addresses.size(); i ++) {
+            if (addresses.get(i) != this.lastBatch.get(i)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Starts querying the master server
+     */
+    synchronized void start() {
+        this.address = new InetSocketAddress(this.ipAddresses.get(this.ipIndex), this.port);
+
+        try {
+            this.reactor.register(this.address, this);
+            this.send();
+        } catch (SteamCondenserException | RuntimeException e) {
+            this.stop();
+            this.deliverResult(e);
+        }
+    }
+
+    /**
+     * Queues the given batch of servers to be passed to the listener
+     *
+     * @param servers The servers of the batch
+     */
+    private void deliverBatch(final ServerAddressList servers) {
+        this.deliver(new Runnable() {
+            public void run() {
+                if (MasterServerQuery.this.future.isDone()) {
+                    return;
+                }
+
+                try {
+                    MasterServerQuery.this.listener.onBatch(servers);
+                } catch (RuntimeException e) {
+                    LOG.warn("Batch listener failed.", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues the completion of the future after all batches queued before
+     *
+     * @param error The error to fail the future with or <code>null</code> if
+     *        all servers have been received
+     */
+    private void deliverResult(final Throwable error) {
+        this.deliver(new Runnable() {
+            public void run() {
+                if (error == null) {
+                    MasterServerQuery.this.future.complete(null);
+                } else {
+                    MasterServerQuery.this.future.fail(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Queues the given task and runs all queued tasks one after another
+     * using the executor
+     * <p>
+     * Only one task runs at a time, so the listener is never called
+     * concurrently even if the executor uses multiple threads.
+     *
+     * @param task The task to queue
+     */
+    private void deliver(Runnable task) {
+        this.deliveries.add(task);
+        if (this.delivering.compareAndSet(false, true)) {
+            this.executor.execute(new Runnable() {
+                public void run() {
+                    MasterServerQuery.this.drainDeliveries();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs all queued tasks
+     */
+    private void drainDeliveries() {
+        do {
+            Runnable task;
+            while ((task = this.deliveries.poll()) != null) {
+                task.run();
+            }
+            this.delivering.set(false);
+        } while (!this.deliveries.isEmpty() && this.delivering.compareAndSet(false, true));
+    }
+
+    /**
+     * Requests the next batch of servers and schedules the request's timeout
+     *
+     * @throws SteamCondenserException if the request cannot be sent
+     */
+    private void send() throws SteamCondenserException {
+        if (this.timeoutTask != null) {
+            this.timeoutTask.cancel(false);
+        }
+        final int requestNumber = ++ this.requestCount;
+        this.timeoutTask = this.reactor.schedule(new Runnable() {
+            public void run() {
+                MasterServerQuery.this.timeout(requestNumber);
+            }
+        }, SteamSocket.getTimeout());
+
+        this.requestedSeed = this.lastServer;
+        SteamPacket request = new A2M_GET_SERVERS_BATCH2_Packet(this.regionCode, ServerAddressList.toString(this.lastServer), this.filter);
+        this.reactor.send(this.address, ByteBuffer.wrap(request.getBytes()));
+    }
+
+    /**
+     * Stops waiting for replies of the master server
+     */
+    private synchronized void stop() {
+        this.stopped = true;
+        if (this.timeoutTask != null) {
+            this.timeoutTask.cancel(false);
+        }
+        this.reactor.unregister(this.address, this);
+    }
+
+    /**
+     * Repeats the given request if it is still unanswered
+     * <p>
+     * After too many timeouts the next IP address of the master server is
+     * used. If all IP addresses have been used the query fails.
+     *
+     * @param requestNumber The number of the timed out request
+     */
+    private synchronized void timeout(int requestNumber) {
+        if (this.stopped || this.requestCount != requestNumber) {
+            return;
+        }
+
+        try {
+            this.failCount ++;
+            if (this.failCount == MasterServer.retries) {
+                this.stop();
+                this.ipIndex = (this.ipIndex + 1) % this.ipAddresses.size();
+                if (this.ipIndex == this.startIndex) {
+                    this.deliverResult(new TimeoutException());
+                    return;
+                }
+
+                LOG.info("Request to master server failed, retrying " + this.ipAddresses.get(this.ipIndex) + "...");
+                this.failCount = 0;
+                this.stopped   = false;
+                this.address = new InetSocketAddress(this.ipAddresses.get(this.ipIndex), this.port);
+                this.reactor.register(this.address, this);
+            } else {
+                LOG.info("Request to master server " + this.address + " timed out, retrying...");
+            }
+            this.send();
+        } catch (SteamCondenserException | RuntimeException e) {
+            this.stop();
+            this.deliverResult(e);
+        }
+    }
+
+}
@@ -0,0 +1,288 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.sockets.SendPacer;
+
+/**
+ * This class represents the state of fetching the server list of a master
+ * server
+ * <p>
+ * The session records the last server of each batch received, which is used
+ * as the seed for the next request. If fetching the servers fails, e.g.
+ * because the master server throttles the client, the session can be passed
+ * to {@link MasterServer#crawl} again to continue with the next batch
+ * instead of starting from the beginning. Sessions can be saved to and
+ * loaded from a stream, so a crawl can even be continued after a restart.
+ * <p>
+ * Requests are paced to the configured rate. If the master server stops
+ * replying, each retry is delayed twice as long as the previous one up to a
+ * maximum delay.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer#crawl
+ */
+public class MasterServerSession {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x53434d53;
+
+    private long backoff;
+
+    private final String filter;
+
+    private boolean finished;
+
+    private long initialBackoff;
+
+    private long lastServer;
+
+    private long maxBackoff;
+
+    private SendPacer pacer;
+
+    private final byte regionCode;
+
+    private final ServerAddressSet servers;
+
+    /**
+     * Loads a session that has been saved using {@link #save}
+     *
+     * @param input The stream to read the session from
+     * @return The loaded session
+     * @throws SteamCondenserException if the session cannot be read
+     */
+    public static MasterServerSession load(InputStream input)
+            throws SteamCondenserException {
+        try {
+            DataInputStream data = new DataInputStream(input);
+            if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION) {
+                throw new SteamCondenserException("Unsupported master server session format.");
+            }
+
+            MasterServerSession session = new MasterServerSession(data.readByte(), data.readUTF());
+            session.lastServer = data.readLong();
+            session.finished   = data.readBoolean();
+            int serverCount = data.readInt();
+            for (int i = 0; i < serverCount; i ++) {
+                session.servers.add(data.readLong());
+            }
+
+            return session;
+        } catch (IOException e) {
+            throw new SteamCondenserException("Cannot load master server session: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a new session for the servers matching the given region and
+     * filters
+     * <p>
+     * Requests are not paced by default. Retries after a timeout are delayed
+     * by one second at first and up to 30 seconds.
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @see MasterServer#getServers(byte, String, boolean)
+     */
+    public MasterServerSession(byte regionCode, String filter) {
+        this(regionCode, filter, new ServerAddressSet());
+        this.initialBackoff = 1000;
+        this.maxBackoff     = 30000;
+    }
+
+    /**
+     * Creates a new session that doesn't delay retries
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param servers The set to collect the servers in or <code>null</code>
+     *        to not collect them
+     */
+    MasterServerSession(byte regionCode, String filter, ServerAddressSet servers) {
+        this.filter     = filter;
+        this.lastServer = 0;
+        this.regionCode = regionCode;
+        this.servers    = servers;
+    }
+
+    /**
+     * Returns the filters that game servers should match
+     *
+     * @return The filters of this session
+     */
+    public String getFilter() {
+        return this.filter;
+    }
+
+    /**
+     * Returns the last server received from the master server which is used
+     * as the seed of the next request
+     *
+     * @return The packed address of the last server or <code>0</code> if no
+     *         servers have been received yet
+     */
+    public long getLastServer() {
+        return this.lastServer;
+    }
+
+    /**
+     * Returns the region code of the game servers
+     *
+     * @return The region code of this session
+     */
+    public byte getRegionCode() {
+        return this.regionCode;
+    }
+
+    /**
+     * Returns the servers received in this session
+     *
+     * @return The packed addresses of the game servers received so far
+     */
+    public ServerAddressSet getServers() {
+        return this.servers;
+    }
+
+    /**
+     * Returns whether the master server has sent the end of the server list
+     *
+     * @return <code>true</code> if all servers have been received
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Saves this session to the given stream
+     *
+     * @param output The stream to write the session to
+     * @throws SteamCondenserException if the session cannot be written
+     */
+    public void save(OutputStream output) throws SteamCondenserException {
+        try {
+            DataOutputStream data = new DataOutputStream(output);
+            data.writeInt(MAGIC);
+            data.writeInt(FORMAT_VERSION);
+            data.writeByte(this.regionCode);
+            data.writeUTF(this.filter);
+            data.writeLong(this.lastServer);
+            data.writeBoolean(this.finished);
+
+            ServerAddressList servers = this.servers.toList();
+            data.writeInt(servers.size());
+            for (int i = 0; i < servers.size(); i ++) {
+                data.writeLong(servers.get(i));
+            }
+            data.flush();
+        } catch (IOException e) {
+            throw new SteamCondenserException("Cannot save master server session: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sets the delays of retries after the master server stopped replying
+     *
+     * @param initialBackoff The delay of the first retry in milliseconds
+     * @param maxBackoff The maximum delay of a retry in milliseconds
+     */
+    public void setBackoff(long initialBackoff, long maxBackoff) {
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff     = maxBackoff;
+    }
+
+    /**
+     * Sets the maximum number of requests sent per second
+     *
+     * @param requestsPerSecond The maximum number of requests per second or
+     *        <code>0</code> for no limit
+     */
+    public void setRequestRate(double requestsPerSecond) {
+        if (requestsPerSecond > 0) {
+            this.pacer = new SendPacer(requestsPerSecond, 0);
+        } else {
+            this.pacer = null;
+        }
+    }
+
+    /**
+     * Records the given batch of servers received from the master server
+     *
+     * @param addresses The packed addresses of the batch
+     * @return The game servers of the batch without the end of the list
+     */
+    ServerAddressList addBatch(ServerAddressList addresses) {
+        this.backoff = 0;
+        if (this.pacer != null) {
+            this.pacer.onReply();
+        }
+
+        ServerAddressList batch = new ServerAddressList(addresses.size());
+        for (int i = 0; i < addresses.size(); i ++) {
+            this.lastServer = addresses.get(i);
+            if (MasterServer.isEndOfList(this.lastServer)) {
+                this.finished = true;
+            } else {
+                batch.add(this.lastServer);
+                if (this.servers != null) {
+                    this.servers.add(this.lastServer);
+                }
+            }
+        }
+
+        return batch;
+    }
+
+    /**
+     * Waits until the next request may be sent
+     *
+     * @throws SteamCondenserException if the calling thread is interrupted
+     */
+    void awaitRequest() throws SteamCondenserException {
+        try {
+            if (this.backoff > 0) {
+                Thread.sleep(this.backoff);
+            }
+            if (this.pacer != null) {
+                this.pacer.acquire(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteamCondenserException("Interrupted while waiting for the master server.", e);
+        }
+    }
+
+    /**
+     * Records a request that timed out and increases the delay of the next
+     * request
+     */
+    void onTimeout() {
+        if (this.pacer != null) {
+            this.pacer.onTimeout();
+        }
+
+        if (this.backoff == 0) {
+            this.backoff = this.initialBackoff;
+        } else {
+            this.backoff = Math.min(this.maxBackoff, this.backoff * 2);
+        }
+    }
+
+}
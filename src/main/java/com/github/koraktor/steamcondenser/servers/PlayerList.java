@@ -0,0 +1,386 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+/**
+ * This class represents the list of players currently playing on a game
+ * server
+ * <p>
+ * The players are stored in the order sent by the server in parallel arrays
+ * of their IDs, names, scores and connection times. In contrast to the map
+ * returned by {@link GameServer#getPlayers}, players with the same name are
+ * all kept in this list.
+ * <p>
+ * Additional information retrieved using RCON is only stored for the
+ * players it has been added to.
+ *
+ * @author Sebastian Staudt
+ * @see GameServer#getPlayerList
+ */
+public class PlayerList implements Iterable<PlayerList.Player> {
+
+    private final float[] connectTimes;
+
+    private SteamPlayer[] extendedPlayers;
+
+    private final int[] ids;
+
+    private final String[] names;
+
+    private final int[] scores;
+
+    private final int size;
+
+    /**
+     * Creates a new player list from the given player data
+     * <p>
+     * The arrays are used directly and must not be modified afterwards.
+     *
+     * @param ids The IDs of the players on the server
+     * @param names The names of the players
+     * @param scores The scores of the players
+     * @param connectTimes The times the players are connected to the server
+     * @param size The number of players to use from the given arrays
+     */
+    public PlayerList(int[] ids, String[] names, int[] scores, float[] connectTimes, int size) {
+        this.connectTimes = connectTimes;
+        this.ids          = ids;
+        this.names        = names;
+        this.scores       = scores;
+        this.size         = size;
+    }
+
+    /**
+     * Extends the players in this list with information retrieved from a
+     * RCON call to the status command
+     * <p>
+     * Game servers list the players in the same order in both the
+     * A2S_PLAYER response and the status command, so the status rows are
+     * matched to the next player with the same name in that order. This
+     * allows players with the same name to be extended correctly.
+     *
+     * @param playerData The player data retrieved from <code>rcon
+     *        status</code>, one map per player
+     * @throws SteamCondenserException if the player data cannot be parsed
+     */
+    public void addInformation(List<Map<String, String>> playerData)
+            throws SteamCondenserException {
+        if (this.extendedPlayers == null) {
+            this.extendedPlayers = new SteamPlayer[this.size];
+        }
+
+        int next = 0;
+        for (Map<String, String> statusRow : playerData) {
+            int row = this.findUnextended(statusRow.get("name"), next, this.size);
+            if (row < 0) {
+                row = this.findUnextended(statusRow.get("name"), 0, next);
+                if (row < 0) {
+                    continue;
+                }
+            } else {
+                next = row + 1;
+            }
+
+            SteamPlayer player = this.toSteamPlayer(row);
+            player.addInformation(statusRow);
+            this.extendedPlayers[row] = player;
+        }
+    }
+
+    /**
+     * Returns a view of the player in the given row of this list
+     *
+     * @param row The row of the player
+     * @return The player in the given row
+     */
+    public Player get(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Invalid player row: " + row);
+        }
+
+        return new Player(row);
+    }
+
+    /**
+     * Returns the time the player in the given row is connected to the
+     * server
+     *
+     * @param row The row of the player
+     * @return The connection time of the player
+     */
+    public float getConnectTime(int row) {
+        return this.connectTimes[row];
+    }
+
+    /**
+     * Returns the ID of the player in the given row
+     *
+     * @param row The row of the player
+     * @return The ID of the player on the server
+     */
+    public int getId(int row) {
+        return this.ids[row];
+    }
+
+    /**
+     * Returns the name of the player in the given row
+     *
+     * @param row The row of the player
+     * @return The name of the player
+     */
+    public String getName(int row) {
+        return this.names[row];
+    }
+
+    /**
+     * Returns the score of the player in the given row
+     *
+     * @param row The row of the player
+     * @return The score of the player
+     */
+    public int getScore(int row) {
+        return this.scores[row];
+    }
+
+    /**
+     * Returns an iterator over lightweight views of the players in this
+     * list
+     *
+     * @return An iterator over the players in the order sent by the server
+     */
+    @Override
+    public Iterator<Player> iterator() {
+        return new Iterator<Player>() {
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.row < PlayerList.this.size;
+            }
+
+            @Override
+            public Player next() {
+                if (this.row >= PlayerList.this.size) {
+                    throw new NoSuchElementException();
+                }
+                return new Player(this.row ++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Returns the number of players in this list
+     *
+     * @return The number of players
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns all players as a map of player names and player objects
+     * <p>
+     * If several players share the same name, only the last one of them is
+     * contained in the map.
+     *
+     * @return A new map with the players of the server
+     */
+    public HashMap<String, SteamPlayer> toMap() {
+        HashMap<String, SteamPlayer> players = new HashMap<>(this.size * 4 / 3 + 1);
+        for (int row = 0; row < this.size; row ++) {
+            players.put(this.names[row], this.toSteamPlayer(row));
+        }
+
+        return players;
+    }
+
+    /**
+     * Returns a string representation of this player list
+     *
+     * @return The players as a string
+     */
+    @Override
+    public String toString() {
+        StringBuilder players = new StringBuilder("[");
+        for (int row = 0; row < this.size; row ++) {
+            if (row > 0) {
+                players.append(", ");
+            }
+            players.append(this.toSteamPlayer(row));
+        }
+
+        return players.append(']').toString();
+    }
+
+    /**
+     * Returns the first row in the given range containing a player with the
+     * given name that has not been extended yet
+     *
+     * @param name The name of the player
+     * @param from The first row to search
+     * @param to The row to stop the search at
+     * @return The row of the player or <code>-1</code> if there's no such
+     *         player
+     */
+    private int findUnextended(String name, int from, int to) {
+        for (int row = from; row < to; row ++) {
+            if (this.extendedPlayers[row] == null && this.names[row].equals(name)) {
+                return row;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns a player object for the player in the given row
+     *
+     * @param row The row of the player
+     * @return The extended player object if RCON information has been added
+     *         for this player, a new player object otherwise
+     */
+    private SteamPlayer toSteamPlayer(int row) {
+        if (this.extendedPlayers != null && this.extendedPlayers[row] != null) {
+            return this.extendedPlayers[row];
+        }
+
+        return new SteamPlayer(this.ids[row], this.names[row], this.scores[row], this.connectTimes[row]);
+    }
+
+    /**
+     * This class is a view of a single row of a player list
+     */
+    public class Player {
+
+        private final int row;
+
+        Player(int row) {
+            this.row = row;
+        }
+
+        /**
+         * Returns the connection ID (as used on the server) of this player
+         *
+         * @return The connection ID of the player or <code>0</code> if no
+         *         RCON information has been added
+         */
+        public int getConnectionId() {
+            SteamPlayer player = this.getExtendedPlayer();
+            return (player == null) ? 0 : player.getConnectionId();
+        }
+
+        /**
+         * Returns the time this player is connected to the server
+         *
+         * @return The connection time of the player
+         */
+        public float getConnectTime() {
+            return connectTimes[this.row];
+        }
+
+        /**
+         * Returns the ID of this player
+         *
+         * @return The ID of the player on the server
+         */
+        public int getId() {
+            return ids[this.row];
+        }
+
+        /**
+         * Returns the nickname of this player
+         *
+         * @return The name of the player
+         */
+        public String getName() {
+            return names[this.row];
+        }
+
+        /**
+         * Returns the ping of this player
+         *
+         * @return The ping of the player or <code>0</code> if no RCON
+         *         information has been added
+         */
+        public int getPing() {
+            SteamPlayer player = this.getExtendedPlayer();
+            return (player == null) ? 0 : player.getPing();
+        }
+
+        /**
+         * Returns the row of this player in the list
+         *
+         * @return The row of the player
+         */
+        public int getRow() {
+            return this.row;
+        }
+
+        /**
+         * Returns the score of this player
+         *
+         * @return The score of the player
+         */
+        public int getScore() {
+            return scores[this.row];
+        }
+
+        /**
+         * Returns the SteamID of this player
+         *
+         * @return The SteamID of the player or <code>null</code> if no RCON
+         *         information has been added
+         */
+        public String getSteamId() {
+            SteamPlayer player = this.getExtendedPlayer();
+            return (player == null) ? null : player.getSteamId();
+        }
+
+        /**
+         * Returns whether RCON information has been added for this player
+         *
+         * @return <code>true</code> if this player has extended information
+         */
+        public boolean isExtended() {
+            return this.getExtendedPlayer() != null;
+        }
+
+        /**
+         * Returns a player object with all information about this player
+         *
+         * @return The player object
+         */
+        public SteamPlayer toSteamPlayer() {
+            return PlayerList.this.toSteamPlayer(this.row);
+        }
+
+        @Override
+        public String toString() {
+            return this.toSteamPlayer().toString();
+        }
+
+        private SteamPlayer getExtendedPlayer() {
+            return (extendedPlayers == null) ? null : extendedPlayers[this.row];
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+/**
+ * This interface is implemented by classes that want to be notified when a
+ * {@link QueryFuture} completes
+ *
+ * @param <T> The type of the query's result
+ * @author Sebastian Staudt
+ * @see QueryFuture#addCallback
+ */
+public interface QueryCallback<T> {
+
+    /**
+     * Called when the query failed, timed out or has been cancelled
+     *
+     * @param error The error that caused the query to fail. This is a
+     *        {@link java.util.concurrent.CancellationException} if the query
+     *        has been cancelled.
+     */
+    void onFailure(Throwable error);
+
+    /**
+     * Called when the query completed successfully
+     *
+     * @param result The result of the query
+     */
+    void onSuccess(T result);
+
+}
@@ -0,0 +1,309 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class represents the pending result of an asynchronous query
+ * <p>
+ * Query futures are completed by the I/O thread receiving the reply of a
+ * server. Callbacks added using {@link #addCallback} are always run using the
+ * executor given when the query was started, so no user code is ever run on
+ * the I/O thread.
+ * <p>
+ * Cancelling a query future stops waiting for the reply and frees the
+ * resources used by the query.
+ *
+ * @param <T> The type of the query's result
+ * @author Sebastian Staudt
+ */
+public class QueryFuture<T> implements Future<T> {
+
+    private final List<QueryCallback<? super T>> callbacks;
+
+    private volatile Runnable cancelHandler;
+
+    private final CountDownLatch doneLatch;
+
+    private Throwable error;
+
+    private final Executor executor;
+
+    private boolean isCancelled;
+
+    private boolean isDone;
+
+    private T result;
+
+    private Thread runner;
+
+    /**
+     * Runs the given task using the given executor and returns a future for
+     * its result
+     * <p>
+     * Cancelling the returned future will interrupt the thread running the
+     * task if <code>mayInterruptIfRunning</code> is <code>true</code>.
+     *
+     * @param task The task to run
+     * @param executor The executor to run the task and callbacks with
+     * @param <T> The type of the task's result
+     * @return A future for the result of the task
+     */
+    static <T> QueryFuture<T> submit(final Callable<T> task, Executor executor) {
+        final QueryFuture<T> future = new QueryFuture<>(executor);
+
+        executor.execute(new Runnable() {
+            public void run() {
+                synchronized (future) {
+                    if (future.isDone) {
+                        return;
+                    }
+                    future.runner = Thread.currentThread();
+                }
+
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.fail(e);
+                } finally {
+                    synchronized (future) {
+                        future.runner = null;
+                    }
+                    Thread.interrupted();
+                }
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Creates a new incomplete future
+     *
+     * @param executor The executor to run callbacks with
+     */
+    public QueryFuture(Executor executor) {
+        this.callbacks = new ArrayList<>();
+        this.doneLatch = new CountDownLatch(1);
+        this.executor  = executor;
+    }
+
+    /**
+     * Adds a callback that is notified when this future completes
+     * <p>
+     * If this future is already completed, the callback is scheduled
+     * immediately.
+     *
+     * @param callback The callback to add
+     */
+    public void addCallback(QueryCallback<? super T> callback) {
+        synchronized (this) {
+            if (!this.isDone) {
+                this.callbacks.add(callback);
+                return;
+            }
+        }
+
+        this.notifyCallback(callback);
+    }
+
+    /**
+     * Cancels the query represented by this future
+     *
+     * @param mayInterruptIfRunning Whether a thread running a blocking task
+     *        for this future should be interrupted
+     * @return <code>false</code> if this future has already been completed
+     */
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!this.finish(null, new CancellationException(), true)) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (mayInterruptIfRunning && this.runner != null) {
+                this.runner.interrupt();
+            }
+        }
+
+        if (this.cancelHandler != null) {
+            this.cancelHandler.run();
+        }
+
+        return true;
+    }
+
+    /**
+     * Completes this future with the given result
+     *
+     * @param result The result of the query
+     * @return <code>false</code> if this future has already been completed
+     */
+    public boolean complete(T result) {
+        return this.finish(result, null, false);
+    }
+
+    /**
+     * Completes this future with the given error
+     *
+     * @param error The error that caused the query to fail
+     * @return <code>false</code> if this future has already been completed
+     */
+    public boolean fail(Throwable error) {
+        return this.finish(null, error, false);
+    }
+
+    /**
+     * Waits for the query to complete and returns its result
+     *
+     * @return The result of the query
+     * @throws CancellationException if the query has been cancelled
+     * @throws ExecutionException if the query failed
+     * @throws InterruptedException if the current thread was interrupted
+     *         while waiting
+     */
+    public T get() throws InterruptedException, ExecutionException {
+        this.doneLatch.await();
+
+        return this.getResult();
+    }
+
+    /**
+     * Waits at most the given time for the query to complete and returns its
+     * result
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout argument
+     * @return The result of the query
+     * @throws CancellationException if the query has been cancelled
+     * @throws ExecutionException if the query failed
+     * @throws InterruptedException if the current thread was interrupted
+     *         while waiting
+     * @throws TimeoutException if the query did not complete in time
+     */
+    public T get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (!this.doneLatch.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+
+        return this.getResult();
+    }
+
+    /**
+     * Returns whether this future has been cancelled
+     *
+     * @return <code>true</code> if this future has been cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return this.isCancelled;
+    }
+
+    /**
+     * Returns whether this future has been completed
+     *
+     * @return <code>true</code> if this future has been completed,
+     *         successfully or not
+     */
+    public synchronized boolean isDone() {
+        return this.isDone;
+    }
+
+    /**
+     * Sets a task to run when this future is cancelled
+     * <p>
+     * This is used to clean up pending requests when a query is cancelled.
+     *
+     * @param cancelHandler The task to run on cancellation
+     */
+    void setCancelHandler(Runnable cancelHandler) {
+        this.cancelHandler = cancelHandler;
+    }
+
+    /**
+     * Completes this future and schedules all callbacks
+     *
+     * @param result The result of the query
+     * @param error The error that caused the query to fail
+     * @param cancelled Whether the query has been cancelled
+     * @return <code>false</code> if this future has already been completed
+     */
+    private boolean finish(T result, Throwable error, boolean cancelled) {
+        List<QueryCallback<? super T>> callbacks;
+        synchronized (this) {
+            if (this.isDone) {
+                return false;
+            }
+            this.error       = error;
+            this.isCancelled = cancelled;
+            this.isDone      = true;
+            this.result      = result;
+            callbacks = new ArrayList<>(this.callbacks);
+            this.callbacks.clear();
+        }
+
+        this.doneLatch.countDown();
+
+        for (QueryCallback<? super T> callback : callbacks) {
+            this.notifyCallback(callback);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the result of this completed future
+     *
+     * @return The result of the query
+     * @throws ExecutionException if the query failed
+     */
+    private synchronized T getResult() throws ExecutionException {
+        if (this.isCancelled) {
+            throw new CancellationException();
+        }
+        if (this.error != null) {
+            throw new ExecutionException(this.error);
+        }
+
+        return this.result;
+    }
+
+    /**
+     * Schedules the given callback using this future's executor
+     *
+     * @param callback The callback to notify
+     */
+    private void notifyCallback(final QueryCallback<? super T> callback) {
+        final T result;
+        final Throwable error;
+        synchronized (this) {
+            result = this.result;
+            error  = this.error;
+        }
+
+        this.executor.execute(new Runnable() {
+            public void run() {
+                if (error == null) {
+                    callback.onSuccess(result);
+                } else {
+                    callback.onFailure(error);
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class implements a global dictionary of server rule names
+ * <p>
+ * Game servers running the same game use nearly identical rule names, so
+ * each name is stored only once and identified by an integer ID. IDs are
+ * assigned in the order names are first seen and stay valid for the
+ * lifetime of the JVM.
+ * <p>
+ * Names are never removed, so the number of names is limited. Otherwise
+ * servers sending random rule names could grow the dictionary without
+ * bound. Once the limit is reached, new names are stored by each
+ * {@link ServerRules} instance instead.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see ServerRules
+ */
+public final class RuleNames {
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private static volatile int maxSize = 65536;
+
+    private static volatile String[] names = new String[256];
+
+    private static int size = 0;
+
+    private RuleNames() {}
+
+    /**
+     * Returns the maximum number of rule names in this dictionary
+     *
+     * @return The maximum number of rule names
+     * @see #setMaxSize
+     */
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of rule names in this dictionary (default:
+     * 65,536)
+     * <p>
+     * Names that have already been added are kept if the dictionary is
+     * larger than this.
+     *
+     * @param maxSize The maximum number of rule names
+     */
+    public static void setMaxSize(int maxSize) {
+        RuleNames.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the ID of the given rule name
+     * <p>
+     * A new ID is assigned if the name has not been seen before and the
+     * dictionary is not full yet.
+     *
+     * @param name The name of the rule
+     * @return The ID of the rule name or <code>-1</code> if the name is
+     *         unknown and the dictionary is full
+     * @see #setMaxSize
+     */
+    public static int getId(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (RuleNames.class) {
+            id = ids.get(name);
+            if (id == null) {
+                if (size >= maxSize) {
+                    return -1;
+                }
+                if (size == names.length) {
+                    names = Arrays.copyOf(names, size * 2);
+                }
+                id = size;
+                names[size ++] = name;
+                ids.put(name, id);
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns the ID of the given rule name without assigning a new one
+     *
+     * @param name The name of the rule
+     * @return The ID of the rule name or <code>-1</code> if the name is
+     *         unknown
+     */
+    public static int findId(String name) {
+        Integer id = ids.get(name);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Returns the rule name with the given ID
+     *
+     * @param id The ID of the rule name
+     * @return The name of the rule
+     * @throws IndexOutOfBoundsException if the ID has not been assigned
+     */
+    public static String getName(int id) {
+        String name = (id < 0 || id >= names.length) ? null : names[id];
+        if (name == null) {
+            throw new IndexOutOfBoundsException("Unknown rule name ID: " + id);
+        }
+
+        return name;
+    }
+
+    /**
+     * Returns the number of rule names in this dictionary
+     *
+     * @return The number of rule names
+     */
+    public static int size() {
+        return ids.size();
+    }
+
+}
@@ -8,9 +8,10 @@
 package com.github.koraktor.steamcondenser.servers;
 
 import java.net.InetAddress;
-import java.net.UnknownHostException;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
 
@@ -22,7 +23,9 @@ import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
  *
  * @author Sebastian Staudt
  */
-public abstract class Server {
+public abstract class Server implements AutoCloseable {
+
+    protected static AddressResolver defaultAddressResolver = AddressResolver.getShared();
 
     protected List<String> hostNames;
 
@@ -34,15 +37,23 @@ public abstract class Server {
 
     protected int port;
 
+    protected QueryFuture<List<InetAddress>> resolution;
+
     /**
      * Creates a new server instance with the given address and port
+     * <p/>
+     * No sockets are opened here, they are initialized when communicating
+     * with the server for the first time. Host names are resolved in the
+     * background using the address resolver, so this doesn't block unless
+     * the server is used before its host name has been resolved.
      *
      * @param address Either an IP address, a DNS name or one of them combined
      *        with the port number. If a port number is given, e.g.
      *        'server.example.com:27016' it will override the second argument.
      * @param port The port the server is listening on
      * @see #initSocket
-     * @throws SteamCondenserException if an host name cannot be resolved
+     * @see #setAddressResolver
+     * @throws SteamCondenserException if the address is invalid
      */
     protected Server(Object address, Integer port)
             throws SteamCondenserException {
@@ -60,27 +71,48 @@ public abstract class Server {
                 port = 27015;
             }
 
-            try {
-                for(InetAddress ipAddress : InetAddress.getAllByName((String) address)) {
-                    this.hostNames.add(ipAddress.getHostName());
-                    this.ipAddresses.add(ipAddress);
-                }
-            } catch(UnknownHostException e) {
-                throw new SteamCondenserException("Cannot resolve " + address + ": " + e.getMessage());
-            }
+            this.resolution = Server.defaultAddressResolver.resolveAsync((String) address);
         } else if(address instanceof InetAddress) {
-            this.hostNames.add(((InetAddress) address).getHostName());
-            this.ipAddresses.add((InetAddress) address);
+            List<InetAddress> ipAddresses = new ArrayList<>();
+            ipAddresses.add((InetAddress) address);
+            this.setIpAddresses(ipAddresses);
         }
 
         if(port == null) {
             throw new IllegalArgumentException("No port given");
         }
 
-        this.ipAddress = this.ipAddresses.get(0);
         this.port = port;
 
-        this.initSocket();
+        if (this.resolution != null && this.resolution.isDone()) {
+            this.tryResolve();
+        }
+    }
+
+    /**
+     * Sets the address resolver used by new server objects to resolve host
+     * names
+     *
+     * @param addressResolver The address resolver to use for new servers
+     * @see AddressResolver#getShared
+     */
+    public static void setAddressResolver(AddressResolver addressResolver) {
+        Server.defaultAddressResolver = addressResolver;
+    }
+
+    /**
+     * Closes all connections to this server
+     * <p>
+     * This allows using server objects in try-with-resources statements.
+     * Sockets of servers that are not closed are closed after they have
+     * been garbage collected.
+     *
+     * @see #disconnect
+     * @see com.github.koraktor.steamcondenser.servers.sockets.SteamSocket#setLeakDetection
+     */
+    @Override
+    public void close() {
+        this.disconnect();
     }
 
     /**
@@ -94,22 +126,57 @@ public abstract class Server {
 
     /**
      * Returns a list of host names associated with this server
+     * <p/>
+     * This waits for the host name of this server to be resolved. No reverse
+     * lookups are done, so IP addresses without a known host name are
+     * returned as IP address strings.
      *
-     * @return The host names of this server
+     * @return The host names of this server or an empty list if the host
+     *         name cannot be resolved
      */
     public List<String> getHostNames() {
+        this.tryResolve();
+
         return this.hostNames;
     }
 
     /**
      * Returns a list of IP addresses associated with this server
+     * <p/>
+     * This waits for the host name of this server to be resolved.
      *
-     * @return The IP addresses of this server
+     * @return The IP addresses of this server or an empty list if the host
+     *         name cannot be resolved
      */
     public List<InetAddress> getIpAddresses() {
+        this.tryResolve();
+
         return this.ipAddresses;
     }
 
+    /**
+     * Returns the address of this server used for communication
+     * <p/>
+     * This waits for the host name of this server to be resolved.
+     *
+     * @return The current IP address and port of this server
+     * @throws SteamCondenserException if the host name cannot be resolved
+     */
+    public InetSocketAddress getSocketAddress() throws SteamCondenserException {
+        this.resolve();
+
+        return new InetSocketAddress(this.ipAddress, this.port);
+    }
+
+    /**
+     * Returns whether the host name of this server has been resolved
+     *
+     * @return <code>true</code> if the IP addresses of this server are known
+     */
+    public synchronized boolean isResolved() {
+        return this.resolution == null;
+    }
+
     /**
      * Rotate this server's IP address to the next one in the IP list
      * <p/>
@@ -127,6 +194,8 @@ public abstract class Server {
      * @throws SteamCondenserException if initializing the socket fails
      */
     public boolean rotateIp() throws SteamCondenserException {
+        this.resolve();
+
         if(this.ipAddresses.size() == 1) {
             return true;
         }
@@ -134,25 +203,71 @@ public abstract class Server {
         this.ipIndex   = (this.ipIndex + 1) % this.ipAddresses.size();
         this.ipAddress = this.ipAddresses.get(this.ipIndex);
 
+        this.disconnect();
         this.initSocket();
 
         return this.ipIndex == 0;
     }
 
     /**
-     * Disconnects the connections to this server
+     * Waits for the host name of this server to be resolved
+     * <p/>
+     * This has to be called before using the IP address of this server.
      *
-     * @see #disconnect
+     * @throws SteamCondenserException if the host name cannot be resolved
      */
-    protected void finalize() {
-        this.disconnect();
+    protected synchronized void resolve() throws SteamCondenserException {
+        if (this.resolution == null) {
+            return;
+        }
+
+        try {
+            this.setIpAddresses(this.resolution.get());
+            this.resolution = null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SteamCondenserException) {
+                throw (SteamCondenserException) e.getCause();
+            }
+            throw new SteamCondenserException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteamCondenserException("Interrupted while resolving the server address.", e);
+        }
+    }
+
+    /**
+     * Sets the IP addresses of this server and uses the first one
+     *
+     * @param ipAddresses The IP addresses of this server
+     */
+    private void setIpAddresses(List<InetAddress> ipAddresses) {
+        this.hostNames.clear();
+        this.ipAddresses.clear();
+        for (InetAddress ipAddress : ipAddresses) {
+            this.hostNames.add(new InetSocketAddress(ipAddress, 0).getHostString());
+            this.ipAddresses.add(ipAddress);
+        }
+
+        this.ipAddress = this.ipAddresses.get(0);
+        this.ipIndex   = 0;
+    }
+
+    /**
+     * Waits for the host name of this server to be resolved, ignoring
+     * failures
+     */
+    private void tryResolve() {
+        try {
+            this.resolve();
+        } catch (SteamCondenserException ignored) {}
     }
 
     /**
      * Initializes the socket(s) to communicate with the server
      * <p/>
      * Must be implemented in subclasses to prepare sockets for server
-     * communication
+     * communication. This is called before the server is used for the first
+     * time and after its IP address has been rotated.
      *
      * @throws SteamCondenserException if initializing the socket fails
      */
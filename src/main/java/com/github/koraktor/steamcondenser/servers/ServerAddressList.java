@@ -0,0 +1,260 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class represents a list of game server addresses as sent by a master
+ * server
+ * <p>
+ * Each address is packed into a single <code>long</code> holding the IPv4
+ * address in bits 16 to 47 and the port in the lowest 16 bits, like the six
+ * bytes of the master server protocol. Addresses are only converted to
+ * {@link InetSocketAddress} objects when they are requested, without ever
+ * looking up a host name.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer#streamServers
+ */
+public class ServerAddressList {
+
+    private long[] addresses;
+
+    private int size;
+
+    /**
+     * Returns the packed representation of the given address
+     *
+     * @param ip The IPv4 address in network byte order
+     * @param port The port number
+     * @return The packed address
+     */
+    public static long pack(int ip, int port) {
+        return (ip & 0xFFFFFFFFL) << 16 | (port & 0xFFFF);
+    }
+
+    /**
+     * Returns the packed representation of the given socket address
+     *
+     * @param address The IPv4 socket address to pack
+     * @return The packed address
+     * @throws IllegalArgumentException if the address is not an IPv4 address
+     */
+    public static long pack(InetSocketAddress address) {
+        byte[] ip = address.getAddress().getAddress();
+        if (ip.length != 4) {
+            throw new IllegalArgumentException("Only IPv4 addresses can be packed");
+        }
+
+        return pack((ip[0] & 0xFF) << 24 | (ip[1] & 0xFF) << 16 | (ip[2] & 0xFF) << 8 | (ip[3] & 0xFF), address.getPort());
+    }
+
+    /**
+     * Returns the packed representation of the given address string
+     * <p>
+     * The address is parsed without looking up a host name.
+     *
+     * @param address The address in the <code>a.b.c.d:port</code> format
+     * @return The packed address
+     * @throws IllegalArgumentException if the address is not an IPv4 address
+     *         with a port
+     */
+    public static long pack(String address) {
+        int colon = address.lastIndexOf(':');
+        String[] octets = address.substring(0, Math.max(colon, 0)).split("\\.");
+        if (colon < 0 || octets.length != 4) {
+            throw new IllegalArgumentException("Invalid server address: " + address);
+        }
+
+        try {
+            int ip = 0;
+            for (String octet : octets) {
+                int value = Integer.parseInt(octet);
+                if (value < 0 || value > 255) {
+                    throw new IllegalArgumentException("Invalid server address: " + address);
+                }
+                ip = ip << 8 | value;
+            }
+            int port = Integer.parseInt(address.substring(colon + 1));
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Invalid server address: " + address);
+            }
+
+            return pack(ip, port);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid server address: " + address, e);
+        }
+    }
+
+    /**
+     * Returns the IPv4 address of the given packed address
+     *
+     * @param address The packed address
+     * @return The IPv4 address in network byte order
+     */
+    public static int getIp(long address) {
+        return (int) (address >>> 16);
+    }
+
+    /**
+     * Returns the port number of the given packed address
+     *
+     * @param address The packed address
+     * @return The port number
+     */
+    public static int getPort(long address) {
+        return (int) (address & 0xFFFF);
+    }
+
+    /**
+     * Converts the given packed address into a socket address
+     *
+     * @param address The packed address
+     * @return The socket address of the game server
+     */
+    public static InetSocketAddress toSocketAddress(long address) {
+        int ip = getIp(address);
+        byte[] ipBytes = new byte[] {
+            (byte) (ip >>> 24), (byte) (ip >>> 16), (byte) (ip >>> 8), (byte) ip
+        };
+
+        try {
+            return new InetSocketAddress(InetAddress.getByAddress(ipBytes), getPort(address));
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the given packed address in the <code>a.b.c.d:port</code>
+     * format used by master server requests
+     *
+     * @param address The packed address
+     * @return The string representation of the address
+     */
+    public static String toString(long address) {
+        int ip = getIp(address);
+        return (ip >>> 24) + "." + ((ip >>> 16) & 0xFF) + "." + ((ip >>> 8) & 0xFF) + "." + (ip & 0xFF) + ":" + getPort(address);
+    }
+
+    /**
+     * Creates a new empty address list
+     */
+    public ServerAddressList() {
+        this(16);
+    }
+
+    /**
+     * Creates a new empty address list with the given initial capacity
+     *
+     * @param capacity The number of addresses the list can hold before it
+     *        has to grow
+     */
+    public ServerAddressList(int capacity) {
+        this.addresses = new long[Math.max(1, capacity)];
+    }
+
+    /**
+     * Adds the given packed address to the end of this list
+     *
+     * @param address The packed address to add
+     */
+    public void add(long address) {
+        if (this.size == this.addresses.length) {
+            this.addresses = Arrays.copyOf(this.addresses, this.size * 2);
+        }
+        this.addresses[this.size ++] = address;
+    }
+
+    /**
+     * Returns the packed address at the given index
+     *
+     * @param index The index of the address
+     * @return The packed address
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+
+        return this.addresses[index];
+    }
+
+    /**
+     * Returns the address at the given index as a socket address
+     *
+     * @param index The index of the address
+     * @return The socket address of the game server
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public InetSocketAddress getSocketAddress(int index) {
+        return toSocketAddress(this.get(index));
+    }
+
+    /**
+     * Returns whether this list contains no addresses
+     *
+     * @return <code>true</code> if this list is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of addresses in this list
+     *
+     * @return The number of addresses
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a copy of the packed addresses in this list
+     *
+     * @return The packed addresses
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(this.addresses, this.size);
+    }
+
+    /**
+     * Converts all addresses in this list into socket addresses
+     *
+     * @return The socket addresses of the game servers
+     */
+    public List<InetSocketAddress> toSocketAddresses() {
+        List<InetSocketAddress> socketAddresses = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i ++) {
+            socketAddresses.add(toSocketAddress(this.addresses[i]));
+        }
+
+        return socketAddresses;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i ++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(toString(this.addresses[i]));
+        }
+
+        return builder.append(']').toString();
+    }
+
+}
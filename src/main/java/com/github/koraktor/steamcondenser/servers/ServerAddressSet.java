@@ -0,0 +1,164 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class represents a set of packed game server addresses
+ * <p>
+ * The addresses are stored in an open addressing hash table of
+ * <code>long</code> values, so large server lists can be deduplicated without
+ * creating objects for each server. Only the terminating
+ * <code>0.0.0.0:0</code> address (<code>0</code>) cannot be stored.
+ *
+ * @author Sebastian Staudt
+ * @see ServerAddressList
+ */
+public class ServerAddressSet {
+
+    private long[] table;
+
+    private int size;
+
+    /**
+     * Creates a new empty address set
+     */
+    public ServerAddressSet() {
+        this.table = new long[64];
+    }
+
+    /**
+     * Adds the given packed address to this set
+     *
+     * @param address The packed address to add
+     * @return <code>true</code> if the address has not been in this set
+     * @throws IllegalArgumentException if the address is <code>0</code>
+     */
+    public boolean add(long address) {
+        if (address == 0) {
+            throw new IllegalArgumentException("The empty address cannot be stored");
+        }
+
+        if ((this.size + 1) * 2 > this.table.length) {
+            this.grow();
+        }
+
+        int index = this.indexOf(this.table, address);
+        if (this.table[index] == address) {
+            return false;
+        }
+
+        this.table[index] = address;
+        this.size ++;
+        return true;
+    }
+
+    /**
+     * Adds all addresses of the given list to this set
+     *
+     * @param addresses The packed addresses to add
+     * @return The number of addresses that have not been in this set
+     */
+    public int addAll(ServerAddressList addresses) {
+        int added = 0;
+        for (int i = 0; i < addresses.size(); i ++) {
+            if (this.add(addresses.get(i))) {
+                added ++;
+            }
+        }
+
+        return added;
+    }
+
+    /**
+     * Returns whether the given packed address is in this set
+     *
+     * @param address The packed address
+     * @return <code>true</code> if the address is in this set
+     */
+    public boolean contains(long address) {
+        return address != 0 && this.table[this.indexOf(this.table, address)] == address;
+    }
+
+    /**
+     * Returns the number of addresses in this set
+     *
+     * @return The number of addresses
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the packed addresses in this set in no particular order
+     *
+     * @return The packed addresses
+     */
+    public ServerAddressList toList() {
+        ServerAddressList list = new ServerAddressList(this.size);
+        for (long address : this.table) {
+            if (address != 0) {
+                list.add(address);
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Converts all addresses in this set into socket addresses
+     *
+     * @return The socket addresses of the game servers
+     */
+    public Set<InetSocketAddress> toSocketAddresses() {
+        Set<InetSocketAddress> socketAddresses = new HashSet<>(this.size * 4 / 3 + 1);
+        for (long address : this.table) {
+            if (address != 0) {
+                socketAddresses.add(ServerAddressList.toSocketAddress(address));
+            }
+        }
+
+        return socketAddresses;
+    }
+
+    /**
+     * Doubles the size of the hash table
+     */
+    private void grow() {
+        long[] newTable = new long[this.table.length * 2];
+        for (long address : this.table) {
+            if (address != 0) {
+                newTable[this.indexOf(newTable, address)] = address;
+            }
+        }
+        this.table = newTable;
+    }
+
+    /**
+     * Returns the slot of the given address or the empty slot it would be
+     * stored in
+     *
+     * @param table The hash table to search
+     * @param address The packed address
+     * @return The index of the slot
+     */
+    private int indexOf(long[] table, long address) {
+        long hash = address * 0x9E3779B97F4A7C15L;
+        int mask = table.length - 1;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (table[index] != 0 && table[index] != address) {
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+/**
+ * This interface is implemented by classes that want to receive the server
+ * list of a master server batch by batch
+ * <p>
+ * Batches are passed to the listener in the order they are received from the
+ * master server, one at a time. A master server may list the same game
+ * server in more than one batch, e.g. after retrying a request.
+ * <p>
+ * The addresses are passed in their packed form, use
+ * {@link ServerAddressList#toSocketAddresses()} or
+ * {@link ServerAddressList#getSocketAddress(int)} to convert them when
+ * needed.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer#streamServers
+ * @see MasterServer#streamServersAsync
+ */
+public interface ServerBatchListener {
+
+    /**
+     * Called for each batch of game servers received from the master server
+     *
+     * @param servers The packed addresses of the game servers in this batch
+     */
+    void onBatch(ServerAddressList servers);
+
+}
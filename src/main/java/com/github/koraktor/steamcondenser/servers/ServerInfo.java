@@ -0,0 +1,636 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class represents the information replied by a game server in an
+ * S2A_INFO2 or S2A_INFO_DETAILED packet
+ * <p>
+ * The information is backed by the raw reply data and single fields are
+ * only decoded when they are accessed. This keeps the memory footprint of
+ * many server replies small, e.g. when scanning lots of servers.
+ *
+ * @author Sebastian Staudt
+ * @see com.github.koraktor.steamcondenser.servers.packets.S2A_INFO_BasePacket#getServerInfo
+ */
+public class ServerInfo {
+
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private static final byte EDF_GAME_ID     = (byte) 0x01;
+    private static final byte EDF_GAME_PORT   = (byte) 0x80;
+    private static final byte EDF_SERVER_ID   = (byte) 0x10;
+    private static final byte EDF_SERVER_TAGS = (byte) 0x20;
+    private static final byte EDF_SOURCE_TV   = (byte) 0x40;
+
+    private static final int APP_ID             = 0;
+    private static final int CL_DLL             = 1;
+    private static final int DEDICATED          = 2;
+    private static final int GAME_DESCRIPTION   = 3;
+    private static final int GAME_DIR           = 4;
+    private static final int GAME_ID            = 5;
+    private static final int GAME_VERSION       = 6;
+    private static final int IS_MOD             = 7;
+    private static final int MAP_NAME           = 8;
+    private static final int MAX_PLAYERS        = 9;
+    private static final int MOD_SIZE           = 10;
+    private static final int MOD_VERSION        = 11;
+    private static final int NETWORK_VERSION    = 12;
+    private static final int NUMBER_OF_BOTS     = 13;
+    private static final int NUMBER_OF_PLAYERS  = 14;
+    private static final int OPERATING_SYSTEM   = 15;
+    private static final int PASSWORD_PROTECTED = 16;
+    private static final int SECURE             = 17;
+    private static final int SERVER_ID          = 18;
+    private static final int SERVER_IP          = 19;
+    private static final int SERVER_NAME        = 20;
+    private static final int SERVER_PORT        = 21;
+    private static final int SERVER_TAGS        = 22;
+    private static final int SV_ONLY            = 23;
+    private static final int TV_NAME            = 24;
+    private static final int TV_PORT            = 25;
+    private static final int URL_DL             = 26;
+    private static final int URL_INFO           = 27;
+
+    private static final int FIELD_COUNT = 28;
+
+    private final ByteBuffer data;
+
+    private final boolean detailed;
+
+    private volatile int[] offsets;
+
+    /**
+     * Creates a new server information object backed by the given reply
+     * data
+     * <p>
+     * The data is not copied, so it must not be modified afterwards.
+     *
+     * @param data The content of the info packet replied by the server
+     * @param detailed <code>true</code> if the data has been replied in an
+     *        S2A_INFO_DETAILED packet, <code>false</code> for S2A_INFO2
+     */
+    public ServerInfo(ByteBuffer data, boolean detailed) {
+        this.data     = data.slice();
+        this.detailed = detailed;
+    }
+
+    /**
+     * Returns the Steam application ID of the game running on the server
+     *
+     * @return The application ID or <code>-1</code> if the server did not
+     *         send it
+     */
+    public int getAppId() {
+        int offset = this.offset(APP_ID);
+        return (offset < 0) ? -1 : Short.reverseBytes(this.data.getShort(offset)) & 0xFFFF;
+    }
+
+    /**
+     * Returns the type of the server
+     *
+     * @return <code>'d'</code> for dedicated servers, <code>'l'</code> for
+     *         listen servers and <code>'p'</code> for SourceTV proxies
+     */
+    public char getDedicated() {
+        return (char) this.getByte(DEDICATED);
+    }
+
+    /**
+     * Returns the description of the game running on the server
+     *
+     * @return The description of the game
+     */
+    public String getGameDescription() {
+        return this.getString(GAME_DESCRIPTION);
+    }
+
+    /**
+     * Returns the game directory of the game running on the server
+     *
+     * @return The game directory
+     */
+    public String getGameDir() {
+        return this.getString(GAME_DIR);
+    }
+
+    /**
+     * Returns the 64bit game ID of the game running on the server
+     *
+     * @return The game ID or <code>0</code> if the server did not send it
+     */
+    public long getGameId() {
+        return this.getLong(GAME_ID);
+    }
+
+    /**
+     * Returns the version of the game running on the server
+     *
+     * @return The game version or <code>null</code> if the server did not
+     *         send it
+     */
+    public String getGameVersion() {
+        return this.getString(GAME_VERSION);
+    }
+
+    /**
+     * Returns the name of the map currently running on the server
+     *
+     * @return The name of the map
+     */
+    public String getMapName() {
+        return this.getString(MAP_NAME);
+    }
+
+    /**
+     * Returns the maximum number of players on the server
+     *
+     * @return The maximum number of players
+     */
+    public int getMaxPlayers() {
+        return this.getByte(MAX_PLAYERS) & 0xFF;
+    }
+
+    /**
+     * Returns the version of the network protocol used by the server
+     *
+     * @return The network protocol version
+     */
+    public int getNetworkVersion() {
+        return this.getByte(NETWORK_VERSION) & 0xFF;
+    }
+
+    /**
+     * Returns the number of bots on the server
+     *
+     * @return The number of bots
+     */
+    public int getNumberOfBots() {
+        return this.getByte(NUMBER_OF_BOTS) & 0xFF;
+    }
+
+    /**
+     * Returns the number of players currently on the server
+     *
+     * @return The number of players
+     */
+    public int getNumberOfPlayers() {
+        return this.getByte(NUMBER_OF_PLAYERS) & 0xFF;
+    }
+
+    /**
+     * Returns the operating system of the server
+     *
+     * @return <code>'l'</code> for Linux, <code>'w'</code> for Windows and
+     *         <code>'m'</code> or <code>'o'</code> for macOS
+     */
+    public char getOperatingSystem() {
+        return (char) this.getByte(OPERATING_SYSTEM);
+    }
+
+    /**
+     * Returns the Steam ID of the server
+     *
+     * @return The Steam ID or <code>0</code> if the server did not send it
+     */
+    public long getServerId() {
+        return this.getLong(SERVER_ID);
+    }
+
+    /**
+     * Returns the IP address and port of the server as sent by GoldSrc
+     * servers
+     *
+     * @return The address of the server or <code>null</code> if the server
+     *         did not send it
+     */
+    public String getServerIp() {
+        return this.getString(SERVER_IP);
+    }
+
+    /**
+     * Returns the name of the server
+     *
+     * @return The name of the server
+     */
+    public String getServerName() {
+        return this.getString(SERVER_NAME);
+    }
+
+    /**
+     * Returns the game port of the server
+     *
+     * @return The game port or <code>-1</code> if the server did not send
+     *         it
+     */
+    public int getServerPort() {
+        return this.getUnsignedShort(SERVER_PORT);
+    }
+
+    /**
+     * Returns the tags of the server
+     *
+     * @return The tags of the server or <code>null</code> if the server did
+     *         not send them
+     */
+    public String getServerTags() {
+        return this.getString(SERVER_TAGS);
+    }
+
+    /**
+     * Returns the name of the SourceTV instance of the server
+     *
+     * @return The name of the SourceTV instance or <code>null</code> if the
+     *         server did not send it
+     */
+    public String getTvName() {
+        return this.getString(TV_NAME);
+    }
+
+    /**
+     * Returns the port of the SourceTV instance of the server
+     *
+     * @return The SourceTV port or <code>-1</code> if the server did not
+     *         send it
+     */
+    public int getTvPort() {
+        return this.getUnsignedShort(TV_PORT);
+    }
+
+    /**
+     * Returns whether the server is running a mod (GoldSrc only)
+     *
+     * @return <code>true</code> if the server is running a mod
+     */
+    public boolean isMod() {
+        return this.getByte(IS_MOD) == 1;
+    }
+
+    /**
+     * Returns whether the server is password protected
+     *
+     * @return <code>true</code> if the server is password protected
+     */
+    public boolean isPasswordProtected() {
+        return this.getByte(PASSWORD_PROTECTED) == 1;
+    }
+
+    /**
+     * Returns whether the server is secured by VAC
+     *
+     * @return <code>true</code> if the server is secured by VAC
+     */
+    public boolean isSecure() {
+        return this.getByte(SECURE) == 1;
+    }
+
+    /**
+     * Returns all information as a map of property names and their values
+     * <p>
+     * The map uses the same keys and value types as previous versions used
+     * for server information.
+     *
+     * @return A new map with the information replied by the server
+     */
+    public HashMap<String, Object> toMap() {
+        HashMap<String, Object> info = new HashMap<>();
+
+        if (this.detailed) {
+            info.put("serverIp", this.getServerIp());
+        } else {
+            info.put("appId", (short) this.getAppId());
+            info.put("gameVersion", this.getGameVersion());
+        }
+        info.put("serverName", this.getServerName());
+        info.put("mapName", this.getMapName());
+        info.put("gameDir", this.getGameDir());
+        info.put("gameDescription", this.getGameDescription());
+        info.put("networkVersion", this.getByte(NETWORK_VERSION));
+        info.put("numberOfPlayers", this.getByte(NUMBER_OF_PLAYERS));
+        info.put("maxPlayers", this.getByte(MAX_PLAYERS));
+        info.put("dedicated", this.getByte(DEDICATED));
+        info.put("operatingSystem", this.getByte(OPERATING_SYSTEM));
+        info.put("passwordProtected", this.isPasswordProtected());
+        if (this.offset(SECURE) >= 0) {
+            info.put("secure", this.isSecure());
+            info.put("numberOfBots", this.getByte(NUMBER_OF_BOTS));
+        }
+
+        if (this.detailed) {
+            info.put("isMod", this.isMod());
+            if (this.isMod()) {
+                HashMap<String, Object> modInfo = new HashMap<>(6);
+                modInfo.put("urlInfo", this.getString(URL_INFO));
+                modInfo.put("urlDl", this.getString(URL_DL));
+                if (this.offset(MOD_VERSION) >= 0) {
+                    modInfo.put("modVersion", Integer.reverseBytes(this.data.getInt(this.offset(MOD_VERSION))));
+                    modInfo.put("modSize", Integer.reverseBytes(this.data.getInt(this.offset(MOD_SIZE))));
+                    modInfo.put("svOnly", this.getByte(SV_ONLY) == 1);
+                    modInfo.put("clDll", this.getByte(CL_DLL) == 1);
+                }
+                info.put("modInfo", modInfo);
+            }
+        } else {
+            if (this.offset(SERVER_PORT) >= 0) {
+                info.put("serverPort", (short) this.getServerPort());
+            }
+            if (this.offset(SERVER_ID) >= 0) {
+                info.put("serverId", this.getServerId());
+            }
+            if (this.offset(TV_PORT) >= 0) {
+                info.put("tvPort", (short) this.getTvPort());
+                info.put("tvName", this.getTvName());
+            }
+            if (this.offset(SERVER_TAGS) >= 0) {
+                info.put("serverTags", this.getServerTags());
+            }
+            if (this.offset(GAME_ID) >= 0) {
+                info.put("gameId", this.getGameId());
+            }
+        }
+
+        return info;
+    }
+
+    /**
+     * Returns a string representation of this server information
+     *
+     * @return The server information as a string
+     */
+    @Override
+    public String toString() {
+        return this.toMap().toString();
+    }
+
+    /**
+     * Returns the byte value of the given field
+     *
+     * @param field The field to read
+     * @return The value of the field or <code>0</code> if the server did not
+     *         send it
+     */
+    private byte getByte(int field) {
+        int offset = this.offset(field);
+        return (offset < 0) ? 0 : this.data.get(offset);
+    }
+
+    /**
+     * Returns the little-endian 64bit value of the given field
+     *
+     * @param field The field to read
+     * @return The value of the field or <code>0</code> if the server did not
+     *         send it
+     */
+    private long getLong(int field) {
+        int offset = this.offset(field);
+        return (offset < 0) ? 0 : Long.reverseBytes(this.data.getLong(offset));
+    }
+
+    /**
+     * Decodes the string value of the given field
+     *
+     * @param field The field to read
+     * @return The value of the field or <code>null</code> if the server did
+     *         not send it
+     */
+    private String getString(int field) {
+        int offset = this.offset(field);
+        if (offset < 0) {
+            return null;
+        }
+
+        int length = this.stringEnd(offset) - offset;
+        if (this.data.hasArray()) {
+            return new String(this.data.array(), this.data.arrayOffset() + offset, length, CHARSET);
+        }
+
+        byte[] stringBytes = new byte[length];
+        ByteBuffer stringData = this.data.duplicate();
+        stringData.position(offset);
+        stringData.get(stringBytes);
+        return new String(stringBytes, CHARSET);
+    }
+
+    /**
+     * Returns the little-endian unsigned 16bit value of the given field
+     *
+     * @param field The field to read
+     * @return The value of the field or <code>-1</code> if the server did not
+     *         send it
+     */
+    private int getUnsignedShort(int field) {
+        int offset = this.offset(field);
+        return (offset < 0) ? -1 : Short.reverseBytes(this.data.getShort(offset)) & 0xFFFF;
+    }
+
+    /**
+     * Returns the offset of the given field in the reply data
+     * <p>
+     * The offsets of all fields are determined when a field is accessed
+     * for the first time. This only skips over the data without decoding
+     * it.
+     *
+     * @param field The field to find
+     * @return The offset of the field or <code>-1</code> if the server did
+     *         not send it
+     */
+    private int offset(int field) {
+        int[] offsets = this.offsets;
+        if (offsets == null) {
+            offsets = new int[FIELD_COUNT];
+            Arrays.fill(offsets, -1);
+            if (this.detailed) {
+                this.indexDetailed(offsets);
+            } else {
+                this.indexInfo2(offsets);
+            }
+            this.offsets = offsets;
+        }
+
+        return offsets[field];
+    }
+
+    /**
+     * Finds the offsets of the fields of an S2A_INFO_DETAILED reply
+     *
+     * @param offsets The array to store the offsets in
+     */
+    private void indexDetailed(int[] offsets) {
+        int position = 0;
+        int[] stringFields = { SERVER_IP, SERVER_NAME, MAP_NAME, GAME_DIR, GAME_DESCRIPTION };
+        for (int field : stringFields) {
+            position = this.skipString(offsets, field, position);
+            if (position < 0) {
+                return;
+            }
+        }
+
+        int[] byteFields = { NUMBER_OF_PLAYERS, MAX_PLAYERS, NETWORK_VERSION, DEDICATED, OPERATING_SYSTEM, PASSWORD_PROTECTED, IS_MOD };
+        position = this.skipBytes(offsets, byteFields, position);
+        if (position < 0) {
+            return;
+        }
+
+        if (this.data.get(offsets[IS_MOD]) == 1) {
+            position = this.skipString(offsets, URL_INFO, position);
+            if (position < 0) {
+                return;
+            }
+            position = this.skipString(offsets, URL_DL, position);
+            if (position < 0) {
+                return;
+            }
+            position ++;
+            if (this.data.limit() - position != 12) {
+                return;
+            }
+            offsets[MOD_VERSION] = position;
+            offsets[MOD_SIZE] = position + 4;
+            position += 8;
+            this.skipBytes(offsets, new int[] { SV_ONLY, CL_DLL, SECURE, NUMBER_OF_BOTS }, position);
+        } else {
+            this.skipBytes(offsets, new int[] { SECURE, NUMBER_OF_BOTS }, position);
+        }
+    }
+
+    /**
+     * Finds the offsets of the fields of an S2A_INFO2 reply
+     *
+     * @param offsets The array to store the offsets in
+     */
+    private void indexInfo2(int[] offsets) {
+        int position = this.skipBytes(offsets, new int[] { NETWORK_VERSION }, 0);
+        if (position < 0) {
+            return;
+        }
+
+        int[] stringFields = { SERVER_NAME, MAP_NAME, GAME_DIR, GAME_DESCRIPTION };
+        for (int field : stringFields) {
+            position = this.skipString(offsets, field, position);
+            if (position < 0) {
+                return;
+            }
+        }
+
+        if (position + 2 > this.data.limit()) {
+            return;
+        }
+        offsets[APP_ID] = position;
+        position += 2;
+
+        int[] byteFields = { NUMBER_OF_PLAYERS, MAX_PLAYERS, NUMBER_OF_BOTS, DEDICATED, OPERATING_SYSTEM, PASSWORD_PROTECTED, SECURE };
+        position = this.skipBytes(offsets, byteFields, position);
+        if (position < 0) {
+            return;
+        }
+        position = this.skipString(offsets, GAME_VERSION, position);
+        if (position < 0 || position >= this.data.limit()) {
+            return;
+        }
+
+        byte extraDataFlag = this.data.get(position ++);
+        if ((extraDataFlag & EDF_GAME_PORT) != 0) {
+            if (position + 2 > this.data.limit()) {
+                return;
+            }
+            offsets[SERVER_PORT] = position;
+            position += 2;
+        }
+        if ((extraDataFlag & EDF_SERVER_ID) != 0) {
+            if (position + 8 > this.data.limit()) {
+                return;
+            }
+            offsets[SERVER_ID] = position;
+            position += 8;
+        }
+        if ((extraDataFlag & EDF_SOURCE_TV) != 0) {
+            position = this.skipString(offsets, TV_NAME, position + 2);
+            if (position < 0) {
+                return;
+            }
+            offsets[TV_PORT] = offsets[TV_NAME] - 2;
+        }
+        if ((extraDataFlag & EDF_SERVER_TAGS) != 0) {
+            position = this.skipString(offsets, SERVER_TAGS, position);
+            if (position < 0) {
+                return;
+            }
+        }
+        if ((extraDataFlag & EDF_GAME_ID) != 0 && position + 8 <= this.data.limit()) {
+            offsets[GAME_ID] = position;
+        }
+    }
+
+    /**
+     * Stores the offsets of single byte fields following each other
+     *
+     * @param offsets The array to store the offsets in
+     * @param fields The fields to store the offsets for
+     * @param position The offset of the first field
+     * @return The offset after the last field or <code>-1</code> if the data
+     *         is too short
+     */
+    private int skipBytes(int[] offsets, int[] fields, int position) {
+        if (position + fields.length > this.data.limit()) {
+            return -1;
+        }
+
+        for (int field : fields) {
+            offsets[field] = position ++;
+        }
+
+        return position;
+    }
+
+    /**
+     * Stores the offset of a string field and skips over it
+     *
+     * @param offsets The array to store the offsets in
+     * @param field The field to store the offset for
+     * @param position The offset of the string
+     * @return The offset after the string's terminating zero byte or
+     *         <code>-1</code> if the string is not terminated
+     */
+    private int skipString(int[] offsets, int field, int position) {
+        if (position > this.data.limit()) {
+            return -1;
+        }
+
+        int end = this.stringEnd(position);
+        if (end == this.data.limit()) {
+            return -1;
+        }
+
+        offsets[field] = position;
+        return end + 1;
+    }
+
+    /**
+     * Returns the offset of the zero byte terminating the string at the
+     * given offset
+     *
+     * @param position The offset of the string
+     * @return The offset of the terminating zero byte or the limit of the
+     *         data if the string is not terminated
+     */
+    private int stringEnd(int position) {
+        int limit = this.data.limit();
+        while (position < limit && this.data.get(position) != 0) {
+            position ++;
+        }
+
+        return position;
+    }
+
+}
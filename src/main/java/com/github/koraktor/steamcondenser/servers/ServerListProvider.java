@@ -0,0 +1,42 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.concurrent.TimeoutException;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+/**
+ * This interface is implemented by classes that provide the list of game
+ * servers known to Steam
+ * <p>
+ * Providers accept the same region codes and filter strings as
+ * {@link MasterServer#getServers(byte, String)}, so they can be used
+ * interchangeably.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer
+ * @see WebApiServerList
+ */
+public interface ServerListProvider {
+
+    /**
+     * Passes each batch of game servers matching the given region and filters
+     * to the given listener as soon as it is available
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of servers to
+     * @throws SteamCondenserException if the request fails
+     * @throws TimeoutException if the server list cannot be retrieved in time
+     */
+    void streamServers(byte regionCode, String filter, ServerBatchListener listener)
+            throws SteamCondenserException, TimeoutException;
+
+}
@@ -0,0 +1,326 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+/**
+ * This class represents a sorted snapshot of a master server's server list
+ * <p>
+ * Snapshots use a compact binary format: A 12 byte header (magic number,
+ * format version and number of servers) followed by the servers sorted by
+ * their packed address, six bytes each (IPv4 address and port in network byte
+ * order) just like in master server replies. Snapshot files are memory-mapped
+ * when they are opened, so the servers are read without loading the whole
+ * file into the heap.
+ * <p>
+ * Two snapshots can be compared in a single pass using {@link #diff}, so
+ * only servers that have been added or removed between two crawls need to be
+ * processed.
+ * <p>
+ * Snapshots are immutable and thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer#crawl
+ */
+public class ServerListSnapshot {
+
+    private static final int ENTRY_SIZE = 6;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+
+    private static final int MAGIC = 0x5343534c;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    /**
+     * Creates a snapshot of the given servers
+     *
+     * @param servers The packed addresses of the servers
+     * @return A snapshot of the servers
+     */
+    public static ServerListSnapshot create(ServerAddressSet servers) {
+        return create(servers.toList());
+    }
+
+    /**
+     * Creates a snapshot of the given servers
+     * <p>
+     * Duplicate servers are only stored once.
+     *
+     * @param servers The packed addresses of the servers
+     * @return A snapshot of the servers
+     */
+    public static ServerListSnapshot create(ServerAddressList servers) {
+        long[] addresses = servers.toArray();
+        Arrays.sort(addresses);
+
+        int size = 0;
+        for (int i = 0; i < addresses.length; i ++) {
+            if (i == 0 || addresses[i] != addresses[i - 1]) {
+                addresses[size ++] = addresses[i];
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + size * ENTRY_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putInt(size);
+        for (int i = 0; i < size; i ++) {
+            buffer.putInt(ServerAddressList.getIp(addresses[i]));
+            buffer.putShort((short) ServerAddressList.getPort(addresses[i]));
+        }
+        buffer.flip();
+
+        try {
+            return new ServerListSnapshot(buffer);
+        } catch (SteamCondenserException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Opens the snapshot stored in the given file
+     * <p>
+     * The file is memory-mapped and must not be modified while the snapshot
+     * is used. {@link #save} replaces files instead of modifying them.
+     *
+     * @param file The file to open
+     * @return The snapshot stored in the file
+     * @throws SteamCondenserException if the file cannot be read or is not a
+     *         valid snapshot
+     */
+    public static ServerListSnapshot open(File file)
+            throws SteamCondenserException {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            FileChannel channel = input.getChannel();
+            return new ServerListSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new SteamCondenserException("Cannot open server list snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a new snapshot from the given data
+     *
+     * @param buffer The data of the snapshot
+     * @throws SteamCondenserException if the data is not a valid snapshot
+     */
+    private ServerListSnapshot(ByteBuffer buffer)
+            throws SteamCondenserException {
+        if (buffer.remaining() < HEADER_SIZE ||
+            buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new SteamCondenserException("Unsupported server list snapshot format.");
+        }
+
+        this.buffer = buffer;
+        this.size   = buffer.getInt(8);
+
+        if (this.size < 0 || buffer.limit() != HEADER_SIZE + (long) this.size * ENTRY_SIZE) {
+            throw new SteamCondenserException("Server list snapshot is truncated.");
+        }
+    }
+
+    /**
+     * Returns whether the given server is contained in this snapshot
+     *
+     * @param address The packed address of the server
+     * @return <code>true</code> if the server is contained in this snapshot
+     */
+    public boolean contains(long address) {
+        int low  = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long current = this.get(middle);
+            if (current < address) {
+                low = middle + 1;
+            } else if (current > address) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Compares this snapshot with a newer snapshot
+     * <p>
+     * Both snapshots are read only once, in order.
+     *
+     * @param newer The newer snapshot to compare with
+     * @return The servers added and removed in the newer snapshot
+     */
+    public Diff diff(ServerListSnapshot newer) {
+        ServerAddressList added   = new ServerAddressList();
+        ServerAddressList removed = new ServerAddressList();
+
+        int i = 0;
+        int j = 0;
+        while (i < this.size && j < newer.size) {
+            long oldAddress = this.get(i);
+            long newAddress = newer.get(j);
+            if (oldAddress < newAddress) {
+                removed.add(oldAddress);
+                i ++;
+            } else if (oldAddress > newAddress) {
+                added.add(newAddress);
+                j ++;
+            } else {
+                i ++;
+                j ++;
+            }
+        }
+        for (; i < this.size; i ++) {
+            removed.add(this.get(i));
+        }
+        for (; j < newer.size; j ++) {
+            added.add(newer.get(j));
+        }
+
+        return new Diff(added, removed);
+    }
+
+    /**
+     * Returns the packed address of the server at the given index
+     *
+     * @param index The index of the server
+     * @return The packed address of the server
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+
+        int offset = HEADER_SIZE + index * ENTRY_SIZE;
+        return ServerAddressList.pack(this.buffer.getInt(offset), this.buffer.getShort(offset + 4));
+    }
+
+    /**
+     * Saves this snapshot to the given file
+     * <p>
+     * The snapshot is written to a temporary file first that replaces the
+     * given file afterwards, so snapshots opened from the file before stay
+     * intact.
+     *
+     * @param file The file to save this snapshot to
+     * @throws SteamCondenserException if the file cannot be written
+     */
+    public void save(File file) throws SteamCondenserException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(tempFile)) {
+            ByteBuffer data = this.buffer.duplicate();
+            data.rewind();
+            FileChannel channel = output.getChannel();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            tempFile.delete();
+            throw new SteamCondenserException("Cannot save server list snapshot: " + e.getMessage(), e);
+        }
+
+        if (!tempFile.renameTo(file)) {
+            if (!file.delete() || !tempFile.renameTo(file)) {
+                tempFile.delete();
+                throw new SteamCondenserException("Cannot replace server list snapshot " + file + ".");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of servers in this snapshot
+     *
+     * @return The number of servers
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the servers of this snapshot
+     *
+     * @return The packed addresses of the servers in ascending order
+     */
+    public ServerAddressList toList() {
+        ServerAddressList list = new ServerAddressList(this.size);
+        for (int i = 0; i < this.size; i ++) {
+            list.add(this.get(i));
+        }
+
+        return list;
+    }
+
+    /**
+     * This class represents the differences between two snapshots
+     */
+    public static class Diff {
+
+        private final ServerAddressList added;
+
+        private final ServerAddressList removed;
+
+        /**
+         * Creates a new diff of the given servers
+         *
+         * @param added The servers only contained in the newer snapshot
+         * @param removed The servers only contained in the older snapshot
+         */
+        Diff(ServerAddressList added, ServerAddressList removed) {
+            this.added   = added;
+            this.removed = removed;
+        }
+
+        /**
+         * Returns the servers that have been added
+         *
+         * @return The packed addresses of servers only contained in the newer
+         *         snapshot in ascending order
+         */
+        public ServerAddressList getAdded() {
+            return this.added;
+        }
+
+        /**
+         * Returns the servers that have been removed
+         *
+         * @return The packed addresses of servers only contained in the older
+         *         snapshot in ascending order
+         */
+        public ServerAddressList getRemoved() {
+            return this.removed;
+        }
+
+        /**
+         * Returns whether both snapshots contain the same servers
+         *
+         * @return <code>true</code> if no servers have been added or removed
+         */
+        public boolean isEmpty() {
+            return this.added.isEmpty() && this.removed.isEmpty();
+        }
+
+    }
+
+}
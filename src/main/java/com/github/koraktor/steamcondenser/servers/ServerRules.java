@@ -0,0 +1,254 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * This class represents the rules (a.k.a. CVARs) of a game server with
+ * their values
+ * <p>
+ * Rule names are stored as IDs of the global {@link RuleNames} dictionary,
+ * so only the values are stored per server. The IDs are kept sorted, which
+ * allows looking up rules by a binary search and comparing two snapshots of
+ * a server's rules in linear time.
+ * <p>
+ * Names that don't fit into the dictionary anymore are stored with their
+ * values by each instance. These rules can be looked up by name, but don't
+ * have IDs.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @author Sebastian Staudt
+ * @see GameServer#getServerRules
+ */
+public class ServerRules {
+
+    private static final String[] NO_NAMES = new String[0];
+
+    private final int[] ids;
+
+    private final String[] inlineNames;
+
+    private final String[] inlineValues;
+
+    private final String[] values;
+
+    /**
+     * Creates a new rules object from the given rule names and values
+     * <p>
+     * If a rule name is given more than once, the last value is used.
+     *
+     * @param names The names of the rules
+     * @param values The values of the rules
+     * @param count The number of rules to use from the given arrays
+     */
+    public ServerRules(final String[] names, String[] values, int count) {
+        long[] sortedIds = new long[count];
+        Integer[] inlineIndexes = null;
+        int idCount = 0;
+        int inlineCount = 0;
+        for (int i = 0; i < count; i ++) {
+            int id = RuleNames.getId(names[i]);
+            if (id < 0) {
+                if (inlineIndexes == null) {
+                    inlineIndexes = new Integer[count];
+                }
+                inlineIndexes[inlineCount ++] = i;
+            } else {
+                sortedIds[idCount ++] = ((long) id << 32) | i;
+            }
+        }
+        Arrays.sort(sortedIds, 0, idCount);
+
+        int size = 0;
+        int[] ruleIds = new int[idCount];
+        String[] ruleValues = new String[idCount];
+        for (int i = 0; i < idCount; i ++) {
+            int id = (int) (sortedIds[i] >>> 32);
+            if (size > 0 && ruleIds[size - 1] == id) {
+                size --;
+            }
+            ruleIds[size] = id;
+            ruleValues[size ++] = values[(int) sortedIds[i]];
+        }
+
+        this.ids    = (size == idCount) ? ruleIds : Arrays.copyOf(ruleIds, size);
+        this.values = (size == idCount) ? ruleValues : Arrays.copyOf(ruleValues, size);
+
+        if (inlineCount == 0) {
+            this.inlineNames  = NO_NAMES;
+            this.inlineValues = NO_NAMES;
+            return;
+        }
+
+        Arrays.sort(inlineIndexes, 0, inlineCount, new Comparator<Integer>() {
+            public int compare(Integer index1, Integer index2) {
+                return names[index1].compareTo(names[index2]);
+            }
+        });
+
+        size = 0;
+        String[] ruleNames = new String[inlineCount];
+        ruleValues = new String[inlineCount];
+        for (int i = 0; i < inlineCount; i ++) {
+            String name = names[inlineIndexes[i]];
+            if (size > 0 && ruleNames[size - 1].equals(name)) {
+                size --;
+            }
+            ruleNames[size] = name;
+            ruleValues[size ++] = values[inlineIndexes[i]];
+        }
+
+        this.inlineNames  = Arrays.copyOf(ruleNames, size);
+        this.inlineValues = Arrays.copyOf(ruleValues, size);
+    }
+
+    /**
+     * Returns whether the rule with the given name is set on the server
+     *
+     * @param name The name of the rule
+     * @return <code>true</code> if the rule is set
+     */
+    public boolean contains(String name) {
+        return this.indexOf(RuleNames.findId(name)) >= 0 ||
+            Arrays.binarySearch(this.inlineNames, name) >= 0;
+    }
+
+    /**
+     * Returns the IDs of all rules that differ between the given rules and
+     * these rules
+     * <p>
+     * This includes rules that have been added, removed or changed their
+     * value. Rules without IDs are not compared.
+     *
+     * @param previous The rules to compare with, e.g. an older snapshot of
+     *        the same server
+     * @return The IDs of the differing rules in ascending order
+     * @see RuleNames#getName
+     */
+    public int[] diff(ServerRules previous) {
+        int[] changes = new int[this.ids.length + previous.ids.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < this.ids.length || j < previous.ids.length) {
+            if (j == previous.ids.length || (i < this.ids.length && this.ids[i] < previous.ids[j])) {
+                changes[count ++] = this.ids[i ++];
+            } else if (i == this.ids.length || previous.ids[j] < this.ids[i]) {
+                changes[count ++] = previous.ids[j ++];
+            } else {
+                String value = this.values[i];
+                if (value == null ? previous.values[j] != null : !value.equals(previous.values[j])) {
+                    changes[count ++] = this.ids[i];
+                }
+                i ++;
+                j ++;
+            }
+        }
+
+        return Arrays.copyOf(changes, count);
+    }
+
+    /**
+     * Returns the value of the rule with the given name
+     *
+     * @param name The name of the rule
+     * @return The value of the rule or <code>null</code> if the rule is not
+     *         set
+     */
+    public String get(String name) {
+        int index = this.indexOf(RuleNames.findId(name));
+        if (index >= 0) {
+            return this.values[index];
+        }
+
+        index = Arrays.binarySearch(this.inlineNames, name);
+        return (index < 0) ? null : this.inlineValues[index];
+    }
+
+    /**
+     * Returns the value of the rule with the given name ID
+     *
+     * @param id The ID of the rule name
+     * @return The value of the rule or <code>null</code> if the rule is not
+     *         set
+     * @see RuleNames#getId
+     */
+    public String get(int id) {
+        int index = this.indexOf(id);
+        return (index < 0) ? null : this.values[index];
+    }
+
+    /**
+     * Returns the IDs of the names of all rules set on the server
+     * <p>
+     * Rules with names that are not part of the dictionary are not
+     * included.
+     *
+     * @return The rule name IDs in ascending order
+     */
+    public int[] getIds() {
+        return this.ids.clone();
+    }
+
+    /**
+     * Returns the number of rules set on the server
+     *
+     * @return The number of rules
+     */
+    public int size() {
+        return this.ids.length + this.inlineNames.length;
+    }
+
+    /**
+     * Returns all rules as a map of rule names and their values
+     *
+     * @return A new map with the rules of the server
+     */
+    public HashMap<String, String> toMap() {
+        HashMap<String, String> rules = new HashMap<>(this.size() * 4 / 3 + 1);
+        for (int i = 0; i < this.ids.length; i ++) {
+            rules.put(RuleNames.getName(this.ids[i]), this.values[i]);
+        }
+        for (int i = 0; i < this.inlineNames.length; i ++) {
+            rules.put(this.inlineNames[i], this.inlineValues[i]);
+        }
+
+        return rules;
+    }
+
+    /**
+     * Returns a string representation of these rules
+     *
+     * @return The rules as a string
+     */
+    @Override
+    public String toString() {
+        return this.toMap().toString();
+    }
+
+    /**
+     * Returns the index of the rule with the given name ID
+     *
+     * @param id The ID of the rule name
+     * @return The index of the rule or a negative value if the rule is not
+     *         set
+     */
+    private int indexOf(int id) {
+        if (id < 0) {
+            return -1;
+        }
+
+        return Arrays.binarySearch(this.ids, id);
+    }
+
+}
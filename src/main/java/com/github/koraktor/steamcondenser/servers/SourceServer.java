@@ -116,18 +116,41 @@ public class SourceServer extends GameServer {
     public void disconnect() {
         super.disconnect();
 
-        this.rconSocket.close();
+        if (this.rconSocket != null) {
+            this.rconSocket.close();
+            this.rconSocket = null;
+        }
+    }
+
+    /**
+     * Returns the socket used for RCON communication with this server
+     * <p/>
+     * The socket is created when RCON is used for the first time.
+     *
+     * @return The RCON socket of this server
+     * @throws SteamCondenserException if the host name cannot be resolved
+     */
+    protected RCONSocket getRconSocket() throws SteamCondenserException {
+        if (this.rconSocket == null) {
+            this.resolve();
+            this.rconSocket = new RCONSocket(this.ipAddress, this.port);
+        }
+
+        return this.rconSocket;
     }
 
     /**
-     * Initializes the sockets to communicate with the Source server
+     * Initializes the socket to query the Source server
+     * <p/>
+     * The socket for RCON communication is created separately when it is
+     * needed.
      *
-     * @see RCONSocket
+     * @see #getRconSocket
      * @see SourceSocket
      */
     public void initSocket() throws SteamCondenserException {
-        this.rconSocket = new RCONSocket(this.ipAddress, this.port);
         this.socket = new SourceSocket(this.ipAddress, this.port);
+        this.socket.setRttEstimator(this.rttEstimator);
     }
 
     /**
@@ -144,12 +167,12 @@ public class SourceServer extends GameServer {
             throws TimeoutException, SteamCondenserException {
         this.rconRequestId = new Random().nextInt();
 
-        this.rconSocket.send(new RCONAuthRequestPacket(this.rconRequestId, password));
-        RCONPacket reply = this.rconSocket.getReply();
+        this.getRconSocket().send(new RCONAuthRequestPacket(this.rconRequestId, password));
+        RCONPacket reply = this.getRconSocket().getReply();
         if (reply == null) {
             throw new RCONBanException();
         }
-        reply = this.rconSocket.getReply();
+        reply = this.getRconSocket().getReply();
         this.rconAuthenticated = reply.getRequestId() == this.rconRequestId;
 
         return this.rconAuthenticated;
@@ -173,13 +196,13 @@ public class SourceServer extends GameServer {
             throw new RCONNoAuthException();
         }
 
-        this.rconSocket.send(new RCONExecRequestPacket(this.rconRequestId, command));
+        this.getRconSocket().send(new RCONExecRequestPacket(this.rconRequestId, command));
 
         boolean isMulti = false;
          RCONPacket responsePacket;
         ArrayList<String> response = new ArrayList<>();
         do {
-            responsePacket = this.rconSocket.getReply();
+            responsePacket = this.getRconSocket().getReply();
 
             if (responsePacket == null ||
                     responsePacket instanceof RCONAuthResponse) {
@@ -189,7 +212,7 @@ public class SourceServer extends GameServer {
 
             if (!isMulti && ((RCONExecResponsePacket) responsePacket).getResponse().length() > 0) {
                 isMulti = true;
-                this.rconSocket.send(new RCONTerminator(this.rconRequestId));
+                this.getRconSocket().send(new RCONTerminator(this.rconRequestId));
             }
             response.add(((RCONExecResponsePacket) responsePacket).getResponse());
         } while(isMulti && !(response.size() > 2 && response.get(response.size() - 2).equals("") && response.get(response.size() - 1).equals("")));
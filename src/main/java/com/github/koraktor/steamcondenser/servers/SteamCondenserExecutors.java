@@ -0,0 +1,140 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.sockets.ThreadSupport;
+
+/**
+ * This class provides executors and helper methods to query many game
+ * servers at once using the blocking API
+ * <p>
+ * On Java 21 and newer {@link #virtual()} returns an executor using virtual
+ * threads, so querying thousands of servers concurrently only costs a
+ * thread stack per server while it is waiting for a reply. On older Java
+ * versions a cached pool of platform threads is used instead.
+ * <pre>
+ * ExecutorService executor = SteamCondenserExecutors.virtual();
+ * Map&lt;SourceServer, Exception&gt; failures = SteamCondenserExecutors.initializeAll(servers, executor);
+ * executor.shutdown();
+ * </pre>
+ *
+ * @author Sebastian Staudt
+ */
+public final class SteamCondenserExecutors {
+
+    private SteamCondenserExecutors() {}
+
+    /**
+     * Runs the given task for all of the given servers concurrently and
+     * waits for all of them to finish
+     *
+     * @param servers The servers to run the task for
+     * @param task The task to run for each server
+     * @param executor The executor to run the tasks with
+     * @param <T> The type of the servers
+     * @return The errors that occurred for failed servers. Servers without
+     *         an entry finished successfully.
+     * @throws InterruptedException if the calling thread is interrupted while
+     *         waiting for the tasks
+     */
+    public static <T extends GameServer> Map<T, Exception> forEach(Collection<T> servers, final ServerTask<? super T> task, ExecutorService executor)
+            throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(servers.size());
+        for (final T server : servers) {
+            futures.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    task.run(server);
+                    return null;
+                }
+            }));
+        }
+
+        Map<T, Exception> failures = new HashMap<>();
+        int i = 0;
+        for (T server : servers) {
+            try {
+                futures.get(i ++).get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                failures.put(server, (Exception) e.getCause());
+            }
+        }
+
+        return failures;
+    }
+
+    /**
+     * Initializes all of the given servers concurrently and waits for all of
+     * them to finish
+     *
+     * @param servers The servers to initialize
+     * @param executor The executor to run the requests with
+     * @param <T> The type of the servers
+     * @return The errors that occurred for failed servers. Servers without
+     *         an entry have been initialized successfully.
+     * @throws InterruptedException if the calling thread is interrupted while
+     *         waiting for the servers
+     * @see GameServer#initialize
+     */
+    public static <T extends GameServer> Map<T, Exception> initializeAll(Collection<T> servers, ExecutorService executor)
+            throws InterruptedException {
+        return forEach(servers, new ServerTask<GameServer>() {
+            public void run(GameServer server)
+                    throws SteamCondenserException, TimeoutException {
+                server.initialize();
+            }
+        }, executor);
+    }
+
+    /**
+     * Returns a new executor that starts a new thread for every task
+     * <p>
+     * On Java 21 and newer the tasks run on virtual threads. Sockets used on
+     * virtual threads wait for replies using blocking reads that don't pin
+     * the carrier thread.
+     *
+     * @return A new executor using a thread per task
+     */
+    public static ExecutorService virtual() {
+        return ThreadSupport.newThreadPerTaskExecutor();
+    }
+
+    /**
+     * This interface is implemented by tasks run for many servers at once
+     *
+     * @param <T> The type of the servers
+     * @see SteamCondenserExecutors#forEach
+     */
+    public interface ServerTask<T extends GameServer> {
+
+        /**
+         * Runs this task for the given server
+         *
+         * @param server The server to run this task for
+         * @throws SteamCondenserException if a request fails
+         * @throws TimeoutException if a request times out
+         */
+        void run(T server) throws SteamCondenserException, TimeoutException;
+
+    }
+
+}
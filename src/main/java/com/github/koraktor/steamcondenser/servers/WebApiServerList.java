@@ -0,0 +1,396 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.community.WebApi;
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.exceptions.WebApiException;
+
+/**
+ * This class provides the list of game servers using the
+ * <code>IGameServersService/GetServerList</code> method of the Steam Web API
+ * <p>
+ * In contrast to the master server, the Web API returns the whole server
+ * list in a single request, together with the most important server
+ * information like the server's name, map and number of players. If this is
+ * all the information needed, querying each server for its information can
+ * be skipped.
+ * <p>
+ * The filters are the same as for {@link MasterServer#getServers(byte,
+ * String)}. The Web API has no parameter for the region, so servers of other
+ * regions are skipped after they have been received. Servers that cannot be
+ * parsed, e.g. because of an IPv6 address, are skipped, too. A Web API key
+ * has to be set using {@link WebApi#setApiKey}.
+ *
+ * @author Sebastian Staudt
+ * @see MasterServer
+ */
+public class WebApiServerList implements ServerListProvider {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(WebApiServerList.class);
+
+    private static final int BATCH_SIZE = 231;
+
+    private int limit;
+
+    /**
+     * Creates a new Web API server list returning up to 10,000 servers per
+     * request
+     */
+    public WebApiServerList() {
+        this.limit = 10000;
+    }
+
+    /**
+     * Returns the maximum number of servers returned per request
+     *
+     * @return The maximum number of servers
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Sets the maximum number of servers returned per request
+     * <p>
+     * The Web API may return fewer servers than requested.
+     *
+     * @param limit The maximum number of servers
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Passes the information of game servers matching the given region and
+     * filters to the given listener in batches
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of servers to
+     * @throws WebApiException if the request fails or the returned data
+     *         is not a server list
+     */
+    public void streamServerDetails(byte regionCode, String filter, DetailsListener listener)
+            throws WebApiException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("filter", filter);
+        params.put("limit", this.limit);
+
+        JSONArray serversData;
+        try {
+            JSONObject data = new JSONObject(WebApi.getJSON("IGameServersService", "GetServerList", 1, params));
+            serversData = data.getJSONObject("response").optJSONArray("servers");
+        } catch(JSONException e) {
+            throw new WebApiException("Could not parse JSON data.", e);
+        }
+        if (serversData == null) {
+            return;
+        }
+
+        List<ServerDetails> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < serversData.length(); i ++) {
+            JSONObject serverData = serversData.optJSONObject(i);
+            if (serverData == null) {
+                LOG.debug("Skipping invalid server entry #" + i + ".");
+                continue;
+            }
+            if (regionCode != MasterServer.REGION_ALL &&
+                (byte) serverData.optInt("region", MasterServer.REGION_ALL) != regionCode) {
+                continue;
+            }
+
+            ServerDetails server;
+            try {
+                server = new ServerDetails(serverData);
+            } catch(IllegalArgumentException | JSONException e) {
+                LOG.debug("Skipping invalid server entry #" + i + ".", e);
+                continue;
+            }
+
+            batch.add(server);
+            if (batch.size() == BATCH_SIZE) {
+                listener.onServers(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            listener.onServers(batch);
+        }
+    }
+
+    /**
+     * Passes each batch of game servers matching the given region and filters
+     * to the given listener
+     *
+     * @param regionCode The region code to specify a location of the game
+     *        servers
+     * @param filter The filters that game servers should match
+     * @param listener The listener to pass the batches of servers to
+     * @throws WebApiException if the request fails or the returned data
+     *         is not a server list
+     */
+    public void streamServers(byte regionCode, String filter, final ServerBatchListener listener)
+            throws WebApiException {
+        this.streamServerDetails(regionCode, filter, new DetailsListener() {
+            public void onServers(List<ServerDetails> servers) {
+                ServerAddressList addresses = new ServerAddressList(servers.size());
+                for (ServerDetails server : servers) {
+                    addresses.add(server.getAddress());
+                }
+                listener.onBatch(addresses);
+            }
+        });
+    }
+
+    /**
+     * This interface is implemented by classes that want to receive the
+     * information of the servers returned by the Web API
+     */
+    public interface DetailsListener {
+
+        /**
+         * Called for each batch of servers returned by the Web API
+         *
+         * @param servers The information of the servers in this batch
+         */
+        void onServers(List<ServerDetails> servers);
+
+    }
+
+    /**
+     * This class represents the information of a game server returned by the
+     * Web API
+     */
+    public static class ServerDetails {
+
+        private final long address;
+
+        private final int appId;
+
+        private final int bots;
+
+        private final boolean dedicated;
+
+        private final String gameDir;
+
+        private final String gameType;
+
+        private final String map;
+
+        private final int maxPlayers;
+
+        private final String name;
+
+        private final char operatingSystem;
+
+        private final int players;
+
+        private final byte region;
+
+        private final boolean secure;
+
+        private final String steamId;
+
+        private final String version;
+
+        /**
+         * Creates a new server from the given JSON data
+         *
+         * @param data The JSON data of the server
+         * @throws IllegalArgumentException if the server's address is invalid
+         * @throws JSONException if the server's address is missing
+         */
+        ServerDetails(JSONObject data) throws JSONException {
+            String os = data.optString("os", "");
+
+            this.address         = ServerAddressList.pack(data.getString("addr"));
+            this.appId           = data.optInt("appid");
+            this.bots            = data.optInt("bots");
+            this.dedicated       = data.optBoolean("dedicated");
+            this.gameDir         = data.optString("gamedir", null);
+            this.gameType        = data.optString("gametype", null);
+            this.map             = data.optString("map", null);
+            this.maxPlayers      = data.optInt("max_players");
+            this.name            = data.optString("name", null);
+            this.operatingSystem = os.isEmpty() ? '\0' : os.charAt(0);
+            this.players         = data.optInt("players");
+            this.region          = (byte) data.optInt("region", MasterServer.REGION_ALL);
+            this.secure          = data.optBoolean("secure");
+            this.steamId         = data.optString("steamid", null);
+            this.version         = data.optString("version", null);
+        }
+
+        /**
+         * Returns the packed query address of this server
+         *
+         * @return The packed address of this server
+         * @see ServerAddressList
+         */
+        public long getAddress() {
+            return this.address;
+        }
+
+        /**
+         * Returns the ID of the game running on this server
+         *
+         * @return The application ID of the game
+         */
+        public int getAppId() {
+            return this.appId;
+        }
+
+        /**
+         * Returns the number of bots on this server
+         *
+         * @return The number of bots
+         */
+        public int getBots() {
+            return this.bots;
+        }
+
+        /**
+         * Returns the game directory of this server
+         *
+         * @return The game directory, e.g. <code>tf</code>
+         */
+        public String getGameDir() {
+            return this.gameDir;
+        }
+
+        /**
+         * Returns the tags of this server
+         *
+         * @return The comma-separated tags of this server
+         */
+        public String getGameType() {
+            return this.gameType;
+        }
+
+        /**
+         * Returns the map currently running on this server
+         *
+         * @return The name of the map
+         */
+        public String getMap() {
+            return this.map;
+        }
+
+        /**
+         * Returns the maximum number of players on this server
+         *
+         * @return The maximum number of players
+         */
+        public int getMaxPlayers() {
+            return this.maxPlayers;
+        }
+
+        /**
+         * Returns the name of this server
+         *
+         * @return The name of this server
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the operating system of this server
+         *
+         * @return <code>l</code> for Linux, <code>w</code> for Windows or
+         *         <code>m</code> for macOS
+         */
+        public char getOperatingSystem() {
+            return this.operatingSystem;
+        }
+
+        /**
+         * Returns the number of players on this server
+         *
+         * @return The number of players
+         */
+        public int getPlayers() {
+            return this.players;
+        }
+
+        /**
+         * Returns the region of this server
+         *
+         * @return The region code of this server
+         */
+        public byte getRegion() {
+            return this.region;
+        }
+
+        /**
+         * Returns the query address of this server
+         *
+         * @return The socket address of this server
+         */
+        public InetSocketAddress getSocketAddress() {
+            return ServerAddressList.toSocketAddress(this.address);
+        }
+
+        /**
+         * Returns the SteamID of this server
+         *
+         * @return The 64bit SteamID of this server
+         */
+        public String getSteamId() {
+            return this.steamId;
+        }
+
+        /**
+         * Returns the version of the game running on this server
+         *
+         * @return The game version
+         */
+        public String getVersion() {
+            return this.version;
+        }
+
+        /**
+         * Returns whether this is a dedicated server
+         *
+         * @return <code>true</code> if this is a dedicated server
+         */
+        public boolean isDedicated() {
+            return this.dedicated;
+        }
+
+        /**
+         * Returns whether this server is secured by VAC
+         *
+         * @return <code>true</code> if this server is secured by VAC
+         */
+        public boolean isSecure() {
+            return this.secure;
+        }
+
+        @Override
+        public String toString() {
+            return ServerAddressList.toString(this.address) + " (" + this.name + ")";
+        }
+
+    }
+
+}
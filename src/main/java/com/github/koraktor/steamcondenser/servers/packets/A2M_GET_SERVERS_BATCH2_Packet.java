@@ -80,4 +80,14 @@ public class A2M_GET_SERVERS_BATCH2_Packet extends SteamPacket {
 
         return bytes;
     }
+
+    /**
+     * Returns whether this request may be sent again without side effects
+     *
+     * @return Always <code>true</code>
+     */
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
@@ -7,6 +7,9 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * The A2S_INFO_Packet class represents a A2S_INFO request send to the server
  *
@@ -21,4 +24,30 @@ public class A2S_INFO_Packet extends SteamPacket {
     public A2S_INFO_Packet() {
         super(SteamPacket.A2S_INFO_HEADER, "Source Engine Query\0".getBytes());
     }
+
+    /**
+     * Creates a new A2S_INFO request object including the challenge number
+     * <p>
+     * Newer servers reply to A2S_INFO requests without a valid challenge
+     * number with a S2C_CHALLENGE response.
+     *
+     * @param challengeNumber The challenge number received from the server
+     */
+    public A2S_INFO_Packet(int challengeNumber) {
+        super(SteamPacket.A2S_INFO_HEADER, ByteBuffer.allocate(24)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .put("Source Engine Query\0".getBytes())
+            .putInt(challengeNumber)
+            .array());
+    }
+
+    /**
+     * Returns whether this request may be sent again without side effects
+     *
+     * @return Always <code>true</code>
+     */
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
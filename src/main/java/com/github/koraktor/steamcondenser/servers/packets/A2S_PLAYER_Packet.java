@@ -38,4 +38,14 @@ public class A2S_PLAYER_Packet extends SteamPacket {
         super(SteamPacket.A2S_PLAYER_HEADER, Helper.byteArrayFromInteger(Integer.reverseBytes(challengeNumber)));
     }
 
+    /**
+     * Returns whether this request may be sent again without side effects
+     *
+     * @return Always <code>true</code>
+     */
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
 }
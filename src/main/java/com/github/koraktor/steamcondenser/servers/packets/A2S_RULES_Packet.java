@@ -31,4 +31,14 @@ public class A2S_RULES_Packet extends SteamPacket {
     public A2S_RULES_Packet(int challengeNumber) {
         super(SteamPacket.A2S_RULES_HEADER, Helper.byteArrayFromInteger(Integer.reverseBytes(challengeNumber)));
     }
+
+    /**
+     * Returns whether this request may be sent again without side effects
+     *
+     * @return Always <code>true</code>
+     */
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
@@ -25,4 +25,14 @@ public class A2S_SERVERQUERY_GETCHALLENGE_Packet extends SteamPacket {
     public A2S_SERVERQUERY_GETCHALLENGE_Packet() {
         super(SteamPacket.A2S_SERVERQUERY_GETCHALLENGE_HEADER);
     }
+
+    /**
+     * Returns whether this request may be sent again without side effects
+     *
+     * @return Always <code>true</code>
+     */
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
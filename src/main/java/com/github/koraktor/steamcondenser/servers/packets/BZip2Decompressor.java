@@ -0,0 +1,170 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.packets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+/**
+ * This class decompresses the data of bzip2 compressed packets sent by
+ * Source servers
+ * <p>
+ * The compressed data is streamed directly from the reassembled fragments
+ * into a buffer of the announced size while the CRC32 checksum is updated
+ * for each decompressed chunk.
+ *
+ * @author Sebastian Staudt
+ */
+public final class BZip2Decompressor {
+
+    /**
+     * The maximum size of decompressed packet data that will be accepted
+     */
+    private static final int MAX_UNCOMPRESSED_SIZE = 1 << 24;
+
+    private static final ThreadLocal<CRC32> CHECKSUMS = new ThreadLocal<CRC32>() {
+        @Override
+        protected CRC32 initialValue() {
+            return new CRC32();
+        }
+    };
+
+    private static final AtomicLong checksumFailures = new AtomicLong();
+
+    private static final AtomicLong decompressedPackets = new AtomicLong();
+
+    private static final AtomicLong decompressionTime = new AtomicLong();
+
+    private BZip2Decompressor() {}
+
+    /**
+     * Decompresses the given packet data
+     *
+     * @param data The compressed packet data
+     * @param uncompressedSize The size of the decompressed packet data
+     * @param packetChecksum The CRC32 checksum of the decompressed packet
+     *        data
+     * @return A buffer containing the decompressed packet data
+     * @throws PacketFormatException if the size is invalid, the data is
+     *         truncated or the checksum does not match
+     * @throws SteamCondenserException if decompressing the data fails
+     */
+    public static ByteBuffer decompress(ByteBuffer data, int uncompressedSize, int packetChecksum)
+            throws SteamCondenserException {
+        if (uncompressedSize < 0 || uncompressedSize > MAX_UNCOMPRESSED_SIZE) {
+            throw new PacketFormatException("Invalid size of uncompressed packet data: " + uncompressedSize);
+        }
+
+        long start = System.nanoTime();
+        CRC32 crc32 = CHECKSUMS.get();
+        crc32.reset();
+        byte[] uncompressedData = new byte[uncompressedSize];
+
+        try {
+            BZip2CompressorInputStream bzip2 = new BZip2CompressorInputStream(new ByteBufferInputStream(data));
+            int offset = 0;
+            while (offset < uncompressedSize) {
+                int bytesRead = bzip2.read(uncompressedData, offset, uncompressedSize - offset);
+                if (bytesRead < 0) {
+                    throw new PacketFormatException("Compressed packet data is truncated.");
+                }
+                crc32.update(uncompressedData, offset, bytesRead);
+                offset += bytesRead;
+            }
+        } catch (IOException e) {
+            throw new SteamCondenserException(e.getMessage(), e);
+        } finally {
+            decompressionTime.addAndGet(System.nanoTime() - start);
+        }
+
+        decompressedPackets.incrementAndGet();
+
+        if ((int) crc32.getValue() != packetChecksum) {
+            checksumFailures.incrementAndGet();
+            throw new PacketFormatException("CRC32 checksum mismatch of uncompressed packet data.");
+        }
+
+        return ByteBuffer.wrap(uncompressedData);
+    }
+
+    /**
+     * Returns the number of decompressed packets with a checksum mismatch
+     *
+     * @return The number of checksum failures
+     */
+    public static long getChecksumFailures() {
+        return checksumFailures.get();
+    }
+
+    /**
+     * Returns the number of packets that have been decompressed
+     *
+     * @return The number of decompressed packets
+     */
+    public static long getDecompressedPackets() {
+        return decompressedPackets.get();
+    }
+
+    /**
+     * Returns the total time spent decompressing packets
+     *
+     * @return The decompression time in nanoseconds
+     */
+    public static long getDecompressionTime() {
+        return decompressionTime.get();
+    }
+
+    /**
+     * This class provides an input stream reading from a buffer without
+     * copying its contents
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+
+        @Override
+        public int read() {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            return this.buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, length);
+            return length;
+        }
+
+    }
+
+}
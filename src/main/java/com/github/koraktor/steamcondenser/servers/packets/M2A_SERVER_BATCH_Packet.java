@@ -7,23 +7,26 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
+import java.nio.ByteBuffer;
 import java.util.Vector;
 
 import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.servers.ServerAddressList;
 
 /**
  * This packet class represents a M2A_SERVER_BATCH response replied by a master
  * server
  * <p>
  * It contains a list of IP addresses and ports of game servers matching the
- * requested criteria.
+ * requested criteria. The addresses are decoded into packed
+ * <code>long</code> values without creating objects for each server.
  *
  * @author Sebastian Staudt
  * @see com.github.koraktor.steamcondenser.servers.MasterServer#getServers
  */
 public class M2A_SERVER_BATCH_Packet extends SteamPacket {
 
-    private Vector<String> serverArray;
+    private ServerAddressList addresses;
 
     /**
      * Creates a new M2A_SERVER_BATCH response object based on the given data
@@ -33,32 +36,60 @@ public class M2A_SERVER_BATCH_Packet extends SteamPacket {
      */
     public M2A_SERVER_BATCH_Packet(byte[] data)
             throws PacketFormatException {
+        this(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Creates a new M2A_SERVER_BATCH response object based on the given data
+     * <p>
+     * The packet is a view of the buffer's remaining data, it is not copied.
+     *
+     * @param data The raw packet data replied from the server
+     * @throws PacketFormatException if the packet data is not well formatted
+     */
+    public M2A_SERVER_BATCH_Packet(ByteBuffer data)
+            throws PacketFormatException {
         super(SteamPacket.M2A_SERVER_BATCH_HEADER, data);
 
         if(this.contentData.getByte() != 0x0A) {
             throw new PacketFormatException("Master query response is missing additional 0x0A byte.");
         }
 
-        int firstOctet, secondOctet, thirdOctet, fourthOctet, portNumber;
-        this.serverArray = new Vector<>();
+        this.addresses = new ServerAddressList(this.contentData.remaining() / 6);
 
         do {
-            firstOctet = this.contentData.getByte() & 0xFF;
-            secondOctet = this.contentData.getByte() & 0xFF;
-            thirdOctet = this.contentData.getByte() & 0xFF;
-            fourthOctet = this.contentData.getByte() & 0xFF;
-            portNumber = this.contentData.getShort() & 0xFFFF;
+            int ip = this.contentData.getInt();
+            int portNumber = this.contentData.getShort();
 
-            this.serverArray.add(firstOctet + "." + secondOctet + "." + thirdOctet + "." + fourthOctet + ":" + portNumber);
+            this.addresses.add(ServerAddressList.pack(ip, portNumber));
         } while(this.contentData.remaining() > 0);
     }
 
+    /**
+     * Returns the packed addresses of the servers returned from the server
+     * in this packet
+     *
+     * @return The packed server addresses (i.e. IP addresses + port numbers)
+     * @see ServerAddressList
+     */
+    public ServerAddressList getAddresses() {
+        return this.addresses;
+    }
+
     /**
      * Returns the list of servers returned from the server in this packet
      *
      * @return An array of server addresses (i.e. IP addresses + port numbers)
+     * @deprecated Use {@link #getAddresses()} instead, which doesn't create
+     *             strings for each server
      */
+    @Deprecated
     public Vector<String> getServers() {
-        return this.serverArray;
+        Vector<String> servers = new Vector<>(this.addresses.size());
+        for (int i = 0; i < this.addresses.size(); i ++) {
+            servers.add(ServerAddressList.toString(this.addresses.get(i)));
+        }
+
+        return servers;
     }
 }
@@ -7,8 +7,11 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 
+import com.github.koraktor.steamcondenser.servers.ServerInfo;
+
 /**
  * This module implements methods to generate and access server information
  * from S2A_INFO_DETAILED and S2A_INFO2 response packets
@@ -21,20 +24,42 @@ public abstract class S2A_INFO_BasePacket extends SteamPacket {
 
     protected HashMap<String, Object> info;
 
-    S2A_INFO_BasePacket(byte headerByte, byte[] dataBytes) {
-        super(headerByte, dataBytes);
+    protected ServerInfo serverInfo;
+
+    S2A_INFO_BasePacket(byte headerByte, ByteBuffer data) {
+        super(headerByte, data);
 
-        this.info = new HashMap<>();
+        this.serverInfo = new ServerInfo(data, headerByte == SteamPacket.S2A_INFO_DETAILED_HEADER);
     }
 
     /**
      * Returns a generated array of server properties from the instance
      * variables of the packet object
+     * <p>
+     * The map is created when this method is called for the first time.
+     * Use {@link #getServerInfo} to access single properties without
+     * decoding all of them.
      *
      * @return The information provided by the server
      */
     public HashMap<String, Object> getInfo() {
+        if (this.info == null) {
+            this.info = this.serverInfo.toMap();
+        }
+
         return this.info;
     }
 
+    /**
+     * Returns the information provided by the server
+     * <p>
+     * The fields of the returned object are decoded from the reply data
+     * when they are accessed.
+     *
+     * @return The information provided by the server
+     */
+    public ServerInfo getServerInfo() {
+        return this.serverInfo;
+    }
+
 }
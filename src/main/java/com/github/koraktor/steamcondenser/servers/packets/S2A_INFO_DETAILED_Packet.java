@@ -7,7 +7,7 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
-import java.util.HashMap;
+import java.nio.ByteBuffer;
 
 /**
  * This class represents a S2A_INFO_DETAILED response packet sent by a GoldSrc
@@ -27,40 +27,18 @@ public class S2A_INFO_DETAILED_Packet extends S2A_INFO_BasePacket {
      * @param dataBytes The raw packet data replied from the server
      */
     public S2A_INFO_DETAILED_Packet(byte[] dataBytes) {
-        super(SteamPacket.S2A_INFO_DETAILED_HEADER, dataBytes);
-
-        this.info.put("serverIp", this.contentData.getString());
-        this.info.put("serverName", this.contentData.getString());
-        this.info.put("mapName", this.contentData.getString());
-        this.info.put("gameDir", this.contentData.getString());
-        this.info.put("gameDescription", this.contentData.getString());
-        this.info.put("numberOfPlayers", this.contentData.getByte());
-        this.info.put("maxPlayers", this.contentData.getByte());
-        this.info.put("networkVersion", this.contentData.getByte());
-        this.info.put("dedicated", this.contentData.getByte());
-        this.info.put("operatingSystem", this.contentData.getByte());
-        this.info.put("passwordProtected", this.contentData.getByte() == 1);
-        boolean isMod = this.contentData.getByte() == 1;
-        this.info.put("isMod", isMod);
+        this(ByteBuffer.wrap(dataBytes));
+    }
 
-        if(isMod) {
-            HashMap<String, Object> modInfo = new HashMap<>(6);
-            modInfo.put("urlInfo", this.contentData.getString());
-            modInfo.put("urlDl", this.contentData.getString());
-            this.contentData.getByte();
-            if(this.contentData.remaining() == 12) {
-                modInfo.put("modVersion", Integer.reverseBytes(this.contentData.getInt()));
-                modInfo.put("modSize", Integer.reverseBytes(this.contentData.getInt()));
-                modInfo.put("svOnly", this.contentData.getByte() == 1);
-                modInfo.put("clDll", this.contentData.getByte() == 1);
-                this.info.put("secure", this.contentData.getByte() == 1);
-                this.info.put("numberOfBots", this.contentData.getByte());
-            }
-            this.info.put("modInfo", modInfo);
-        } else {
-            this.info.put("secure", this.contentData.getByte() == 1);
-            this.info.put("numberOfBots", this.contentData.getByte());
-        }
+    /**
+     * Creates a new S2A_INFO_DETAILED response object based on the given data
+     * <p>
+     * The packet is a view of the buffer's remaining data, it is not copied.
+     *
+     * @param data The raw packet data replied from the server
+     */
+    public S2A_INFO_DETAILED_Packet(ByteBuffer data) {
+        super(SteamPacket.S2A_INFO_DETAILED_HEADER, data);
     }
 
 }
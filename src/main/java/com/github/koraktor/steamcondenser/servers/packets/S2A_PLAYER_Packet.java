@@ -7,9 +7,12 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.servers.PlayerList;
 import com.github.koraktor.steamcondenser.servers.SteamPlayer;
 
 /**
@@ -24,6 +27,8 @@ public class S2A_PLAYER_Packet extends SteamPacket {
 
     private HashMap<String, SteamPlayer> playerHash;
 
+    private PlayerList playerList;
+
     /**
      * Creates a new S2A_PLAYER response object based on the given data
      *
@@ -31,32 +36,73 @@ public class S2A_PLAYER_Packet extends SteamPacket {
      */
     public S2A_PLAYER_Packet(byte[] dataBytes)
             throws PacketFormatException {
-        super(SteamPacket.S2A_PLAYER_HEADER, dataBytes);
+        this(ByteBuffer.wrap(dataBytes));
+    }
+
+    /**
+     * Creates a new S2A_PLAYER response object based on the given data
+     * <p>
+     * The packet is a view of the buffer's remaining data, it is not copied.
+     *
+     * @param data The raw packet data sent by the server
+     */
+    public S2A_PLAYER_Packet(ByteBuffer data)
+            throws PacketFormatException {
+        super(SteamPacket.S2A_PLAYER_HEADER, data);
 
         if(this.contentData.getLength() == 0) {
             throw new PacketFormatException("Wrong formatted S2A_PLAYER response packet.");
         }
 
-        this.playerHash = new HashMap<>(this.contentData.getByte());
+        int capacity = this.contentData.getByte() & 0xff;
+        int[] ids = new int[capacity];
+        String[] names = new String[capacity];
+        int[] scores = new int[capacity];
+        float[] connectTimes = new float[capacity];
+        int size = 0;
 
         while(this.contentData.hasRemaining()) {
-            int playerId = this.contentData.getByte() & 0xff;
-            String playerName = this.contentData.getString();
-            this.playerHash.put(playerName, new SteamPlayer(
-                playerId,
-                playerName,
-                Integer.reverseBytes(this.contentData.getInt()),
-                Float.intBitsToFloat(Integer.reverseBytes(this.contentData.getInt()))
-            ));
+            if(size == ids.length) {
+                capacity     = Math.max(8, capacity * 2);
+                ids          = Arrays.copyOf(ids, capacity);
+                names        = Arrays.copyOf(names, capacity);
+                scores       = Arrays.copyOf(scores, capacity);
+                connectTimes = Arrays.copyOf(connectTimes, capacity);
+            }
+
+            ids[size]          = this.contentData.getByte() & 0xff;
+            names[size]        = this.contentData.getString();
+            scores[size]       = Integer.reverseBytes(this.contentData.getInt());
+            connectTimes[size] = Float.intBitsToFloat(Integer.reverseBytes(this.contentData.getInt()));
+            size ++;
         }
+
+        this.playerList = new PlayerList(ids, names, scores, connectTimes, size);
     }
 
     /**
      * Returns the list of active players provided by the server
+     * <p>
+     * Players with the same name are only contained once, use
+     * {@link #getPlayerList} to get all players.
      *
      * @return All active players on the server
      */
     public HashMap<String, SteamPlayer> getPlayerHash() {
+        if(this.playerHash == null) {
+            this.playerHash = this.playerList.toMap();
+        }
+
         return this.playerHash;
     }
+
+    /**
+     * Returns the list of active players provided by the server in the order
+     * sent by the server
+     *
+     * @return All active players on the server
+     */
+    public PlayerList getPlayerList() {
+        return this.playerList;
+    }
 }
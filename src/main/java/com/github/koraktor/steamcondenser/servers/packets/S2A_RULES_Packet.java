@@ -7,9 +7,11 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 
 import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.servers.ServerRules;
 
 /**
  * This class represents a S2A_RULES response sent by a game server
@@ -22,6 +24,8 @@ import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
  */
 public class S2A_RULES_Packet extends SteamPacket {
 
+    private ServerRules rules;
+
     private HashMap<String, String> rulesHash;
 
     /**
@@ -31,27 +35,49 @@ public class S2A_RULES_Packet extends SteamPacket {
      */
     public S2A_RULES_Packet(byte[] dataBytes)
             throws PacketFormatException {
-        super(SteamPacket.S2A_RULES_HEADER, dataBytes);
+        this(ByteBuffer.wrap(dataBytes));
+    }
+
+    /**
+     * Creates a new S2A_RULES response object based on the given data
+     * <p>
+     * The packet is a view of the buffer's remaining data, it is not copied.
+     *
+     * @param data The raw packet data sent by the server
+     */
+    public S2A_RULES_Packet(ByteBuffer data)
+            throws PacketFormatException {
+        super(SteamPacket.S2A_RULES_HEADER, data);
 
         if (this.contentData.getLength() == 0) {
             throw new PacketFormatException("Wrong formatted S2A_RULES response packet.");
         }
 
-        int rulesCount = Short.reverseBytes(this.contentData.getShort());
-        this.rulesHash = new HashMap<>(rulesCount);
+        int rulesCount = Short.reverseBytes(this.contentData.getShort()) & 0xFFFF;
+        String[] rules = new String[rulesCount];
+        String[] values = new String[rulesCount];
 
-        String rule;
-        String value;
+        int count = 0;
         for (int i = 0; i < rulesCount; i++) {
-            rule = this.contentData.getString();
-            value = this.contentData.getString();
+            rules[count] = this.contentData.getString();
+            values[count] = this.contentData.getString();
 
-            if(rule.equals("")) {
+            if(rules[count] == null || rules[count].equals("")) {
                 break;
             }
-
-            this.rulesHash.put(rule, value);
+            count ++;
         }
+
+        this.rules = new ServerRules(rules, values, count);
+    }
+
+    /**
+     * Returns the server rules (a.k.a. CVars) with their current values
+     *
+     * @return The rules of the server
+     */
+    public ServerRules getRules() {
+        return this.rules;
     }
 
     /**
@@ -60,6 +86,10 @@ public class S2A_RULES_Packet extends SteamPacket {
      * @return array A list of server rules
      */
     public HashMap<String, String> getRulesHash() {
+        if (this.rulesHash == null) {
+            this.rulesHash = this.rules.toMap();
+        }
+
         return this.rulesHash;
     }
 }
@@ -7,6 +7,8 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
+import java.nio.ByteBuffer;
+
 /**
  * This packet class represents a S2C_CHALLENGE response replied by a game
  * server
@@ -25,7 +27,18 @@ public class S2C_CHALLENGE_Packet extends SteamPacket {
      * @param challengeNumberBytes The raw packet data replied from the server
      */
     public S2C_CHALLENGE_Packet(byte[] challengeNumberBytes) {
-        super(SteamPacket.S2C_CHALLENGE_HEADER, challengeNumberBytes);
+        this(ByteBuffer.wrap(challengeNumberBytes));
+    }
+
+    /**
+     * Creates a new S2C_CHALLENGE response object based on the given data
+     * <p>
+     * The packet is a view of the buffer's remaining data, it is not copied.
+     *
+     * @param data The raw packet data replied from the server
+     */
+    public S2C_CHALLENGE_Packet(ByteBuffer data) {
+        super(SteamPacket.S2C_CHALLENGE_HEADER, data);
     }
 
     /**
@@ -7,6 +7,8 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
+import java.nio.ByteBuffer;
+
 import com.github.koraktor.steamcondenser.PacketBuffer;
 
 /**
@@ -64,6 +66,20 @@ abstract public class SteamPacket {
         this.headerData = headerData;
     }
 
+    /**
+     * Creates a new packet object based on the given data
+     * <p>
+     * The content of the packet is a view of the buffer's remaining data, it
+     * is not copied.
+     *
+     * @param headerData The packet header
+     * @param content The raw data of the packet
+     */
+    protected SteamPacket(byte headerData, ByteBuffer content) {
+        this.contentData = new PacketBuffer(content);
+        this.headerData = headerData;
+    }
+
     /**
      * Returns the raw data representing this packet
      *
@@ -79,4 +95,14 @@ abstract public class SteamPacket {
         System.arraycopy(this.contentData.array(), 0, bytes, 5, bytes.length - 5);
         return bytes;
     }
+
+    /**
+     * Returns whether this packet is a request that may be sent again without
+     * side effects, e.g. if the reply has not been received in time
+     *
+     * @return <code>true</code> if this packet may be retransmitted
+     */
+    public boolean isIdempotent() {
+        return false;
+    }
 }
@@ -7,14 +7,9 @@
 
 package com.github.koraktor.steamcondenser.servers.packets;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.zip.CRC32;
 
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
-
-import com.github.koraktor.steamcondenser.Helper;
 import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
 import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
 import com.github.koraktor.steamcondenser.servers.packets.rcon.RCONGoldSrcResponsePacket;
@@ -36,12 +31,32 @@ public abstract class SteamPacketFactory {
      * @param rawData The raw data of the packet
      * @throws PacketFormatException if the packet header is not recognized
      * @return The packet object generated from the packet data
+     * @see #getPacketFromData(ByteBuffer)
      */
     public static SteamPacket getPacketFromData(byte[] rawData)
             throws PacketFormatException {
-        byte header = rawData[0];
-        byte[] data = new byte[rawData.length - 1];
-        System.arraycopy(rawData, 1, data, 0, rawData.length - 1);
+        return SteamPacketFactory.getPacketFromData(ByteBuffer.wrap(rawData));
+    }
+
+    /**
+     * Creates a new packet object based on the header byte at the current
+     * position of the given buffer
+     * <p>
+     * The packet data is not copied, the created packet uses a view of the
+     * buffer's remaining content. The buffer must not be modified afterwards.
+     *
+     * @param rawData The buffer containing the raw data of the packet
+     * @throws PacketFormatException if the packet header is not recognized
+     * @return The packet object generated from the packet data
+     */
+    public static SteamPacket getPacketFromData(ByteBuffer rawData)
+            throws PacketFormatException {
+        if (!rawData.hasRemaining()) {
+            throw new PacketFormatException("Received empty packet.");
+        }
+
+        byte header = rawData.get();
+        ByteBuffer data = rawData.slice();
 
         switch(header) {
             case SteamPacket.A2S_INFO_HEADER:
@@ -54,13 +69,13 @@ public abstract class SteamPacketFactory {
                 return new S2A_INFO2_Packet(data);
 
             case SteamPacket.A2S_PLAYER_HEADER:
-                return new A2S_PLAYER_Packet(Helper.integerFromByteArray(data));
+                return new A2S_PLAYER_Packet(data.getInt());
 
             case SteamPacket.S2A_PLAYER_HEADER:
                 return new S2A_PLAYER_Packet(data);
 
             case SteamPacket.A2S_RULES_HEADER:
-                return new A2S_RULES_Packet(Helper.integerFromByteArray(data));
+                return new A2S_RULES_Packet(data.getInt());
 
             case SteamPacket.S2A_RULES_HEADER:
                 return new S2A_RULES_Packet(data);
@@ -118,43 +133,48 @@ public abstract class SteamPacketFactory {
     public static SteamPacket reassemblePacket(ArrayList<byte[]> splitPackets,
             boolean isCompressed, int uncompressedSize, int packetChecksum)
             throws SteamCondenserException {
-        byte[] packetData, tmpData;
-        packetData = new byte[0];
+        int length = 0;
+        for(byte[] splitPacket : splitPackets) {
+            length += splitPacket.length;
+        }
 
+        byte[] packetData = new byte[length];
+        int offset = 0;
         for(byte[] splitPacket : splitPackets) {
-            tmpData = packetData;
-            packetData = new byte[tmpData.length + splitPacket.length];
-            System.arraycopy(tmpData, 0, packetData, 0, tmpData.length);
-            System.arraycopy(splitPacket, 0, packetData, tmpData.length,
-                    splitPacket.length);
+            System.arraycopy(splitPacket, 0, packetData, offset, splitPacket.length);
+            offset += splitPacket.length;
         }
 
+        return SteamPacketFactory.reassemblePacket(ByteBuffer.wrap(packetData),
+                isCompressed, uncompressedSize, packetChecksum);
+    }
+
+    /**
+     * Creates a packet object from the reassembled data of a split and/or
+     * compressed packet
+     *
+     * @param packetData The data of all fragments of the packet
+     * @param isCompressed whether the data of this packet is compressed
+     * @param uncompressedSize The size of the decompressed packet data
+     * @param packetChecksum The CRC32 checksum of the decompressed
+     *        packet data
+     * @throws SteamCondenserException if decompressing the packet data fails
+     * @throws PacketFormatException if the calculated CRC32 checksum does not
+     *         match the expected value
+     * @return SteamPacket The reassembled packet
+     * @see com.github.koraktor.steamcondenser.servers.sockets.SplitPacketAssembler
+     */
+    public static SteamPacket reassemblePacket(ByteBuffer packetData,
+            boolean isCompressed, int uncompressedSize, int packetChecksum)
+            throws SteamCondenserException {
         if(isCompressed) {
-            try {
-                ByteArrayInputStream stream = new ByteArrayInputStream(packetData);
-                stream.read();
-                stream.read();
-                BZip2CompressorInputStream bzip2 = new BZip2CompressorInputStream(stream);
-                byte[] uncompressedPacketData = new byte[uncompressedSize];
-                bzip2.read(uncompressedPacketData, 0, uncompressedSize);
-
-                CRC32 crc32 = new CRC32();
-                crc32.update(uncompressedPacketData);
-                int crc32checksum = (int) crc32.getValue();
-
-                if (crc32checksum != packetChecksum) {
-                    throw new PacketFormatException(
-                            "CRC32 checksum mismatch of uncompressed packet data.");
-                }
-                packetData = uncompressedPacketData;
-            } catch(IOException e) {
-                throw new SteamCondenserException(e.getMessage(), e);
-            }
+            packetData = BZip2Decompressor.decompress(packetData, uncompressedSize, packetChecksum);
         }
 
-        tmpData = packetData;
-        packetData = new byte[tmpData.length - 4];
-        System.arraycopy(tmpData, 4, packetData, 0, tmpData.length - 4);
+        if(packetData.remaining() < 4) {
+            throw new PacketFormatException("Reassembled packet is too short.");
+        }
+        packetData.position(packetData.position() + 4);
 
         return SteamPacketFactory.getPacketFromData(packetData);
     }
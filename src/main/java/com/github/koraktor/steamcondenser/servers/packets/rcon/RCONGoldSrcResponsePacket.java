@@ -7,6 +7,8 @@
 
 package com.github.koraktor.steamcondenser.servers.packets.rcon;
 
+import java.nio.ByteBuffer;
+
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
 
 /**
@@ -26,7 +28,16 @@ public class RCONGoldSrcResponsePacket extends SteamPacket {
      * @param commandResponse The output of the command executed on the server
      */
     public RCONGoldSrcResponsePacket(byte[] commandResponse) {
-        super(SteamPacket.RCON_GOLDSRC_RESPONSE_HEADER, commandResponse);
+        this(ByteBuffer.wrap(commandResponse));
+    }
+
+    /**
+     * Creates a RCON command response for the given command output
+     *
+     * @param data The output of the command executed on the server
+     */
+    public RCONGoldSrcResponsePacket(ByteBuffer data) {
+        super(SteamPacket.RCON_GOLDSRC_RESPONSE_HEADER, data);
     }
 
     /**
@@ -0,0 +1,53 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.scan;
+
+import java.net.InetSocketAddress;
+
+import com.github.koraktor.steamcondenser.servers.packets.S2A_INFO_BasePacket;
+import com.github.koraktor.steamcondenser.servers.packets.S2A_PLAYER_Packet;
+
+/**
+ * This interface is implemented by classes receiving the results of a
+ * {@link ServerScanner}
+ * <p>
+ * The methods of a listener may be called concurrently from different
+ * threads, so implementations have to be thread-safe.
+ *
+ * @author Sebastian Staudt
+ */
+public interface ScanListener {
+
+    /**
+     * Called when the server at the given address failed to reply on time
+     * or replied with invalid data
+     *
+     * @param address The address of the server
+     * @param error The error that occurred while querying the server
+     */
+    void onFailure(InetSocketAddress address, Exception error);
+
+    /**
+     * Called when the server information of the server at the given address
+     * has been received
+     *
+     * @param address The address of the server
+     * @param infoPacket The info packet replied by the server
+     */
+    void onInfo(InetSocketAddress address, S2A_INFO_BasePacket infoPacket);
+
+    /**
+     * Called when the players of the server at the given address have been
+     * received
+     *
+     * @param address The address of the server
+     * @param playerPacket The player packet replied by the server
+     */
+    void onPlayers(InetSocketAddress address, S2A_PLAYER_Packet playerPacket);
+
+}
@@ -0,0 +1,430 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.scan;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.ChallengeManager;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_INFO_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_PLAYER_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.S2A_INFO_BasePacket;
+import com.github.koraktor.steamcondenser.servers.packets.S2A_PLAYER_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.S2C_CHALLENGE_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
+import com.github.koraktor.steamcondenser.servers.sockets.DatagramHandler;
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
+import com.github.koraktor.steamcondenser.servers.sockets.SendPacer;
+import com.github.koraktor.steamcondenser.servers.sockets.SplitPacketAssembler;
+
+/**
+ * This class can be used to query the information and players of lots of
+ * Source servers concurrently
+ * <p>
+ * Instead of creating a server object for every address and querying them
+ * one after another, a scanner keeps many A2S_INFO and A2S_PLAYER requests
+ * in flight at the same time using a shared {@link QueryReactor}. Results
+ * are passed to a {@link ScanListener} as soon as they arrive.
+ * <p>
+ * A typical use is scanning all servers returned by a master server:
+ * <pre>
+ * QueryReactor reactor = new QueryReactor();
+ * ServerScanner scanner = new ServerScanner(reactor);
+ * scanner.setQueryPlayers(true);
+ * scanner.scan(SourceServer.getMaster().getServers(), listener);
+ * </pre>
+ *
+ * @author Sebastian Staudt
+ * @see com.github.koraktor.steamcondenser.servers.MasterServer#getServers
+ */
+public class ServerScanner {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(ServerScanner.class);
+
+    private static final int INFO_REQUEST_SIZE = 29;
+
+    private ChallengeManager challengeManager;
+
+    private int concurrency;
+
+    private final ConcurrentHashMap<InetSocketAddress, ScanQuery> queries;
+
+    private boolean queryPlayers;
+
+    private final QueryReactor reactor;
+
+    private SendPacer sendPacer;
+
+    private int timeout;
+
+    /**
+     * Creates a new scanner sending its requests using the given reactor
+     *
+     * @param reactor The reactor to use for communication with the servers
+     */
+    public ServerScanner(QueryReactor reactor) {
+        this.challengeManager = ChallengeManager.getShared();
+        this.concurrency      = 1000;
+        this.queries          = new ConcurrentHashMap<>();
+        this.queryPlayers     = false;
+        this.reactor          = reactor;
+        this.timeout          = 1000;
+    }
+
+    /**
+     * Returns the number of servers that are currently queried
+     *
+     * @return The number of servers with requests in flight
+     */
+    public int getPendingQueries() {
+        return this.queries.size();
+    }
+
+    /**
+     * Sets the challenge manager used to cache the challenge numbers of the
+     * scanned servers (default: {@link ChallengeManager#getShared})
+     *
+     * @param challengeManager The challenge manager to use
+     */
+    public void setChallengeManager(ChallengeManager challengeManager) {
+        this.challengeManager = challengeManager;
+    }
+
+    /**
+     * Sets the maximum number of servers queried at the same time (default:
+     * 1000)
+     *
+     * @param concurrency The maximum number of servers queried concurrently
+     */
+    public void setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency has to be positive");
+        }
+
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sets whether the players of each server should be queried after its
+     * information has been received (default: <code>false</code>)
+     *
+     * @param queryPlayers <code>true</code> if players should be queried
+     */
+    public void setQueryPlayers(boolean queryPlayers) {
+        this.queryPlayers = queryPlayers;
+    }
+
+    /**
+     * Sets the pacer limiting the rate at which new servers are queried
+     * (default: <code>null</code>)
+     * <p>
+     * Without a pacer, requests are sent as fast as the concurrency limit
+     * allows. With lots of servers replying at once this may overflow the
+     * receive buffers of the reactor, so replies are lost and queries time
+     * out. The pacer is informed about every reply and timeout and reduces
+     * the rate if too many queries time out.
+     *
+     * @param sendPacer The pacer to use or <code>null</code> to disable
+     *        pacing
+     * @see QueryReactor#setReceiveBufferSize
+     */
+    public void setSendPacer(SendPacer sendPacer) {
+        this.sendPacer = sendPacer;
+    }
+
+    /**
+     * Sets the time to wait for each single reply of a server (default: 1000)
+     *
+     * @param timeout The amount of milliseconds before a request times out
+     */
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Queries all servers at the given addresses
+     *
+     * @param addresses The addresses of the servers to query
+     * @param listener The listener to pass results to
+     * @throws InterruptedException if the calling thread is interrupted
+     * @see #scan(Iterator, ScanListener)
+     */
+    public void scan(Iterable<InetSocketAddress> addresses, ScanListener listener)
+            throws InterruptedException {
+        this.scan(addresses.iterator(), listener);
+    }
+
+    /**
+     * Queries all servers at the given addresses
+     * <p>
+     * The addresses are consumed lazily while respecting the concurrency
+     * limit, so the given iterator may be backed by a source still producing
+     * addresses. If a send pacer is set, new servers are only queried as
+     * fast as the pacer allows. This method returns after all servers have
+     * either replied or timed out.
+     *
+     * @param addresses The addresses of the servers to query
+     * @param listener The listener to pass results to
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void scan(Iterator<InetSocketAddress> addresses, ScanListener listener)
+            throws InterruptedException {
+        int concurrency = this.concurrency;
+        SendPacer sendPacer = this.sendPacer;
+        Semaphore permits = new Semaphore(concurrency);
+
+        while (addresses.hasNext()) {
+            InetSocketAddress address = addresses.next();
+            permits.acquire();
+
+            ScanQuery query = new ScanQuery(address, listener, permits);
+            if (this.queries.putIfAbsent(address, query) != null) {
+                LOG.debug("Skipping " + address + ", it is already being queried.");
+                permits.release();
+                continue;
+            }
+
+            if (sendPacer != null) {
+                sendPacer.acquire(INFO_REQUEST_SIZE);
+            }
+            query.start();
+        }
+
+        permits.acquire(concurrency);
+        permits.release(concurrency);
+    }
+
+    /**
+     * This class represents the queries sent to a single server
+     */
+    private class ScanQuery implements DatagramHandler {
+
+        private final InetSocketAddress address;
+
+        private boolean challenged;
+
+        private int challengeNumber;
+
+        private boolean finished;
+
+        private final ScanListener listener;
+
+        private final Semaphore permits;
+
+        private final boolean queryPlayers;
+
+        private SteamPacket request;
+
+        private final SplitPacketAssembler splitPackets;
+
+        private final SendPacer sendPacer;
+
+        private final int timeout;
+
+        private ScheduledFuture<?> timeoutTask;
+
+        ScanQuery(InetSocketAddress address, ScanListener listener, Semaphore permits) {
+            this.address      = address;
+            this.challenged   = false;
+            this.finished     = false;
+            this.listener     = listener;
+            this.permits      = permits;
+            this.queryPlayers = ServerScanner.this.queryPlayers;
+            this.sendPacer    = ServerScanner.this.sendPacer;
+            this.splitPackets = new SplitPacketAssembler(false);
+            this.timeout      = ServerScanner.this.timeout;
+        }
+
+        /**
+         * Decodes a single datagram replied by the server
+         *
+         * @param data The data of the datagram
+         * @return The packet replied by the server or <code>null</code> if
+         *         more fragments of a split packet are required
+         * @throws SteamCondenserException if the data cannot be decoded
+         */
+        private SteamPacket decode(ByteBuffer data)
+                throws SteamCondenserException {
+            int header = Integer.reverseBytes(data.getInt());
+
+            if (header == 0xFFFFFFFF) {
+                return SteamPacketFactory.getPacketFromData(data);
+            } else if (header != 0xFFFFFFFE) {
+                throw new PacketFormatException("Unknown packet header 0x" + Integer.toHexString(header) + ".");
+            }
+
+            return this.splitPackets.addFragment(data);
+        }
+
+        /**
+         * Reports an error and stops querying the server
+         *
+         * @param error The error that occurred
+         */
+        private void fail(Exception error) {
+            if (this.finished) {
+                return;
+            }
+
+            try {
+                this.listener.onFailure(this.address, error);
+            } catch (RuntimeException e) {
+                LOG.error("Scan listener failed.", e);
+            }
+            this.finish();
+        }
+
+        /**
+         * Stops querying the server and frees the resources used
+         */
+        private void finish() {
+            this.finished = true;
+            if (this.timeoutTask != null) {
+                this.timeoutTask.cancel(false);
+            }
+
+            ServerScanner.this.reactor.unregister(this.address, this);
+            ServerScanner.this.queries.remove(this.address, this);
+            this.permits.release();
+        }
+
+        public synchronized void handleDatagram(InetSocketAddress address, ByteBuffer data) {
+            if (this.finished) {
+                return;
+            }
+
+            try {
+                SteamPacket packet = this.decode(data);
+                if (packet != null) {
+                    if (this.sendPacer != null) {
+                        this.sendPacer.onReply();
+                    }
+                    this.handlePacket(packet);
+                }
+            } catch (SteamCondenserException | RuntimeException e) {
+                this.fail(e);
+            }
+        }
+
+        /**
+         * Handles a packet replied by the server and sends the next request
+         * if required
+         *
+         * @param packet The packet replied by the server
+         * @throws SteamCondenserException if the next request cannot be sent
+         */
+        private void handlePacket(SteamPacket packet)
+                throws SteamCondenserException {
+            if (packet instanceof S2A_INFO_BasePacket && this.request instanceof A2S_INFO_Packet) {
+                try {
+                    this.listener.onInfo(this.address, (S2A_INFO_BasePacket) packet);
+                } catch (RuntimeException e) {
+                    LOG.error("Scan listener failed.", e);
+                }
+
+                if (this.queryPlayers) {
+                    this.challenged = false;
+                    this.send(new A2S_PLAYER_Packet(this.challengeNumber));
+                } else {
+                    this.finish();
+                }
+            } else if (packet instanceof S2C_CHALLENGE_Packet && !this.challenged) {
+                this.challenged = true;
+                this.challengeNumber = ((S2C_CHALLENGE_Packet) packet).getChallengeNumber();
+                ChallengeManager challengeManager = ServerScanner.this.challengeManager;
+                if (challengeManager != null) {
+                    challengeManager.put(this.address, this.challengeNumber);
+                }
+
+                if (this.request instanceof A2S_INFO_Packet) {
+                    this.send(new A2S_INFO_Packet(this.challengeNumber));
+                } else {
+                    this.send(new A2S_PLAYER_Packet(this.challengeNumber));
+                }
+            } else if (packet instanceof S2A_PLAYER_Packet && this.request instanceof A2S_PLAYER_Packet) {
+                try {
+                    this.listener.onPlayers(this.address, (S2A_PLAYER_Packet) packet);
+                } catch (RuntimeException e) {
+                    LOG.error("Scan listener failed.", e);
+                }
+                this.finish();
+            } else {
+                throw new PacketFormatException("Unexpected reply of type \"" + packet.getClass().getSimpleName() + "\".");
+            }
+        }
+
+        /**
+         * Sends a request to the server and schedules its timeout
+         *
+         * @param request The request to send
+         * @throws SteamCondenserException if the request cannot be sent
+         */
+        private void send(final SteamPacket request)
+                throws SteamCondenserException {
+            this.request = request;
+            this.splitPackets.clear();
+
+            if (this.timeoutTask != null) {
+                this.timeoutTask.cancel(false);
+            }
+            this.timeoutTask = ServerScanner.this.reactor.schedule(new Runnable() {
+                public void run() {
+                    ScanQuery.this.timeout(request);
+                }
+            }, this.timeout);
+
+            ServerScanner.this.reactor.send(this.address, ByteBuffer.wrap(request.getBytes()));
+        }
+
+        /**
+         * Starts querying the server
+         */
+        synchronized void start() {
+            ChallengeManager challengeManager = ServerScanner.this.challengeManager;
+            this.challengeNumber = (challengeManager == null) ?
+                ChallengeManager.NO_CHALLENGE : challengeManager.get(this.address);
+
+            try {
+                ServerScanner.this.reactor.register(this.address, this);
+                if (this.challengeNumber == ChallengeManager.NO_CHALLENGE) {
+                    this.send(new A2S_INFO_Packet());
+                } else {
+                    this.send(new A2S_INFO_Packet(this.challengeNumber));
+                }
+            } catch (SteamCondenserException | RuntimeException e) {
+                this.fail(e);
+            }
+        }
+
+        /**
+         * Fails this query if the given request is still unanswered
+         *
+         * @param request The request that timed out
+         */
+        synchronized void timeout(SteamPacket request) {
+            if (this.request == request) {
+                if (this.sendPacer != null) {
+                    this.sendPacer.onTimeout();
+                }
+                this.fail(new TimeoutException());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class implements a pool of receive buffers shared by sockets
+ * <p>
+ * Sockets borrow a buffer for each received reply and return it as soon as
+ * the reply has been decoded, so the number of buffers in use is bounded by
+ * the number of replies decoded concurrently instead of the number of open
+ * sockets. Direct buffers are used by default,
+ * which allows channels to read into them without an intermediate copy.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sebastian Staudt
+ */
+public class BufferPool {
+
+    private static BufferPool sharedPool;
+
+    private final AtomicLong acquiredBuffers;
+
+    private final AtomicLong allocatedBuffers;
+
+    private final int bufferSize;
+
+    private final boolean direct;
+
+    private final ConcurrentLinkedQueue<ByteBuffer> freeBuffers;
+
+    private final AtomicInteger freeBufferCount;
+
+    private final int maxFreeBuffers;
+
+    /**
+     * Returns the pool that is used by sockets by default
+     * <p>
+     * The shared pool uses direct buffers of 4,096 bytes, which is enough
+     * for any UDP packet sent by game and master servers, and keeps up to 256
+     * unused buffers.
+     *
+     * @return The shared buffer pool
+     */
+    public static synchronized BufferPool getShared() {
+        if (sharedPool == null) {
+            sharedPool = new BufferPool(4096, 256, true);
+        }
+
+        return sharedPool;
+    }
+
+    /**
+     * Creates a new buffer pool
+     *
+     * @param bufferSize The capacity of the buffers in this pool
+     * @param maxFreeBuffers The maximum number of unused buffers kept in
+     *        this pool
+     * @param direct Whether this pool should use direct buffers
+     */
+    public BufferPool(int bufferSize, int maxFreeBuffers, boolean direct) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size has to be positive");
+        }
+
+        this.acquiredBuffers  = new AtomicLong();
+        this.allocatedBuffers = new AtomicLong();
+        this.bufferSize       = bufferSize;
+        this.direct           = direct;
+        this.freeBuffers      = new ConcurrentLinkedQueue<>();
+        this.freeBufferCount  = new AtomicInteger();
+        this.maxFreeBuffers   = maxFreeBuffers;
+    }
+
+    /**
+     * Borrows a buffer from this pool
+     * <p>
+     * A new buffer is allocated if there's no unused buffer in the pool.
+     *
+     * @return A cleared buffer
+     */
+    public ByteBuffer acquire() {
+        this.acquiredBuffers.incrementAndGet();
+
+        ByteBuffer buffer = this.freeBuffers.poll();
+        if (buffer != null) {
+            this.freeBufferCount.decrementAndGet();
+            return buffer;
+        }
+
+        this.allocatedBuffers.incrementAndGet();
+        if (this.direct) {
+            return ByteBuffer.allocateDirect(this.bufferSize);
+        }
+        return ByteBuffer.allocate(this.bufferSize);
+    }
+
+    /**
+     * Returns the number of buffers borrowed from this pool
+     *
+     * @return The number of borrowed buffers
+     */
+    public long getAcquiredBuffers() {
+        return this.acquiredBuffers.get();
+    }
+
+    /**
+     * Returns the number of buffers allocated by this pool
+     * <p>
+     * Every borrowed buffer that has not been allocated was reused from the
+     * pool.
+     *
+     * @return The number of allocated buffers
+     */
+    public long getAllocatedBuffers() {
+        return this.allocatedBuffers.get();
+    }
+
+    /**
+     * Returns the capacity of the buffers in this pool
+     *
+     * @return The size of the buffers
+     */
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Returns the number of unused buffers in this pool
+     *
+     * @return The number of unused buffers
+     */
+    public int getFreeBuffers() {
+        return this.freeBufferCount.get();
+    }
+
+    /**
+     * Returns the number of borrowed buffers that have been reused
+     *
+     * @return The number of reused buffers
+     */
+    public long getHits() {
+        return this.acquiredBuffers.get() - this.allocatedBuffers.get();
+    }
+
+    /**
+     * Returns the given buffer to this pool
+     * <p>
+     * The buffer must not be used afterwards. Buffers not allocated by this
+     * pool and buffers exceeding the maximum number of unused buffers are
+     * discarded.
+     *
+     * @param buffer The buffer to return
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != this.bufferSize || buffer.isDirect() != this.direct) {
+            return;
+        }
+
+        if (this.freeBufferCount.incrementAndGet() > this.maxFreeBuffers) {
+            this.freeBufferCount.decrementAndGet();
+            return;
+        }
+
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        this.freeBuffers.offer(buffer);
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * This interface is implemented by classes that want to receive datagrams
+ * from a {@link QueryReactor}
+ *
+ * @author Sebastian Staudt
+ * @see QueryReactor#register
+ */
+public interface DatagramHandler {
+
+    /**
+     * Handles a datagram received from the given address
+     * <p>
+     * This is called from the reactor's selector thread, so implementations
+     * should return quickly and must not block.
+     *
+     * @param address The address the datagram has been received from
+     * @param data The data of the datagram
+     */
+    void handleDatagram(InetSocketAddress address, ByteBuffer data);
+
+}
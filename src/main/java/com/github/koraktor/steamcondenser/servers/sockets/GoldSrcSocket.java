@@ -8,7 +8,6 @@
 package com.github.koraktor.steamcondenser.servers.sockets;
 
 import java.net.InetAddress;
-import java.util.ArrayList;
 import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +16,6 @@ import com.github.koraktor.steamcondenser.exceptions.RCONBanException;
 import com.github.koraktor.steamcondenser.exceptions.RCONNoAuthException;
 import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
-import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
 import com.github.koraktor.steamcondenser.servers.packets.rcon.RCONGoldSrcRequestPacket;
 import com.github.koraktor.steamcondenser.servers.packets.rcon.RCONGoldSrcResponsePacket;
 
@@ -44,8 +42,7 @@ public class GoldSrcSocket extends QuerySocket {
      */
     public GoldSrcSocket(InetAddress ipAddress, int portNumber)
             throws SteamCondenserException {
-        super(ipAddress, portNumber);
-        this.isHLTV = false;
+        this(ipAddress, portNumber, false);
     }
 
     /**
@@ -63,6 +60,7 @@ public class GoldSrcSocket extends QuerySocket {
             throws SteamCondenserException {
         super(ipAddress, portNumber);
         this.isHLTV = isHLTV;
+        this.splitPacketAssembler = new SplitPacketAssembler(true);
     }
 
     /**
@@ -79,45 +77,18 @@ public class GoldSrcSocket extends QuerySocket {
      */
     public SteamPacket getReply()
             throws SteamCondenserException, TimeoutException {
-        int bytesRead;
         SteamPacket packet;
 
-        bytesRead = this.receivePacket(1400);
-
-        if(this.packetIsSplit()) {
-            byte[] splitData;
-            int packetCount, packetNumber;
-            int requestId;
-            byte packetNumberAndCount;
-            ArrayList<byte[]> splitPackets = new ArrayList<>();
-
-            do {
-                requestId = Integer.reverseBytes(this.buffer.getInt());
-                packetNumberAndCount = this.buffer.get();
-                packetCount = packetNumberAndCount & 0xF;
-                packetNumber = (packetNumberAndCount >> 4) + 1;
-
-                splitData = new byte[this.buffer.remaining()];
-                this.buffer.get(splitData);
-                splitPackets.ensureCapacity(packetCount);
-                splitPackets.add(packetNumber - 1, splitData);
-
-                LOG.info("Received packet #" + packetNumber + " of " + packetCount + " for request ID " + requestId + ".");
-
-                if(splitPackets.size() < packetCount) {
-                    try {
-                        bytesRead = this.receivePacket();
-                    } catch(TimeoutException e) {
-                        bytesRead = 0;
-                    }
-                } else {
-                    bytesRead = 0;
-                }
-            } while(bytesRead > 0 && this.packetIsSplit());
-
-            packet = SteamPacketFactory.reassemblePacket(splitPackets);
-        } else {
-            packet = this.getPacketFromData();
+        try {
+            this.receivePacket(1400);
+
+            if(this.packetIsSplit()) {
+                packet = this.getSplitReply();
+            } else {
+                packet = this.getPacketFromData();
+            }
+        } finally {
+            this.releaseReceiveBuffer();
         }
 
         LOG.info("Received packet of type \"" + packet.getClass().getSimpleName() + "\"");
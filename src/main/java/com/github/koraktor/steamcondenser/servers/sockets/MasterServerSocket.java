@@ -49,13 +49,19 @@ public class MasterServerSocket extends QuerySocket {
      */
     public SteamPacket getReply()
             throws SteamCondenserException, TimeoutException {
-        this.receivePacket(1500);
+        SteamPacket packet;
 
-        if(this.buffer.getInt() != -1) {
-            throw new PacketFormatException("Master query response has wrong packet header.");
-        }
+        try {
+            this.receivePacket(1500);
+
+            if(this.buffer.getInt() != -1) {
+                throw new PacketFormatException("Master query response has wrong packet header.");
+            }
 
-        SteamPacket packet = this.getPacketFromData();
+            packet = this.getPacketFromData();
+        } finally {
+            this.releaseReceiveBuffer();
+        }
 
         LOG.info("Received reply of type \"" + packet.getClass().getSimpleName() + "\"");
 
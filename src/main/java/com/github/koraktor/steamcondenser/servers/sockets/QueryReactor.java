@@ -0,0 +1,451 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+/**
+ * This class implements an event loop multiplexing the UDP traffic of many
+ * query sockets over a small, fixed set of unconnected datagram channels
+ * <p>
+ * A single long-lived selector thread reads all incoming datagrams and
+ * dispatches them to the handler registered for the datagram's source
+ * address. This avoids opening a channel for every server and a selector for
+ * every received packet when querying lots of servers.
+ * <p>
+ * Only one handler can be registered for a server address at a time, as
+ * datagrams can't be told apart by anything else. Datagrams from addresses
+ * without a registered handler are dropped.
+ *
+ * @author Sebastian Staudt
+ * @see QuerySocket#setReactor
+ */
+public class QueryReactor {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(QueryReactor.class);
+
+    private static final int MAX_DATAGRAM_SIZE = 65535;
+
+    private static QueryReactor sharedReactor;
+
+    private final DatagramChannel[] channels;
+
+    private final AtomicLong droppedPackets;
+
+    private final ConcurrentHashMap<InetSocketAddress, DatagramHandler> handlers;
+
+    private final AtomicLong receivedPackets;
+
+    private volatile boolean running;
+
+    private final Selector selector;
+
+    private final AtomicLong sentPackets;
+
+    private final Thread thread;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Returns a reactor shared by all asynchronous queries
+     * <p>
+     * The shared reactor is created when calling this method for the first
+     * time or after it has been closed.
+     *
+     * @return The shared reactor
+     * @throws SteamCondenserException if the reactor cannot be created
+     */
+    public static synchronized QueryReactor getShared()
+            throws SteamCondenserException {
+        if (sharedReactor == null || !sharedReactor.isRunning()) {
+            sharedReactor = new QueryReactor();
+        }
+
+        return sharedReactor;
+    }
+
+    /**
+     * Creates a new reactor using a single datagram channel and starts its
+     * selector thread
+     *
+     * @throws SteamCondenserException if the channel or the selector cannot
+     *         be opened
+     */
+    public QueryReactor() throws SteamCondenserException {
+        this(1);
+    }
+
+    /**
+     * Creates a new reactor using the given number of datagram channels and
+     * starts its selector thread
+     * <p>
+     * Using more than one channel spreads the incoming traffic over several
+     * kernel receive queues.
+     *
+     * @param channelCount The number of datagram channels to open
+     * @throws SteamCondenserException if the channels or the selector cannot
+     *         be opened
+     */
+    public QueryReactor(int channelCount) throws SteamCondenserException {
+        if (channelCount < 1) {
+            throw new IllegalArgumentException("At least one channel is required");
+        }
+
+        this.channels        = new DatagramChannel[channelCount];
+        this.droppedPackets  = new AtomicLong();
+        this.handlers        = new ConcurrentHashMap<>();
+        this.receivedPackets = new AtomicLong();
+        this.sentPackets     = new AtomicLong();
+
+        try {
+            this.selector = Selector.open();
+            for (int i = 0; i < channelCount; i ++) {
+                this.channels[i] = DatagramChannel.open();
+                this.channels[i].configureBlocking(false);
+                this.channels[i].register(this.selector, SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            this.closeChannels();
+            throw new SteamCondenserException(e.getMessage(), e);
+        }
+
+        this.running = true;
+        this.thread = new Thread(new Runnable() {
+            public void run() {
+                QueryReactor.this.runLoop();
+            }
+        }, "steam-condenser-query-reactor");
+        this.thread.setDaemon(true);
+        this.thread.start();
+
+        this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "steam-condenser-query-timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Stops the selector thread and closes all channels of this reactor
+     */
+    public void close() {
+        this.running = false;
+        this.selector.wakeup();
+        this.timer.shutdownNow();
+
+        if (Thread.currentThread() != this.thread) {
+            try {
+                this.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of datagrams that have been dropped because there
+     * was no handler registered for their source address
+     *
+     * @return The number of dropped datagrams
+     */
+    public long getDroppedPackets() {
+        return this.droppedPackets.get();
+    }
+
+    /**
+     * Returns the size of the receive buffer of this reactor's channels
+     *
+     * @return The size of the receive buffer in bytes as reported by the
+     *         operating system
+     * @throws SteamCondenserException if the size cannot be read
+     */
+    public int getReceiveBufferSize() throws SteamCondenserException {
+        return this.getOption(StandardSocketOptions.SO_RCVBUF);
+    }
+
+    /**
+     * Returns the number of datagrams received by this reactor
+     *
+     * @return The number of received datagrams
+     */
+    public long getReceivedPackets() {
+        return this.receivedPackets.get();
+    }
+
+    /**
+     * Returns the size of the send buffer of this reactor's channels
+     *
+     * @return The size of the send buffer in bytes as reported by the
+     *         operating system
+     * @throws SteamCondenserException if the size cannot be read
+     */
+    public int getSendBufferSize() throws SteamCondenserException {
+        return this.getOption(StandardSocketOptions.SO_SNDBUF);
+    }
+
+    /**
+     * Returns the number of datagrams sent using this reactor
+     *
+     * @return The number of sent datagrams
+     */
+    public long getSentPackets() {
+        return this.sentPackets.get();
+    }
+
+    /**
+     * Returns whether this reactor's selector thread is still running
+     *
+     * @return <code>true</code> if this reactor has not been closed yet
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Registers a handler for datagrams received from the given address
+     * <p>
+     * Registering a handler for an address that already has another handler
+     * fails, as the replies to both handlers' requests could not be told
+     * apart. The other handler has to be unregistered first.
+     *
+     * @param address The address of the server
+     * @param handler The handler to pass received datagrams to
+     * @throws SteamCondenserException if another handler is already
+     *         registered for this address
+     */
+    public void register(InetSocketAddress address, DatagramHandler handler)
+            throws SteamCondenserException {
+        DatagramHandler registeredHandler = this.handlers.putIfAbsent(address, handler);
+        if (registeredHandler != null && registeredHandler != handler) {
+            throw new SteamCondenserException("Another datagram handler is already registered for " + address + ".");
+        }
+    }
+
+    /**
+     * Schedules a task to be run after the given delay
+     * <p>
+     * This is used to implement timeouts for requests sent using this
+     * reactor. Tasks are run on a separate timer thread and should return
+     * quickly.
+     *
+     * @param task The task to run
+     * @param delay The delay in milliseconds
+     * @return A future that can be used to cancel the task
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay) {
+        return this.timer.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the given data to the server at the given address
+     *
+     * @param address The address of the server
+     * @param data The data to send
+     * @throws SteamCondenserException if an error occurs while writing to the
+     *         channel
+     */
+    public void send(InetSocketAddress address, ByteBuffer data)
+            throws SteamCondenserException {
+        if (!this.running) {
+            throw new SteamCondenserException("Query reactor has been closed.");
+        }
+
+        DatagramChannel channel = this.channels[(address.hashCode() & 0x7FFFFFFF) % this.channels.length];
+        try {
+            channel.send(data, address);
+            this.sentPackets.incrementAndGet();
+        } catch (IOException e) {
+            throw new SteamCondenserException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sets the size of the receive buffer of all channels of this reactor
+     * <p>
+     * All replies to requests sent using this reactor have to fit into the
+     * receive buffers until they are read by the selector thread. Datagrams
+     * arriving while a buffer is full are dropped by the operating system,
+     * so a larger buffer should be used when querying a lot of servers at
+     * once. The operating system may limit the actual size, see
+     * {@link #getReceiveBufferSize}.
+     *
+     * @param size The size of the receive buffer in bytes
+     * @throws SteamCondenserException if the size cannot be set
+     */
+    public void setReceiveBufferSize(int size) throws SteamCondenserException {
+        this.setOption(StandardSocketOptions.SO_RCVBUF, size);
+    }
+
+    /**
+     * Sets the size of the send buffer of all channels of this reactor
+     *
+     * @param size The size of the send buffer in bytes
+     * @throws SteamCondenserException if the size cannot be set
+     */
+    public void setSendBufferSize(int size) throws SteamCondenserException {
+        this.setOption(StandardSocketOptions.SO_SNDBUF, size);
+    }
+
+    /**
+     * Removes the handler registered for the given address
+     * <p>
+     * The handler is only removed if it is still the one registered for this
+     * address.
+     *
+     * @param address The address of the server
+     * @param handler The handler to remove
+     */
+    public void unregister(InetSocketAddress address, DatagramHandler handler) {
+        this.handlers.remove(address, handler);
+    }
+
+    /**
+     * Closes the selector and all channels of this reactor
+     */
+    private void closeChannels() {
+        for (DatagramChannel channel : this.channels) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {}
+            }
+        }
+
+        if (this.selector != null) {
+            try {
+                this.selector.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    /**
+     * Returns the value of the given option of this reactor's channels
+     *
+     * @param option The socket option to read
+     * @return The value of the option
+     * @throws SteamCondenserException if the option cannot be read
+     */
+    private <T> T getOption(SocketOption<T> option)
+            throws SteamCondenserException {
+        try {
+            return this.channels[0].getOption(option);
+        } catch (IOException e) {
+            throw new SteamCondenserException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sets the given option for all channels of this reactor
+     *
+     * @param option The socket option to set
+     * @param value The value of the option
+     * @throws SteamCondenserException if the option cannot be set
+     */
+    private <T> void setOption(SocketOption<T> option, T value)
+            throws SteamCondenserException {
+        try {
+            for (DatagramChannel channel : this.channels) {
+                channel.setOption(option, value);
+            }
+        } catch (IOException e) {
+            throw new SteamCondenserException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Passes a received datagram to the handler registered for its source
+     * address
+     *
+     * @param address The address the datagram has been received from
+     * @param buffer The buffer containing the datagram
+     */
+    private void dispatch(InetSocketAddress address, ByteBuffer buffer) {
+        this.receivedPackets.incrementAndGet();
+
+        DatagramHandler handler = this.handlers.get(address);
+        if (handler == null) {
+            this.droppedPackets.incrementAndGet();
+            LOG.debug("Dropped datagram from unknown address " + address + ".");
+            return;
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(buffer.remaining());
+        data.put(buffer);
+        data.flip();
+
+        try {
+            handler.handleDatagram(address, data);
+        } catch (RuntimeException e) {
+            LOG.error("Datagram handler for " + address + " failed.", e);
+        }
+    }
+
+    /**
+     * The event loop of the selector thread
+     */
+    private void runLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+
+        try {
+            while (this.running) {
+                this.selector.select();
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid() || !key.isReadable()) {
+                        continue;
+                    }
+
+                    DatagramChannel channel = (DatagramChannel) key.channel();
+                    try {
+                        SocketAddress address;
+                        while ((address = channel.receive(buffer)) != null) {
+                            buffer.flip();
+                            this.dispatch((InetSocketAddress) address, buffer);
+                            buffer.clear();
+                        }
+                    } catch (IOException e) {
+                        buffer.clear();
+                        LOG.warn("Receiving datagram failed: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Query reactor failed.", e);
+        } finally {
+            this.running = false;
+            this.closeChannels();
+        }
+    }
+
+}
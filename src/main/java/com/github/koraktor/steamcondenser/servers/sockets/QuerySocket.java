@@ -9,8 +9,18 @@ package com.github.koraktor.steamcondenser.servers.sockets;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.net.StandardSocketOptions;
 import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +37,171 @@ public abstract class QuerySocket extends SteamSocket {
 
     protected static final Logger LOG = LoggerFactory.getLogger(QuerySocket.class);
 
+    protected static QueryReactor defaultReactor;
+
+    protected static double hedgePercentile = 0.95;
+
+    protected static int maxRetransmissions = 0;
+
+    protected static int minTimeout = 300;
+
+    protected static int receiveBufferSize;
+
+    protected static int sendBufferSize;
+
+    protected static SendPacer sendPacer;
+
+    protected Map<Integer, Integer> acceptedSplitFragments;
+
+    protected Set<Byte> acceptedReplyTypes;
+
+    protected Set<Integer> answeredSplitIds;
+
+    protected volatile boolean closed;
+
+    protected DatagramHandler datagramHandler;
+
+    protected long duplicateExpiry;
+
+    protected long duplicateReplies;
+
+    protected Set<Integer> duplicateSplitIds;
+
+    protected int pendingDuplicates;
+
+    protected QueryReactor reactor;
+
+    protected LinkedBlockingQueue<ByteBuffer> receivedPackets;
+
+    protected long retransmissions;
+
+    protected RttEstimator rttEstimator;
+
+    protected SplitPacketAssembler splitPacketAssembler;
+
+    protected List<Request> unansweredRequests;
+
+    /**
+     * Returns the lower bound of the adaptive timeouts of query sockets
+     *
+     * @return The minimum timeout in milliseconds
+     * @see #setMinTimeout
+     */
+    public static int getMinTimeout() {
+        return QuerySocket.minTimeout;
+    }
+
+    /**
+     * Sets the percentile of the recent round trip times after which
+     * unanswered requests are sent again (default: 0.95)
+     * <p>
+     * As long as no round trip time has been measured, requests are sent
+     * again after half of the timeout.
+     *
+     * @param hedgePercentile The percentile of the round trip times between
+     *        <code>0</code> and <code>1</code>
+     * @see #setMaxRetransmissions
+     */
+    public static void setHedgePercentile(double hedgePercentile) {
+        QuerySocket.hedgePercentile = hedgePercentile;
+    }
+
+    /**
+     * Sets how often an unanswered request may be sent again before the
+     * timeout is reached (default: 0)
+     * <p>
+     * Only requests that can safely be repeated, like A2S_INFO or
+     * A2M_GET_SERVERS_BATCH2, are sent again. Retransmissions are disabled
+     * by default, as each of them may cause an additional reply that has to
+     * be discarded.
+     *
+     * @param maxRetransmissions The maximum number of retransmissions per
+     *        request
+     * @see #setHedgePercentile
+     * @see SteamPacket#isIdempotent
+     */
+    public static void setMaxRetransmissions(int maxRetransmissions) {
+        QuerySocket.maxRetransmissions = maxRetransmissions;
+    }
+
+    /**
+     * Sets the lower bound of the adaptive timeouts of query sockets created
+     * afterwards (default: 300)
+     * <p>
+     * The timeout of each query socket is derived from the round trip times
+     * measured for its server, but it is never shorter than this value and
+     * never longer than the timeout set using {@link #setTimeout}.
+     *
+     * @param minTimeout The minimum timeout in milliseconds
+     */
+    public static void setMinTimeout(int minTimeout) {
+        QuerySocket.minTimeout = minTimeout;
+    }
+
+    /**
+     * Sets the size of the receive buffer of the channels opened by query
+     * sockets created afterwards (default: <code>0</code>)
+     * <p>
+     * Replies arriving while the receive buffer is full are dropped by the
+     * operating system. A larger buffer helps when a lot of servers are
+     * queried at once. The operating system may limit the actual size.
+     * <code>0</code> keeps the size chosen by the operating system.
+     *
+     * @param receiveBufferSize The size of the receive buffer in bytes
+     * @see QueryReactor#setReceiveBufferSize
+     */
+    public static void setReceiveBufferSize(int receiveBufferSize) {
+        QuerySocket.receiveBufferSize = receiveBufferSize;
+    }
+
+    /**
+     * Sets the size of the send buffer of the channels opened by query
+     * sockets created afterwards (default: <code>0</code>)
+     * <p>
+     * <code>0</code> keeps the size chosen by the operating system.
+     *
+     * @param sendBufferSize The size of the send buffer in bytes
+     * @see QueryReactor#setSendBufferSize
+     */
+    public static void setSendBufferSize(int sendBufferSize) {
+        QuerySocket.sendBufferSize = sendBufferSize;
+    }
+
+    /**
+     * Sets the pacer limiting the rate of packets sent by all query sockets
+     * <p>
+     * The pacer is shared by all sockets, so the total rate of requests
+     * stays below its limits. It is informed about every reply and timeout,
+     * so it can reduce the rate when too many replies get lost. Setting this
+     * to <code>null</code> (the default) disables pacing.
+     *
+     * @param sendPacer The pacer to use or <code>null</code>
+     */
+    public static void setSendPacer(SendPacer sendPacer) {
+        QuerySocket.sendPacer = sendPacer;
+    }
+
+    /**
+     * Sets the reactor used by query sockets created afterwards
+     * <p>
+     * Sockets using a reactor don't open a channel on their own, but share
+     * the channels and the selector thread of the reactor. Setting this to
+     * <code>null</code> (the default) will make new sockets open their own
+     * channel again.
+     * <p>
+     * Asynchronous queries of a game server share the registration of its
+     * socket if it uses the same reactor, so blocking and asynchronous
+     * queries of the same server must not overlap. Creating a socket for a
+     * server fails while asynchronous queries of that server are pending on
+     * the same reactor.
+     *
+     * @param reactor The reactor to use for new sockets
+     * @see QueryReactor#getShared
+     */
+    public static void setReactor(QueryReactor reactor) {
+        QuerySocket.defaultReactor = reactor;
+    }
+
     /**
      * Creates a new socket to communicate with the server on the given IP
      * address and port
@@ -39,15 +214,170 @@ public abstract class QuerySocket extends SteamSocket {
             throws  SteamCondenserException {
         super(ipAddress, portNumber);
 
+        this.acceptedReplyTypes     = new HashSet<>();
+        this.acceptedSplitFragments = new HashMap<>();
+        this.answeredSplitIds       = new HashSet<>();
+        this.duplicateSplitIds      = new HashSet<>();
+        this.rttEstimator           = new RttEstimator(QuerySocket.minTimeout);
+        this.unansweredRequests     = new ArrayList<>();
+
+        if (QuerySocket.defaultReactor != null) {
+            this.reactor = QuerySocket.defaultReactor;
+            this.receivedPackets = new LinkedBlockingQueue<>();
+            this.datagramHandler = new QueueingHandler(this.receivedPackets);
+            this.reactor.register(this.remoteSocket, this.datagramHandler);
+            this.trackResources().setRegistration(this.reactor, this.remoteSocket, this.datagramHandler);
+            return;
+        }
+
         try {
-            this.channel = DatagramChannel.open();
+            this.setChannel(DatagramChannel.open());
             this.channel.configureBlocking(false);
+            if (QuerySocket.receiveBufferSize > 0) {
+                ((DatagramChannel) this.channel).setOption(StandardSocketOptions.SO_RCVBUF, QuerySocket.receiveBufferSize);
+            }
+            if (QuerySocket.sendBufferSize > 0) {
+                ((DatagramChannel) this.channel).setOption(StandardSocketOptions.SO_SNDBUF, QuerySocket.sendBufferSize);
+            }
             ((DatagramChannel) this.channel).connect(this.remoteSocket);
         } catch(IOException e) {
+            this.close();
             throw new SteamCondenserException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Closes the underlying channel or unregisters this socket from its
+     * reactor
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.reactor == null) {
+            super.close();
+        } else {
+            this.reactor.unregister(this.remoteSocket, this.datagramHandler);
+            this.releaseResources();
+        }
+    }
+
+    /**
+     * Dispatches the datagrams received by the reactor of this socket to the
+     * given handler instead of queueing them for {@link #getReply}
+     * <p>
+     * A reactor accepts only a single handler per server, so this allows
+     * another handler for the same server, e.g. for asynchronous queries, to
+     * share the registration of this socket. No replies can be received
+     * using this socket while they are dispatched to another handler.
+     *
+     * @param handler The handler to dispatch the datagrams to or
+     *        <code>null</code> to queue them for this socket again
+     * @return <code>true</code> if the datagrams are dispatched to the given
+     *         handler, <code>false</code> if this socket doesn't use a
+     *         reactor or has been closed
+     */
+    public boolean divertDatagrams(DatagramHandler handler) {
+        if (this.reactor == null || this.closed) {
+            return false;
+        }
+
+        ((QueueingHandler) this.datagramHandler).divertedHandler = handler;
+
+        return true;
+    }
+
+    /**
+     * Returns whether this socket has been closed
+     * <p>
+     * A socket may be closed by a {@link SocketPool} while it is not used,
+     * so its owner has to replace it with a new one.
+     *
+     * @return <code>true</code> if this socket has been closed
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Returns the timeout for the next packet derived from the round trip
+     * times measured for the server
+     *
+     * @return The receive timeout in milliseconds
+     * @see RttEstimator#getTimeout
+     */
+    @Override
+    protected int getReceiveTimeout() {
+        return this.rttEstimator.getTimeout(SteamSocket.timeout);
+    }
+
+    /**
+     * Returns the number of duplicate replies caused by retransmitted
+     * requests that have been discarded
+     *
+     * @return The number of discarded duplicate replies
+     */
+    public long getDuplicateReplies() {
+        return this.duplicateReplies;
+    }
+
+    /**
+     * Returns the reactor used by this socket
+     *
+     * @return The reactor of this socket or <code>null</code> if this socket
+     *         uses its own channel
+     * @see #setReactor
+     */
+    public QueryReactor getReactor() {
+        return this.reactor;
+    }
+
+    /**
+     * Returns the number of requests that have been sent again, because the
+     * reply did not arrive in time
+     *
+     * @return The number of retransmitted requests
+     */
+    public long getRetransmissions() {
+        return this.retransmissions;
+    }
+
+    /**
+     * Returns the estimator of the round trip time to the server
+     *
+     * @return The round trip time estimator of this socket
+     */
+    public RttEstimator getRttEstimator() {
+        return this.rttEstimator;
+    }
+
+    /**
+     * Reads the remaining fragments of a split packet from the socket
+     * <p>
+     * The buffer has to contain the first received fragment, positioned
+     * right after the split packet header. Fragments may arrive in any
+     * order.
+     *
+     * @return The reassembled packet
+     * @throws SteamCondenserException if an error occurs while communicating
+     *         with the server
+     * @throws TimeoutException if a fragment is not received on time
+     */
+    protected SteamPacket getSplitReply()
+            throws SteamCondenserException, TimeoutException {
+        SteamPacket packet = this.splitPacketAssembler.addFragment(this.buffer);
+
+        while(packet == null) {
+            this.receivePacket();
+            if(this.packetIsSplit()) {
+                packet = this.splitPacketAssembler.addFragment(this.buffer);
+            } else {
+                packet = this.getPacketFromData();
+            }
+        }
+
+        return packet;
+    }
+
     /**
      * Returns whether a packet in the buffer is split
      *
@@ -70,6 +400,362 @@ public abstract class QuerySocket extends SteamSocket {
         return this.receivePacket(0);
     }
 
+    /**
+     * Reads the given amount of data from the socket and wraps it into the
+     * buffer
+     * <p>
+     * If this socket uses a reactor the next datagram from the server is
+     * taken from the packets dispatched by the reactor.
+     * <p>
+     * Each reply answers the oldest unanswered request of the matching
+     * type, so requests still waiting for their reply after other replies
+     * have been received are still sent again and reported to the send
+     * pacer. The reply is used to measure the round trip time to the server,
+     * while a timeout increases the timeout used for the next packet.
+     * <p>
+     * If no reply arrives within the configured percentile of the recent
+     * round trip times, unanswered idempotent requests are sent again while
+     * waiting for the remaining time. The first reply is used and duplicate
+     * replies arriving later are discarded.
+     * <p>
+     * Replies and timeouts of requests are reported to the send pacer, if
+     * any.
+     *
+     * @param bufferLength The data length to read from the socket
+     * @return The number of bytes that have been read from the socket
+     * @throws SteamCondenserException if an error occurs while reading from
+     *         the socket
+     * @throws TimeoutException if no packet is received on time
+     */
+    @Override
+    protected int receivePacket(int bufferLength)
+            throws SteamCondenserException, TimeoutException {
+        SendPacer pacer = QuerySocket.sendPacer;
+        int timeout = this.getReceiveTimeout();
+        long deadline = System.nanoTime() + timeout * 1000000L;
+        int hedges = 0;
+        int bytesRead;
+
+        while (true) {
+            int remainingTime = (int) Math.ceil((deadline - System.nanoTime()) / 1000000.0);
+            boolean hedge = this.hasIdempotentRequests() &&
+                hedges < QuerySocket.maxRetransmissions;
+            int waitTime = hedge ? Math.min(remainingTime, this.getHedgeDelay(timeout)) : remainingTime;
+
+            try {
+                if (remainingTime <= 0) {
+                    throw new TimeoutException();
+                }
+                bytesRead = this.receiveDatagram(bufferLength, waitTime);
+            } catch (TimeoutException e) {
+                if (hedge && waitTime < remainingTime) {
+                    this.retransmit();
+                    hedges ++;
+                    continue;
+                }
+
+                this.rttEstimator.backoff();
+                if (pacer != null) {
+                    for (int i = 0; i < this.unansweredRequests.size(); i ++) {
+                        pacer.onTimeout();
+                    }
+                }
+                this.unansweredRequests.clear();
+                this.answeredSplitIds.clear();
+                throw e;
+            }
+
+            if (!this.isDuplicateReply()) {
+                break;
+            }
+        }
+
+        Request request = this.removeAnsweredRequest();
+        if (request != null) {
+            if (request.sentAt != 0) {
+                this.rttEstimator.addSample((System.nanoTime() - request.sentAt) / 1000000.0);
+            }
+            if (pacer != null) {
+                pacer.onReply();
+            }
+        }
+
+        return bytesRead;
+    }
+
+    /**
+     * Returns whether a request waiting for its reply may be sent again
+     *
+     * @return <code>true</code> if there are unanswered idempotent requests
+     */
+    private boolean hasIdempotentRequests() {
+        for (Request request : this.unansweredRequests) {
+            if (request.idempotent) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the type of the reply in the buffer
+     * <p>
+     * The type of a split reply is only known from its first fragment, if
+     * it is not compressed.
+     *
+     * @return The type of the reply, <code>-1</code> if it's unknown or
+     *         <code>-2</code> if this is a fragment of a split reply that
+     *         has already been matched with a request
+     */
+    private int getReplyType() {
+        int position = this.buffer.position();
+        if (this.buffer.remaining() < 5) {
+            return -1;
+        }
+
+        if (Integer.reverseBytes(this.buffer.getInt(position)) != 0xFFFFFFFE) {
+            return this.buffer.get(position + 4);
+        }
+
+        if (this.buffer.remaining() < 9) {
+            return -1;
+        }
+        if (!this.answeredSplitIds.add(this.buffer.getInt(position + 4))) {
+            return -2;
+        }
+
+        int packetNumber;
+        int payload;
+        if (this.splitPacketAssembler != null && this.splitPacketAssembler.isGoldSrc()) {
+            packetNumber = (this.buffer.get(position + 8) >> 4) & 0xF;
+            payload = position + 9;
+        } else if ((this.buffer.get(position + 7) & 0x80) != 0) {
+            return -1;
+        } else {
+            packetNumber = this.buffer.get(position + 9) & 0xFF;
+            payload = position + 12;
+        }
+
+        if (packetNumber != 0 || this.buffer.limit() < payload + 5 ||
+                this.buffer.getInt(payload) != 0xFFFFFFFF) {
+            return -1;
+        }
+
+        return this.buffer.get(payload + 4);
+    }
+
+    /**
+     * Removes the request answered by the reply in the buffer
+     * <p>
+     * This is the oldest unanswered request matching the type of the reply.
+     * Replies of unknown type answer the oldest request.
+     *
+     * @return The answered request or <code>null</code> if the reply doesn't
+     *         answer any unanswered request
+     */
+    private Request removeAnsweredRequest() {
+        if (this.unansweredRequests.isEmpty()) {
+            return null;
+        }
+
+        int replyType = this.getReplyType();
+        Request answered = null;
+        if (replyType != -2) {
+            for (Request request : this.unansweredRequests) {
+                if (request.isAnsweredBy(replyType)) {
+                    answered = request;
+                    break;
+                }
+            }
+        }
+
+        if (answered != null) {
+            this.unansweredRequests.remove(answered);
+        }
+        if (this.unansweredRequests.isEmpty()) {
+            this.answeredSplitIds.clear();
+        }
+
+        return answered;
+    }
+
+    /**
+     * Returns the time to wait for a reply before unanswered requests are
+     * sent again
+     *
+     * @param timeout The timeout of the current request
+     * @return The hedge delay in milliseconds
+     */
+    protected int getHedgeDelay(int timeout) {
+        double rtt = this.rttEstimator.getPercentile(QuerySocket.hedgePercentile);
+        if (rtt < 0) {
+            return timeout / 2;
+        }
+
+        return (int) Math.ceil(rtt) + 1;
+    }
+
+    /**
+     * Returns whether the received packet is a duplicate of a reply that
+     * has already been received after a request has been sent again
+     * <p>
+     * Each retransmitted request may cause one additional reply. Replies
+     * can't be compared by their contents, as e.g. the players of a server
+     * may change between two replies. Instead, a reply is a duplicate if a
+     * reply of the same type has already been received. A split reply is a
+     * duplicate if another split reply has already been received or all of
+     * its fragments have already been received. All fragments of a
+     * duplicate split reply are discarded until the timeout has passed.
+     *
+     * @return <code>true</code> if the packet is a duplicate and should be
+     *         discarded
+     */
+    private boolean isDuplicateReply() {
+        if (this.pendingDuplicates == 0 && this.duplicateSplitIds.isEmpty()) {
+            return false;
+        }
+
+        if (System.nanoTime() > this.duplicateExpiry) {
+            this.acceptedReplyTypes.clear();
+            this.acceptedSplitFragments.clear();
+            this.duplicateSplitIds.clear();
+            this.pendingDuplicates = 0;
+            return false;
+        }
+
+        int position = this.buffer.position();
+        if (this.buffer.remaining() < 5) {
+            return false;
+        }
+
+        if (Integer.reverseBytes(this.buffer.getInt(position)) != 0xFFFFFFFE) {
+            byte replyType = this.buffer.get(position + 4);
+            if (this.pendingDuplicates > 0 && this.acceptedReplyTypes.contains(replyType)) {
+                this.discardDuplicate();
+                return true;
+            }
+            this.acceptedReplyTypes.add(replyType);
+            return false;
+        }
+
+        if (this.buffer.remaining() < 9) {
+            return false;
+        }
+
+        int requestId = this.buffer.getInt(position + 4);
+        if (this.duplicateSplitIds.contains(requestId)) {
+            LOG.debug("Discarding fragment of duplicate reply.");
+            return true;
+        }
+
+        Integer remainingFragments = this.acceptedSplitFragments.get(requestId);
+        if (remainingFragments == null) {
+            if (this.pendingDuplicates > 0 && !this.acceptedSplitFragments.isEmpty()) {
+                this.duplicateSplitIds.add(requestId);
+                this.discardDuplicate();
+                return true;
+            }
+            int packetCount = this.buffer.get(position + 8) & 0xFF;
+            if (this.splitPacketAssembler != null && this.splitPacketAssembler.isGoldSrc()) {
+                packetCount &= 0xF;
+            }
+            this.acceptedSplitFragments.put(requestId, packetCount - 1);
+        } else if (remainingFragments == 0) {
+            this.acceptedSplitFragments.remove(requestId);
+            this.duplicateSplitIds.add(requestId);
+            this.discardDuplicate();
+            return true;
+        } else {
+            this.acceptedSplitFragments.put(requestId, remainingFragments - 1);
+        }
+
+        return false;
+    }
+
+    /**
+     * Counts a discarded duplicate reply
+     */
+    private void discardDuplicate() {
+        LOG.debug("Discarding duplicate reply.");
+        this.duplicateReplies ++;
+        if (-- this.pendingDuplicates == 0) {
+            this.acceptedReplyTypes.clear();
+        }
+    }
+
+    /**
+     * Reads the given amount of data from the socket or the packets
+     * dispatched by the reactor
+     *
+     * @param bufferLength The data length to read from the socket
+     * @param timeout The time to wait for a packet in milliseconds
+     * @return The number of bytes that have been read from the socket
+     * @throws SteamCondenserException if an error occurs while reading from
+     *         the socket
+     * @throws TimeoutException if no packet is received on time
+     */
+    private int receiveDatagram(int bufferLength, int timeout)
+            throws SteamCondenserException, TimeoutException {
+        if (this.reactor == null) {
+            return super.receivePacket(bufferLength, timeout);
+        }
+
+        ByteBuffer data;
+        try {
+            data = this.receivedPackets.poll(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteamCondenserException("Interrupted while waiting for a reply.", e);
+        }
+
+        if (data == null) {
+            throw new TimeoutException();
+        }
+
+        if (bufferLength > 0 && data.limit() > bufferLength) {
+            data.limit(bufferLength);
+        }
+        this.buffer = data;
+
+        return data.remaining();
+    }
+
+    /**
+     * Sends all requests that have not been answered yet again
+     *
+     * @throws SteamCondenserException if an error occurs while writing to the
+     *         socket
+     */
+    private void retransmit() throws SteamCondenserException {
+        int count = 0;
+        for (Request request : this.unansweredRequests) {
+            if (request.idempotent) {
+                this.sendData(request.data);
+                request.sentAt = 0;
+                count ++;
+            }
+        }
+
+        LOG.debug("Sent " + count + " unanswered request(s) again.");
+
+        this.retransmissions += count;
+        this.duplicateExpiry = System.nanoTime() + this.getReceiveTimeout() * 2000000L;
+        this.pendingDuplicates += count;
+    }
+
+    /**
+     * Sets the estimator of the round trip time to the server
+     * <p>
+     * This allows the owner of this socket to keep the measured round trip
+     * times when the socket is replaced by a new one.
+     *
+     * @param rttEstimator The round trip time estimator to use
+     */
+    public void setRttEstimator(RttEstimator rttEstimator) {
+        this.rttEstimator = rttEstimator;
+    }
+
     /**
      * Sends the given packet to the server
      *
@@ -81,12 +767,146 @@ public abstract class QuerySocket extends SteamSocket {
             throws SteamCondenserException {
         LOG.info("Sending data packet of type \"" + dataPacket.getClass().getSimpleName() + "\"");
 
+        byte[] data = dataPacket.getBytes();
+        this.sendData(data);
+
+        this.unansweredRequests.add(new Request(data, dataPacket.isIdempotent()));
+    }
+
+    /**
+     * Sends the given data to the server
+     * <p>
+     * If a send pacer is set, this waits until the pacer allows the data to
+     * be sent.
+     *
+     * @param data The data to send to the server
+     * @throws SteamCondenserException if an error occurs while writing to the
+     *         socket
+     */
+    private void sendData(byte[] data)
+            throws SteamCondenserException {
+        SendPacer pacer = QuerySocket.sendPacer;
+        if (pacer != null) {
+            try {
+                pacer.acquire(data.length);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SteamCondenserException("Interrupted while waiting to send a request.", e);
+            }
+        }
+
+        if (this.reactor != null) {
+            this.buffer = ByteBuffer.wrap(data);
+            this.reactor.send(this.remoteSocket, this.buffer);
+            this.buffer.flip();
+            return;
+        }
+
         try {
-            this.buffer = ByteBuffer.wrap(dataPacket.getBytes());
+            this.buffer = ByteBuffer.wrap(data);
             ((DatagramChannel) this.channel).send(this.buffer, this.remoteSocket);
             this.buffer.flip();
         } catch(IOException e) {
             throw new SteamCondenserException(e.getMessage(), e);
         }
     }
+
+    /**
+     * This class queues the datagrams dispatched by the reactor
+     * <p>
+     * It doesn't reference the socket, so a socket that isn't closed can
+     * still be garbage collected while it's registered with the reactor.
+     *
+     * @see #divertDatagrams
+     */
+    private static class QueueingHandler implements DatagramHandler {
+
+        volatile DatagramHandler divertedHandler;
+
+        private final LinkedBlockingQueue<ByteBuffer> receivedPackets;
+
+        QueueingHandler(LinkedBlockingQueue<ByteBuffer> receivedPackets) {
+            this.receivedPackets = receivedPackets;
+        }
+
+        public void handleDatagram(InetSocketAddress address, ByteBuffer data) {
+            DatagramHandler handler = this.divertedHandler;
+            if (handler != null) {
+                handler.handleDatagram(address, data);
+            } else {
+                this.receivedPackets.offer(data);
+            }
+        }
+
+    }
+
+    /**
+     * This class represents a request that has not been answered yet
+     */
+    protected static class Request {
+
+        final byte[] data;
+
+        final boolean idempotent;
+
+        long sentAt;
+
+        final int type;
+
+        Request(byte[] data, boolean idempotent) {
+            this.data       = data;
+            this.idempotent = idempotent;
+            this.sentAt     = System.nanoTime();
+            this.type       = (data.length > 4) ? data[4] : -1;
+        }
+
+        /**
+         * Returns whether this request is answered by a reply of the given
+         * type
+         * <p>
+         * Requests and replies of unknown types match any reply or request.
+         * A challenge may be the reply to any request requiring a
+         * challenge number.
+         *
+         * @param replyType The type of the reply
+         * @return <code>true</code> if the reply answers this request
+         */
+        boolean isAnsweredBy(int replyType) {
+            switch (replyType) {
+                case SteamPacket.S2A_INFO2_HEADER:
+                case SteamPacket.S2A_INFO_DETAILED_HEADER:
+                    return this.type == SteamPacket.A2S_INFO_HEADER || !this.isKnownType();
+                case SteamPacket.S2A_PLAYER_HEADER:
+                    return this.type == SteamPacket.A2S_PLAYER_HEADER || !this.isKnownType();
+                case SteamPacket.S2A_RULES_HEADER:
+                    return this.type == SteamPacket.A2S_RULES_HEADER || !this.isKnownType();
+                case SteamPacket.M2A_SERVER_BATCH_HEADER:
+                    return this.type == SteamPacket.A2M_GET_SERVERS_BATCH2_HEADER || !this.isKnownType();
+                case SteamPacket.S2C_CHALLENGE_HEADER:
+                    return this.type != SteamPacket.A2M_GET_SERVERS_BATCH2_HEADER;
+                default:
+                    return true;
+            }
+        }
+
+        /**
+         * Returns whether the replies to this request are known
+         *
+         * @return <code>true</code> if this request is a known query request
+         */
+        private boolean isKnownType() {
+            switch (this.type) {
+                case SteamPacket.A2S_INFO_HEADER:
+                case SteamPacket.A2S_PLAYER_HEADER:
+                case SteamPacket.A2S_RULES_HEADER:
+                case SteamPacket.A2S_SERVERQUERY_GETCHALLENGE_HEADER:
+                case SteamPacket.A2M_GET_SERVERS_BATCH2_HEADER:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+    }
+
 }
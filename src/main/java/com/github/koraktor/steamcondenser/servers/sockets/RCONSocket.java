@@ -45,14 +45,13 @@ public class RCONSocket extends SteamSocket {
     }
 
     /**
-     * Closes the underlying TCP socket if it is connected
+     * Closes the underlying TCP socket if it has been opened
      *
      * @see SteamSocket#close
      */
     @Override
     public void close() {
-        if (this.channel != null &&
-            ((SocketChannel) this.channel).isConnected()) {
+        if (this.channel != null) {
             super.close();
         }
     }
@@ -69,7 +68,7 @@ public class RCONSocket extends SteamSocket {
         try {
             if (this.channel == null ||
                !((SocketChannel)this.channel).isConnected()) {
-                this.channel = SocketChannel.open();
+                this.setChannel(SocketChannel.open());
                 ((SocketChannel) this.channel).socket().connect(this.remoteSocket, SteamSocket.timeout);
                 this.channel.configureBlocking(false);
             }
@@ -96,6 +95,7 @@ public class RCONSocket extends SteamSocket {
      */
     public RCONPacket getReply()
             throws SteamCondenserException, TimeoutException {
+        int packetSize;
         try {
             if (this.receivePacket(4) == 0) {
                 try {
@@ -103,21 +103,27 @@ public class RCONSocket extends SteamSocket {
                 } catch (IOException ignored) {}
                 return null;
             }
+            packetSize = Integer.reverseBytes(this.buffer.getInt());
         } catch (ConnectionResetException e) {
             try {
                 this.channel.close();
             } catch (IOException ignored) {}
             return null;
+        } finally {
+            this.releaseReceiveBuffer();
         }
 
-        int packetSize = Integer.reverseBytes(this.buffer.getInt());
         int remainingBytes = packetSize;
 
         byte[] packetData = new byte[packetSize];
         int receivedBytes;
         do {
-            receivedBytes = this.receivePacket(remainingBytes);
-            System.arraycopy(this.buffer.array(), 0, packetData, packetSize - remainingBytes, receivedBytes);
+            try {
+                receivedBytes = this.receivePacket(remainingBytes);
+                this.buffer.get(packetData, packetSize - remainingBytes, receivedBytes);
+            } finally {
+                this.releaseReceiveBuffer();
+            }
             remainingBytes -= receivedBytes;
         } while(remainingBytes > 0);
 
@@ -0,0 +1,182 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.util.Arrays;
+
+/**
+ * This class estimates the round trip time of a server and derives a
+ * timeout for requests to it
+ * <p>
+ * The estimation follows the algorithm used by TCP to compute its
+ * retransmission timeout (RFC 6298): A smoothed round trip time and its
+ * variance are updated with every measured round trip and the timeout is the
+ * smoothed round trip time plus four times the variance. Each timeout
+ * doubles the current timeout until the next successful measurement. A
+ * single measurement is not representative, so the static timeout is used
+ * until a few round trip times have been measured.
+ * <p>
+ * The most recent round trip times are kept, too, so percentiles of the
+ * current round trip time distribution are available.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see QuerySocket#getRttEstimator
+ */
+public class RttEstimator {
+
+    private static final double ALPHA = 1.0 / 8;
+
+    private static final double BETA = 1.0 / 4;
+
+    private static final int MAX_BACKOFF = 6;
+
+    private static final int MIN_SAMPLES = 3;
+
+    private static final int RECENT_SAMPLES = 32;
+
+    private int backoff;
+
+    private final int minTimeout;
+
+    private final double[] recentSamples;
+
+    private double rttVariance;
+
+    private long samples;
+
+    private double smoothedRtt;
+
+    /**
+     * Creates a new estimator without any measurements
+     *
+     * @param minTimeout The lower bound of the timeouts computed by this
+     *        estimator in milliseconds
+     */
+    public RttEstimator(int minTimeout) {
+        this.minTimeout    = minTimeout;
+        this.recentSamples = new double[RECENT_SAMPLES];
+    }
+
+    /**
+     * Adds a measured round trip time
+     *
+     * @param rtt The round trip time in milliseconds
+     */
+    public synchronized void addSample(double rtt) {
+        if (this.samples == 0) {
+            this.smoothedRtt = rtt;
+            this.rttVariance = rtt / 2;
+        } else {
+            this.rttVariance = (1 - BETA) * this.rttVariance + BETA * Math.abs(this.smoothedRtt - rtt);
+            this.smoothedRtt = (1 - ALPHA) * this.smoothedRtt + ALPHA * rtt;
+        }
+
+        this.recentSamples[(int) (this.samples % RECENT_SAMPLES)] = rtt;
+        this.backoff = 0;
+        this.samples ++;
+    }
+
+    /**
+     * Doubles the current timeout after a request timed out
+     */
+    public synchronized void backoff() {
+        if (this.backoff < MAX_BACKOFF) {
+            this.backoff ++;
+        }
+    }
+
+    /**
+     * Returns the number of times the timeout has been doubled since the
+     * last measurement
+     *
+     * @return The current backoff
+     */
+    public synchronized int getBackoff() {
+        return this.backoff;
+    }
+
+    /**
+     * Returns the given percentile of the recently measured round trip times
+     *
+     * @param percentile The percentile to return, between <code>0</code>
+     *        and <code>1</code>
+     * @return The round trip time in milliseconds or <code>-1</code> if
+     *         there are no measurements yet
+     */
+    public synchronized double getPercentile(double percentile) {
+        if (this.samples == 0) {
+            return -1;
+        }
+
+        int count = (int) Math.min(this.samples, RECENT_SAMPLES);
+        double[] sortedSamples = Arrays.copyOf(this.recentSamples, count);
+        Arrays.sort(sortedSamples);
+        int index = (int) Math.ceil(percentile * count) - 1;
+
+        return sortedSamples[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Returns the variance of the measured round trip times
+     *
+     * @return The round trip time variance in milliseconds
+     */
+    public synchronized double getRttVariance() {
+        return this.rttVariance;
+    }
+
+    /**
+     * Returns the number of round trip times measured
+     *
+     * @return The number of measurements
+     */
+    public synchronized long getSamples() {
+        return this.samples;
+    }
+
+    /**
+     * Returns the smoothed round trip time
+     *
+     * @return The smoothed round trip time in milliseconds
+     */
+    public synchronized double getSmoothedRtt() {
+        return this.smoothedRtt;
+    }
+
+    /**
+     * Returns the timeout for the next request
+     *
+     * @param maxTimeout The timeout to use if there are not enough
+     *        measurements yet, also the upper bound of the returned timeout
+     * @return The timeout in milliseconds
+     */
+    public synchronized int getTimeout(int maxTimeout) {
+        if (this.samples < MIN_SAMPLES) {
+            return maxTimeout;
+        }
+
+        double timeout = this.smoothedRtt + Math.max(1, 4 * this.rttVariance);
+        timeout = Math.max(this.minTimeout, timeout) * (1 << this.backoff);
+
+        return (int) Math.min(maxTimeout, Math.ceil(timeout));
+    }
+
+    /**
+     * Returns a string representation of the current estimation
+     *
+     * @return The state of this estimator as a string
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("srtt=%.1fms rttvar=%.1fms backoff=%d samples=%d",
+            this.smoothedRtt, this.rttVariance, this.backoff, this.samples);
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class limits the rate of outgoing packets using token buckets for
+ * packets and bytes per second
+ * <p>
+ * Sending requests faster than the replies can be received overflows the
+ * receive queue of the socket and replies are silently dropped by the
+ * operating system. As these losses can't be observed directly, the rate of
+ * requests timing out is used as a congestion signal instead: The send rate
+ * is halved whenever the timeout rate of a window of replies exceeds a
+ * threshold and increased slowly again otherwise (AIMD).
+ * <p>
+ * Keep in mind that requests to offline servers time out, too. The
+ * threshold should be higher than the expected share of offline servers.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see QuerySocket#setSendPacer
+ */
+public class SendPacer {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(SendPacer.class);
+
+    private static final double BURST_SECONDS = 0.02;
+
+    private static final double INCREASE_STEP = 0.05;
+
+    private static final double MIN_RATE_FACTOR = 1.0 / 64;
+
+    private static final int WINDOW_SIZE = 50;
+
+    private final double bytesPerSecond;
+
+    private double byteTokens;
+
+    private long lastRefill;
+
+    private final double packetsPerSecond;
+
+    private double packetTokens;
+
+    private double rateFactor;
+
+    private long replies;
+
+    private double timeoutRate;
+
+    private double timeoutThreshold;
+
+    private long timeouts;
+
+    private long windowReplies;
+
+    private long windowTimeouts;
+
+    /**
+     * Creates a new pacer limiting the given rates
+     *
+     * @param packetsPerSecond The maximum number of packets sent per second
+     *        or <code>0</code> for no limit
+     * @param bytesPerSecond The maximum number of bytes sent per second or
+     *        <code>0</code> for no limit
+     */
+    public SendPacer(double packetsPerSecond, double bytesPerSecond) {
+        this.bytesPerSecond   = bytesPerSecond;
+        this.lastRefill       = System.nanoTime();
+        this.packetsPerSecond = packetsPerSecond;
+        this.rateFactor       = 1;
+        this.timeoutThreshold = 0.2;
+
+        this.byteTokens   = this.getCapacity(bytesPerSecond, 1400);
+        this.packetTokens = this.getCapacity(packetsPerSecond, 1);
+    }
+
+    /**
+     * Waits until a packet of the given size may be sent
+     *
+     * @param bytes The size of the packet
+     * @throws InterruptedException if the calling thread is interrupted while
+     *         waiting
+     */
+    public void acquire(int bytes) throws InterruptedException {
+        long delay = this.reserve(bytes);
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Returns the current maximum number of bytes sent per second
+     *
+     * @return The current byte rate or <code>0</code> if bytes are not
+     *         limited
+     */
+    public synchronized double getBytesPerSecond() {
+        return this.bytesPerSecond * this.rateFactor;
+    }
+
+    /**
+     * Returns the current maximum number of packets sent per second
+     *
+     * @return The current packet rate or <code>0</code> if packets are not
+     *         limited
+     */
+    public synchronized double getPacketsPerSecond() {
+        return this.packetsPerSecond * this.rateFactor;
+    }
+
+    /**
+     * Returns the share of the configured rates currently used
+     *
+     * @return The current rate factor between <code>0</code> and
+     *         <code>1</code>
+     */
+    public synchronized double getRateFactor() {
+        return this.rateFactor;
+    }
+
+    /**
+     * Returns the number of replies reported to this pacer
+     *
+     * @return The number of replies
+     */
+    public synchronized long getReplies() {
+        return this.replies;
+    }
+
+    /**
+     * Returns the timeout rate of the last complete window of replies
+     *
+     * @return The timeout rate between <code>0</code> and <code>1</code>
+     */
+    public synchronized double getTimeoutRate() {
+        return this.timeoutRate;
+    }
+
+    /**
+     * Returns the number of timeouts reported to this pacer
+     *
+     * @return The number of timeouts
+     */
+    public synchronized long getTimeouts() {
+        return this.timeouts;
+    }
+
+    /**
+     * Reports a reply received in time
+     */
+    public synchronized void onReply() {
+        this.replies ++;
+        this.windowReplies ++;
+        this.adjustRate();
+    }
+
+    /**
+     * Reports a request that timed out
+     */
+    public synchronized void onTimeout() {
+        this.timeouts ++;
+        this.windowTimeouts ++;
+        this.adjustRate();
+    }
+
+    /**
+     * Sets the timeout rate above which the send rate is reduced (default:
+     * 0.2)
+     *
+     * @param timeoutThreshold The timeout rate between <code>0</code> and
+     *        <code>1</code>
+     */
+    public synchronized void setTimeoutThreshold(double timeoutThreshold) {
+        this.timeoutThreshold = timeoutThreshold;
+    }
+
+    /**
+     * Adjusts the send rate after a complete window of replies and timeouts
+     */
+    private void adjustRate() {
+        long window = this.windowReplies + this.windowTimeouts;
+        if (window < WINDOW_SIZE) {
+            return;
+        }
+
+        this.timeoutRate = (double) this.windowTimeouts / window;
+        this.windowReplies  = 0;
+        this.windowTimeouts = 0;
+
+        if (this.timeoutRate > this.timeoutThreshold) {
+            this.rateFactor = Math.max(MIN_RATE_FACTOR, this.rateFactor / 2);
+            LOG.info(String.format("Timeout rate %.2f, reducing send rate to %.1f%%.", this.timeoutRate, this.rateFactor * 100));
+        } else if (this.rateFactor < 1) {
+            this.rateFactor = Math.min(1, this.rateFactor + INCREASE_STEP);
+        }
+    }
+
+    /**
+     * Returns the size of a token bucket for the given rate
+     *
+     * @param rate The rate of the bucket
+     * @param minimum The minimum size of the bucket
+     * @return The number of tokens the bucket can hold
+     */
+    private double getCapacity(double rate, double minimum) {
+        return Math.max(minimum, rate * this.rateFactor * BURST_SECONDS);
+    }
+
+    /**
+     * Takes the tokens for a packet of the given size from the buckets
+     * <p>
+     * The buckets may be overdrawn, so concurrent senders are queued by
+     * the time they have to wait.
+     *
+     * @param bytes The size of the packet
+     * @return The time to wait before sending the packet in nanoseconds
+     */
+    private synchronized long reserve(int bytes) {
+        long now = System.nanoTime();
+        double elapsed = (now - this.lastRefill) / 1000000000.0;
+        this.lastRefill = now;
+
+        long delay = 0;
+        if (this.packetsPerSecond > 0) {
+            double rate = this.packetsPerSecond * this.rateFactor;
+            this.packetTokens = Math.min(this.getCapacity(this.packetsPerSecond, 1), this.packetTokens + elapsed * rate) - 1;
+            if (this.packetTokens < 0) {
+                delay = (long) (-this.packetTokens / rate * 1000000000);
+            }
+        }
+        if (this.bytesPerSecond > 0) {
+            double rate = this.bytesPerSecond * this.rateFactor;
+            this.byteTokens = Math.min(this.getCapacity(this.bytesPerSecond, 1400), this.byteTokens + elapsed * rate) - bytes;
+            if (this.byteTokens < 0) {
+                delay = Math.max(delay, (long) (-this.byteTokens / rate * 1000000000));
+            }
+        }
+
+        return delay;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class runs cleanup actions for sockets that became unreachable
+ * without being closed
+ * <p>
+ * This is the implementation used on Java 7 up to Java 20. It uses phantom
+ * references and a daemon thread. The library's JAR contains another
+ * implementation for Java 21 and newer in <code>META-INF/versions/21</code>
+ * that uses {@link java.lang.ref.Cleaner}.
+ *
+ * @author Sebastian Staudt
+ */
+final class SocketCleaner {
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    private static final Set<CleanerReference> REFERENCES =
+        Collections.newSetFromMap(new ConcurrentHashMap<CleanerReference, Boolean>());
+
+    static {
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                while (true) {
+                    try {
+                        ((CleanerReference) QUEUE.remove()).run();
+                    } catch (InterruptedException ignored) {
+                    } catch (RuntimeException e) {
+                        SocketResources.LOG.error("Socket cleanup failed.", e);
+                    }
+                }
+            }
+        }, "steam-condenser-cleaner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private SocketCleaner() {}
+
+    /**
+     * Registers an action to run when the given object becomes unreachable
+     * <p>
+     * The action must not reference the object, otherwise it never becomes
+     * unreachable.
+     *
+     * @param object The object to monitor
+     * @param action The action to run
+     * @return A task that runs the action immediately and stops monitoring
+     *         the object
+     */
+    static Runnable register(Object object, Runnable action) {
+        CleanerReference reference = new CleanerReference(object, action);
+        REFERENCES.add(reference);
+
+        return reference;
+    }
+
+    /**
+     * This class is a phantom reference running an action at most once
+     */
+    private static class CleanerReference extends PhantomReference<Object>
+            implements Runnable {
+
+        private final Runnable action;
+
+        CleanerReference(Object object, Runnable action) {
+            super(object, QUEUE);
+            this.action = action;
+        }
+
+        public void run() {
+            if (REFERENCES.remove(this)) {
+                this.clear();
+                this.action.run();
+            }
+        }
+
+    }
+
+}
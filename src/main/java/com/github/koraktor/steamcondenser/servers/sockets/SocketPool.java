@@ -0,0 +1,243 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class limits the number of query sockets that are open at the same
+ * time
+ * <p>
+ * Game server objects open their query socket when it is used for the first
+ * time and register it with the pool. If more sockets are open than allowed,
+ * the least recently used sockets are closed. Sockets that have not been used
+ * for longer than the idle timeout are closed, too. A closed socket is
+ * replaced by a new one when its server is queried again, so server objects
+ * can be kept in large numbers without using a file descriptor each.
+ * <p>
+ * Sockets waiting for a reply are marked as in use and are never closed by
+ * the pool, so more sockets than allowed may be open while lots of servers
+ * are queried concurrently.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sebastian Staudt
+ * @see com.github.koraktor.steamcondenser.servers.GameServer#setSocketPool
+ */
+public class SocketPool {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(SocketPool.class);
+
+    private long evictions;
+
+    private final long idleTimeout;
+
+    private final int maxOpenSockets;
+
+    private final LinkedHashMap<QuerySocket, Long> sockets;
+
+    private final Map<QuerySocket, Integer> pendingReplies;
+
+    /**
+     * Creates a new socket pool
+     *
+     * @param maxOpenSockets The maximum number of open sockets
+     * @param idleTimeout The number of milliseconds after which an unused
+     *        socket is closed or <code>0</code> to keep unused sockets open
+     */
+    public SocketPool(int maxOpenSockets, long idleTimeout) {
+        if (maxOpenSockets < 1) {
+            throw new IllegalArgumentException("At least one open socket is required");
+        }
+
+        this.idleTimeout    = idleTimeout;
+        this.maxOpenSockets = maxOpenSockets;
+        this.sockets        = new LinkedHashMap<>(16, 0.75f, true);
+        this.pendingReplies = new HashMap<>();
+    }
+
+    /**
+     * Marks the given socket as used and as waiting for one more reply
+     * <p>
+     * The socket will not be closed by this pool until it has been released
+     * once for each time it has been acquired.
+     *
+     * @param socket The socket that has sent a request
+     * @see #release
+     * @see #releaseAll
+     */
+    public synchronized void acquire(QuerySocket socket) {
+        Integer pending = this.pendingReplies.get(socket);
+        this.pendingReplies.put(socket, (pending == null) ? 1 : pending + 1);
+        this.touch(socket);
+    }
+
+    /**
+     * Closes all sockets in this pool
+     */
+    public synchronized void clear() {
+        for (QuerySocket socket : this.sockets.keySet()) {
+            socket.close();
+        }
+        this.sockets.clear();
+        this.pendingReplies.clear();
+    }
+
+    /**
+     * Closes all sockets that have not been used for longer than the idle
+     * timeout
+     * <p>
+     * Idle sockets are also closed whenever a socket is used, so this only
+     * needs to be called to free resources while no servers are queried.
+     */
+    public synchronized void evictIdle() {
+        if (this.idleTimeout <= 0) {
+            return;
+        }
+
+        long idleSince = System.currentTimeMillis() - this.idleTimeout;
+        Iterator<Map.Entry<QuerySocket, Long>> iterator = this.sockets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<QuerySocket, Long> entry = iterator.next();
+            if (entry.getValue() > idleSince) {
+                break;
+            }
+            if (this.pendingReplies.containsKey(entry.getKey())) {
+                continue;
+            }
+
+            iterator.remove();
+            this.close(entry.getKey());
+        }
+    }
+
+    /**
+     * Returns the number of sockets that have been closed by this pool
+     *
+     * @return The number of evicted sockets
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Returns the time after which unused sockets are closed
+     *
+     * @return The idle timeout in milliseconds
+     */
+    public long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Returns the maximum number of open sockets
+     *
+     * @return The maximum number of open sockets
+     */
+    public int getMaxOpenSockets() {
+        return this.maxOpenSockets;
+    }
+
+    /**
+     * Marks the given socket as waiting for one reply less
+     * <p>
+     * The socket may be closed by this pool again after all replies have
+     * been received.
+     *
+     * @param socket The socket that has received a reply
+     * @see #acquire
+     */
+    public synchronized void release(QuerySocket socket) {
+        Integer pending = this.pendingReplies.get(socket);
+        if (pending == null) {
+            return;
+        }
+
+        if (pending > 1) {
+            this.pendingReplies.put(socket, pending - 1);
+        } else {
+            this.releaseAll(socket);
+        }
+    }
+
+    /**
+     * Marks the given socket as no longer waiting for any reply
+     * <p>
+     * This is used when the remaining replies won't be waited for, e.g.
+     * after a request timed out.
+     *
+     * @param socket The socket that doesn't wait for replies anymore
+     * @see #acquire
+     */
+    public synchronized void releaseAll(QuerySocket socket) {
+        if (this.pendingReplies.remove(socket) != null && this.sockets.containsKey(socket)) {
+            this.sockets.put(socket, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Removes the given socket from this pool without closing it
+     *
+     * @param socket The socket that has been closed by its owner
+     */
+    public synchronized void remove(QuerySocket socket) {
+        this.sockets.remove(socket);
+        this.pendingReplies.remove(socket);
+    }
+
+    /**
+     * Returns the number of open sockets in this pool
+     *
+     * @return The number of open sockets
+     */
+    public synchronized int size() {
+        return this.sockets.size();
+    }
+
+    /**
+     * Marks the given socket as used and adds it to this pool if necessary
+     * <p>
+     * This closes the least recently used sockets if the maximum number of
+     * open sockets is exceeded, as well as all idle sockets. Sockets in use
+     * are skipped.
+     *
+     * @param socket The socket that is used
+     */
+    public synchronized void touch(QuerySocket socket) {
+        this.sockets.put(socket, System.currentTimeMillis());
+
+        Iterator<QuerySocket> iterator = this.sockets.keySet().iterator();
+        while (this.sockets.size() > this.maxOpenSockets && iterator.hasNext()) {
+            QuerySocket eldest = iterator.next();
+            if (eldest == socket || this.pendingReplies.containsKey(eldest)) {
+                continue;
+            }
+            iterator.remove();
+            this.close(eldest);
+        }
+
+        this.evictIdle();
+    }
+
+    /**
+     * Closes a socket evicted from this pool
+     *
+     * @param socket The socket to close
+     */
+    private void close(QuerySocket socket) {
+        LOG.debug("Closing pooled socket " + socket + ".");
+        socket.close();
+        this.evictions ++;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectableChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class holds the operating system resources used by a socket
+ * <p>
+ * The resources are released when the socket is closed. If a socket becomes
+ * unreachable without being closed, the resources are released by the
+ * {@link SocketCleaner} and the leak is reported. This class must never
+ * reference its socket.
+ *
+ * @author Sebastian Staudt
+ * @see SteamSocket#setLeakDetection
+ */
+final class SocketResources implements Runnable {
+
+    static final Logger LOG = LoggerFactory.getLogger(SocketResources.class);
+
+    private static final AtomicLong LEAKED_SOCKETS = new AtomicLong();
+
+    private static final AtomicInteger OPEN_SOCKETS = new AtomicInteger();
+
+    volatile SelectableChannel channel;
+
+    private final Runnable cleanup;
+
+    private final Throwable creationTrace;
+
+    private volatile DatagramHandler datagramHandler;
+
+    private final String description;
+
+    private volatile QueryReactor reactor;
+
+    private final AtomicBoolean released;
+
+    private volatile InetSocketAddress remoteSocket;
+
+    /**
+     * Returns the number of sockets that have been released after they
+     * became unreachable without being closed
+     *
+     * @return The number of leaked sockets
+     */
+    static long getLeakedSockets() {
+        return LEAKED_SOCKETS.get();
+    }
+
+    /**
+     * Returns the number of sockets that currently hold resources
+     *
+     * @return The number of open sockets
+     */
+    static int getOpenSockets() {
+        return OPEN_SOCKETS.get();
+    }
+
+    /**
+     * Creates the resources of the given socket and registers them with the
+     * socket cleaner
+     *
+     * @param socket The socket using the resources
+     * @param leakDetection Whether to record where the socket has been
+     *        opened
+     */
+    SocketResources(SteamSocket socket, boolean leakDetection) {
+        this.creationTrace = leakDetection ? new Throwable("Socket opened here") : null;
+        this.description   = socket.getClass().getSimpleName() + " for " + socket.remoteSocket;
+        this.released      = new AtomicBoolean();
+
+        OPEN_SOCKETS.incrementAndGet();
+        this.cleanup = SocketCleaner.register(socket, this);
+    }
+
+    /**
+     * Releases the resources after the socket has been closed
+     */
+    void close() {
+        if (this.released.compareAndSet(false, true)) {
+            OPEN_SOCKETS.decrementAndGet();
+            this.free();
+        }
+        this.cleanup.run();
+    }
+
+    /**
+     * Stores the registration of the socket with a reactor, so it can be
+     * removed if the socket is leaked
+     *
+     * @param reactor The reactor the socket is registered with
+     * @param remoteSocket The address of the server
+     * @param datagramHandler The handler registered for the server
+     */
+    void setRegistration(QueryReactor reactor, InetSocketAddress remoteSocket, DatagramHandler datagramHandler) {
+        this.datagramHandler = datagramHandler;
+        this.reactor         = reactor;
+        this.remoteSocket    = remoteSocket;
+    }
+
+    /**
+     * Releases the resources of a socket that became unreachable without
+     * being closed
+     */
+    public void run() {
+        if (!this.released.compareAndSet(false, true)) {
+            return;
+        }
+
+        OPEN_SOCKETS.decrementAndGet();
+        LEAKED_SOCKETS.incrementAndGet();
+        if (this.creationTrace == null) {
+            LOG.warn(this.description + " has not been closed. Enable leak detection using SteamSocket.setLeakDetection() to see where it has been opened.");
+        } else {
+            LOG.warn(this.description + " has not been closed.", this.creationTrace);
+        }
+
+        this.free();
+    }
+
+    /**
+     * Closes the channel and removes the reactor registration of the socket
+     */
+    private void free() {
+        SelectableChannel channel = this.channel;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+        }
+
+        QueryReactor reactor = this.reactor;
+        if (reactor != null) {
+            reactor.unregister(this.remoteSocket, this.datagramHandler);
+        }
+    }
+
+}
@@ -8,14 +8,12 @@
 package com.github.koraktor.steamcondenser.servers.sockets;
 
 import java.net.InetAddress;
-import java.util.ArrayList;
 import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
-import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
 
 /**
  * This class represents a socket used to communicate with game servers based
@@ -38,6 +36,8 @@ public class SourceSocket extends QuerySocket {
     public SourceSocket(InetAddress ipAddress, int portNumber)
             throws SteamCondenserException {
         super(ipAddress, portNumber);
+
+        this.splitPacketAssembler = new SplitPacketAssembler(false);
     }
 
     /**
@@ -47,7 +47,7 @@ public class SourceSocket extends QuerySocket {
      * bytes. Bigger packets will be split over several UDP packets. This
      * method reassembles split packets into single packet objects.
      * Additionally Source may compress big packets using bzip2. Those packets
-     * will be compressed.
+     * will be decompressed.
      *
      * @return SteamPacket The packet replied from the server
      * @throws SteamCondenserException if an error occurs while communicating
@@ -56,66 +56,24 @@ public class SourceSocket extends QuerySocket {
      */
     public SteamPacket getReply()
             throws SteamCondenserException, TimeoutException {
-        int bytesRead;
-        boolean isCompressed = false;
         SteamPacket packet;
 
-        bytesRead = this.receivePacket(1400);
-
-        if(this.packetIsSplit()) {
-            byte[] splitData;
-            int packetCount, packetNumber, requestId, splitSize;
-            int packetChecksum = 0;
-            ArrayList<byte[]> splitPackets = new ArrayList<>();
-
-            do {
-                requestId = Integer.reverseBytes(this.buffer.getInt());
-                isCompressed = ((requestId & 0x80000000) != 0);
-                packetCount = this.buffer.get();
-                packetNumber = this.buffer.get() + 1;
-
-                if(isCompressed) {
-                    splitSize = Integer.reverseBytes(this.buffer.getInt());
-                    packetChecksum = Integer.reverseBytes(this.buffer.getInt());
-                } else {
-                    splitSize = Short.reverseBytes(this.buffer.getShort());
-                }
-
-                splitData = new byte[Math.min(splitSize, this.buffer.remaining())];
-                this.buffer.get(splitData);
-                splitPackets.ensureCapacity(packetCount);
-                splitPackets.add(packetNumber - 1, splitData);
+        try {
+            this.receivePacket(1400);
 
-                if(splitPackets.size() < packetCount) {
-                    try {
-                        bytesRead = this.receivePacket();
-                    } catch(TimeoutException e) {
-                        bytesRead = 0;
-                    }
-                } else {
-                    bytesRead = 0;
-                }
-
-                LOG.info("Received packet #" + packetNumber + " of " + packetCount + " for request ID " + requestId + ".");
-            } while(bytesRead > 0 && this.packetIsSplit());
-
-            if(isCompressed) {
-                packet = SteamPacketFactory.reassemblePacket(splitPackets, true, splitSize, packetChecksum);
+            if(this.packetIsSplit()) {
+                packet = this.getSplitReply();
             } else {
-                packet = SteamPacketFactory.reassemblePacket(splitPackets);
+                packet = this.getPacketFromData();
             }
-        } else {
-            packet = this.getPacketFromData();
-        }
 
-        this.buffer.flip();
-
-        if(isCompressed) {
-            LOG.info("Received compressed reply of type \"" + packet.getClass().getSimpleName() + "\"");
-        } else {
-            LOG.info("Received reply of type \"" + packet.getClass().getSimpleName() + "\"");
+            this.buffer.flip();
+        } finally {
+            this.releaseReceiveBuffer();
         }
 
+        LOG.info("Received reply of type \"" + packet.getClass().getSimpleName() + "\"");
+
         return packet;
     }
 }
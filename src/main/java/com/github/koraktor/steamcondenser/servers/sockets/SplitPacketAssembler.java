@@ -0,0 +1,276 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
+
+/**
+ * This class reassembles packets split over several UDP packets by game
+ * servers
+ * <p>
+ * Fragments are collected per request ID, so they may arrive in any order
+ * and fragments of different replies may be interleaved. Each fragment is
+ * written directly to its slot in a single buffer allocated for the whole
+ * reply. Incomplete replies are discarded after a configurable time.
+ * <p>
+ * The fragment size and count announced by the server are bounded, so a
+ * single forged fragment cannot cause a large allocation.
+ * <p>
+ * Instances of this class are not thread-safe.
+ *
+ * @author Sebastian Staudt
+ */
+public class SplitPacketAssembler {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(SplitPacketAssembler.class);
+
+    /**
+     * The slot size used if the server does not provide the size of its
+     * fragments
+     */
+    private static final int DEFAULT_SPLIT_SIZE = 1400;
+
+    /**
+     * The maximum number of fragments of a single split packet
+     */
+    private static final int MAX_PACKET_COUNT = 128;
+
+    /**
+     * The maximum size of a single fragment, i.e. the maximum payload of a
+     * query datagram
+     */
+    private static final int MAX_SPLIT_SIZE = 1400;
+
+    private long expiry;
+
+    private final boolean goldSrc;
+
+    private final Map<Integer, SplitPacket> splitPackets;
+
+    /**
+     * Creates a new assembler for split packets of the given format
+     *
+     * @param goldSrc <code>true</code> if the split packets use the format of
+     *        GoldSrc servers, <code>false</code> for the format of Source
+     *        servers
+     */
+    public SplitPacketAssembler(boolean goldSrc) {
+        this.expiry       = 5000;
+        this.goldSrc      = goldSrc;
+        this.splitPackets = new HashMap<>();
+    }
+
+    /**
+     * Adds a fragment of a split packet
+     * <p>
+     * The given buffer has to be positioned right after the split packet
+     * header (<code>0xFFFFFFFE</code>).
+     *
+     * @param data The buffer containing the fragment
+     * @return The reassembled packet if this was the last missing fragment,
+     *         <code>null</code> otherwise
+     * @throws SteamCondenserException if the fragment is invalid or the
+     *         reassembled packet cannot be decoded
+     */
+    public SteamPacket addFragment(ByteBuffer data)
+            throws SteamCondenserException {
+        long now = System.currentTimeMillis();
+        this.expire(now);
+
+        int requestId = Integer.reverseBytes(data.getInt());
+        boolean isCompressed = false;
+        int packetCount;
+        int packetNumber;
+        int splitSize;
+        int packetChecksum = 0;
+        int uncompressedSize = 0;
+
+        if (this.goldSrc) {
+            byte packetNumberAndCount = data.get();
+            packetCount  = packetNumberAndCount & 0xF;
+            packetNumber = (packetNumberAndCount >> 4) & 0xF;
+            splitSize    = DEFAULT_SPLIT_SIZE;
+        } else {
+            isCompressed = (requestId & 0x80000000) != 0;
+            packetCount  = data.get() & 0xFF;
+            packetNumber = data.get() & 0xFF;
+            if (isCompressed) {
+                splitSize = DEFAULT_SPLIT_SIZE;
+                if (packetNumber == 0) {
+                    uncompressedSize = Integer.reverseBytes(data.getInt());
+                    packetChecksum   = Integer.reverseBytes(data.getInt());
+                }
+            } else {
+                splitSize = Short.reverseBytes(data.getShort()) & 0xFFFF;
+            }
+        }
+
+        if (packetNumber >= packetCount) {
+            throw new PacketFormatException("Invalid split packet #" + (packetNumber + 1) + " of " + packetCount + ".");
+        }
+        if (packetCount > MAX_PACKET_COUNT) {
+            throw new PacketFormatException("Split packet with " + packetCount + " fragments exceeds the maximum of " + MAX_PACKET_COUNT + " fragments.");
+        }
+        if (splitSize > MAX_SPLIT_SIZE) {
+            throw new PacketFormatException("Split packet size of " + splitSize + " bytes exceeds the maximum of " + MAX_SPLIT_SIZE + " bytes.");
+        }
+
+        SplitPacket splitPacket = this.splitPackets.get(requestId);
+        if (splitPacket == null || splitPacket.fragmentLengths.length != packetCount) {
+            int slotSize = (splitSize == 0) ? DEFAULT_SPLIT_SIZE : splitSize;
+            splitPacket = new SplitPacket(packetCount, slotSize, now);
+            this.splitPackets.put(requestId, splitPacket);
+        }
+        if (isCompressed && packetNumber == 0) {
+            splitPacket.uncompressedSize = uncompressedSize;
+            splitPacket.packetChecksum   = packetChecksum;
+        }
+
+        int fragmentLength = data.remaining();
+        if (!this.goldSrc && !isCompressed) {
+            fragmentLength = Math.min(splitSize, fragmentLength);
+        }
+        if (fragmentLength > splitPacket.slotSize) {
+            this.splitPackets.remove(requestId);
+            throw new PacketFormatException("Split packet #" + (packetNumber + 1) + " exceeds the maximum size of " + splitPacket.slotSize + " bytes.");
+        }
+
+        LOG.info("Received packet #" + (packetNumber + 1) + " of " + packetCount + " for request ID " + requestId + ".");
+
+        if (splitPacket.fragmentLengths[packetNumber] < 0) {
+            splitPacket.receivedFragments ++;
+        }
+        splitPacket.fragmentLengths[packetNumber] = fragmentLength;
+        data.get(splitPacket.data, packetNumber * splitPacket.slotSize, fragmentLength);
+
+        if (splitPacket.receivedFragments < packetCount) {
+            return null;
+        }
+
+        this.splitPackets.remove(requestId);
+
+        return SteamPacketFactory.reassemblePacket(splitPacket.getData(), isCompressed, splitPacket.uncompressedSize, splitPacket.packetChecksum);
+    }
+
+    /**
+     * Discards all incomplete packets
+     */
+    public void clear() {
+        this.splitPackets.clear();
+    }
+
+    /**
+     * Returns the number of packets that are still missing fragments
+     *
+     * @return The number of incomplete packets
+     */
+    public int getPendingPackets() {
+        return this.splitPackets.size();
+    }
+
+    /**
+     * Returns whether this assembler expects split packets in the format of
+     * GoldSrc servers
+     *
+     * @return <code>true</code> for the GoldSrc format, <code>false</code>
+     *         for the Source format
+     */
+    public boolean isGoldSrc() {
+        return this.goldSrc;
+    }
+
+    /**
+     * Sets the time after which incomplete packets are discarded (default:
+     * 5000)
+     *
+     * @param expiry The amount of milliseconds to wait for missing fragments
+     */
+    public void setExpiry(long expiry) {
+        this.expiry = expiry;
+    }
+
+    /**
+     * Discards all incomplete packets older than the expiry time
+     *
+     * @param now The current time in milliseconds
+     */
+    private void expire(long now) {
+        Iterator<Map.Entry<Integer, SplitPacket>> entries = this.splitPackets.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, SplitPacket> entry = entries.next();
+            if (now - entry.getValue().createdAt > this.expiry) {
+                LOG.info("Discarding incomplete split packet for request ID " + entry.getKey() + ".");
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * This class represents the fragments of a single split packet
+     */
+    private static class SplitPacket {
+
+        final long createdAt;
+
+        final byte[] data;
+
+        final int[] fragmentLengths;
+
+        int packetChecksum;
+
+        int receivedFragments;
+
+        int uncompressedSize;
+
+        final int slotSize;
+
+        SplitPacket(int packetCount, int slotSize, long createdAt) {
+            this.createdAt       = createdAt;
+            this.data            = new byte[packetCount * slotSize];
+            this.fragmentLengths = new int[packetCount];
+            this.slotSize        = slotSize;
+
+            for (int i = 0; i < packetCount; i ++) {
+                this.fragmentLengths[i] = -1;
+            }
+        }
+
+        /**
+         * Returns the data of all fragments
+         * <p>
+         * Fragments shorter than the slot size are moved together inside
+         * the buffer, so no additional buffer is needed.
+         *
+         * @return A buffer containing the reassembled data
+         */
+        ByteBuffer getData() {
+            int length = 0;
+            for (int i = 0; i < this.fragmentLengths.length; i ++) {
+                int offset = i * this.slotSize;
+                if (offset != length) {
+                    System.arraycopy(this.data, offset, this.data, length, this.fragmentLengths[i]);
+                }
+                length += this.fragmentLengths[i];
+            }
+
+            return ByteBuffer.wrap(this.data, 0, length);
+        }
+
+    }
+
+}
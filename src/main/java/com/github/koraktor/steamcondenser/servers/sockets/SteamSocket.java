@@ -8,14 +8,20 @@
 package com.github.koraktor.steamcondenser.servers.sockets;
 
 import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.TimeoutException;
 
 import com.github.koraktor.steamcondenser.exceptions.ConnectionResetException;
@@ -30,14 +36,88 @@ import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
  *
  * @author Sebastian Staudt
  */
-abstract public class SteamSocket {
+abstract public class SteamSocket implements AutoCloseable {
+
+    protected static BufferPool defaultBufferPool = BufferPool.getShared();
+
+    protected static boolean leakDetection = false;
 
     protected static int timeout = 1000;
 
     protected ByteBuffer buffer;
+    protected BufferPool bufferPool;
+    protected ByteBuffer receiveBuffer;
     protected SelectableChannel channel;
     protected InetSocketAddress remoteSocket;
 
+    SocketResources resources;
+
+    /**
+     * Returns the number of sockets that became unreachable without being
+     * closed
+     * <p>
+     * The channels of these sockets have been closed automatically after
+     * they have been garbage collected.
+     *
+     * @return The number of leaked sockets
+     * @see #setLeakDetection
+     */
+    public static long getLeakedSockets() {
+        return SocketResources.getLeakedSockets();
+    }
+
+    /**
+     * Returns the number of sockets that are currently open
+     * <p>
+     * A socket is open while it holds a channel or is registered with a
+     * reactor and has not been closed yet.
+     *
+     * @return The number of open sockets
+     */
+    public static int getOpenSockets() {
+        return SocketResources.getOpenSockets();
+    }
+
+    /**
+     * Returns the timeout for socket operations
+     *
+     * @return The amount of milliseconds before a request times out
+     * @see #setTimeout
+     */
+    public static int getTimeout() {
+        return SteamSocket.timeout;
+    }
+
+    /**
+     * Sets the buffer pool used by sockets created afterwards
+     * <p>
+     * Sockets borrow a receive buffer from this pool for each received reply
+     * and return it as soon as the reply has been decoded. Setting this to <code>null</code> will make new
+     * sockets allocate a new buffer for each received packet instead.
+     *
+     * @param bufferPool The buffer pool to use for new sockets
+     */
+    public static void setBufferPool(BufferPool bufferPool) {
+        SteamSocket.defaultBufferPool = bufferPool;
+    }
+
+    /**
+     * Sets whether sockets opened afterwards should record where they have
+     * been opened (default: <code>false</code>)
+     * <p>
+     * Sockets that are not closed are closed automatically after they have
+     * been garbage collected and a warning is logged. With leak detection
+     * enabled, the warning includes the stack trace of the code that opened
+     * the socket. Recording the stack trace is expensive, so this should
+     * only be enabled to debug leaks.
+     *
+     * @param leakDetection <code>true</code> to record where sockets are
+     *        opened
+     */
+    public static void setLeakDetection(boolean leakDetection) {
+        SteamSocket.leakDetection = leakDetection;
+    }
+
     /**
      * Sets the timeout for socket operations
      * <p>
@@ -60,22 +140,46 @@ abstract public class SteamSocket {
     protected SteamSocket(InetAddress ipAddress, int portNumber) {
         this.buffer = ByteBuffer.allocate(1400);
         this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.bufferPool = SteamSocket.defaultBufferPool;
 
         this.remoteSocket = new InetSocketAddress(ipAddress, portNumber);
     }
 
     /**
      * Reads a single packet from the buffer into a packet object
+     * <p>
+     * The packet is created from a view of the buffer's remaining data
+     * without copying it. Data in the pooled receive buffer is copied first,
+     * because the receive buffer is reused for the next packet.
      *
      * @return The packet object created from the data in the buffer
      * @throws PacketFormatException if the data is not formatted correctly
      */
     protected SteamPacket getPacketFromData()
             throws PacketFormatException {
-        byte[] packetData = new byte[this.buffer.remaining()];
-        this.buffer.get(packetData);
+        ByteBuffer data;
+        if (this.buffer == this.receiveBuffer) {
+            byte[] packetData = new byte[this.buffer.remaining()];
+            this.buffer.get(packetData);
+            data = ByteBuffer.wrap(packetData);
+        } else {
+            data = this.buffer.slice();
+            this.buffer.position(this.buffer.limit());
+        }
+
+        SteamPacket packet = SteamPacketFactory.getPacketFromData(data);
 
-        return SteamPacketFactory.getPacketFromData(packetData);
+        return packet;
+    }
+
+    /**
+     * Returns the time to wait for the next packet from the server
+     *
+     * @return The receive timeout in milliseconds
+     * @see #setTimeout
+     */
+    protected int getReceiveTimeout() {
+        return SteamSocket.timeout;
     }
 
     /**
@@ -103,18 +207,48 @@ abstract public class SteamSocket {
      */
     protected int receivePacket(int bufferLength)
             throws SteamCondenserException, TimeoutException {
+        return this.receivePacket(bufferLength, this.getReceiveTimeout());
+    }
+
+    /**
+     * Reads the given amount of data from the socket and wraps it into the
+     * buffer waiting at most the given time
+     *
+     * @param bufferLength The data length to read from the socket
+     * @param timeout The time to wait for data in milliseconds
+     * @throws SteamCondenserException if an error occurs while reading from
+     *         the socket
+     * @throws TimeoutException if no packet is received on time
+     * @return int The number of bytes that have been read from the socket
+     * @see #receivePacket(int)
+     */
+    protected int receivePacket(int bufferLength, int timeout)
+            throws SteamCondenserException, TimeoutException {
+        if (ThreadSupport.isVirtualThread()) {
+            return this.receivePacketBlocking(bufferLength, timeout);
+        }
+
         Selector selector = null;
         try {
             selector = Selector.open();
             this.channel.register(selector, SelectionKey.OP_READ);
 
-            if(selector.select(SteamSocket.timeout) == 0) {
+            if(selector.select(timeout) == 0) {
                 throw new TimeoutException();
             }
 
             int bytesRead;
 
-            if (bufferLength == 0) {
+            if (this.bufferPool != null) {
+                if (this.receiveBuffer == null) {
+                    this.receiveBuffer = this.bufferPool.acquire();
+                }
+                this.receiveBuffer.clear();
+                if (bufferLength > 0 && bufferLength < this.receiveBuffer.capacity()) {
+                    this.receiveBuffer.limit(bufferLength);
+                }
+                this.buffer = this.receiveBuffer;
+            } else if (bufferLength == 0) {
                 this.buffer.clear();
             } else {
                 this.buffer = ByteBuffer.allocate(bufferLength);
@@ -146,13 +280,85 @@ abstract public class SteamSocket {
     }
 
     /**
-     * Closes this socket
+     * Reads the given amount of data from the socket using a blocking read
+     * and wraps it into the buffer
+     * <p>
+     * This is used on virtual threads, because waiting for a selector would
+     * pin the virtual thread to its carrier thread. The channel is switched
+     * into blocking mode temporarily and read using its socket adaptor to
+     * respect the timeout. The socket adaptor needs a heap buffer, so the
+     * buffer pool is not used here.
+     *
+     * @param bufferLength The data length to read from the socket
+     * @throws SteamCondenserException if an error occurs while reading from
+     *         the socket
+     * @throws TimeoutException if no packet is received on time
+     * @return int The number of bytes that have been read from the socket
+     * @see #receivePacket(int)
+     */
+    protected int receivePacketBlocking(int bufferLength)
+            throws SteamCondenserException, TimeoutException {
+        return this.receivePacketBlocking(bufferLength, this.getReceiveTimeout());
+    }
+
+    /**
+     * Reads the given amount of data from the socket using a blocking read
+     * waiting at most the given time and wraps it into the buffer
      *
-     * @see #close
+     * @param bufferLength The data length to read from the socket
+     * @param timeout The time to wait for data in milliseconds
+     * @throws SteamCondenserException if an error occurs while reading from
+     *         the socket
+     * @throws TimeoutException if no packet is received on time
+     * @return int The number of bytes that have been read from the socket
+     * @see #receivePacketBlocking(int)
      */
-    @Override
-    protected void finalize() {
-        this.close();
+    protected int receivePacketBlocking(int bufferLength, int timeout)
+            throws SteamCondenserException, TimeoutException {
+        if (bufferLength == 0 && this.buffer.hasArray() && this.buffer.capacity() > 0) {
+            this.buffer.clear();
+        } else {
+            this.buffer = ByteBuffer.allocate(bufferLength == 0 ? 1400 : bufferLength);
+        }
+
+        int bytesRead;
+        try {
+            this.channel.configureBlocking(true);
+
+            if (this.channel instanceof DatagramChannel) {
+                DatagramSocket socket = ((DatagramChannel) this.channel).socket();
+                socket.setSoTimeout(timeout);
+                DatagramPacket packet = new DatagramPacket(this.buffer.array(), this.buffer.arrayOffset(), this.buffer.remaining());
+                socket.receive(packet);
+                bytesRead = packet.getLength();
+            } else {
+                Socket socket = ((SocketChannel) this.channel).socket();
+                socket.setSoTimeout(timeout);
+                bytesRead = socket.getInputStream().read(this.buffer.array(), this.buffer.arrayOffset(), this.buffer.remaining());
+                if (bytesRead < 0) {
+                    bytesRead = 0;
+                }
+            }
+        } catch(SocketTimeoutException e) {
+            throw new TimeoutException();
+        } catch(IOException e) {
+            if ("Connection reset by peer".equals(e.getMessage()) ||
+                "Connection reset".equals(e.getMessage())) {
+                throw new ConnectionResetException();
+            }
+            throw new SteamCondenserException(e.getMessage(), e);
+        } finally {
+            try {
+                if (this.channel.isOpen()) {
+                    this.channel.configureBlocking(false);
+                }
+            } catch(IOException ignored) {}
+        }
+
+        this.buffer.rewind();
+        this.buffer.limit(bytesRead);
+
+        return bytesRead;
     }
 
     /**
@@ -162,9 +368,66 @@ abstract public class SteamSocket {
      */
     public void close() {
         try {
-            if (this.channel.isOpen()) {
+            if (this.channel != null && this.channel.isOpen()) {
                 this.channel.close();
             }
         } catch (IOException e) {}
+
+        this.releaseReceiveBuffer();
+        this.releaseResources();
+    }
+
+    /**
+     * Sets the channel used by this socket
+     * <p>
+     * The channel is closed automatically if this socket is garbage
+     * collected without being closed.
+     *
+     * @param channel The channel to use
+     */
+    protected void setChannel(SelectableChannel channel) {
+        this.channel = channel;
+        this.trackResources().channel = channel;
+    }
+
+    /**
+     * Releases the resources tracked for this socket after it has been
+     * closed
+     */
+    void releaseResources() {
+        if (this.resources != null) {
+            this.resources.close();
+            this.resources = null;
+        }
+    }
+
+    /**
+     * Returns the resources tracked for this socket, starting to track them
+     * if necessary
+     *
+     * @return The resources of this socket
+     */
+    SocketResources trackResources() {
+        if (this.resources == null) {
+            this.resources = new SocketResources(this, SteamSocket.leakDetection);
+        }
+
+        return this.resources;
+    }
+
+    /**
+     * Returns the receive buffer of this socket to its buffer pool
+     * <p>
+     * This is called as soon as a received reply has been decoded, so idle
+     * sockets don't hold a buffer. The next receive borrows a buffer again.
+     */
+    protected void releaseReceiveBuffer() {
+        if (this.receiveBuffer != null) {
+            if (this.buffer == this.receiveBuffer) {
+                this.buffer = ByteBuffer.allocate(0);
+            }
+            this.bufferPool.release(this.receiveBuffer);
+            this.receiveBuffer = null;
+        }
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class provides access to threading features that are only available
+ * on newer Java versions
+ * <p>
+ * This is the implementation used on Java 7 up to Java 20. The library's JAR
+ * contains another implementation for Java 21 and newer in
+ * <code>META-INF/versions/21</code> that makes use of virtual threads.
+ *
+ * @author Sebastian Staudt
+ */
+public final class ThreadSupport {
+
+    private ThreadSupport() {}
+
+    /**
+     * Returns whether the current thread is a virtual thread
+     * <p>
+     * Sockets use a plain blocking read on virtual threads instead of opening
+     * a selector for every received packet, because blocking channel
+     * operations park virtual threads without pinning their carrier thread.
+     *
+     * @return Always <code>false</code> before Java 21
+     */
+    public static boolean isVirtualThread() {
+        return false;
+    }
+
+    /**
+     * Creates an executor that starts a new thread for every task
+     * <p>
+     * Before Java 21 this is a cached pool of daemon platform threads.
+     *
+     * @return A new executor running each task in its own thread
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        return Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "steam-condenser-worker-" + this.threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+}
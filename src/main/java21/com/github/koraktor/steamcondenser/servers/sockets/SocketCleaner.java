@@ -0,0 +1,42 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.lang.ref.Cleaner;
+
+/**
+ * This class runs cleanup actions for sockets that became unreachable
+ * without being closed
+ * <p>
+ * This is the implementation used on Java 21 and newer. It replaces the
+ * default implementation using the multi-release JAR mechanism.
+ *
+ * @author Sebastian Staudt
+ */
+final class SocketCleaner {
+
+    private static final Cleaner CLEANER = Cleaner.create(Thread.ofPlatform().daemon().name("steam-condenser-cleaner").factory());
+
+    private SocketCleaner() {}
+
+    /**
+     * Registers an action to run when the given object becomes unreachable
+     * <p>
+     * The action must not reference the object, otherwise it never becomes
+     * unreachable.
+     *
+     * @param object The object to monitor
+     * @param action The action to run
+     * @return A task that runs the action immediately and stops monitoring
+     *         the object
+     */
+    static Runnable register(Object object, Runnable action) {
+        return CLEANER.register(object, action)::clean;
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class provides access to threading features that are only available
+ * on newer Java versions
+ * <p>
+ * This is the implementation used on Java 21 and newer. It replaces the
+ * default implementation using the multi-release JAR mechanism.
+ *
+ * @author Sebastian Staudt
+ */
+public final class ThreadSupport {
+
+    private ThreadSupport() {}
+
+    /**
+     * Returns whether the current thread is a virtual thread
+     * <p>
+     * Sockets use a plain blocking read on virtual threads instead of opening
+     * a selector for every received packet, because blocking channel
+     * operations park virtual threads without pinning their carrier thread.
+     *
+     * @return <code>true</code> if the current thread is a virtual thread
+     */
+    public static boolean isVirtualThread() {
+        return Thread.currentThread().isVirtual();
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task
+     *
+     * @return A new executor running each task in its own virtual thread
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("steam-condenser-worker-", 0).factory());
+    }
+
+}
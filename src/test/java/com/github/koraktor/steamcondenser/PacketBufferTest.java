@@ -0,0 +1,57 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class PacketBufferTest {
+
+    @Test
+    public void testArrayOfView() {
+        ByteBuffer data = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+        data.position(1);
+        PacketBuffer buffer = new PacketBuffer(data);
+
+        assertEquals(3, buffer.getLength());
+        assertArrayEquals(new byte[] { 2, 3, 4 }, buffer.array());
+    }
+
+    @Test
+    public void testGetStringFromView() throws Exception {
+        byte[] data = "xxfirst\0zweiter Überblick\0rest".getBytes("UTF-8");
+        ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+        byteBuffer.position(2);
+        PacketBuffer buffer = new PacketBuffer(byteBuffer);
+
+        assertEquals("first", buffer.getString());
+        assertEquals("zweiter Überblick", buffer.getString());
+        assertNull(buffer.getString());
+        assertEquals(4, buffer.remaining());
+    }
+
+    @Test
+    public void testGetStringFromDirectBuffer() {
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(6);
+        byteBuffer.put("test\0x".getBytes());
+        byteBuffer.flip();
+        PacketBuffer buffer = new PacketBuffer(byteBuffer);
+
+        assertEquals("test", buffer.getString());
+        assertEquals('x', buffer.getByte());
+    }
+
+}
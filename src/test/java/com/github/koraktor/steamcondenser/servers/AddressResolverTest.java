@@ -0,0 +1,160 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class AddressResolverTest {
+
+    private static final InetAddress ADDRESS;
+
+    static {
+        try {
+            ADDRESS = InetAddress.getByAddress("server.example.com", new byte[] { 10, 0, 0, 1 });
+        } catch (UnknownHostException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @After
+    public void teardown() {
+        Server.setAddressResolver(AddressResolver.getShared());
+    }
+
+    @Test
+    public void testLiteral() throws Exception {
+        StubResolver resolver = new StubResolver(60000, 10000);
+
+        List<InetAddress> addresses = resolver.resolve("127.0.0.1");
+
+        assertEquals(InetAddress.getByAddress(new byte[] { 127, 0, 0, 1 }), addresses.get(0));
+        assertEquals(0, resolver.lookups.get());
+        assertTrue(resolver.resolveAsync("::1").isDone());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        StubResolver resolver = new StubResolver(60000, 10000);
+
+        assertEquals(ADDRESS, resolver.resolve("server.example.com").get(0));
+        assertTrue(resolver.resolveAsync("server.example.com").isDone());
+        assertEquals(ADDRESS, resolver.resolve("server.example.com").get(0));
+
+        assertEquals(1, resolver.lookups.get());
+        assertEquals(1, resolver.size());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        StubResolver resolver = new StubResolver(0, 0);
+
+        resolver.resolve("server.example.com");
+        Thread.sleep(5);
+        resolver.resolve("server.example.com");
+
+        assertEquals(2, resolver.lookups.get());
+    }
+
+    @Test
+    public void testNegativeCache() throws Exception {
+        StubResolver resolver = new StubResolver(60000, 10000);
+
+        for (int i = 0; i < 2; i ++) {
+            try {
+                resolver.resolve("unknown.example.com");
+                fail("Expected a SteamCondenserException");
+            } catch (SteamCondenserException e) {
+                assertEquals("Cannot resolve unknown.example.com: unknown.example.com", e.getMessage());
+            }
+        }
+
+        assertEquals(1, resolver.lookups.get());
+    }
+
+    @Test
+    public void testServerConstructionDoesNotBlock() throws Exception {
+        StubResolver resolver = new StubResolver(60000, 10000);
+        resolver.blocked = new CountDownLatch(1);
+        Server.setAddressResolver(resolver);
+
+        SourceServer server = new SourceServer("server.example.com:27016");
+
+        assertFalse(server.isResolved());
+        resolver.blocked.countDown();
+
+        assertEquals(Collections.singletonList(ADDRESS), server.getIpAddresses());
+        assertEquals(Collections.singletonList("server.example.com"), server.getHostNames());
+        assertEquals(27016, server.getSocketAddress().getPort());
+        assertTrue(server.isResolved());
+    }
+
+    @Test
+    public void testServerResolutionFailure() throws Exception {
+        Server.setAddressResolver(new StubResolver(60000, 10000));
+
+        SourceServer server = new SourceServer("unknown.example.com");
+
+        assertTrue(server.getIpAddresses().isEmpty());
+        try {
+            server.getSocketAddress();
+            fail("Expected a SteamCondenserException");
+        } catch (SteamCondenserException e) {
+            assertEquals("Cannot resolve unknown.example.com: unknown.example.com", e.getMessage());
+        }
+    }
+
+    class StubResolver extends AddressResolver {
+
+        CountDownLatch blocked;
+
+        final AtomicInteger lookups = new AtomicInteger();
+
+        StubResolver(long ttl, long negativeTtl) {
+            super(ttl, negativeTtl, 1);
+        }
+
+        @Override
+        protected List<InetAddress> lookup(String host)
+                throws UnknownHostException {
+            this.lookups.incrementAndGet();
+            if (this.blocked != null) {
+                try {
+                    this.blocked.await();
+                } catch (InterruptedException e) {
+                    throw new UnknownHostException(host);
+                }
+            }
+
+            if (!host.equals("server.example.com")) {
+                throw new UnknownHostException(host);
+            }
+
+            return Collections.singletonList(ADDRESS);
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
+import com.github.koraktor.steamcondenser.servers.sockets.QuerySocket;
+import com.github.koraktor.steamcondenser.servers.sockets.SteamSocket;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class AsyncQueryHandlerTest {
+
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private FakeServer fakeServer;
+
+    private SourceServer server;
+
+    @Before
+    public void setup() throws Exception {
+        this.fakeServer = new FakeServer();
+        this.fakeServer.start();
+
+        ChallengeManager.getShared().clear();
+
+        this.server = new SourceServer(InetAddress.getLoopbackAddress(), this.fakeServer.channel.socket().getLocalPort());
+    }
+
+    @After
+    public void teardown() throws Exception {
+        SteamSocket.setTimeout(1000);
+        QuerySocket.setReactor(null);
+        this.server.disconnect();
+        this.fakeServer.channel.close();
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        this.fakeServer.silent = true;
+
+        QueryFuture<ServerInfo> future = this.server.updateServerInfoAsync(DIRECT);
+        assertTrue(future.cancel(false));
+
+        assertTrue(future.isCancelled());
+        try {
+            future.get();
+            fail();
+        } catch (CancellationException ignored) {}
+    }
+
+    @Test
+    public void testPlayersWithChallenge() throws Exception {
+        PlayerList players = this.server.updatePlayersAsync(DIRECT).get(1, TimeUnit.SECONDS);
+
+        assertEquals(5, players.get(0).getScore());
+        assertEquals(1234, this.server.challengeNumber);
+        assertSame(players, this.server.players);
+        assertNull(this.server.playerHash);
+        assertEquals(5, this.server.getPlayers().get("player").getScore());
+    }
+
+    @Test
+    public void testServerInfoAndPing() throws Exception {
+        QueryFuture<Integer> ping = this.server.updatePingAsync(DIRECT);
+        QueryFuture<ServerInfo> info = this.server.updateServerInfoAsync(DIRECT);
+
+        assertEquals("map", info.get(1, TimeUnit.SECONDS).getMapName());
+        assertTrue(ping.get(1, TimeUnit.SECONDS) >= 0);
+        assertSame(info.get(), this.server.info);
+        assertNull(this.server.serverInfo);
+        assertEquals("map", this.server.getServerInfo().get("mapName"));
+    }
+
+    @Test
+    public void testShareSocketRegistration() throws Exception {
+        QuerySocket.setReactor(QueryReactor.getShared());
+        this.server.updateServerInfo();
+
+        ServerInfo info = this.server.updateServerInfoAsync(DIRECT).get(1, TimeUnit.SECONDS);
+
+        assertEquals("map", info.getMapName());
+
+        this.server.updatePing();
+        assertTrue(this.server.socket.getReactor() == QueryReactor.getShared());
+    }
+
+    @Test
+    public void testSocketWhileQueryIsPending() throws Exception {
+        this.fakeServer.silent = true;
+
+        QueryFuture<ServerInfo> future = this.server.updateServerInfoAsync(DIRECT);
+        QuerySocket.setReactor(QueryReactor.getShared());
+        try {
+            this.server.updateServerInfo();
+            fail();
+        } catch (SteamCondenserException e) {
+            assertEquals("Another datagram handler is already registered for " + this.server.getSocketAddress() + ".", e.getMessage());
+        }
+
+        assertTrue(future.cancel(false));
+        this.server.initSocket();
+        assertFalse(this.server.socket.isClosed());
+    }
+
+    @Test
+    public void testSplitRules() throws Exception {
+        ServerRules rules = this.server.updateRulesAsync(DIRECT).get(1, TimeUnit.SECONDS);
+
+        assertEquals("1", rules.get("mp_friendlyfire"));
+        assertEquals("30", rules.get("mp_timelimit"));
+        assertEquals("30", this.server.getRules().get("mp_timelimit"));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        this.fakeServer.silent = true;
+        SteamSocket.setTimeout(100);
+
+        QueryFuture<ServerInfo> future = this.server.updateServerInfoAsync(DIRECT);
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+        assertFalse(future.isCancelled());
+    }
+
+    class FakeServer extends Thread {
+
+        DatagramChannel channel;
+
+        volatile boolean silent;
+
+        FakeServer() throws Exception {
+            this.channel = DatagramChannel.open();
+            this.channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            this.setDaemon(true);
+        }
+
+        public void run() {
+            ByteBuffer request = ByteBuffer.allocate(1400);
+            try {
+                while (true) {
+                    request.clear();
+                    SocketAddress client = this.channel.receive(request);
+                    request.flip();
+                    request.getInt();
+                    byte header = request.get();
+
+                    if (this.silent) {
+                        continue;
+                    }
+
+                    ByteArrayOutputStream reply = new ByteArrayOutputStream();
+                    reply.write(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF });
+                    if (header == 0x54) {
+                        reply.write(0x49);
+                        reply.write(17);
+                        reply.write("name\0map\0dir\0description\0".getBytes());
+                        reply.write(new byte[] { (byte) 0xB8, 0x1, 1, 24, 0, 'd', 'l', 0, 1 });
+                        reply.write("1.0\0".getBytes());
+                    } else if (Integer.reverseBytes(request.getInt()) == -1) {
+                        reply.write(new byte[] { 0x41, (byte) 0xD2, 0x4, 0x0, 0x0 });
+                    } else if (header == 0x55) {
+                        reply.write(new byte[] { 0x44, 1, 0 });
+                        reply.write("player\0".getBytes());
+                        reply.write(new byte[] { 5, 0, 0, 0, 0, 0, (byte) 0x80, 0x3F });
+                    } else {
+                        reply.write(new byte[] { 0x45, 2, 0 });
+                        reply.write("mp_friendlyfire\0001\0mp_timelimit\00030\0".getBytes());
+                        this.sendSplit(reply.toByteArray(), client);
+                        continue;
+                    }
+
+                    this.channel.send(ByteBuffer.wrap(reply.toByteArray()), client);
+                }
+            } catch (Exception ignored) {}
+        }
+
+        private void sendSplit(byte[] data, SocketAddress client) throws Exception {
+            int splitSize = data.length / 2 + 1;
+            for (int i = 1; i >= 0; i --) {
+                byte[] part = Arrays.copyOfRange(data, i * splitSize, Math.min(data.length, (i + 1) * splitSize));
+                ByteBuffer packet = ByteBuffer.allocate(12 + part.length);
+                packet.putInt(0xFEFFFFFF);
+                packet.putInt(Integer.reverseBytes(42));
+                packet.put((byte) 2);
+                packet.put((byte) i);
+                packet.putShort(Short.reverseBytes((short) splitSize));
+                packet.put(part);
+                packet.flip();
+                this.channel.send(packet, client);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetSocketAddress;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class ChallengeManagerTest {
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 27015);
+
+    private ChallengeManager challengeManager;
+
+    @Before
+    public void setup() {
+        this.challengeManager = new ChallengeManager(60000);
+    }
+
+    @Test
+    public void testGet() {
+        assertEquals(ChallengeManager.NO_CHALLENGE, this.challengeManager.get(ADDRESS));
+
+        this.challengeManager.put(ADDRESS, 1234);
+
+        assertEquals(1234, this.challengeManager.get(ADDRESS));
+        assertEquals(1234, this.challengeManager.get(new InetSocketAddress("127.0.0.1", 27015)));
+        assertEquals(ChallengeManager.NO_CHALLENGE, this.challengeManager.get(new InetSocketAddress("127.0.0.1", 27016)));
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        this.challengeManager.setTtl(0);
+        this.challengeManager.put(ADDRESS, 1234);
+        Thread.sleep(5);
+
+        assertEquals(ChallengeManager.NO_CHALLENGE, this.challengeManager.get(ADDRESS));
+        assertEquals(0, this.challengeManager.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        this.challengeManager.put(ADDRESS, 1234);
+        this.challengeManager.invalidate(ADDRESS);
+
+        assertEquals(ChallengeManager.NO_CHALLENGE, this.challengeManager.get(ADDRESS));
+    }
+
+    @Test
+    public void testPurge() throws Exception {
+        this.challengeManager.put(ADDRESS, 1234);
+        this.challengeManager.setTtl(0);
+        Thread.sleep(5);
+
+        this.challengeManager.purge();
+
+        assertEquals(0, this.challengeManager.size());
+    }
+
+}
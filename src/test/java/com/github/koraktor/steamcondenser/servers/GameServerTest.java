@@ -11,6 +11,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -34,6 +35,7 @@ import com.github.koraktor.steamcondenser.servers.packets.S2A_RULES_Packet;
 import com.github.koraktor.steamcondenser.servers.packets.S2C_CHALLENGE_Packet;
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
 import com.github.koraktor.steamcondenser.servers.sockets.QuerySocket;
+import com.github.koraktor.steamcondenser.servers.sockets.SocketPool;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.number.OrderingComparison.greaterThanOrEqualTo;
@@ -43,6 +45,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
@@ -65,6 +68,7 @@ public class GameServerTest {
         this.server = spy(new GenericGameServer());
         this.socket = mock(QuerySocket.class);
         this.server.socket = this.socket;
+        this.server.challengeManager = new ChallengeManager(60000);
     }
 
     @Test
@@ -108,6 +112,16 @@ public class GameServerTest {
         verify(this.server).handleResponseForRequest(GameServer.REQUEST_CHALLENGE);
     }
 
+    @Test
+    public void testUpdateChallengeNumberCached() throws Exception {
+        this.server.challengeManager.put(new InetSocketAddress("127.0.0.1", 27015), 1234);
+
+        this.server.updateChallengeNumber();
+
+        assertEquals(1234, this.server.challengeNumber);
+        verify(this.server, never()).handleResponseForRequest(GameServer.REQUEST_CHALLENGE);
+    }
+
     @Test
     public void testUpdateServerInfo() throws Exception {
         doNothing().when(this.server).handleResponseForRequest(GameServer.REQUEST_INFO);
@@ -172,7 +186,7 @@ public class GameServerTest {
     public void testCachePlayers() throws Exception {
         doAnswer(new Answer<Object>() {
             public SteamPacket answer(InvocationOnMock invocationOnMock) throws Throwable {
-                ((GameServer) invocationOnMock.getMock()).playerHash = new HashMap<>();
+                ((GameServer) invocationOnMock.getMock()).players = mock(PlayerList.class);
                 return null;
             }
         }).when(this.server).updatePlayers(null);
@@ -187,7 +201,7 @@ public class GameServerTest {
     public void testCacheRules() throws Exception {
         doAnswer(new Answer<Object>() {
             public SteamPacket answer(InvocationOnMock invocationOnMock) throws Throwable {
-                ((GameServer) invocationOnMock.getMock()).rulesHash = new HashMap<>();
+                ((GameServer) invocationOnMock.getMock()).rules = mock(ServerRules.class);
                 return null;
             }
         }).when(this.server).updateRules();
@@ -202,7 +216,7 @@ public class GameServerTest {
     public void testCacheServerInfo() throws Exception {
         doAnswer(new Answer<Object>() {
             public SteamPacket answer(InvocationOnMock invocationOnMock) throws Throwable {
-                ((GameServer) invocationOnMock.getMock()).serverInfo = new HashMap<>();
+                ((GameServer) invocationOnMock.getMock()).info = mock(ServerInfo.class);
                 return null;
             }
         }).when(this.server).updateServerInfo();
@@ -217,12 +231,7 @@ public class GameServerTest {
     public void testPlayerInfoSourceWithPassword() throws Exception {
         String status = this.readFixture("status_source");
 
-        SteamPlayer someone = mock(SteamPlayer.class);
-        SteamPlayer somebody = mock(SteamPlayer.class);
-        HashMap<String, SteamPlayer> playerMap = new HashMap<>();
-        playerMap.put("someone", someone);
-        playerMap.put("somebody", somebody);
-        this.server.playerHash = playerMap;
+        this.server.players = new PlayerList(new int[] { 0, 1 }, new String[] { "someone", "somebody" }, new int[] { 10, 3 }, new float[] { 232, 162 }, 2);
 
         doNothing().when(this.server).handleResponseForRequest(GameServer.REQUEST_PLAYER);
         when(this.server.rconExec("status")).thenReturn(status);
@@ -255,20 +264,18 @@ public class GameServerTest {
         this.server.updatePlayers("password");
 
         verify(this.server).rconAuth("password");
-        verify(someone).addInformation(someoneData);
-        verify(somebody).addInformation(somebodyData);
+        assertEquals(1, this.server.players.get(0).getConnectionId());
+        assertEquals("STEAM_0:0:123456", this.server.players.get(0).getSteamId());
+        assertEquals(2, this.server.players.get(1).getConnectionId());
+        assertEquals("STEAM_0:0:123457", this.server.players.get(1).getSteamId());
+        assertEquals(34, this.server.getPlayers().get("somebody").getPing());
     }
 
     @Test
     public void testPlayerInfoSourceAuthenticated() throws Exception {
         String status = this.readFixture("status_source");
 
-        SteamPlayer someone = mock(SteamPlayer.class);
-        SteamPlayer somebody = mock(SteamPlayer.class);
-        HashMap<String, SteamPlayer> playerMap = new HashMap<>();
-        playerMap.put("someone", someone);
-        playerMap.put("somebody", somebody);
-        this.server.playerHash = playerMap;
+        this.server.players = new PlayerList(new int[] { 0, 1 }, new String[] { "someone", "somebody" }, new int[] { 10, 3 }, new float[] { 232, 162 }, 2);
         this.server.rconAuthenticated = true;
 
         doNothing().when(this.server).handleResponseForRequest(GameServer.REQUEST_PLAYER);
@@ -301,20 +308,18 @@ public class GameServerTest {
 
         this.server.updatePlayers();
 
-        verify(someone).addInformation(someoneData);
-        verify(somebody).addInformation(somebodyData);
+        assertEquals(1, this.server.players.get(0).getConnectionId());
+        assertEquals("STEAM_0:0:123456", this.server.players.get(0).getSteamId());
+        assertEquals(2, this.server.players.get(1).getConnectionId());
+        assertEquals("STEAM_0:0:123457", this.server.players.get(1).getSteamId());
+        assertEquals(34, this.server.getPlayers().get("somebody").getPing());
     }
 
     @Test
     public void testPlayerInfoGoldSrcWithPassword() throws Exception {
         String status = this.readFixture("status_goldsrc");
 
-        SteamPlayer someone = mock(SteamPlayer.class);
-        SteamPlayer somebody = mock(SteamPlayer.class);
-        HashMap<String, SteamPlayer> playerMap = new HashMap<>();
-        playerMap.put("someone", someone);
-        playerMap.put("somebody", somebody);
-        this.server.playerHash = playerMap;
+        this.server.players = new PlayerList(new int[] { 0, 1 }, new String[] { "someone", "somebody" }, new int[] { 10, 3 }, new float[] { 232, 162 }, 2);
 
         doNothing().when(this.server).handleResponseForRequest(GameServer.REQUEST_PLAYER);
         when(this.server.rconExec("status")).thenReturn(status);
@@ -327,7 +332,7 @@ public class GameServerTest {
         someoneData.put("time", "3:52");
         someoneData.put("ping", "12");
         someoneData.put("loss", "0");
-        someoneData.put("adr", "0");
+        someoneData.put("adr", "127.0.0.1:27005");
         HashMap<String, String> somebodyData = new HashMap<>();
         somebodyData.put("name", "somebody");
         somebodyData.put("userid", "2");
@@ -336,7 +341,7 @@ public class GameServerTest {
         somebodyData.put("time", "2:42");
         somebodyData.put("ping", "34");
         somebodyData.put("loss", "0");
-        somebodyData.put("adr", "0");
+        somebodyData.put("adr", "127.0.0.1:27005");
 
         mockStatic(GameServer.class);
         ArrayList<String> attributes = new ArrayList<>();
@@ -347,8 +352,11 @@ public class GameServerTest {
         this.server.updatePlayers("password");
 
         verify(this.server).rconAuth("password");
-        verify(someone).addInformation(someoneData);
-        verify(somebody).addInformation(somebodyData);
+        assertEquals(1, this.server.players.get(0).getConnectionId());
+        assertEquals("STEAM_0:0:123456", this.server.players.get(0).getSteamId());
+        assertEquals(2, this.server.players.get(1).getConnectionId());
+        assertEquals("STEAM_0:0:123457", this.server.players.get(1).getSteamId());
+        assertEquals(34, this.server.getPlayers().get("somebody").getPing());
     }
 
     @Test
@@ -363,69 +371,149 @@ public class GameServerTest {
         verify(this.server).sendRequest(any(A2S_PLAYER_Packet.class));
     }
 
+    @Test
+    public void testHandleInfoRequestsWithChallenge() throws Exception {
+        S2C_CHALLENGE_Packet challengePacket = mock(S2C_CHALLENGE_Packet.class);
+        when(challengePacket.getChallengeNumber()).thenReturn(1234);
+        S2A_INFO2_Packet infoPacket = mock(S2A_INFO2_Packet.class);
+        when(server.getReply()).thenReturn(challengePacket).thenReturn(infoPacket);
+
+        this.server.handleResponseForRequest(GameServer.REQUEST_INFO);
+
+        assertEquals(1234, this.server.challengeManager.get(new InetSocketAddress("127.0.0.1", 27015)));
+        verify(this.server, times(2)).sendRequest(any(A2S_INFO_Packet.class));
+    }
+
     @Test
     public void testHandleInfoRequests() throws Exception {
         S2A_INFO2_Packet packet = mock(S2A_INFO2_Packet.class);
+        ServerInfo serverInfo = mock(ServerInfo.class);
         HashMap<String, Object> infoMap = new HashMap<>();
         infoMap.put("test", "test");
-        when(packet.getInfo()).thenReturn(infoMap);
+        when(serverInfo.toMap()).thenReturn(infoMap);
+        when(packet.getServerInfo()).thenReturn(serverInfo);
         when(server.getReply()).thenReturn(packet);
 
         this.server.handleResponseForRequest(GameServer.REQUEST_INFO);
 
-        assertEquals("test", this.server.serverInfo.get("test"));
+        assertEquals(serverInfo, this.server.getTypedServerInfo());
+        assertEquals("test", this.server.getServerInfo().get("test"));
         verify(this.server).sendRequest(any(A2S_INFO_Packet.class));
     }
 
     @Test
     public void testHandleRulesRequests() throws Exception {
         S2A_RULES_Packet packet = mock(S2A_RULES_Packet.class);
-        HashMap<String, String> rulesMap = new HashMap<>();
-        rulesMap.put("test", "test");
-        when(packet.getRulesHash()).thenReturn(rulesMap);
+        ServerRules rules = new ServerRules(new String[] { "test" }, new String[] { "test" }, 1);
+        when(packet.getRules()).thenReturn(rules);
         when(server.getReply()).thenReturn(packet);
 
         this.server.handleResponseForRequest(GameServer.REQUEST_RULES);
 
-        assertEquals("test", this.server.rulesHash.get("test"));
+        assertEquals(rules, this.server.getServerRules());
+        assertEquals("test", this.server.getRules().get("test"));
         verify(this.server).sendRequest(any(A2S_RULES_Packet.class));
     }
 
     @Test
     public void testHandlePlayerRequests() throws Exception {
-        SteamPlayer player = mock(SteamPlayer.class);
+        PlayerList players = mock(PlayerList.class);
         S2A_PLAYER_Packet packet = mock(S2A_PLAYER_Packet.class);
-        HashMap<String, SteamPlayer> playerMap = new HashMap<>();
-        playerMap.put("test", player);
-        when(packet.getPlayerHash()).thenReturn(playerMap);
+        when(packet.getPlayerList()).thenReturn(players);
         when(server.getReply()).thenReturn(packet);
 
         this.server.handleResponseForRequest(GameServer.REQUEST_PLAYER);
 
-        assertEquals(player, this.server.playerHash.get("test"));
+        assertEquals(players, this.server.players);
         verify(this.server).sendRequest(any(A2S_PLAYER_Packet.class));
     }
 
     @Test
     public void testHandleUnexpectedResponses() throws Exception {
         S2A_INFO2_Packet packet1 = mock(S2A_INFO2_Packet.class);
-        HashMap<String, Object> infoMap = new HashMap<>();
-        infoMap.put("test", "test");
-        when(packet1.getInfo()).thenReturn(infoMap);
-        SteamPlayer player = mock(SteamPlayer.class);
+        ServerInfo serverInfo = mock(ServerInfo.class);
+        when(packet1.getServerInfo()).thenReturn(serverInfo);
+        PlayerList players = mock(PlayerList.class);
         S2A_PLAYER_Packet packet2 = mock(S2A_PLAYER_Packet.class);
-        HashMap<String, SteamPlayer> playerMap = new HashMap<>();
-        playerMap.put("test", player);
-        when(packet2.getPlayerHash()).thenReturn(playerMap);
+        when(packet2.getPlayerList()).thenReturn(players);
         when(server.getReply()).thenReturn(packet1).thenReturn(packet2);
 
         this.server.handleResponseForRequest(GameServer.REQUEST_PLAYER);
 
-        assertEquals("test", this.server.serverInfo.get("test"));
-        assertEquals(player, this.server.playerHash.get("test"));
+        assertEquals(serverInfo, this.server.info);
+        assertEquals(players, this.server.players);
         verify(this.server, times(2)).sendRequest(any(A2S_PLAYER_Packet.class));
     }
 
+    @Test
+    public void testRefreshAll() throws Exception {
+        S2A_INFO2_Packet infoPacket = mock(S2A_INFO2_Packet.class);
+        ServerInfo serverInfo = mock(ServerInfo.class);
+        when(infoPacket.getServerInfo()).thenReturn(serverInfo);
+        PlayerList players = mock(PlayerList.class);
+        S2A_PLAYER_Packet playerPacket = mock(S2A_PLAYER_Packet.class);
+        when(playerPacket.getPlayerList()).thenReturn(players);
+        ServerRules rules = mock(ServerRules.class);
+        S2A_RULES_Packet rulesPacket = mock(S2A_RULES_Packet.class);
+        when(rulesPacket.getRules()).thenReturn(rules);
+        when(server.getReply()).thenReturn(rulesPacket).thenReturn(infoPacket).thenReturn(playerPacket);
+
+        this.server.refreshAll();
+
+        assertEquals(serverInfo, this.server.info);
+        assertEquals(players, this.server.players);
+        assertEquals(rules, this.server.rules);
+        assertThat(this.server.ping, is(greaterThanOrEqualTo(0)));
+        verify(this.server).sendRequest(any(A2S_INFO_Packet.class));
+        verify(this.server).sendRequest(any(A2S_PLAYER_Packet.class));
+        verify(this.server).sendRequest(any(A2S_RULES_Packet.class));
+    }
+
+    @Test
+    public void testRefreshAllWithNewChallenge() throws Exception {
+        S2C_CHALLENGE_Packet challengePacket = mock(S2C_CHALLENGE_Packet.class);
+        when(challengePacket.getChallengeNumber()).thenReturn(1234);
+        S2A_INFO2_Packet infoPacket = mock(S2A_INFO2_Packet.class);
+        S2A_PLAYER_Packet playerPacket = mock(S2A_PLAYER_Packet.class);
+        S2A_RULES_Packet rulesPacket = mock(S2A_RULES_Packet.class);
+        when(server.getReply()).thenReturn(infoPacket)
+            .thenReturn(challengePacket)
+            .thenReturn(challengePacket)
+            .thenReturn(playerPacket)
+            .thenReturn(rulesPacket);
+
+        this.server.refreshAll();
+
+        assertEquals(1234, this.server.challengeNumber);
+        verify(this.server).sendRequest(any(A2S_INFO_Packet.class));
+        verify(this.server, times(2)).sendRequest(any(A2S_PLAYER_Packet.class));
+        verify(this.server, times(2)).sendRequest(any(A2S_RULES_Packet.class));
+    }
+
+    @Test
+    public void testGetSocketReopensClosedSocket() throws Exception {
+        final QuerySocket newSocket = mock(QuerySocket.class);
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) {
+                server.socket = newSocket;
+                return null;
+            }
+        }).when(this.server).initSocket();
+        SocketPool socketPool = new SocketPool(10, 0);
+        this.server.socketPool = socketPool;
+        when(this.socket.isClosed()).thenReturn(true);
+
+        assertThat(this.server.getSocket(), is(newSocket));
+        assertThat(this.server.getSocket(), is(newSocket));
+        assertEquals(1, socketPool.size());
+        verify(this.server, times(1)).initSocket();
+
+        this.server.disconnect();
+
+        assertEquals(0, socketPool.size());
+        verify(newSocket).close();
+    }
+
     private String readFixture(String fixture) throws IOException {
         BufferedReader reader = new BufferedReader(new InputStreamReader(this.getClass().getResourceAsStream(fixture)));
         String result = "";
@@ -436,6 +524,33 @@ public class GameServerTest {
         return result;
     }
 
+    @Test
+    public void testPendingRepliesKeepPooledSocket() throws Exception {
+        SocketPool socketPool = new SocketPool(1, 0);
+        this.server.socketPool = socketPool;
+        when(this.socket.getReply()).thenReturn(mock(SteamPacket.class));
+
+        this.server.sendRequest(mock(SteamPacket.class));
+        this.server.sendRequest(mock(SteamPacket.class));
+        this.server.getReply();
+        socketPool.touch(mock(QuerySocket.class));
+
+        verify(this.socket, never()).close();
+
+        this.server.getReply();
+        socketPool.touch(mock(QuerySocket.class));
+
+        verify(this.socket).close();
+    }
+
+    @Test
+    public void testRttEstimatorWithoutSocket() throws Exception {
+        this.server.socket = null;
+
+        assertEquals(0, this.server.getRttEstimator().getSamples());
+        verify(this.server, never()).initSocket();
+    }
+
     class GenericGameServer extends GameServer {
 
         public GenericGameServer() throws SteamCondenserException, UnknownHostException {
@@ -0,0 +1,221 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.servers.sockets.SteamSocket;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class MasterServerCrawlTest {
+
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private FakeMaster master1;
+
+    private FakeMaster master2;
+
+    private MasterServer server;
+
+    @Before
+    public void setup() throws Exception {
+        SteamSocket.setTimeout(100);
+        MasterServer.setRetries(2);
+
+        this.master1 = new FakeMaster(InetAddress.getByName("127.0.0.1"), 0);
+        int port = this.master1.channel.socket().getLocalPort();
+        this.master2 = new FakeMaster(InetAddress.getByName("127.0.0.2"), port);
+        this.master1.start();
+        this.master2.start();
+
+        this.server = new MasterServer(InetAddress.getByName("127.0.0.1"), port);
+        this.server.ipAddresses.add(InetAddress.getByName("127.0.0.2"));
+    }
+
+    @After
+    public void teardown() throws Exception {
+        SteamSocket.setTimeout(1000);
+        MasterServer.setRetries(3);
+        this.master1.channel.close();
+        this.master2.channel.close();
+    }
+
+    @Test
+    public void testCrawl() throws Exception {
+        final List<Long> streamed = new ArrayList<>();
+        byte[] regions = new byte[] { MasterServer.REGION_EUROPE, MasterServer.REGION_ASIA, MasterServer.REGION_AFRICA };
+
+        ServerAddressSet servers = this.server.streamServersAsync(regions, "", new ServerBatchListener() {
+            public void onBatch(ServerAddressList batch) {
+                for (int i = 0; i < batch.size(); i ++) {
+                    streamed.add(batch.get(i));
+                }
+            }
+        }, DIRECT).get(5, TimeUnit.SECONDS);
+
+        assertThat(servers.size(), is(7));
+        assertThat(streamed.size(), is(7));
+        assertTrue(servers.contains(ServerAddressList.pack(0x0A090909, 27015)));
+        assertTrue(servers.contains(ServerAddressList.pack(0x0A000103, 27015)));
+        assertTrue(servers.contains(ServerAddressList.pack(0x0A000107, 27015)));
+        assertTrue(this.master1.requests > 0);
+        assertTrue(this.master2.requests > 0);
+    }
+
+    @Test
+    public void testCrawlWithSilentAddress() throws Exception {
+        this.master2.silent = true;
+        byte[] regions = new byte[] { MasterServer.REGION_EUROPE, MasterServer.REGION_ASIA };
+
+        Set<InetSocketAddress> servers = this.server.getServersAsync(regions, "", DIRECT).get(5, TimeUnit.SECONDS);
+
+        assertThat(servers.size(), is(5));
+        assertTrue(servers.contains(new InetSocketAddress("10.0.0.4", 27015)));
+    }
+
+    @Test
+    public void testCrawlWithoutReplies() throws Exception {
+        this.master1.silent = true;
+        this.master2.silent = true;
+
+        QueryFuture<ServerAddressSet> future = this.server.streamServersAsync(new byte[] { MasterServer.REGION_EUROPE }, "", null, DIRECT);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+    }
+
+    @Test
+    public void testCrawlWithDuplicateReplies() throws Exception {
+        this.master1.duplicate = true;
+        this.master2.duplicate = true;
+        final List<Long> streamed = new ArrayList<>();
+        byte[] regions = new byte[] { MasterServer.REGION_EUROPE, MasterServer.REGION_ASIA, MasterServer.REGION_AFRICA };
+
+        ServerAddressSet servers = this.server.streamServersAsync(regions, "", new ServerBatchListener() {
+            public void onBatch(ServerAddressList batch) {
+                for (int i = 0; i < batch.size(); i ++) {
+                    streamed.add(batch.get(i));
+                }
+            }
+        }, DIRECT).get(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+
+        assertThat(servers.size(), is(7));
+        assertThat(streamed.size(), is(7));
+        assertThat(this.master1.requests + this.master2.requests, is(6));
+    }
+
+    @Test
+    public void testStreamWithDuplicateReplies() throws Exception {
+        this.master1.duplicate = true;
+        final List<Long> streamed = new ArrayList<>();
+
+        this.server.streamServersAsync(MasterServer.REGION_EUROPE, "", new ServerBatchListener() {
+            public void onBatch(ServerAddressList batch) {
+                for (int i = 0; i < batch.size(); i ++) {
+                    streamed.add(batch.get(i));
+                }
+            }
+        }, DIRECT).get(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+
+        assertThat(streamed.size(), is(3));
+        assertThat(this.master1.requests, is(2));
+    }
+
+    class FakeMaster extends Thread {
+
+        DatagramChannel channel;
+
+        volatile boolean duplicate;
+
+        volatile int requests;
+
+        volatile boolean silent;
+
+        FakeMaster(InetAddress address, int port) throws Exception {
+            this.channel = DatagramChannel.open();
+            this.channel.bind(new InetSocketAddress(address, port));
+            this.setDaemon(true);
+        }
+
+        public void run() {
+            ByteBuffer request = ByteBuffer.allocate(1400);
+            try {
+                while (true) {
+                    request.clear();
+                    SocketAddress client = this.channel.receive(request);
+                    request.flip();
+                    request.get();
+                    int region = request.get();
+                    int end = request.position();
+                    while (request.get(end) != 0) {
+                        end ++;
+                    }
+                    String lastServer = new String(request.array(), request.position(), end - request.position(), StandardCharsets.UTF_8);
+
+                    if (this.silent) {
+                        continue;
+                    }
+                    this.requests ++;
+
+                    ByteBuffer reply = ByteBuffer.allocate(24);
+                    reply.putInt(-1);
+                    reply.put((byte) 0x66);
+                    reply.put((byte) 0x0A);
+                    if (lastServer.equals("0.0.0.0:0")) {
+                        reply.putInt(0x0A000000 + region).putShort((short) 27015);
+                        reply.putInt(0x0A090909).putShort((short) 27015);
+                    } else {
+                        reply.putInt(0x0A000100 + region).putShort((short) 27015);
+                        reply.putInt(0).putShort((short) 0);
+                    }
+                    reply.flip();
+                    this.channel.send(reply, client);
+                    if (this.duplicate) {
+                        reply.rewind();
+                        this.channel.send(reply, client);
+                    }
+                }
+            } catch (Exception ignored) {}
+        }
+
+    }
+
+}
@@ -7,13 +7,16 @@
 
 package com.github.koraktor.steamcondenser.servers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.Vector;
 import java.util.concurrent.TimeoutException;
 
 import org.junit.Before;
@@ -55,16 +58,16 @@ public class MasterServerTest {
     @Test
     public void testGetServers() throws Exception {
         M2A_SERVER_BATCH_Packet packet1 = mock(M2A_SERVER_BATCH_Packet.class);
-        Vector<String> servers1 = new Vector<>();
-        servers1.add("127.0.0.1:27015");
-        servers1.add("127.0.0.2:27015");
-        servers1.add("127.0.0.3:27015");
-        when(packet1.getServers()).thenReturn(servers1);
+        ServerAddressList servers1 = new ServerAddressList();
+        servers1.add(pack("127.0.0.1:27015"));
+        servers1.add(pack("127.0.0.2:27015"));
+        servers1.add(pack("127.0.0.3:27015"));
+        when(packet1.getAddresses()).thenReturn(servers1);
         M2A_SERVER_BATCH_Packet packet2 = mock(M2A_SERVER_BATCH_Packet.class);
-        Vector<String> servers2 = new Vector<>();
-        servers2.add("127.0.0.4:27015");
-        servers2.add("0.0.0.0:0");
-        when(packet2.getServers()).thenReturn(servers2);
+        ServerAddressList servers2 = new ServerAddressList();
+        servers2.add(pack("127.0.0.4:27015"));
+        servers2.add(pack("0.0.0.0:0"));
+        when(packet2.getAddresses()).thenReturn(servers2);
         when(server.socket.getReply()).thenReturn(packet1).thenReturn(packet2);
 
         Set<InetSocketAddress> servers = new HashSet<>();
@@ -81,16 +84,89 @@ public class MasterServerTest {
                 send(argThat(matchesPacketBytes("\u0031\u0003127.0.0.3:27015\0filter\0")));
     }
 
+    @Test
+    public void testStreamServers() throws Exception {
+        M2A_SERVER_BATCH_Packet packet1 = mock(M2A_SERVER_BATCH_Packet.class);
+        ServerAddressList servers1 = new ServerAddressList();
+        servers1.add(pack("127.0.0.1:27015"));
+        servers1.add(pack("127.0.0.2:27015"));
+        when(packet1.getAddresses()).thenReturn(servers1);
+        M2A_SERVER_BATCH_Packet packet2 = mock(M2A_SERVER_BATCH_Packet.class);
+        ServerAddressList servers2 = new ServerAddressList();
+        servers2.add(pack("127.0.0.3:27015"));
+        servers2.add(pack("0.0.0.0:0"));
+        when(packet2.getAddresses()).thenReturn(servers2);
+        when(server.socket.getReply()).thenReturn(packet1).thenReturn(packet2);
+
+        final List<List<InetSocketAddress>> batches = new ArrayList<>();
+        server.streamServers(MasterServer.REGION_EUROPE, "filter", false, new ServerBatchListener() {
+            public void onBatch(ServerAddressList servers) {
+                batches.add(servers.toSocketAddresses());
+            }
+        });
+
+        assertThat(batches.size(), is(2));
+        assertThat(batches.get(0), is(equalTo(Arrays.asList(
+            new InetSocketAddress("127.0.0.1", 27015),
+            new InetSocketAddress("127.0.0.2", 27015)))));
+        assertThat(batches.get(1), is(equalTo(Arrays.asList(
+            new InetSocketAddress("127.0.0.3", 27015)))));
+    }
+
+    @Test
+    public void testCrawlResume() throws Exception {
+        MasterServer.setRetries(1);
+
+        M2A_SERVER_BATCH_Packet packet1 = mock(M2A_SERVER_BATCH_Packet.class);
+        ServerAddressList servers1 = new ServerAddressList();
+        servers1.add(pack("127.0.0.1:27015"));
+        servers1.add(pack("127.0.0.2:27015"));
+        when(packet1.getAddresses()).thenReturn(servers1);
+        M2A_SERVER_BATCH_Packet packet2 = mock(M2A_SERVER_BATCH_Packet.class);
+        ServerAddressList servers2 = new ServerAddressList();
+        servers2.add(pack("127.0.0.3:27015"));
+        servers2.add(pack("0.0.0.0:0"));
+        when(packet2.getAddresses()).thenReturn(servers2);
+        when(server.socket.getReply())
+            .thenReturn(packet1)
+            .thenThrow(new TimeoutException())
+            .thenReturn(packet2);
+
+        MasterServerSession session = new MasterServerSession(MasterServer.REGION_EUROPE, "filter");
+        session.setBackoff(1, 1);
+        session.setRequestRate(1000);
+        try {
+            server.crawl(session, null);
+            fail();
+        } catch (TimeoutException ignored) {}
+
+        assertThat(session.isFinished(), is(false));
+        assertThat(session.getLastServer(), is(pack("127.0.0.2:27015")));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        session.save(output);
+        session = MasterServerSession.load(new ByteArrayInputStream(output.toByteArray()));
+
+        assertThat(session.getServers().size(), is(2));
+        assertThat(server.crawl(session, null).size(), is(3));
+        assertThat(session.isFinished(), is(true));
+
+        verify(server.socket).
+                send(argThat(matchesPacketBytes("\u0031\u00030.0.0.0:0\0filter\0")));
+        verify(server.socket, times(2)).
+                send(argThat(matchesPacketBytes("\u0031\u0003127.0.0.2:27015\0filter\0")));
+    }
+
     @Test
     public void testGetServersForced() throws Exception {
         MasterServer.setRetries(1);
 
         M2A_SERVER_BATCH_Packet packet1 = mock(M2A_SERVER_BATCH_Packet.class);
-        Vector<String> servers1 = new Vector<>();
-        servers1.add("127.0.0.1:27015");
-        servers1.add("127.0.0.2:27015");
-        servers1.add("127.0.0.3:27015");
-        when(packet1.getServers()).thenReturn(servers1);
+        ServerAddressList servers1 = new ServerAddressList();
+        servers1.add(pack("127.0.0.1:27015"));
+        servers1.add(pack("127.0.0.2:27015"));
+        servers1.add(pack("127.0.0.3:27015"));
+        when(packet1.getAddresses()).thenReturn(servers1);
         when(server.socket.getReply()).thenReturn(packet1).thenThrow(new TimeoutException());
 
         Set<InetSocketAddress> servers = new HashSet<>();
@@ -109,16 +185,16 @@ public class MasterServerTest {
     @Test
     public void testGetServersSwapIp() throws Exception {
         M2A_SERVER_BATCH_Packet packet1 = mock(M2A_SERVER_BATCH_Packet.class);
-        Vector<String> servers1 = new Vector<>();
-        servers1.add("127.0.0.1:27015");
-        servers1.add("127.0.0.2:27015");
-        servers1.add("127.0.0.3:27015");
-        when(packet1.getServers()).thenReturn(servers1);
+        ServerAddressList servers1 = new ServerAddressList();
+        servers1.add(pack("127.0.0.1:27015"));
+        servers1.add(pack("127.0.0.2:27015"));
+        servers1.add(pack("127.0.0.3:27015"));
+        when(packet1.getAddresses()).thenReturn(servers1);
         M2A_SERVER_BATCH_Packet packet2 = mock(M2A_SERVER_BATCH_Packet.class);
-        Vector<String> servers2 = new Vector<>();
-        servers2.add("127.0.0.4:27015");
-        servers2.add("0.0.0.0:0");
-        when(packet2.getServers()).thenReturn(servers2);
+        ServerAddressList servers2 = new ServerAddressList();
+        servers2.add(pack("127.0.0.4:27015"));
+        servers2.add(pack("0.0.0.0:0"));
+        when(packet2.getAddresses()).thenReturn(servers2);
         when(server.socket.getReply())
             .thenReturn(packet1)
             .thenThrow(new TimeoutException())
@@ -159,6 +235,11 @@ public class MasterServerTest {
                 send(argThat(matchesPacketBytes(new byte[] { 0x31, (byte) 0xFF, 0x30, 0x2E, 0x30, 0x2E, 0x30, 0x2E, 0x30, 0x3a, 0x30, 0x00, 0x00 })));
     }
 
+    private static long pack(String server) {
+        int colon = server.lastIndexOf(':');
+        return ServerAddressList.pack(new InetSocketAddress(server.substring(0, colon), Integer.parseInt(server.substring(colon + 1))));
+    }
+
     private static A2M_GET_SERVERS_BATCH2_PacketMatcher matchesPacketBytes(String byteString) {
         return new A2M_GET_SERVERS_BATCH2_PacketMatcher(byteString.getBytes());
     }
@@ -0,0 +1,130 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.servers.packets.S2A_PLAYER_Packet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class PlayerListTest {
+
+    @Test
+    public void testDuplicateNames() throws Exception {
+        ByteBuffer data = ByteBuffer.allocate(64);
+        data.put((byte) 3);
+        this.putPlayer(data, 0, "unnamed", 5, 10.0f);
+        this.putPlayer(data, 1, "someone", 3, 20.0f);
+        this.putPlayer(data, 2, "unnamed", 7, 30.0f);
+        data.flip();
+
+        S2A_PLAYER_Packet packet = new S2A_PLAYER_Packet(data);
+        PlayerList players = packet.getPlayerList();
+
+        assertEquals(3, players.size());
+        assertEquals("unnamed", players.getName(0));
+        assertEquals(5, players.getScore(0));
+        assertEquals("someone", players.getName(1));
+        assertEquals("unnamed", players.getName(2));
+        assertEquals(2, players.getId(2));
+        assertEquals(30.0f, players.getConnectTime(2), 0);
+
+        assertEquals(2, packet.getPlayerHash().size());
+        assertEquals(7, packet.getPlayerHash().get("unnamed").getScore());
+    }
+
+    @Test
+    public void testIterator() {
+        PlayerList players = this.createPlayerList();
+
+        Iterator<PlayerList.Player> iterator = players.iterator();
+        PlayerList.Player player = iterator.next();
+        assertEquals(0, player.getRow());
+        assertEquals("unnamed", player.getName());
+        assertEquals(1.0f, player.getConnectTime(), 0);
+        assertFalse(player.isExtended());
+        assertNull(player.getSteamId());
+
+        assertEquals("someone", iterator.next().getName());
+        assertEquals(7, iterator.next().getScore());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testAddInformationWithDuplicateNames() throws Exception {
+        PlayerList players = this.createPlayerList();
+
+        List<Map<String, String>> playerData = new ArrayList<>();
+        playerData.add(this.statusRow("3", "unnamed", "STEAM_0:0:3"));
+        playerData.add(this.statusRow("4", "someone", "STEAM_0:0:4"));
+        playerData.add(this.statusRow("5", "unnamed", "STEAM_0:0:5"));
+        players.addInformation(playerData);
+
+        assertEquals(3, players.get(0).getConnectionId());
+        assertEquals("STEAM_0:0:3", players.get(0).getSteamId());
+        assertEquals(4, players.get(1).getConnectionId());
+        assertEquals(5, players.get(2).getConnectionId());
+        assertEquals("STEAM_0:0:5", players.get(2).getSteamId());
+        assertTrue(players.get(2).toSteamPlayer().isExtended());
+        assertEquals(12, players.get(2).getPing());
+    }
+
+    @Test
+    public void testAddInformationOutOfOrder() throws Exception {
+        PlayerList players = this.createPlayerList();
+
+        List<Map<String, String>> playerData = new ArrayList<>();
+        playerData.add(this.statusRow("4", "someone", "STEAM_0:0:4"));
+        playerData.add(this.statusRow("3", "unnamed", "STEAM_0:0:3"));
+        playerData.add(this.statusRow("6", "unknown", "STEAM_0:0:6"));
+        playerData.add(this.statusRow("2", "unnamed", "STEAM_0:0:2"));
+        players.addInformation(playerData);
+
+        assertEquals(2, players.get(0).getConnectionId());
+        assertEquals(4, players.get(1).getConnectionId());
+        assertEquals(3, players.get(2).getConnectionId());
+    }
+
+    private PlayerList createPlayerList() {
+        return new PlayerList(new int[] { 0, 1, 2 }, new String[] { "unnamed", "someone", "unnamed" }, new int[] { 5, 3, 7 }, new float[] { 1.0f, 2.0f, 3.0f }, 3);
+    }
+
+    private void putPlayer(ByteBuffer data, int id, String name, int score, float connectTime) {
+        data.put((byte) id);
+        data.put(name.getBytes());
+        data.put((byte) 0);
+        data.putInt(Integer.reverseBytes(score));
+        data.putInt(Integer.reverseBytes(Float.floatToIntBits(connectTime)));
+    }
+
+    private Map<String, String> statusRow(String userId, String name, String steamId) {
+        Map<String, String> statusRow = new HashMap<>();
+        statusRow.put("userid", userId);
+        statusRow.put("name", name);
+        statusRow.put("uniqueid", steamId);
+        statusRow.put("ping", "12");
+        statusRow.put("loss", "0");
+
+        return statusRow;
+    }
+
+}
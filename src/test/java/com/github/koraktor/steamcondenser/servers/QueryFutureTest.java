@@ -0,0 +1,136 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class QueryFutureTest {
+
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCallbacks() throws Exception {
+        QueryFuture<String> future = new QueryFuture<>(DIRECT);
+        QueryCallback<String> callback = mock(QueryCallback.class);
+        future.addCallback(callback);
+
+        assertTrue(future.complete("result"));
+        assertFalse(future.fail(new Exception()));
+
+        verify(callback).onSuccess("result");
+        assertEquals("result", future.get());
+        assertTrue(future.isDone());
+
+        QueryCallback<String> lateCallback = mock(QueryCallback.class);
+        future.addCallback(lateCallback);
+        verify(lateCallback).onSuccess("result");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCancel() throws Exception {
+        QueryFuture<String> future = new QueryFuture<>(DIRECT);
+        QueryCallback<String> callback = mock(QueryCallback.class);
+        Runnable cancelHandler = mock(Runnable.class);
+        future.addCallback(callback);
+        future.setCancelHandler(cancelHandler);
+
+        assertTrue(future.cancel(true));
+        assertFalse(future.complete("result"));
+        assertFalse(future.cancel(true));
+
+        assertTrue(future.isCancelled());
+        verify(cancelHandler).run();
+        try {
+            future.get();
+            fail();
+        } catch (CancellationException ignored) {}
+    }
+
+    @Test
+    public void testFail() throws Exception {
+        QueryFuture<String> future = new QueryFuture<>(DIRECT);
+        TimeoutException error = new TimeoutException();
+        future.fail(error);
+
+        assertFalse(future.isCancelled());
+        try {
+            future.get(1, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+    }
+
+    @Test
+    public void testGetTimeout() throws Exception {
+        try {
+            new QueryFuture<String>(DIRECT).get(1, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (TimeoutException ignored) {}
+    }
+
+    @Test
+    public void testSubmitInterruptedOnCancel() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        try {
+            QueryFuture<String> future = QueryFuture.submit(new Callable<String>() {
+                public String call() throws Exception {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return "result";
+                }
+            }, executor);
+
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+            future.cancel(true);
+
+            assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+            assertTrue(future.isCancelled());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.servers.packets.M2A_SERVER_BATCH_Packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class ServerAddressListTest {
+
+    @Test
+    public void testPack() {
+        long address = ServerAddressList.pack(new InetSocketAddress("192.168.0.254", 27015));
+
+        assertThat(address, is(0xC0A800FE6987L));
+        assertThat(ServerAddressList.getIp(address), is(0xC0A800FE));
+        assertThat(ServerAddressList.getPort(address), is(27015));
+        assertThat(ServerAddressList.toString(address), is(equalTo("192.168.0.254:27015")));
+        assertThat(ServerAddressList.toSocketAddress(address), is(equalTo(new InetSocketAddress("192.168.0.254", 27015))));
+    }
+
+    @Test
+    public void testList() {
+        ServerAddressList list = new ServerAddressList(1);
+        list.add(ServerAddressList.pack(0x7F000001, 27015));
+        list.add(ServerAddressList.pack(0x7F000002, 27016));
+
+        assertThat(list.size(), is(2));
+        assertThat(list.toString(), is(equalTo("[127.0.0.1:27015, 127.0.0.2:27016]")));
+        assertThat(list.toSocketAddresses(), is(equalTo(Arrays.asList(
+            new InetSocketAddress("127.0.0.1", 27015),
+            new InetSocketAddress("127.0.0.2", 27016)))));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetInvalidIndex() {
+        new ServerAddressList().get(0);
+    }
+
+    @Test
+    public void testSet() {
+        ServerAddressSet set = new ServerAddressSet();
+        for (int i = 1; i <= 1000; i ++) {
+            assertTrue(set.add(ServerAddressList.pack(0x7F000000 + i, 27015)));
+        }
+        assertFalse(set.add(ServerAddressList.pack(0x7F000001, 27015)));
+
+        assertThat(set.size(), is(1000));
+        assertTrue(set.contains(ServerAddressList.pack(0x7F0003E8, 27015)));
+        assertFalse(set.contains(ServerAddressList.pack(0x7F0003E9, 27015)));
+        assertThat(set.toList().size(), is(1000));
+        assertTrue(set.toSocketAddresses().contains(new InetSocketAddress("127.0.0.1", 27015)));
+    }
+
+    @Test
+    public void testDecodePacket() throws Exception {
+        byte[] data = new byte[] {
+            0x0A,
+            127, 0, 0, 1, 0x69, (byte) 0x87,
+            (byte) 192, (byte) 168, 0, (byte) 254, (byte) 0xFF, (byte) 0xFF,
+            0, 0, 0, 0, 0, 0
+        };
+        ServerAddressList addresses = new M2A_SERVER_BATCH_Packet(data).getAddresses();
+
+        assertThat(addresses.size(), is(3));
+        assertThat(addresses.get(0), is(ServerAddressList.pack(0x7F000001, 27015)));
+        assertThat(addresses.get(1), is(ServerAddressList.pack(0xC0A800FE, 65535)));
+        assertThat(addresses.get(2), is(0L));
+        assertThat(new HashSet<>(new M2A_SERVER_BATCH_Packet(data).getServers()), is(equalTo(new HashSet<>(Arrays.asList(
+            "127.0.0.1:27015", "192.168.0.254:65535", "0.0.0.0:0")))));
+    }
+
+}
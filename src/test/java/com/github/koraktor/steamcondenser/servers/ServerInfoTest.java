@@ -0,0 +1,113 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.servers.packets.S2A_INFO2_Packet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class ServerInfoTest {
+
+    @Test
+    public void testInfo2() throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(17);
+        data.write("name\0map\0dir\0description\0".getBytes());
+        data.write(new byte[] { (byte) 0xB8, 0x1, (byte) 200, (byte) 255, 3, 'd', 'l', 1, 0 });
+        data.write("1.0\0".getBytes());
+        data.write(0xA1);
+        data.write(new byte[] { (byte) 0x87, 0x69 });
+        data.write("tag1,tag2\0".getBytes());
+        data.write(new byte[] { (byte) 0xB8, 0x1, 0, 0, 0, 0, 0, 0 });
+
+        ServerInfo info = new S2A_INFO2_Packet(data.toByteArray()).getServerInfo();
+
+        assertEquals(17, info.getNetworkVersion());
+        assertEquals("name", info.getServerName());
+        assertEquals("map", info.getMapName());
+        assertEquals("dir", info.getGameDir());
+        assertEquals("description", info.getGameDescription());
+        assertEquals(440, info.getAppId());
+        assertEquals(200, info.getNumberOfPlayers());
+        assertEquals(255, info.getMaxPlayers());
+        assertEquals(3, info.getNumberOfBots());
+        assertEquals('d', info.getDedicated());
+        assertEquals('l', info.getOperatingSystem());
+        assertTrue(info.isPasswordProtected());
+        assertFalse(info.isSecure());
+        assertEquals("1.0", info.getGameVersion());
+        assertEquals(27015, info.getServerPort());
+        assertEquals("tag1,tag2", info.getServerTags());
+        assertEquals(440, info.getGameId());
+        assertEquals(0, info.getServerId());
+        assertEquals(-1, info.getTvPort());
+        assertNull(info.getTvName());
+        assertNull(info.getServerIp());
+
+        HashMap<String, Object> map = info.toMap();
+        assertEquals((short) 440, map.get("appId"));
+        assertEquals((byte) 200, map.get("numberOfPlayers"));
+        assertEquals((short) 27015, map.get("serverPort"));
+        assertEquals(440L, map.get("gameId"));
+        assertEquals(true, map.get("passwordProtected"));
+        assertFalse(map.containsKey("serverId"));
+    }
+
+    @Test
+    public void testDetailed() throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write("127.0.0.1:27015\0name\0map\0dir\0description\0".getBytes());
+        data.write(new byte[] { 5, 16, 47, 'd', 'w', 0, 1 });
+        data.write("info\0download\0".getBytes());
+        data.write(new byte[] { 0, 1, 0, 0, 0, 0, 0x10, 0, 0, 1, 0, 1, 2 });
+
+        ServerInfo info = new ServerInfo(ByteBuffer.wrap(data.toByteArray()), true);
+
+        assertEquals("127.0.0.1:27015", info.getServerIp());
+        assertEquals("map", info.getMapName());
+        assertEquals(5, info.getNumberOfPlayers());
+        assertEquals(16, info.getMaxPlayers());
+        assertEquals(47, info.getNetworkVersion());
+        assertEquals('w', info.getOperatingSystem());
+        assertTrue(info.isMod());
+        assertTrue(info.isSecure());
+        assertEquals(2, info.getNumberOfBots());
+        assertEquals(-1, info.getAppId());
+        assertNull(info.getGameVersion());
+
+        @SuppressWarnings("unchecked")
+        HashMap<String, Object> modInfo = (HashMap<String, Object>) info.toMap().get("modInfo");
+        assertEquals("download", modInfo.get("urlDl"));
+        assertEquals(1, modInfo.get("modVersion"));
+        assertEquals(0x1000, modInfo.get("modSize"));
+        assertEquals(true, modInfo.get("svOnly"));
+    }
+
+    @Test
+    public void testTruncated() {
+        ServerInfo info = new ServerInfo(ByteBuffer.wrap("\u0011name\0ma".getBytes()), false);
+
+        assertEquals("name", info.getServerName());
+        assertNull(info.getMapName());
+        assertEquals(-1, info.getAppId());
+        assertEquals(0, info.getNumberOfPlayers());
+    }
+
+}
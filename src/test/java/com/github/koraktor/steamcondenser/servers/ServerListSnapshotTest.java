@@ -0,0 +1,99 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class ServerListSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCreate() {
+        ServerAddressList servers = new ServerAddressList();
+        servers.add(ServerAddressList.pack(0xC0A80001, 27015));
+        servers.add(ServerAddressList.pack(0x0A000001, 27016));
+        servers.add(ServerAddressList.pack(0x0A000001, 27015));
+        servers.add(ServerAddressList.pack(0xC0A80001, 27015));
+
+        ServerListSnapshot snapshot = ServerListSnapshot.create(servers);
+
+        assertThat(snapshot.size(), is(3));
+        assertThat(snapshot.get(0), is(ServerAddressList.pack(0x0A000001, 27015)));
+        assertThat(snapshot.get(1), is(ServerAddressList.pack(0x0A000001, 27016)));
+        assertThat(snapshot.get(2), is(ServerAddressList.pack(0xC0A80001, 27015)));
+        assertTrue(snapshot.contains(ServerAddressList.pack(0x0A000001, 27016)));
+        assertFalse(snapshot.contains(ServerAddressList.pack(0x0A000001, 27017)));
+    }
+
+    @Test
+    public void testSaveAndOpen() throws Exception {
+        ServerAddressSet servers = new ServerAddressSet();
+        for (int i = 1; i <= 100; i ++) {
+            servers.add(ServerAddressList.pack(0x0A000000 + i, 65535));
+        }
+        File file = new File(this.folder.getRoot(), "servers.snapshot");
+
+        ServerListSnapshot.create(servers).save(file);
+        ServerListSnapshot snapshot = ServerListSnapshot.open(file);
+
+        assertThat(file.length(), is(12L + 100 * 6));
+        assertThat(snapshot.size(), is(100));
+        assertThat(snapshot.get(99), is(ServerAddressList.pack(0x0A000064, 65535)));
+
+        ServerListSnapshot.create(new ServerAddressSet()).save(file);
+        assertThat(snapshot.size(), is(100));
+        assertThat(ServerListSnapshot.open(file).size(), is(0));
+    }
+
+    @Test(expected = SteamCondenserException.class)
+    public void testOpenInvalidFile() throws Exception {
+        File file = this.folder.newFile("invalid.snapshot");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write("not a snapshot".getBytes());
+        }
+
+        ServerListSnapshot.open(file);
+    }
+
+    @Test
+    public void testDiff() {
+        ServerAddressList oldServers = new ServerAddressList();
+        oldServers.add(ServerAddressList.pack(0x0A000001, 27015));
+        oldServers.add(ServerAddressList.pack(0x0A000002, 27015));
+        oldServers.add(ServerAddressList.pack(0x0A000004, 27015));
+        ServerAddressList newServers = new ServerAddressList();
+        newServers.add(ServerAddressList.pack(0x0A000002, 27015));
+        newServers.add(ServerAddressList.pack(0x0A000003, 27015));
+        newServers.add(ServerAddressList.pack(0x0A000005, 27015));
+
+        ServerListSnapshot.Diff diff = ServerListSnapshot.create(oldServers).diff(ServerListSnapshot.create(newServers));
+
+        assertThat(diff.getAdded().toString(), is("[10.0.0.3:27015, 10.0.0.5:27015]"));
+        assertThat(diff.getRemoved().toString(), is("[10.0.0.1:27015, 10.0.0.4:27015]"));
+        assertFalse(diff.isEmpty());
+        assertTrue(ServerListSnapshot.create(newServers).diff(ServerListSnapshot.create(newServers)).isEmpty());
+    }
+
+}
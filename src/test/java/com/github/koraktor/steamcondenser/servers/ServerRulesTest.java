@@ -0,0 +1,93 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class ServerRulesTest {
+
+    @Test
+    public void testLookup() {
+        ServerRules rules = new ServerRules(new String[] { "mp_timelimit", "sv_gravity", "mp_timelimit" }, new String[] { "20", "800", "30" }, 3);
+
+        assertEquals(2, rules.size());
+        assertEquals("30", rules.get("mp_timelimit"));
+        assertEquals("800", rules.get(RuleNames.getId("sv_gravity")));
+        assertTrue(rules.contains("sv_gravity"));
+        assertFalse(rules.contains("sv_unknown_rule"));
+        assertNull(rules.get("sv_unknown_rule"));
+        assertEquals(-1, RuleNames.findId("sv_unknown_rule"));
+
+        HashMap<String, String> map = new HashMap<>();
+        map.put("mp_timelimit", "30");
+        map.put("sv_gravity", "800");
+        assertEquals(map, rules.toMap());
+    }
+
+    @Test
+    public void testInlineNamesIfDictionaryIsFull() {
+        int id = RuleNames.getId("sv_gravity");
+        int maxSize = RuleNames.getMaxSize();
+        RuleNames.setMaxSize(RuleNames.size());
+        try {
+            ServerRules rules = new ServerRules(new String[] { "sv_random_b", "sv_gravity", "sv_random_a", "sv_random_b" }, new String[] { "1", "800", "2", "3" }, 4);
+
+            assertEquals(-1, RuleNames.getId("sv_random_a"));
+            assertEquals(-1, RuleNames.findId("sv_random_b"));
+            assertEquals(3, rules.size());
+            assertEquals("800", rules.get("sv_gravity"));
+            assertEquals("2", rules.get("sv_random_a"));
+            assertEquals("3", rules.get("sv_random_b"));
+            assertTrue(rules.contains("sv_random_a"));
+            assertFalse(rules.contains("sv_random_c"));
+            assertArrayEquals(new int[] { id }, rules.getIds());
+
+            HashMap<String, String> map = new HashMap<>();
+            map.put("sv_gravity", "800");
+            map.put("sv_random_a", "2");
+            map.put("sv_random_b", "3");
+            assertEquals(map, rules.toMap());
+        } finally {
+            RuleNames.setMaxSize(maxSize);
+        }
+    }
+
+    @Test
+    public void testSharedNames() {
+        int id = RuleNames.getId("mp_friendlyfire");
+
+        assertEquals(id, RuleNames.getId(new String("mp_friendlyfire")));
+        assertSame(RuleNames.getName(id), RuleNames.getName(RuleNames.getId(new String("mp_friendlyfire"))));
+    }
+
+    @Test
+    public void testDiff() {
+        ServerRules previous = new ServerRules(new String[] { "mp_timelimit", "sv_gravity", "mp_fraglimit" }, new String[] { "20", "800", "0" }, 3);
+        ServerRules current = new ServerRules(new String[] { "mp_timelimit", "sv_gravity", "sv_cheats" }, new String[] { "30", "800", "1" }, 3);
+
+        int[] expected = new int[] { RuleNames.getId("mp_timelimit"), RuleNames.getId("mp_fraglimit"), RuleNames.getId("sv_cheats") };
+        Arrays.sort(expected);
+
+        assertArrayEquals(expected, current.diff(previous));
+        assertEquals(0, current.diff(current).length);
+    }
+
+}
@@ -32,6 +32,7 @@ import com.github.koraktor.steamcondenser.servers.sockets.SourceSocket;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -111,13 +112,33 @@ public class SourceServerTest {
     public void testInitSocket() throws Exception {
         SourceSocket socket = mock(SourceSocket.class);
         whenNew(SourceSocket.class).withArguments(LOCALHOST, 27015).thenReturn(socket);
-        RCONSocket rconSocket = mock(RCONSocket.class);
-        whenNew(RCONSocket.class).withArguments(LOCALHOST, 27015).thenReturn(rconSocket);
+        this.server.rconSocket = null;
 
         this.server.initSocket();
 
         assertThat((SourceSocket) this.server.socket, is(equalTo(socket)));
-        assertThat(this.server.rconSocket, is(equalTo(rconSocket)));
+        assertThat(this.server.rconSocket, is(nullValue()));
+    }
+
+    @Test
+    public void testGetRconSocket() throws Exception {
+        RCONSocket rconSocket = mock(RCONSocket.class);
+        whenNew(RCONSocket.class).withArguments(LOCALHOST, 27015).thenReturn(rconSocket);
+        this.server.rconSocket = null;
+
+        assertThat(this.server.getRconSocket(), is(equalTo(rconSocket)));
+        assertThat(this.server.getRconSocket(), is(equalTo(rconSocket)));
+
+        verifyNew(RCONSocket.class).withArguments(LOCALHOST, 27015);
+    }
+
+    @Test
+    public void testDisconnectWithoutRcon() throws Exception {
+        this.server.rconSocket = null;
+
+        this.server.disconnect();
+
+        verify(this.socket).close();
     }
 
     @Test
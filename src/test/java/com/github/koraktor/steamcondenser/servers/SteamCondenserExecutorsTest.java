@@ -0,0 +1,48 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class SteamCondenserExecutorsTest {
+
+    @Test
+    public void testInitializeAll() throws Exception {
+        GameServer server1 = mock(GameServer.class);
+        GameServer server2 = mock(GameServer.class);
+        doThrow(new TimeoutException()).when(server2).initialize();
+
+        ExecutorService executor = SteamCondenserExecutors.virtual();
+        try {
+            Map<GameServer, Exception> failures = SteamCondenserExecutors.initializeAll(Arrays.asList(server1, server2), executor);
+
+            assertEquals(1, failures.size());
+            assertThat(failures.get(server2), is(instanceOf(TimeoutException.class)));
+            verify(server1).initialize();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.github.koraktor.steamcondenser.community.WebApi;
+import com.github.koraktor.steamcondenser.exceptions.WebApiException;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+/**
+ * @author Sebastian Staudt
+ */
+@PrepareForTest(WebApi.class)
+@RunWith(PowerMockRunner.class)
+public class WebApiServerListTest {
+
+    private static final String JSON = "{\"response\":{\"servers\":[" +
+        "{\"addr\":\"10.0.0.1:27015\",\"gameport\":27015,\"steamid\":\"90071992547409920\"," +
+        "\"name\":\"Server 1\",\"appid\":440,\"gamedir\":\"tf\",\"version\":\"1.0\"," +
+        "\"region\":3,\"players\":12,\"max_players\":24,\"bots\":2,\"map\":\"ctf_2fort\"," +
+        "\"secure\":true,\"dedicated\":true,\"os\":\"l\",\"gametype\":\"ctf\"}," +
+        "{\"addr\":\"10.0.0.2:27016\",\"name\":\"Server 2\",\"region\":0}" +
+        "]}}";
+
+    private Map<String, Object> params;
+
+    private WebApiServerList serverList;
+
+    @Before
+    public void setup() throws Exception {
+        mockStatic(WebApi.class);
+
+        this.params = new HashMap<>();
+        this.params.put("filter", "\\gamedir\\tf");
+        this.params.put("limit", 10000);
+        when(WebApi.getJSON("IGameServersService", "GetServerList", 1, this.params)).thenReturn(JSON);
+
+        this.serverList = new WebApiServerList();
+    }
+
+    @Test
+    public void testStreamServerDetails() throws Exception {
+        final List<WebApiServerList.ServerDetails> servers = new ArrayList<>();
+        this.serverList.streamServerDetails(MasterServer.REGION_ALL, "\\gamedir\\tf", new WebApiServerList.DetailsListener() {
+            public void onServers(List<WebApiServerList.ServerDetails> batch) {
+                servers.addAll(batch);
+            }
+        });
+
+        assertThat(servers.size(), is(2));
+        WebApiServerList.ServerDetails server = servers.get(0);
+        assertThat(server.getSocketAddress(), is(equalTo(new InetSocketAddress("10.0.0.1", 27015))));
+        assertThat(server.getName(), is(equalTo("Server 1")));
+        assertThat(server.getMap(), is(equalTo("ctf_2fort")));
+        assertThat(server.getAppId(), is(440));
+        assertThat(server.getPlayers(), is(12));
+        assertThat(server.getMaxPlayers(), is(24));
+        assertThat(server.getOperatingSystem(), is('l'));
+        assertThat(server.getRegion(), is(MasterServer.REGION_EUROPE));
+        assertThat(server.isSecure(), is(true));
+    }
+
+    @Test
+    public void testStreamServersOfRegion() throws Exception {
+        final List<InetSocketAddress> servers = new ArrayList<>();
+        ServerListProvider provider = this.serverList;
+        provider.streamServers(MasterServer.REGION_US_EAST_COAST, "\\gamedir\\tf", new ServerBatchListener() {
+            public void onBatch(ServerAddressList batch) {
+                servers.addAll(batch.toSocketAddresses());
+            }
+        });
+
+        assertThat(servers.size(), is(1));
+        assertThat(servers.get(0), is(equalTo(new InetSocketAddress("10.0.0.2", 27016))));
+    }
+
+    @Test
+    public void testInvalidAddress() throws Exception {
+        this.params.put("filter", "");
+        when(WebApi.getJSON("IGameServersService", "GetServerList", 1, this.params)).
+            thenReturn("{\"response\":{\"servers\":[{\"addr\":\"[::1]:27015\"},{\"addr\":\"10.0.0.1\"},{\"addr\":\"10.0.0.2:27016\"}]}}");
+
+        final List<InetSocketAddress> servers = new ArrayList<>();
+        this.serverList.streamServers(MasterServer.REGION_ALL, "", new ServerBatchListener() {
+            public void onBatch(ServerAddressList batch) {
+                servers.addAll(batch.toSocketAddresses());
+            }
+        });
+
+        assertThat(servers.size(), is(1));
+        assertThat(servers.get(0), is(equalTo(new InetSocketAddress("10.0.0.2", 27016))));
+    }
+
+    @Test(expected = WebApiException.class)
+    public void testInvalidResponse() throws Exception {
+        this.params.put("filter", "");
+        when(WebApi.getJSON("IGameServersService", "GetServerList", 1, this.params)).
+            thenReturn("{\"servers\":[]}");
+
+        this.serverList.streamServers(MasterServer.REGION_ALL, "", new ServerBatchListener() {
+            public void onBatch(ServerAddressList batch) {}
+        });
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.packets;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class BZip2DecompressorTest {
+
+    private static final byte[] DATA = new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x41, (byte) 0xD2, 0x4, 0x0, 0x0 };
+
+    private int checksum;
+
+    private byte[] compressedData;
+
+    @Before
+    public void setup() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BZip2CompressorOutputStream bzip2 = new BZip2CompressorOutputStream(output);
+        bzip2.write(DATA);
+        bzip2.close();
+        this.compressedData = output.toByteArray();
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(DATA);
+        this.checksum = (int) crc32.getValue();
+    }
+
+    @Test
+    public void testDecompress() throws Exception {
+        long packets = BZip2Decompressor.getDecompressedPackets();
+
+        ByteBuffer data = BZip2Decompressor.decompress(ByteBuffer.wrap(this.compressedData), DATA.length, this.checksum);
+
+        assertEquals(ByteBuffer.wrap(DATA), data);
+        assertEquals(packets + 1, BZip2Decompressor.getDecompressedPackets());
+    }
+
+    @Test
+    public void testChecksumMismatch() throws Exception {
+        long failures = BZip2Decompressor.getChecksumFailures();
+
+        try {
+            BZip2Decompressor.decompress(ByteBuffer.wrap(this.compressedData), DATA.length, this.checksum + 1);
+            fail();
+        } catch (PacketFormatException ignored) {}
+
+        assertEquals(failures + 1, BZip2Decompressor.getChecksumFailures());
+    }
+
+    @Test(expected = PacketFormatException.class)
+    public void testTruncated() throws Exception {
+        BZip2Decompressor.decompress(ByteBuffer.wrap(this.compressedData), DATA.length + 1, this.checksum);
+    }
+
+    @Test
+    public void testReassembleCompressedPacket() throws Exception {
+        S2C_CHALLENGE_Packet packet = (S2C_CHALLENGE_Packet) SteamPacketFactory.reassemblePacket(ByteBuffer.wrap(this.compressedData), true, DATA.length, this.checksum);
+
+        assertEquals(1234, packet.getChallengeNumber());
+    }
+
+}
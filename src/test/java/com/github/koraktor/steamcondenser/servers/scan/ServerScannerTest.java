@@ -0,0 +1,165 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.scan;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.servers.packets.S2A_INFO_BasePacket;
+import com.github.koraktor.steamcondenser.servers.packets.S2A_PLAYER_Packet;
+import com.github.koraktor.steamcondenser.servers.sockets.QueryReactor;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class ServerScannerTest {
+
+    private DatagramChannel deadServer;
+
+    private QueryReactor reactor;
+
+    private ServerScanner scanner;
+
+    private FakeServer server;
+
+    @Before
+    public void setup() throws Exception {
+        this.reactor = new QueryReactor();
+        this.scanner = new ServerScanner(this.reactor);
+        this.scanner.setTimeout(200);
+
+        this.server = new FakeServer();
+        this.server.start();
+
+        this.deadServer = DatagramChannel.open();
+        this.deadServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.reactor.close();
+        this.server.channel.close();
+        this.deadServer.close();
+    }
+
+    @Test
+    public void testScan() throws Exception {
+        this.scanner.setQueryPlayers(true);
+
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        addresses.add((InetSocketAddress) this.server.channel.getLocalAddress());
+        addresses.add((InetSocketAddress) this.deadServer.getLocalAddress());
+        RecordingListener listener = new RecordingListener();
+
+        this.scanner.scan(addresses, listener);
+
+        assertEquals(1, listener.infos.size());
+        assertEquals("map", listener.infos.get(0).getInfo().get("mapName"));
+        assertEquals((short) 440, listener.infos.get(0).getInfo().get("appId"));
+        assertEquals(1, listener.players.size());
+        assertEquals(5, listener.players.get(0).getPlayerHash().get("player").getScore());
+        assertEquals(1, listener.failures.size());
+        assertThat(listener.failures.get(0), is(instanceOf(TimeoutException.class)));
+        assertEquals(0, this.scanner.getPendingQueries());
+    }
+
+    @Test
+    public void testScanInfoOnly() throws Exception {
+        RecordingListener listener = new RecordingListener();
+
+        this.scanner.setConcurrency(1);
+        this.scanner.scan(Collections.singletonList((InetSocketAddress) this.server.channel.getLocalAddress()), listener);
+
+        assertEquals(1, listener.infos.size());
+        assertEquals(0, listener.players.size());
+        assertEquals(0, listener.failures.size());
+    }
+
+    class FakeServer extends Thread {
+
+        DatagramChannel channel;
+
+        FakeServer() throws Exception {
+            this.channel = DatagramChannel.open();
+            this.channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            this.setDaemon(true);
+        }
+
+        public void run() {
+            ByteBuffer request = ByteBuffer.allocate(1400);
+            try {
+                while (true) {
+                    request.clear();
+                    SocketAddress client = this.channel.receive(request);
+                    request.flip();
+                    request.getInt();
+                    byte header = request.get();
+
+                    ByteArrayOutputStream reply = new ByteArrayOutputStream();
+                    reply.write(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF });
+                    if (header == 0x54) {
+                        reply.write(0x49);
+                        reply.write(17);
+                        reply.write("name\0map\0dir\0description\0".getBytes());
+                        reply.write(new byte[] { (byte) 0xB8, 0x1, 1, 24, 0, 'd', 'l', 0, 1 });
+                        reply.write("1.0\0".getBytes());
+                    } else if (Integer.reverseBytes(request.getInt()) == -1) {
+                        reply.write(new byte[] { 0x41, (byte) 0xD2, 0x4, 0x0, 0x0 });
+                    } else {
+                        reply.write(new byte[] { 0x44, 1, 0 });
+                        reply.write("player\0".getBytes());
+                        reply.write(new byte[] { 5, 0, 0, 0, 0, 0, (byte) 0x80, 0x3F });
+                    }
+
+                    this.channel.send(ByteBuffer.wrap(reply.toByteArray()), client);
+                }
+            } catch (Exception ignored) {}
+        }
+
+    }
+
+    class RecordingListener implements ScanListener {
+
+        List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+
+        List<S2A_INFO_BasePacket> infos = Collections.synchronizedList(new ArrayList<S2A_INFO_BasePacket>());
+
+        List<S2A_PLAYER_Packet> players = Collections.synchronizedList(new ArrayList<S2A_PLAYER_Packet>());
+
+        public void onFailure(InetSocketAddress address, Exception error) {
+            this.failures.add(error);
+        }
+
+        public void onInfo(InetSocketAddress address, S2A_INFO_BasePacket infoPacket) {
+            this.infos.add(infoPacket);
+        }
+
+        public void onPlayers(InetSocketAddress address, S2A_PLAYER_Packet playerPacket) {
+            this.players.add(playerPacket);
+        }
+
+    }
+
+}
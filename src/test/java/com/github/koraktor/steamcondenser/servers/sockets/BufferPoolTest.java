@@ -0,0 +1,68 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        BufferPool pool = new BufferPool(16, 2, true);
+
+        ByteBuffer buffer = pool.acquire();
+        assertTrue(buffer.isDirect());
+        assertEquals(16, buffer.capacity());
+
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        ByteBuffer reusedBuffer = pool.acquire();
+
+        assertSame(buffer, reusedBuffer);
+        assertEquals(0, reusedBuffer.position());
+        assertEquals(16, reusedBuffer.limit());
+        assertEquals(2, pool.getAcquiredBuffers());
+        assertEquals(1, pool.getAllocatedBuffers());
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    public void testMaxFreeBuffers() {
+        BufferPool pool = new BufferPool(16, 1, false);
+
+        ByteBuffer buffer1 = pool.acquire();
+        ByteBuffer buffer2 = pool.acquire();
+        pool.release(buffer1);
+        pool.release(buffer2);
+
+        assertEquals(1, pool.getFreeBuffers());
+        assertSame(buffer1, pool.acquire());
+        assertNotSame(buffer2, pool.acquire());
+    }
+
+    @Test
+    public void testReleaseForeignBuffer() {
+        BufferPool pool = new BufferPool(16, 1, false);
+
+        pool.release(ByteBuffer.allocate(8));
+        pool.release(ByteBuffer.allocateDirect(16));
+
+        assertEquals(0, pool.getFreeBuffers());
+    }
+
+}
@@ -9,7 +9,6 @@ package com.github.koraktor.steamcondenser.servers.sockets;
 
 import java.net.InetAddress;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.concurrent.TimeoutException;
 
 import org.junit.Before;
@@ -34,7 +33,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyString;
-import static org.mockito.Matchers.refEq;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -110,7 +109,7 @@ public class GoldSrcSocketTest {
     public void testSinglePacketReply() throws Exception {
         SteamPacket packet = mock(SteamPacket.class);
         mockStatic(SteamPacketFactory.class);
-        PowerMockito.when(SteamPacketFactory.getPacketFromData("test".getBytes())).thenReturn(packet);
+        PowerMockito.when(SteamPacketFactory.getPacketFromData(ByteBuffer.wrap("test".getBytes()))).thenReturn(packet);
 
         doAnswer(new Answer<Integer>() {
             public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
@@ -127,11 +126,8 @@ public class GoldSrcSocketTest {
     @PrepareForTest(SteamPacketFactory.class)
     public void testSplitPacketReply() throws Exception {
         SteamPacket packet = mock(SteamPacket.class);
-        ArrayList<byte[]> packets = new ArrayList<>();
-        packets.add("test".getBytes());
-        packets.add("test".getBytes());
         mockStatic(SteamPacketFactory.class);
-        PowerMockito.when(SteamPacketFactory.reassemblePacket(refEq(packets))).thenReturn(packet);
+        PowerMockito.when(SteamPacketFactory.reassemblePacket(eq(ByteBuffer.wrap("testtest".getBytes())), eq(false), eq(0), eq(0))).thenReturn(packet);
 
         doAnswer(new Answer<Integer>() {
             public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
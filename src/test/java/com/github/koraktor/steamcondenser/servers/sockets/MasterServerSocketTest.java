@@ -67,7 +67,7 @@ public class MasterServerSocketTest {
     public void testCorrectPacket() throws Exception {
         SteamPacket packet = mock(SteamPacket.class);
         mockStatic(SteamPacketFactory.class);
-        when(SteamPacketFactory.getPacketFromData("test".getBytes())).thenReturn(packet);
+        when(SteamPacketFactory.getPacketFromData(ByteBuffer.wrap("test".getBytes()))).thenReturn(packet);
 
         MasterServerSocket socket = spy(this.socket);
         doAnswer(new Answer<Integer>() {
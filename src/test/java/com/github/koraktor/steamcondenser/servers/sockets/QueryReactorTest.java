@@ -0,0 +1,158 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_INFO_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class QueryReactorTest {
+
+    private QueryReactor reactor;
+
+    private DatagramChannel server;
+
+    private InetSocketAddress serverAddress;
+
+    @Before
+    public void setup() throws Exception {
+        this.reactor = new QueryReactor(2);
+
+        this.server = DatagramChannel.open();
+        this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        this.serverAddress = (InetSocketAddress) this.server.getLocalAddress();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        QuerySocket.setReactor(null);
+        this.reactor.close();
+        this.server.close();
+    }
+
+    @Test
+    public void testDispatchBySourceAddress() throws Exception {
+        final LinkedBlockingQueue<ByteBuffer> received = new LinkedBlockingQueue<>();
+        DatagramHandler handler = new DatagramHandler() {
+            public void handleDatagram(InetSocketAddress address, ByteBuffer data) {
+                received.offer(data);
+            }
+        };
+        this.reactor.register(this.serverAddress, handler);
+
+        this.reactor.send(this.serverAddress, ByteBuffer.wrap("ping".getBytes()));
+        SocketAddress client = this.echo();
+
+        ByteBuffer reply = received.poll(1, TimeUnit.SECONDS);
+        assertNotNull(reply);
+        assertEquals("ping", new String(reply.array()));
+
+        this.reactor.unregister(this.serverAddress, mock(DatagramHandler.class));
+        this.server.send(ByteBuffer.wrap("pong".getBytes()), client);
+        assertNotNull(received.poll(1, TimeUnit.SECONDS));
+
+        this.reactor.unregister(this.serverAddress, handler);
+        this.server.send(ByteBuffer.wrap("late".getBytes()), client);
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRegisterSecondHandler() throws Exception {
+        DatagramHandler handler = mock(DatagramHandler.class);
+        this.reactor.register(this.serverAddress, handler);
+        this.reactor.register(this.serverAddress, handler);
+
+        DatagramHandler otherHandler = mock(DatagramHandler.class);
+        try {
+            this.reactor.register(this.serverAddress, otherHandler);
+            fail();
+        } catch (SteamCondenserException e) {
+            assertEquals("Another datagram handler is already registered for " + this.serverAddress + ".", e.getMessage());
+        }
+
+        this.reactor.unregister(this.serverAddress, handler);
+        this.reactor.register(this.serverAddress, otherHandler);
+    }
+
+    @Test
+    public void testDropUnknownAddresses() throws Exception {
+        this.reactor.send(this.serverAddress, ByteBuffer.wrap("ping".getBytes()));
+        this.echo();
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (this.reactor.getDroppedPackets() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, this.reactor.getSentPackets());
+        assertEquals(1, this.reactor.getReceivedPackets());
+        assertEquals(1, this.reactor.getDroppedPackets());
+    }
+
+    @Test
+    public void testQuerySocketWithReactor() throws Exception {
+        QuerySocket.setReactor(this.reactor);
+        GenericQuerySocket socket = new GenericQuerySocket(this.serverAddress);
+        assertNull(socket.channel);
+
+        socket.send(new A2S_INFO_Packet());
+        this.echo();
+
+        assertEquals(25, socket.receivePacket());
+        assertEquals(0xFFFFFFFF, socket.buffer.getInt());
+        assertEquals(0x54, socket.buffer.get());
+
+        socket.close();
+        this.reactor.close();
+        assertFalse(this.reactor.isRunning());
+    }
+
+    private SocketAddress echo() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(1400);
+        SocketAddress client = this.server.receive(buffer);
+        buffer.flip();
+        this.server.send(buffer, client);
+
+        return client;
+    }
+
+    class GenericQuerySocket extends QuerySocket {
+
+        public GenericQuerySocket(InetSocketAddress address) throws Exception {
+            super(address.getAddress(), address.getPort());
+        }
+
+        public SteamPacket getReply() {
+            return null;
+        }
+
+    }
+
+}
@@ -13,6 +13,8 @@ import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
 import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -20,13 +22,19 @@ import org.junit.Test;
 import org.mockito.ArgumentMatcher;
 
 import com.github.koraktor.steamcondenser.exceptions.SteamCondenserException;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_INFO_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_PLAYER_Packet;
+import com.github.koraktor.steamcondenser.servers.packets.A2S_RULES_Packet;
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -66,6 +74,208 @@ public class QuerySocketTest {
         verify(socket).receivePacket(0);
     }
 
+    @Test
+    public void testRoundTripTimeEstimation() throws Exception {
+        this.socket.reactor = mock(QueryReactor.class);
+        this.socket.receivedPackets = new LinkedBlockingQueue<>();
+        SteamPacket packet = mock(SteamPacket.class);
+        when(packet.getBytes()).thenReturn(new byte[] { 0x1, 0x2, 0x3, 0x4 } );
+
+        this.socket.send(packet);
+        this.socket.receivedPackets.offer(ByteBuffer.wrap(new byte[] { 0x1 }));
+        this.socket.receivePacket();
+
+        assertEquals(1, this.socket.getRttEstimator().getSamples());
+        assertEquals(0, this.socket.unansweredRequests.size());
+
+        SteamSocket.setTimeout(10);
+        try {
+            this.socket.receivePacket();
+            fail();
+        } catch (TimeoutException e) {
+            assertEquals(1, this.socket.getRttEstimator().getBackoff());
+        } finally {
+            SteamSocket.setTimeout(1000);
+        }
+    }
+
+    @Test
+    public void testRetransmission() throws Exception {
+        this.socket.reactor = mock(QueryReactor.class);
+        this.socket.receivedPackets = new LinkedBlockingQueue<>();
+        SteamPacket packet = mock(SteamPacket.class);
+        when(packet.getBytes()).thenReturn(new byte[] { 0x1, 0x2, 0x3, 0x4 } );
+        when(packet.isIdempotent()).thenReturn(true);
+
+        QuerySocket.setMaxRetransmissions(1);
+        SteamSocket.setTimeout(400);
+        try {
+            this.socket.send(packet);
+            new Thread() {
+                public void run() {
+                    try {
+                        Thread.sleep(250);
+                    } catch (InterruptedException ignored) {}
+                    QuerySocketTest.this.socket.receivedPackets.offer(reply('A', 0x1));
+                }
+            }.start();
+
+            assertEquals(6, this.socket.receivePacket());
+        } finally {
+            QuerySocket.setMaxRetransmissions(0);
+            SteamSocket.setTimeout(1000);
+        }
+
+        verify(this.socket.reactor, times(2)).send(any(InetSocketAddress.class), any(ByteBuffer.class));
+        assertEquals(1, this.socket.getRetransmissions());
+        assertEquals(0, this.socket.getRttEstimator().getSamples());
+
+        this.socket.receivedPackets.offer(reply('A', 0x2));
+        this.socket.receivedPackets.offer(reply('D', 0x3));
+        this.socket.receivePacket();
+
+        assertEquals('D', this.socket.buffer.get(4));
+        assertEquals(1, this.socket.getDuplicateReplies());
+    }
+
+    @Test
+    public void testRetransmissionOfLostReply() throws Exception {
+        this.socket.reactor = mock(QueryReactor.class);
+        this.socket.receivedPackets = new LinkedBlockingQueue<>();
+        SendPacer pacer = new SendPacer(0, 0);
+
+        QuerySocket.setMaxRetransmissions(1);
+        QuerySocket.setSendPacer(pacer);
+        SteamSocket.setTimeout(400);
+        try {
+            this.socket.send(new A2S_INFO_Packet());
+            this.socket.send(new A2S_PLAYER_Packet(1234));
+            this.socket.send(new A2S_RULES_Packet(1234));
+
+            this.socket.receivedPackets.offer(reply('E', 0x1));
+            this.socket.receivedPackets.offer(reply('I', 0x2));
+            this.socket.receivePacket();
+            this.socket.receivePacket();
+
+            assertEquals(1, this.socket.unansweredRequests.size());
+            assertEquals(2, pacer.getReplies());
+
+            new Thread() {
+                public void run() {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException ignored) {}
+                    QuerySocketTest.this.socket.receivedPackets.offer(reply('D', 0x3));
+                }
+            }.start();
+            this.socket.receivePacket();
+        } finally {
+            QuerySocket.setMaxRetransmissions(0);
+            QuerySocket.setSendPacer(null);
+            SteamSocket.setTimeout(1000);
+        }
+
+        ArgumentMatcher<ByteBuffer> playerRequest = new ArgumentMatcher<ByteBuffer>() {
+            public boolean matches(ByteBuffer buffer) {
+                return buffer.array()[4] == SteamPacket.A2S_PLAYER_HEADER;
+            }
+        };
+
+        verify(this.socket.reactor, times(4)).send(any(InetSocketAddress.class), any(ByteBuffer.class));
+        verify(this.socket.reactor, times(2)).send(any(InetSocketAddress.class), argThat(playerRequest));
+        assertEquals(1, this.socket.getRetransmissions());
+        assertEquals(0, this.socket.unansweredRequests.size());
+        assertEquals(3, pacer.getReplies());
+        assertEquals(0, pacer.getTimeouts());
+        assertEquals(2, this.socket.getRttEstimator().getSamples());
+    }
+
+    @Test
+    public void testTimeoutOfLostReply() throws Exception {
+        this.socket.reactor = mock(QueryReactor.class);
+        this.socket.receivedPackets = new LinkedBlockingQueue<>();
+        SendPacer pacer = new SendPacer(0, 0);
+
+        QuerySocket.setSendPacer(pacer);
+        SteamSocket.setTimeout(50);
+        try {
+            this.socket.send(new A2S_INFO_Packet());
+            this.socket.send(new A2S_PLAYER_Packet(1234));
+            this.socket.receivedPackets.offer(reply('I', 0x1));
+            this.socket.receivePacket();
+            this.socket.receivePacket();
+            fail();
+        } catch (TimeoutException e) {
+            assertEquals(1, pacer.getReplies());
+            assertEquals(1, pacer.getTimeouts());
+            assertEquals(0, this.socket.unansweredRequests.size());
+        } finally {
+            QuerySocket.setSendPacer(null);
+            SteamSocket.setTimeout(1000);
+        }
+    }
+
+    @Test
+    public void testRetransmissionDisabledByDefault() throws Exception {
+        this.socket.reactor = mock(QueryReactor.class);
+        this.socket.receivedPackets = new LinkedBlockingQueue<>();
+        SteamPacket packet = mock(SteamPacket.class);
+        when(packet.getBytes()).thenReturn(new byte[] { 0x1, 0x2, 0x3, 0x4 } );
+        when(packet.isIdempotent()).thenReturn(true);
+
+        SteamSocket.setTimeout(50);
+        try {
+            this.socket.send(packet);
+            this.socket.receivePacket();
+            fail();
+        } catch (TimeoutException e) {
+            verify(this.socket.reactor, times(1)).send(any(InetSocketAddress.class), any(ByteBuffer.class));
+            assertEquals(0, this.socket.getRetransmissions());
+        } finally {
+            SteamSocket.setTimeout(1000);
+        }
+    }
+
+    @Test
+    public void testSplitDuplicate() throws Exception {
+        this.socket.reactor = mock(QueryReactor.class);
+        this.socket.receivedPackets = new LinkedBlockingQueue<>();
+        SteamPacket packet = mock(SteamPacket.class);
+        when(packet.getBytes()).thenReturn(new byte[] { 0x1, 0x2, 0x3, 0x4 } );
+        when(packet.isIdempotent()).thenReturn(true);
+
+        QuerySocket.setMaxRetransmissions(1);
+        SteamSocket.setTimeout(400);
+        try {
+            this.socket.send(packet);
+            new Thread() {
+                public void run() {
+                    try {
+                        Thread.sleep(250);
+                    } catch (InterruptedException ignored) {}
+                    QuerySocketTest.this.socket.receivedPackets.offer(fragment(1, 0));
+                }
+            }.start();
+
+            this.socket.receivePacket();
+        } finally {
+            QuerySocket.setMaxRetransmissions(0);
+            SteamSocket.setTimeout(1000);
+        }
+
+        this.socket.receivedPackets.offer(fragment(2, 1));
+        this.socket.receivedPackets.offer(fragment(1, 1));
+        this.socket.receivePacket();
+        assertEquals(1, this.socket.buffer.get(9));
+
+        this.socket.receivedPackets.offer(fragment(2, 0));
+        this.socket.receivedPackets.offer(reply('D', 0x3));
+        this.socket.receivePacket();
+
+        assertEquals('D', this.socket.buffer.get(4));
+        assertEquals(1, this.socket.getDuplicateReplies());
+    }
+
     @Test
     public void testSend() throws Exception {
         SteamPacket packet = mock(SteamPacket.class);
@@ -89,6 +299,20 @@ public class QuerySocketTest {
         verify(this.channel).send(argThat(bufferMatcher), argThat(socketMatcher));
     }
 
+    /**
+     * Builds a fragment of a split reply consisting of two packets
+     */
+    private static ByteBuffer fragment(int requestId, int packetNumber) {
+        return ByteBuffer.wrap(new byte[] { (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) requestId, 0x0, 0x0, 0x0, 0x2, (byte) packetNumber, 0x4, 0x0 });
+    }
+
+    /**
+     * Builds a reply of the given type
+     */
+    private static ByteBuffer reply(char type, int data) {
+        return ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) type, (byte) data });
+    }
+
     class GenericQuerySocket extends QuerySocket {
 
         public GenericQuerySocket() throws SteamCondenserException, UnknownHostException {
@@ -0,0 +1,108 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class RttEstimatorTest {
+
+    private RttEstimator estimator;
+
+    @Before
+    public void setup() {
+        this.estimator = new RttEstimator(100);
+    }
+
+    @Test
+    public void testWithoutSamples() {
+        assertEquals(1000, this.estimator.getTimeout(1000));
+        assertEquals(0, this.estimator.getSamples());
+    }
+
+    @Test
+    public void testFirstSample() {
+        this.estimator.addSample(200);
+
+        assertEquals(200, this.estimator.getSmoothedRtt(), 0.001);
+        assertEquals(100, this.estimator.getRttVariance(), 0.001);
+        assertEquals(1000, this.estimator.getTimeout(1000));
+    }
+
+    @Test
+    public void testSmoothing() {
+        this.estimator.addSample(200);
+        this.estimator.addSample(280);
+
+        assertEquals(210, this.estimator.getSmoothedRtt(), 0.001);
+        assertEquals(95, this.estimator.getRttVariance(), 0.001);
+        assertEquals(1000, this.estimator.getTimeout(1000));
+        assertEquals(2, this.estimator.getSamples());
+
+        this.estimator.addSample(200);
+
+        assertEquals(208.75, this.estimator.getSmoothedRtt(), 0.001);
+        assertEquals(73.75, this.estimator.getRttVariance(), 0.001);
+        assertEquals(504, this.estimator.getTimeout(1000));
+    }
+
+    @Test
+    public void testPercentile() {
+        assertEquals(-1, this.estimator.getPercentile(0.95), 0);
+
+        for (int i = 100; i > 0; i --) {
+            this.estimator.addSample(i);
+        }
+
+        assertEquals(31, this.estimator.getPercentile(0.95), 0);
+        assertEquals(16, this.estimator.getPercentile(0.5), 0);
+        assertEquals(1, this.estimator.getPercentile(0), 0);
+    }
+
+    @Test
+    public void testMinimumTimeout() {
+        for (int i = 0; i < 50; i ++) {
+            this.estimator.addSample(10);
+        }
+
+        assertEquals(100, this.estimator.getTimeout(1000));
+    }
+
+    @Test
+    public void testMaximumTimeout() {
+        for (int i = 0; i < 3; i ++) {
+            this.estimator.addSample(900);
+        }
+
+        assertEquals(1000, this.estimator.getTimeout(1000));
+    }
+
+    @Test
+    public void testBackoff() {
+        for (int i = 0; i < 50; i ++) {
+            this.estimator.addSample(10);
+        }
+
+        this.estimator.backoff();
+        this.estimator.backoff();
+
+        assertEquals(2, this.estimator.getBackoff());
+        assertEquals(400, this.estimator.getTimeout(1000));
+
+        this.estimator.addSample(10);
+
+        assertEquals(0, this.estimator.getBackoff());
+        assertEquals(100, this.estimator.getTimeout(1000));
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class SendPacerTest {
+
+    @Test
+    public void testPacketRate() throws Exception {
+        SendPacer pacer = new SendPacer(1000, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 120; i ++) {
+            pacer.acquire(25);
+        }
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        assertTrue("Sending took only " + elapsed + "ms", elapsed >= 90);
+    }
+
+    @Test
+    public void testByteRate() throws Exception {
+        SendPacer pacer = new SendPacer(0, 100000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 12; i ++) {
+            pacer.acquire(1000);
+        }
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        assertTrue("Sending took only " + elapsed + "ms", elapsed >= 90);
+    }
+
+    @Test
+    public void testUnlimited() throws Exception {
+        SendPacer pacer = new SendPacer(0, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10000; i ++) {
+            pacer.acquire(1000);
+        }
+
+        assertTrue((System.nanoTime() - start) / 1000000 < 1000);
+    }
+
+    @Test
+    public void testMultiplicativeDecrease() {
+        SendPacer pacer = new SendPacer(1000, 0);
+
+        for (int i = 0; i < 40; i ++) {
+            pacer.onReply();
+        }
+        for (int i = 0; i < 10; i ++) {
+            pacer.onTimeout();
+        }
+        assertEquals(1.0, pacer.getRateFactor(), 0);
+
+        for (int i = 0; i < 30; i ++) {
+            pacer.onReply();
+        }
+        for (int i = 0; i < 20; i ++) {
+            pacer.onTimeout();
+        }
+
+        assertEquals(0.4, pacer.getTimeoutRate(), 0.001);
+        assertEquals(0.5, pacer.getRateFactor(), 0);
+        assertEquals(500, pacer.getPacketsPerSecond(), 0.001);
+        assertEquals(70, pacer.getReplies());
+        assertEquals(30, pacer.getTimeouts());
+    }
+
+    @Test
+    public void testAdditiveIncrease() {
+        SendPacer pacer = new SendPacer(1000, 0);
+        pacer.setTimeoutThreshold(0.1);
+
+        for (int i = 0; i < 50; i ++) {
+            pacer.onTimeout();
+        }
+        assertEquals(0.5, pacer.getRateFactor(), 0);
+
+        for (int i = 0; i < 50; i ++) {
+            pacer.onReply();
+        }
+        assertEquals(0.55, pacer.getRateFactor(), 0.001);
+
+        for (int i = 0; i < 1000; i ++) {
+            pacer.onReply();
+        }
+        assertEquals(1.0, pacer.getRateFactor(), 0);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.net.InetAddress;
+import java.nio.channels.SelectableChannel;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class SocketCleanerTest {
+
+    @After
+    public void teardown() {
+        SteamSocket.setLeakDetection(false);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        SourceSocket socket = new SourceSocket(InetAddress.getLoopbackAddress(), 27015);
+        assertNotNull(socket.resources);
+        assertTrue(SteamSocket.getOpenSockets() > 0);
+
+        socket.close();
+
+        assertNull(socket.resources);
+        assertFalse(socket.channel.isOpen());
+    }
+
+    @Test
+    public void testTryWithResources() throws Exception {
+        SelectableChannel channel;
+        try (SourceSocket socket = new SourceSocket(InetAddress.getLoopbackAddress(), 27015)) {
+            channel = socket.channel;
+            assertTrue(channel.isOpen());
+        }
+
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testLeakedSocketIsClosed() throws Exception {
+        SteamSocket.setLeakDetection(true);
+        long leakedSockets = SteamSocket.getLeakedSockets();
+        SelectableChannel channel = this.openAndForgetSocket();
+
+        for (int i = 0; i < 100 && channel.isOpen(); i ++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertFalse(channel.isOpen());
+        assertTrue(SteamSocket.getLeakedSockets() > leakedSockets);
+    }
+
+    private SelectableChannel openAndForgetSocket() throws Exception {
+        return new SourceSocket(InetAddress.getLoopbackAddress(), 27015).channel;
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class SocketPoolTest {
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        SocketPool pool = new SocketPool(2, 0);
+        QuerySocket socket1 = mock(QuerySocket.class);
+        QuerySocket socket2 = mock(QuerySocket.class);
+        QuerySocket socket3 = mock(QuerySocket.class);
+
+        pool.touch(socket1);
+        pool.touch(socket2);
+        pool.touch(socket1);
+        pool.touch(socket3);
+
+        assertEquals(2, pool.size());
+        assertEquals(1, pool.getEvictions());
+        verify(socket2).close();
+        verify(socket1, never()).close();
+        verify(socket3, never()).close();
+    }
+
+    @Test
+    public void testEvictIdle() throws Exception {
+        SocketPool pool = new SocketPool(10, 20);
+        QuerySocket socket1 = mock(QuerySocket.class);
+        QuerySocket socket2 = mock(QuerySocket.class);
+
+        pool.touch(socket1);
+        Thread.sleep(50);
+        pool.touch(socket2);
+
+        assertEquals(1, pool.size());
+        verify(socket1).close();
+        verify(socket2, never()).close();
+
+        Thread.sleep(50);
+        pool.evictIdle();
+
+        assertEquals(0, pool.size());
+        assertEquals(2, pool.getEvictions());
+        verify(socket2).close();
+    }
+
+    @Test
+    public void testSkipSocketsInUse() throws Exception {
+        SocketPool pool = new SocketPool(1, 20);
+        QuerySocket socket1 = mock(QuerySocket.class);
+        QuerySocket socket2 = mock(QuerySocket.class);
+
+        pool.acquire(socket1);
+        Thread.sleep(50);
+        pool.touch(socket2);
+
+        assertEquals(2, pool.size());
+        verify(socket1, never()).close();
+
+        pool.release(socket1);
+        pool.evictIdle();
+        assertEquals(2, pool.size());
+
+        QuerySocket socket3 = mock(QuerySocket.class);
+        pool.touch(socket3);
+
+        assertEquals(1, pool.size());
+        verify(socket1).close();
+        verify(socket2).close();
+    }
+
+    @Test
+    public void testCountPendingReplies() {
+        SocketPool pool = new SocketPool(1, 0);
+        QuerySocket socket1 = mock(QuerySocket.class);
+
+        pool.acquire(socket1);
+        pool.acquire(socket1);
+        pool.release(socket1);
+        pool.touch(mock(QuerySocket.class));
+
+        verify(socket1, never()).close();
+
+        pool.release(socket1);
+        pool.touch(mock(QuerySocket.class));
+
+        verify(socket1).close();
+    }
+
+    @Test
+    public void testReleaseAll() {
+        SocketPool pool = new SocketPool(1, 0);
+        QuerySocket socket1 = mock(QuerySocket.class);
+
+        pool.acquire(socket1);
+        pool.acquire(socket1);
+        pool.releaseAll(socket1);
+        pool.touch(mock(QuerySocket.class));
+
+        verify(socket1).close();
+    }
+
+    @Test
+    public void testRemove() {
+        SocketPool pool = new SocketPool(1, 0);
+        QuerySocket socket1 = mock(QuerySocket.class);
+        QuerySocket socket2 = mock(QuerySocket.class);
+
+        pool.touch(socket1);
+        pool.remove(socket1);
+        pool.touch(socket2);
+
+        assertEquals(1, pool.size());
+        assertEquals(0, pool.getEvictions());
+        verify(socket1, never()).close();
+    }
+
+    @Test
+    public void testClear() {
+        SocketPool pool = new SocketPool(10, 0);
+        QuerySocket socket = mock(QuerySocket.class);
+
+        pool.touch(socket);
+        pool.clear();
+
+        assertEquals(0, pool.size());
+        verify(socket).close();
+    }
+
+}
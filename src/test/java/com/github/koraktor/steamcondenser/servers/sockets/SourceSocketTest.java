@@ -9,7 +9,6 @@ package com.github.koraktor.steamcondenser.servers.sockets;
 
 import java.net.InetAddress;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -24,8 +23,8 @@ import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacketFactory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Matchers.refEq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.powermock.api.mockito.PowerMockito.doAnswer;
@@ -53,7 +52,7 @@ public class SourceSocketTest {
 
     @Test
     public void testSinglePacketReply() throws Exception {
-        when(SteamPacketFactory.getPacketFromData("test".getBytes())).thenReturn(this.packet);
+        when(SteamPacketFactory.getPacketFromData(ByteBuffer.wrap("test".getBytes()))).thenReturn(this.packet);
 
         doAnswer(new Answer<Integer>() {
             public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
@@ -66,12 +65,36 @@ public class SourceSocketTest {
         assertEquals(this.packet, this.socket.getReply());
     }
 
+    @Test
+    public void testReplyReleasesPooledBuffer() throws Exception {
+        when(SteamPacketFactory.getPacketFromData(ByteBuffer.wrap("test".getBytes()))).thenReturn(this.packet);
+
+        final BufferPool bufferPool = new BufferPool(16, 1, false);
+        this.socket.bufferPool = bufferPool;
+
+        doAnswer(new Answer<Integer>() {
+            public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
+                SourceSocket socket = (SourceSocket) invocationOnMock.getMock();
+                socket.receiveBuffer = bufferPool.acquire();
+                socket.receiveBuffer.put(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 't', 'e', 's', 't' });
+                socket.receiveBuffer.flip();
+                socket.buffer = socket.receiveBuffer;
+                return 8;
+            }
+        }).when(this.socket).receivePacket(1400);
+
+        assertEquals(this.packet, this.socket.getReply());
+        assertNull(this.socket.receiveBuffer);
+        assertEquals(1, bufferPool.getFreeBuffers());
+
+        assertEquals(this.packet, this.socket.getReply());
+        assertEquals(1, bufferPool.getAllocatedBuffers());
+        assertEquals(1, bufferPool.getFreeBuffers());
+    }
+
     @Test
     public void testSplitPacketReply() throws Exception {
-        ArrayList<byte[]> packets = new ArrayList<>();
-        packets.add("test".getBytes());
-        packets.add("test".getBytes());
-        when(SteamPacketFactory.reassemblePacket(refEq(packets))).thenReturn(this.packet);
+        when(SteamPacketFactory.reassemblePacket(eq(ByteBuffer.wrap("testtest".getBytes())), eq(false), eq(0), eq(0))).thenReturn(this.packet);
 
         doAnswer(new Answer<Integer>() {
             public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
@@ -93,10 +116,7 @@ public class SourceSocketTest {
 
     @Test
     public void testCompressedReply() throws Exception {
-        ArrayList<byte[]> packets = new ArrayList<>();
-        packets.add("test".getBytes());
-        packets.add("test".getBytes());
-        when(SteamPacketFactory.reassemblePacket(refEq(packets), eq(true), eq(8), eq(1337))).thenReturn(this.packet);
+        when(SteamPacketFactory.reassemblePacket(eq(ByteBuffer.wrap("testtest".getBytes())), eq(true), eq(8), eq(1337))).thenReturn(this.packet);
 
         doAnswer(new Answer<Integer>() {
             public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
@@ -108,7 +128,7 @@ public class SourceSocketTest {
         doAnswer(new Answer<Integer>() {
             public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
                 SourceSocket socket = (SourceSocket) invocationOnMock.getMock();
-                socket.buffer = ByteBuffer.wrap(new byte[]{(byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xD2, 0x4, 0x0, (byte) 0x80, 0x2, 0x1, 0x8, 0x0, 0x0, 0x0, 0x39, 0x5, 0x0, 0x0, 't', 'e', 's', 't'});
+                socket.buffer = ByteBuffer.wrap(new byte[]{(byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xD2, 0x4, 0x0, (byte) 0x80, 0x2, 0x1, 't', 'e', 's', 't'});
                 return 1400;
             }
         }).when(this.socket).receivePacket();
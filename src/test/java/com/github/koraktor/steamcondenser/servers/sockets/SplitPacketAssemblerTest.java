@@ -0,0 +1,156 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.steamcondenser.servers.sockets;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.koraktor.steamcondenser.exceptions.PacketFormatException;
+import com.github.koraktor.steamcondenser.servers.packets.S2C_CHALLENGE_Packet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Sebastian Staudt
+ */
+public class SplitPacketAssemblerTest {
+
+    private static final byte[] DATA = new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x41, (byte) 0xD2, 0x4, 0x0, 0x0 };
+
+    private SplitPacketAssembler assembler;
+
+    @Before
+    public void setup() {
+        this.assembler = new SplitPacketAssembler(false);
+    }
+
+    @Test
+    public void testOutOfOrder() throws Exception {
+        assertNull(this.assembler.addFragment(this.fragment(1, 2)));
+        assertNull(this.assembler.addFragment(this.fragment(1, 0)));
+        assertEquals(1, this.assembler.getPendingPackets());
+
+        S2C_CHALLENGE_Packet packet = (S2C_CHALLENGE_Packet) this.assembler.addFragment(this.fragment(1, 1));
+
+        assertEquals(1234, packet.getChallengeNumber());
+        assertEquals(0, this.assembler.getPendingPackets());
+    }
+
+    @Test
+    public void testInterleaved() throws Exception {
+        assertNull(this.assembler.addFragment(this.fragment(1, 0)));
+        assertNull(this.assembler.addFragment(this.fragment(2, 2)));
+        assertNull(this.assembler.addFragment(this.fragment(2, 1)));
+        assertNull(this.assembler.addFragment(this.fragment(1, 1)));
+        assertEquals(2, this.assembler.getPendingPackets());
+
+        assertEquals(1234, ((S2C_CHALLENGE_Packet) this.assembler.addFragment(this.fragment(2, 0))).getChallengeNumber());
+        assertEquals(1234, ((S2C_CHALLENGE_Packet) this.assembler.addFragment(this.fragment(1, 2))).getChallengeNumber());
+        assertEquals(0, this.assembler.getPendingPackets());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        this.assembler.setExpiry(0);
+
+        assertNull(this.assembler.addFragment(this.fragment(1, 0)));
+        assertNull(this.assembler.addFragment(this.fragment(1, 1)));
+        Thread.sleep(5);
+
+        assertNull(this.assembler.addFragment(this.fragment(1, 2)));
+        assertEquals(1, this.assembler.getPendingPackets());
+    }
+
+    @Test
+    public void testGoldSrc() throws Exception {
+        this.assembler = new SplitPacketAssembler(true);
+
+        ByteBuffer fragment1 = ByteBuffer.wrap(new byte[] { 0x1, 0x0, 0x0, 0x0, 0x12, 0x41, (byte) 0xD2, 0x4, 0x0, 0x0 });
+        ByteBuffer fragment0 = ByteBuffer.wrap(new byte[] { 0x1, 0x0, 0x0, 0x0, 0x02, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF });
+
+        assertNull(this.assembler.addFragment(fragment1));
+        S2C_CHALLENGE_Packet packet = (S2C_CHALLENGE_Packet) this.assembler.addFragment(fragment0);
+
+        assertEquals(1234, packet.getChallengeNumber());
+    }
+
+    @Test(expected = PacketFormatException.class)
+    public void testInvalidPacketNumber() throws Exception {
+        this.assembler.addFragment(ByteBuffer.wrap(new byte[] { 0x1, 0x0, 0x0, 0x0, 0x2, 0x2, 0x4, 0x0 }));
+    }
+
+    @Test(expected = PacketFormatException.class)
+    public void testSplitSizeTooLarge() throws Exception {
+        this.assembler.addFragment(ByteBuffer.wrap(new byte[] { 0x1, 0x0, 0x0, 0x0, 0x2, 0x0, (byte) 0xFF, (byte) 0xFF }));
+    }
+
+    @Test(expected = PacketFormatException.class)
+    public void testPacketCountTooLarge() throws Exception {
+        this.assembler.addFragment(ByteBuffer.wrap(new byte[] { 0x1, 0x0, 0x0, 0x0, (byte) 0xFF, 0x0, 0x4, 0x0 }));
+    }
+
+    @Test
+    public void testCompressedOutOfOrder() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        BZip2CompressorOutputStream bzip2 = new BZip2CompressorOutputStream(compressed);
+        bzip2.write(DATA);
+        bzip2.close();
+        byte[] compressedData = compressed.toByteArray();
+        int firstLength = compressedData.length / 2;
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(DATA);
+
+        ByteBuffer fragment1 = ByteBuffer.allocate(6 + compressedData.length - firstLength);
+        fragment1.putInt(Integer.reverseBytes(0x80000001));
+        fragment1.put((byte) 2);
+        fragment1.put((byte) 1);
+        fragment1.put(Arrays.copyOfRange(compressedData, firstLength, compressedData.length));
+        fragment1.flip();
+
+        ByteBuffer fragment0 = ByteBuffer.allocate(14 + firstLength);
+        fragment0.putInt(Integer.reverseBytes(0x80000001));
+        fragment0.put((byte) 2);
+        fragment0.put((byte) 0);
+        fragment0.putInt(Integer.reverseBytes(DATA.length));
+        fragment0.putInt(Integer.reverseBytes((int) crc32.getValue()));
+        fragment0.put(compressedData, 0, firstLength);
+        fragment0.flip();
+
+        assertNull(this.assembler.addFragment(fragment1));
+        S2C_CHALLENGE_Packet packet = (S2C_CHALLENGE_Packet) this.assembler.addFragment(fragment0);
+
+        assertEquals(1234, packet.getChallengeNumber());
+    }
+
+    /**
+     * Builds a fragment of the test data split into packets of four bytes
+     */
+    private ByteBuffer fragment(int requestId, int packetNumber) {
+        int offset = packetNumber * 4;
+        int length = Math.min(4, DATA.length - offset);
+        ByteBuffer fragment = ByteBuffer.allocate(8 + length);
+        fragment.putInt(Integer.reverseBytes(requestId));
+        fragment.put((byte) 3);
+        fragment.put((byte) packetNumber);
+        fragment.putShort(Short.reverseBytes((short) 4));
+        fragment.put(DATA, offset, length);
+        fragment.flip();
+
+        return fragment;
+    }
+
+}
@@ -8,6 +8,7 @@ package com.github.koraktor.steamcondenser.servers.sockets;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
@@ -29,6 +30,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import com.github.koraktor.steamcondenser.servers.packets.SteamPacket;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,7 +41,7 @@ import static org.powermock.api.mockito.PowerMockito.mockStatic;
  * @author Sebastian Staudt
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest(SteamSocket.class)
+@PrepareForTest({ SteamSocket.class, ThreadSupport.class })
 public class SteamSocketTest {
 
     @Rule
@@ -68,6 +70,8 @@ public class SteamSocketTest {
 
     @Test
     public void testReceiveIntoNewBuffer() throws Exception {
+        this.socket.bufferPool = null;
+
         Selector selector = mock(Selector.class);
         when(selector.select(SteamSocket.timeout)).thenReturn(1);
         mockStatic(Selector.class);
@@ -92,6 +96,8 @@ public class SteamSocketTest {
 
     @Test
     public void testReceiveIntoExistingBuffer() throws Exception {
+        this.socket.bufferPool = null;
+
         Selector selector = mock(Selector.class);
         when(selector.select(SteamSocket.timeout)).thenReturn(1);
         mockStatic(Selector.class);
@@ -116,6 +122,66 @@ public class SteamSocketTest {
         assertEquals("test", new String(buffer.array()));
     }
 
+    @Test
+    public void testReceiveIntoPooledBuffer() throws Exception {
+        BufferPool bufferPool = new BufferPool(10, 1, false);
+        this.socket.bufferPool = bufferPool;
+
+        Selector selector = mock(Selector.class);
+        when(selector.select(SteamSocket.timeout)).thenReturn(1);
+        mockStatic(Selector.class);
+        when(Selector.open()).thenReturn(selector);
+        when(this.channel.register(selector, SelectionKey.OP_READ)).thenReturn(null);
+
+        final SteamSocket socket = this.socket;
+        when(this.channel.read(any(ByteBuffer.class))).thenAnswer(new Answer<Integer>() {
+            public Integer answer(InvocationOnMock invocationOnMock) throws Throwable {
+                socket.buffer.put("test".getBytes());
+                return 4;
+            }
+        });
+
+        assertEquals(4, this.socket.receivePacket(4));
+        ByteBuffer buffer = this.socket.buffer;
+        assertEquals(4, this.socket.receivePacket(4));
+
+        assertSame(buffer, this.socket.buffer);
+        assertEquals(0, buffer.position());
+        assertEquals(4, buffer.limit());
+        assertEquals(1, bufferPool.getAllocatedBuffers());
+
+        this.socket.close();
+
+        assertEquals(1, bufferPool.getFreeBuffers());
+        assertSame(buffer, bufferPool.acquire());
+    }
+
+    @Test
+    public void testReceiveBlockingOnVirtualThread() throws Exception {
+        mockStatic(ThreadSupport.class);
+        when(ThreadSupport.isVirtualThread()).thenReturn(true);
+
+        DatagramChannel server = DatagramChannel.open();
+        try {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            this.socket.channel = DatagramChannel.open();
+            this.socket.channel.configureBlocking(false);
+            ((DatagramChannel) this.socket.channel).connect(server.getLocalAddress());
+            server.send(ByteBuffer.wrap("test".getBytes()), ((DatagramChannel) this.socket.channel).getLocalAddress());
+
+            assertEquals(4, this.socket.receivePacket(10));
+
+            ByteBuffer buffer = this.socket.buffer;
+            assertEquals(0, buffer.position());
+            assertEquals(4, buffer.limit());
+            assertEquals("test", new String(buffer.array(), 0, 4));
+            assertEquals(false, this.socket.channel.isBlocking());
+        } finally {
+            this.socket.channel.close();
+            server.close();
+        }
+    }
+
     @Test
     public void testSetTimeout() {
         SteamSocket.setTimeout(2000);